@@ -0,0 +1,111 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.database;
+
+import static org.junit.Assert.assertEquals;
+
+import android.database.Cursor;
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.IOException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Runs the migrations on databases created from the exported schemas in app/schemas and checks
+ * the result against the schema of the target version.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseMigrationsTest {
+
+  private final static String TEST_DB = "migration-test";
+  private final static int LATEST_VERSION = 59;
+
+  @Rule
+  public MigrationTestHelper helper = new MigrationTestHelper(
+      InstrumentationRegistry.getInstrumentation(),
+      AppDatabase.class
+  );
+
+  @Test
+  public void migrateFirstToLatest() throws IOException {
+    try (SupportSQLiteDatabase db = helper.createDatabase(
+        TEST_DB, DatabaseMigrations.FIRST_MIGRATED_VERSION
+    )) {
+      db.execSQL("INSERT INTO stored_purchase_table (pending_product_id, amount) "
+          + "VALUES (1, '2')");
+      db.execSQL("INSERT INTO product_table (id, name) VALUES (1, 'Milk')");
+      db.execSQL("INSERT INTO stock_item_table (product_id, amount, amount_opened, value, "
+          + "item_due, item_overdue, item_expired, item_missing, "
+          + "item_missing_partly_in_stock) VALUES (1, '2', '1', '3.5', 0, 0, 0, 0, 0)");
+    }
+    try (SupportSQLiteDatabase db = helper.runMigrationsAndValidate(
+        TEST_DB, LATEST_VERSION, true, DatabaseMigrations.ALL
+    )) {
+      assertEquals(1, count(db, "stored_purchase_table"));
+      // the stock status is filled from the stock which is already stored
+      try (Cursor cursor = db.query("SELECT in_stock, opened, value FROM stock_status_table "
+          + "WHERE product_id = 1")) {
+        assertEquals(1, cursor.getCount());
+        cursor.moveToFirst();
+        assertEquals(1, cursor.getInt(0));
+        assertEquals(1, cursor.getInt(1));
+        assertEquals(3.5, cursor.getDouble(2), 0);
+      }
+    }
+
+    // opening with Room also checks the identity hash and creates the search triggers
+    AppDatabase appDatabase = Room.databaseBuilder(
+        InstrumentationRegistry.getInstrumentation().getTargetContext(),
+        AppDatabase.class,
+        TEST_DB
+    ).addMigrations(DatabaseMigrations.ALL).addCallback(new RoomDatabase.Callback() {
+      @Override
+      public void onOpen(@NonNull SupportSQLiteDatabase db) {
+        ProductSearchIndex.createTriggers(db);
+      }
+    }).build();
+    assertEquals(LATEST_VERSION, appDatabase.getOpenHelper().getWritableDatabase().getVersion());
+    appDatabase.close();
+  }
+
+  @Test
+  public void migrationsCoverEveryVersion() {
+    int version = DatabaseMigrations.FIRST_MIGRATED_VERSION;
+    for (Migration migration : DatabaseMigrations.ALL) {
+      assertEquals(version, migration.startVersion);
+      version = migration.endVersion;
+    }
+    assertEquals(LATEST_VERSION, version);
+  }
+
+  private static int count(SupportSQLiteDatabase db, String table) {
+    try (Cursor cursor = db.query("SELECT COUNT(*) FROM " + table)) {
+      cursor.moveToFirst();
+      return cursor.getInt(0);
+    }
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+import com.android.volley.toolbox.HurlStack;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Downloads the same product list from a local server through HurlStack and OkHttpStack and
+ * prints the transferred bytes and the median time until the body was read. The server sends
+ * the body with gzip only if the stack asks for it, like a grocy server behind a web server.
+ * Runs on a device, because HurlStack uses the HttpURLConnection of the platform.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HttpStackComparisonTest {
+
+  private final static int PRODUCT_COUNT = 2000;
+  private final static int WARMUP_RUNS = 5;
+  private final static int MEASURED_RUNS = 20;
+
+  private MockWebServer server;
+  private byte[] json;
+  private byte[] gzippedJson;
+  private final AtomicLong servedBytes = new AtomicLong();
+
+  @Before
+  public void setUp() throws IOException {
+    json = createProductsJson().getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+      gzip.write(json);
+    }
+    gzippedJson = gzipped.toByteArray();
+
+    server = new MockWebServer();
+    server.setDispatcher(new Dispatcher() {
+      @NonNull
+      @Override
+      public MockResponse dispatch(@NonNull RecordedRequest request) {
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        byte[] body = gzip ? gzippedJson : json;
+        servedBytes.set(body.length);
+        MockResponse response = new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody(new Buffer().write(body));
+        return gzip ? response.setHeader("Content-Encoding", "gzip") : response;
+      }
+    });
+    server.start();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  @Test
+  public void compareStacks() throws IOException, AuthFailureError {
+    Result hurl = measure(new HurlStack(), null);
+    WireBytes wireBytes = new WireBytes();
+    Result okHttp = measure(new OkHttpStack(RequestQueueSingleton.getOkHttpClient()), wireBytes);
+
+    // OkHttp asks for gzip and counts the body before it is decompressed
+    assertEquals(gzippedJson.length, okHttp.bytes);
+    assertEquals(okHttp.bytes, wireBytes.get());
+    assertTrue(okHttp.bytes <= hurl.bytes);
+
+    System.out.printf(
+        Locale.ENGLISH,
+        "%d products, %d bytes uncompressed%n"
+            + "HurlStack: %d bytes, median %.1f ms%n"
+            + "OkHttpStack: %d bytes, median %.1f ms%n",
+        PRODUCT_COUNT, json.length,
+        hurl.bytes, hurl.medianNanos / 1e6,
+        okHttp.bytes, okHttp.medianNanos / 1e6
+    );
+  }
+
+  private Result measure(BaseHttpStack stack, @Nullable WireBytes wireBytes)
+      throws IOException, AuthFailureError {
+    String url = server.url("/api/objects/products").toString();
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      download(stack, url, wireBytes);
+    }
+    long[] nanos = new long[MEASURED_RUNS];
+    for (int i = 0; i < MEASURED_RUNS; i++) {
+      long startedAt = System.nanoTime();
+      byte[] body = download(stack, url, wireBytes);
+      nanos[i] = System.nanoTime() - startedAt;
+      // both stacks have to deliver the decompressed body
+      assertArrayEquals(json, body);
+    }
+    Arrays.sort(nanos);
+    return new Result(servedBytes.get(), nanos[MEASURED_RUNS / 2]);
+  }
+
+  private static byte[] download(
+      BaseHttpStack stack,
+      String url,
+      @Nullable WireBytes wireBytes
+  ) throws IOException, AuthFailureError {
+    CustomStringRequest request = new CustomStringRequest(
+        Request.Method.GET, url, null, null, response -> {}, null, 10, null
+    );
+    request.setWireBytes(wireBytes);
+    HttpResponse response = stack.executeRequest(request, Collections.emptyMap());
+    assertEquals(200, response.getStatusCode());
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    try (InputStream content = response.getContent()) {
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = content.read(buffer)) != -1) {
+        body.write(buffer, 0, read);
+      }
+    }
+    return body.toByteArray();
+  }
+
+  // fields of the products endpoint, the repeating keys make it compress like the real list
+  private static String createProductsJson() {
+    StringBuilder builder = new StringBuilder("[");
+    for (int i = 1; i <= PRODUCT_COUNT; i++) {
+      if (i > 1) {
+        builder.append(',');
+      }
+      builder.append(String.format(
+          Locale.ENGLISH,
+          "{\"id\":%d,\"name\":\"Product %d\",\"description\":null,\"product_group_id\":%d,"
+              + "\"active\":1,\"location_id\":%d,\"shopping_location_id\":null,"
+              + "\"qu_id_purchase\":2,\"qu_id_stock\":2,\"min_stock_amount\":\"%d\","
+              + "\"default_best_before_days\":%d,\"default_best_before_days_after_open\":0,"
+              + "\"picture_file_name\":null,\"enable_tare_weight_handling\":0,"
+              + "\"tare_weight\":\"0.0\",\"not_check_stock_fulfillment_for_recipes\":0,"
+              + "\"parent_product_id\":null,\"calories\":\"%d\",\"cumulate_min_stock_amount"
+              + "_of_sub_products\":0,\"due_type\":1,\"quick_consume_amount\":\"1.0\","
+              + "\"hide_on_stock_overview\":0,\"row_created_timestamp\":"
+              + "\"2023-%02d-%02d 12:00:00\"}",
+          i, i, i % 12, i % 7, i % 5, i % 30, i * 13 % 900, 1 + i % 12, 1 + i % 28
+      ));
+    }
+    return builder.append(']').toString();
+  }
+
+  private static class Result {
+
+    final long bytes;
+    final long medianNanos;
+
+    Result(long bytes, long medianNanos) {
+      this.bytes = bytes;
+      this.medianNanos = medianNanos;
+    }
+  }
+}
@@ -118,6 +118,13 @@ public final class Constants {
     public final static String DB_LAST_TIME_MEAL_PLAN_SECTIONS = "db_last_time_meal_plan_sections";
     // when adding new constant for DB, also add it to clearCachingRelatedSharedPreferences()
     // in PrefsUtil
+    public final static String DB_LAST_TIME_PREFIX = "db_last_time_";
+    public final static String DB_FINGERPRINT_SUFFIX = "_fingerprint";
+    public final static String BACKGROUND_SYNC_TIME_PREFIX = "background_sync_time_";
+    // database file whose sync state is currently in the default preferences
+    public final static String ACTIVE_DATABASE = "active_database";
+    // database file which is deleted before the next database is opened
+    public final static String DATABASE_TO_REMOVE = "database_to_remove";
 
     public final static String QUICK_MODE_ACTIVE_CONSUME = "quick_mode_active_consume";
     public final static String QUICK_MODE_ACTIVE_PURCHASE = "quick_mode_active_purchase";
@@ -158,6 +165,7 @@ public final class Constants {
 
       public final static String LOADING_CIRCLE = "loading_circle";
       public final static String LOADING_TIMEOUT = "loading_timeout";
+      public final static String OKHTTP = "okhttp";
       public final static String TOR = "tor";
       public final static String PROXY = "proxy";
       public final static String PROXY_HOST = "proxy_host";
@@ -263,6 +271,7 @@ public final class Constants {
 
       public final static int LOADING_TIMEOUT = 30;
       public final static boolean LOADING_CIRCLE = false;
+      public final static boolean OKHTTP = true;
       public final static boolean TOR = false;
       public final static boolean PROXY = false;
       public final static String PROXY_HOST = "127.0.0.1";
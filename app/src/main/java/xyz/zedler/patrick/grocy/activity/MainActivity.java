@@ -63,10 +63,12 @@ import androidx.core.content.res.ResourcesCompat;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.interpolator.view.animation.FastOutSlowInInterpolator;
+import androidx.lifecycle.LiveData;
 import androidx.preference.PreferenceManager;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 import com.google.android.material.snackbar.Snackbar;
 import java.lang.reflect.Field;
+import java.util.List;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.ARGUMENT;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS;
@@ -79,10 +81,13 @@ import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.behavior.BottomScrollBehavior;
 import xyz.zedler.patrick.grocy.behavior.SystemBarBehavior;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.DatabaseProfiles;
 import xyz.zedler.patrick.grocy.databinding.ActivityMainBinding;
 import xyz.zedler.patrick.grocy.fragment.BaseFragment;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.FeedbackBottomSheet;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.MutationOutbox;
+import xyz.zedler.patrick.grocy.model.PendingMutation;
 import xyz.zedler.patrick.grocy.util.ClickUtil;
 import xyz.zedler.patrick.grocy.util.ConfigUtil;
 import xyz.zedler.patrick.grocy.util.HapticUtil;
@@ -96,6 +101,7 @@ import xyz.zedler.patrick.grocy.util.UiUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.util.ViewUtil;
 import xyz.zedler.patrick.grocy.web.OrbotHelper;
+import xyz.zedler.patrick.grocy.worker.SyncWorker;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -115,6 +121,7 @@ public class MainActivity extends AppCompatActivity {
   private OnBackPressedDispatcher dispatcher;
   private boolean runAsSuperClass;
   private boolean debug;
+  private LiveData<List<PendingMutation>> mutationConflictsLive;
 
   @Override
   protected void onCreate(Bundle savedInstanceState) {
@@ -258,17 +265,20 @@ public class MainActivity extends AppCompatActivity {
           () -> VersionUtil.showCompatibilityBottomSheetIfNecessary(this, sharedPrefs),
           null
       );
+      startServerSync();
     }
 
     if (VersionUtil.isAppUpdated(sharedPrefs)) {
       // Show changelog if app was updated
       VersionUtil.showChangelogBottomSheet(this);
       PrefsUtil.clearCachingRelatedSharedPreferences(sharedPrefs);
+      DatabaseProfiles.clearInactiveSyncStates(this);
     } else {
       // Check if database scheme was updated and clear caching data if necessary
       AppDatabase.getAppDatabase(getApplication()).getVersion(version -> {
         if (VersionUtil.isDatabaseUpdated(sharedPrefs, version)) {
           PrefsUtil.clearCachingRelatedSharedPreferences(sharedPrefs);
+          DatabaseProfiles.clearInactiveSyncStates(this);
         }
       });
     }
@@ -293,6 +303,15 @@ public class MainActivity extends AppCompatActivity {
     super.onPause();
   }
 
+  @Override
+  protected void onStop() {
+    if (!runAsSuperClass && !PrefsUtil.isServerUrlEmpty(sharedPrefs)) {
+      // refresh cache in background, so the next start can show fresh data immediately
+      SyncWorker.scheduleSyncOnConnectivity(this);
+    }
+    super.onStop();
+  }
+
   @Override
   protected void onResume() {
     super.onResume();
@@ -477,6 +496,37 @@ public class MainActivity extends AppCompatActivity {
     snackbar.show();
   }
 
+  // called on start and after the first login, which does not restart the activity
+  public void startServerSync() {
+    SyncWorker.schedulePeriodicSync(this);
+    if (mutationConflictsLive != null) {
+      mutationConflictsLive.removeObservers(this);
+    }
+    mutationConflictsLive = MutationOutbox.getInstance(this).getConflictsLive();
+    mutationConflictsLive.observe(this, this::showMutationConflicts);
+  }
+
+  private void showMutationConflicts(List<PendingMutation> conflicts) {
+    if (conflicts == null || conflicts.isEmpty()) {
+      return;
+    }
+    PendingMutation conflict = conflicts.get(0);
+    String error = conflict.getDescription() != null
+        ? conflict.getDescription() + ": " + conflict.getError()
+        : conflict.getError();
+    Snackbar snackbar = getSnackbar(getString(
+        conflict.getState() == PendingMutation.STATE_UNKNOWN
+            ? R.string.msg_offline_change_unknown
+            : R.string.msg_offline_change_rejected,
+        error
+    ), true);
+    snackbar.setAction(
+        R.string.action_discard,
+        v -> MutationOutbox.getInstance(this).discardConflicts()
+    );
+    showSnackbar(snackbar);
+  }
+
   public void showSnackbar(String msg, boolean showLong) {
     showSnackbar(getSnackbar(msg, showLong));
   }
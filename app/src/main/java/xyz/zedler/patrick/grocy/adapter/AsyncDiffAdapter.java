@@ -0,0 +1,127 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+import androidx.recyclerview.widget.RecyclerView;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import xyz.zedler.patrick.grocy.model.GroupHeader;
+
+/**
+ * Adapter which calculates the differences of list updates on a background thread.
+ * <p>
+ * Subclasses build a DiffUtil.Callback from their current and the new data and pass it to
+ * {@link #submitDiff}, together with a Runnable which swaps the new data into the adapter. The
+ * data read by the callback must not be modified afterwards, so subclasses replace their
+ * collections with fresh copies instead of clearing and refilling them. If newer data is
+ * submitted before a diff is finished, the older result is dropped.
+ */
+public abstract class AsyncDiffAdapter<VH extends RecyclerView.ViewHolder>
+    extends RecyclerView.Adapter<VH> {
+
+  // diffs with less items are calculated directly because they are faster than a thread switch
+  private final static int MIN_ITEMS_ASYNC = 50;
+  // stable ids of rows which are no entity, the highest bit keeps them apart from entity ids
+  protected final static long ID_BOTTOM_NOTES = Long.MIN_VALUE | (1L << 32);
+
+  private int diffGeneration;
+  private Disposable diffDisposable;
+  private Runnable pendingApplyData;
+
+  // entity ids as unsigned int, so negative ids of offline rows are never RecyclerView.NO_ID
+  protected static long getEntityItemId(int id) {
+    return id & 0xffffffffL;
+  }
+
+  protected static long getGroupHeaderItemId(GroupHeader groupHeader) {
+    return Long.MIN_VALUE | (groupHeader.getGroupName().hashCode() & 0xffffffffL);
+  }
+
+  protected void submitDiff(
+      @NonNull DiffUtil.Callback callback,
+      @NonNull Runnable applyData,
+      @Nullable ListUpdateCallback updateCallback
+  ) {
+    int generation = ++diffGeneration;
+    cancelPendingDiff();
+    int oldSize = callback.getOldListSize();
+    int newSize = callback.getNewListSize();
+    if (oldSize == 0 || newSize == 0 || oldSize + newSize < MIN_ITEMS_ASYNC) {
+      dispatchDiff(DiffUtil.calculateDiff(callback), applyData, updateCallback);
+      return;
+    }
+    pendingApplyData = applyData;
+    diffDisposable = Single.fromCallable(() -> DiffUtil.calculateDiff(callback))
+        .subscribeOn(Schedulers.computation())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(diffResult -> {
+          if (generation == diffGeneration) {
+            dispatchDiff(diffResult, applyData, updateCallback);
+          }
+        }, throwable -> {
+          if (generation == diffGeneration) {
+            pendingApplyData = null;
+            applyData.run();
+            notifyDataSetChanged();
+          }
+        });
+  }
+
+  private void dispatchDiff(
+      DiffUtil.DiffResult diffResult,
+      Runnable applyData,
+      @Nullable ListUpdateCallback updateCallback
+  ) {
+    pendingApplyData = null;
+    applyData.run();
+    if (updateCallback != null) {
+      diffResult.dispatchUpdatesTo(updateCallback);
+    } else {
+      diffResult.dispatchUpdatesTo(this);
+    }
+  }
+
+  private void cancelPendingDiff() {
+    if (diffDisposable != null) {
+      diffDisposable.dispose();
+      diffDisposable = null;
+    }
+    pendingApplyData = null;
+  }
+
+  @Override
+  public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+    super.onDetachedFromRecyclerView(recyclerView);
+    // nothing to animate anymore, but the adapter should hold the latest data if it is reused
+    Runnable applyData = pendingApplyData;
+    cancelPendingDiff();
+    if (applyData != null) {
+      diffGeneration++;
+      applyData.run();
+      notifyDataSetChanged();
+    }
+  }
+}
@@ -43,16 +43,16 @@ import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.ResUtil;
 
 public class ChoreEntryAdapter extends
-    RecyclerView.Adapter<ChoreEntryAdapter.ViewHolder> {
+    AsyncDiffAdapter<ChoreEntryAdapter.ViewHolder> {
 
   private final static String TAG = ChoreEntryAdapter.class.getSimpleName();
   private final static boolean DEBUG = false;
 
   private Context context;
   private final LinearLayoutManager linearLayoutManager;
-  private final ArrayList<ChoreEntry> choreEntries;
-  private final HashMap<Integer, Chore> choreHashMap;
-  private final HashMap<Integer, User> usersHashMap;
+  private ArrayList<ChoreEntry> choreEntries;
+  private HashMap<Integer, Chore> choreHashMap;
+  private HashMap<Integer, User> usersHashMap;
   private final ChoreEntryAdapterListener listener;
   private final DateUtil dateUtil;
   private String sortMode;
@@ -70,6 +70,7 @@ public class ChoreEntryAdapter extends
     this.usersHashMap = new HashMap<>();
     this.listener = listener;
     this.dateUtil = new DateUtil(context);
+    setHasStableIds(true);
   }
 
   @Override
@@ -207,6 +208,11 @@ public class ChoreEntryAdapter extends
     );
   }
 
+  @Override
+  public long getItemId(int position) {
+    return choreEntries.get(position).getId();
+  }
+
   @Override
   public int getItemCount() {
     return choreEntries.size();
@@ -232,13 +238,17 @@ public class ChoreEntryAdapter extends
       boolean sortAscending,
       Runnable onListFilled
   ) {
+    ArrayList<ChoreEntry> newChoreEntries = new ArrayList<>(newList);
+    HashMap<Integer, Chore> newChoreHashMap = new HashMap<>(choreHashMap);
+    HashMap<Integer, User> newUsersHashMap = new HashMap<>(usersHashMap);
+
     ChoreEntryAdapter.DiffCallback diffCallback = new ChoreEntryAdapter.DiffCallback(
         this.choreEntries,
-        newList,
+        newChoreEntries,
         this.choreHashMap,
-        choreHashMap,
+        newChoreHashMap,
         this.usersHashMap,
-        usersHashMap,
+        newUsersHashMap,
         this.sortMode,
         sortMode,
         this.sortAscending,
@@ -249,16 +259,13 @@ public class ChoreEntryAdapter extends
       onListFilled.run();
     }
 
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.choreEntries.clear();
-    this.choreEntries.addAll(newList);
-    this.choreHashMap.clear();
-    this.choreHashMap.putAll(choreHashMap);
-    this.usersHashMap.clear();
-    this.usersHashMap.putAll(usersHashMap);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
+    submitDiff(diffCallback, () -> {
+      this.choreEntries = newChoreEntries;
+      this.choreHashMap = newChoreHashMap;
+      this.usersHashMap = newUsersHashMap;
+      this.sortMode = sortMode;
+      this.sortAscending = sortAscending;
+    }, new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
   static class DiffCallback extends DiffUtil.Callback {
@@ -26,10 +26,10 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.load.model.LazyHeaders;
-import java.util.ArrayList;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.databinding.RowMasterItemBinding;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -38,11 +38,10 @@ import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class MasterObjectListAdapter extends
-    RecyclerView.Adapter<MasterObjectListAdapter.ViewHolder> {
+    PagingDataAdapter<Object, MasterObjectListAdapter.ViewHolder> {
 
   private final static String TAG = MasterObjectListAdapter.class.getSimpleName();
 
-  private final ArrayList<Object> objects;
   private final MasterObjectListAdapterListener listener;
   private final String entity;
   private final GrocyApi grocyApi;
@@ -54,7 +53,7 @@ public class MasterObjectListAdapter extends
       String entity,
       MasterObjectListAdapterListener listener
   ) {
-    this.objects = new ArrayList<>();
+    super(new DiffCallback(entity));
     this.listener = listener;
     this.entity = entity;
     this.grocyApi = new GrocyApi((Application) context.getApplicationContext());
@@ -84,7 +83,8 @@ public class MasterObjectListAdapter extends
   @SuppressLint("ClickableViewAccessibility")
   @Override
   public void onBindViewHolder(@NonNull final ViewHolder holder, int position) {
-    Object object = objects.get(holder.getAdapterPosition());
+    Object object = getItem(holder.getAdapterPosition());
+    if (object == null) return;
 
     // NAME
     holder.binding.textMasterItemName.setText(ObjectUtil.getObjectName(object, entity));
@@ -118,81 +118,30 @@ public class MasterObjectListAdapter extends
     );
   }
 
-  public void updateData(ArrayList<Object> newObjects, Runnable onListFilled) {
-    DiffCallback diffCallback = new DiffCallback(
-        newObjects,
-        this.objects,
-        entity
-    );
-
-    containsPictures = false;
-    for (Object object : newObjects) {
-      if (!(object instanceof Product)) continue;
-      String pictureFileName = ((Product) object).getPictureFileName();
-      if (pictureFileName != null && !pictureFileName.isEmpty()) {
-        containsPictures = true;
-        break;
-      }
-    }
-
-    if (onListFilled != null && !newObjects.isEmpty() && objects.isEmpty()) {
-      onListFilled.run();
-    }
-
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.objects.clear();
-    this.objects.addAll(newObjects);
-    diffResult.dispatchUpdatesTo(this);
+  public void setContainsPictures(boolean containsPictures) {
+    if (this.containsPictures == containsPictures) return;
+    this.containsPictures = containsPictures;
+    notifyItemRangeChanged(0, getItemCount());
   }
 
-  static class DiffCallback extends DiffUtil.Callback {
+  static class DiffCallback extends DiffUtil.ItemCallback<Object> {
 
-    ArrayList<Object> oldItems;
-    ArrayList<Object> newItems;
-    String entity;
+    private final String entity;
 
-    public DiffCallback(
-        ArrayList<Object> newItems,
-        ArrayList<Object> oldItems,
-        String entity
-    ) {
-      this.newItems = newItems;
-      this.oldItems = oldItems;
+    public DiffCallback(String entity) {
       this.entity = entity;
     }
 
     @Override
-    public int getOldListSize() {
-      return oldItems.size();
-    }
-
-    @Override
-    public int getNewListSize() {
-      return newItems.size();
+    public boolean areItemsTheSame(@NonNull Object oldItem, @NonNull Object newItem) {
+      return ObjectUtil.getObjectId(newItem, entity) == ObjectUtil.getObjectId(oldItem, entity);
     }
 
+    @SuppressLint("DiffUtilEquals")
     @Override
-    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
-      return compare(oldItemPosition, newItemPosition, false);
+    public boolean areContentsTheSame(@NonNull Object oldItem, @NonNull Object newItem) {
+      return newItem.equals(oldItem);
     }
-
-    @Override
-    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-      return compare(oldItemPosition, newItemPosition, true);
-    }
-
-    private boolean compare(int oldItemPos, int newItemPos, boolean compareContent) {
-      Object newItem = newItems.get(newItemPos);
-      Object oldItem = oldItems.get(oldItemPos);
-      return compareContent ? newItem.equals(oldItem)
-          : ObjectUtil.getObjectId(newItem, entity)
-              == ObjectUtil.getObjectId(oldItem, entity);
-    }
-  }
-
-  @Override
-  public int getItemCount() {
-    return objects.size();
   }
 
   public interface MasterObjectListAdapterListener {
@@ -30,16 +30,22 @@ import androidx.annotation.NonNull;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.ExtractedResult;
+import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductSearch;
+import xyz.zedler.patrick.grocy.repository.ProductSearchRepository;
 
 public class MatchProductsArrayAdapter extends ArrayAdapter<Product> {
 
+  private final static int MAX_SUGGESTIONS = 50;
+  private final static int MAX_SEARCH_RESULTS = 200;
+
   final Context context;
   final int resource;
   final List<Product> items;
-  final HashMap<String, Product> tempItems;
+  final HashMap<Integer, Product> tempItems;
+  final HashMap<Integer, Product> tempPendingItems;
+  final ProductSearchRepository productSearchRepository;
 
   public MatchProductsArrayAdapter(Context context, int resource, List<Product> items) {
     super(context, resource, items);
@@ -47,10 +53,16 @@ public class MatchProductsArrayAdapter extends ArrayAdapter<Product> {
     this.resource = resource;
     this.items = items;
     tempItems = new HashMap<>(); // this makes the difference.
+    tempPendingItems = new HashMap<>();
     for (Product product : items) {
       if (product.getName() == null) continue;
-      tempItems.put(product.getName().toLowerCase(), product);
+      if (product instanceof PendingProduct) {
+        tempPendingItems.put(product.getId(), product);
+      } else {
+        tempItems.put(product.getId(), product);
+      }
     }
+    productSearchRepository = new ProductSearchRepository(context);
   }
 
   @NonNull
@@ -93,15 +105,19 @@ public class MatchProductsArrayAdapter extends ArrayAdapter<Product> {
         return new FilterResults();
       }
 
-      // Initialize suggestion list with max. capacity; growing is expensive.
-      ArrayList<Product> suggestions = new ArrayList<>(tempItems.keySet().size());
-      List<ExtractedResult> results = FuzzySearch.extractSorted(
-          constraint.toString().toLowerCase(),
-          tempItems.keySet(),
-          50
+      // runs on the worker thread of the filter, results which are not in this list are skipped
+      ArrayList<Product> suggestions = new ArrayList<>(MAX_SUGGESTIONS);
+      List<ProductSearch> results = productSearchRepository.searchBlocking(
+          constraint.toString(),
+          MAX_SEARCH_RESULTS
       );
-      for (ExtractedResult result : results) {
-        suggestions.add(tempItems.get(result.getString()));
+      for (ProductSearch result : results) {
+        Product product = result.isPending()
+            ? tempPendingItems.get(result.getProductId())
+            : tempItems.get(result.getProductId());
+        if (product == null) continue;
+        suggestions.add(product);
+        if (suggestions.size() == MAX_SUGGESTIONS) break;
       }
       FilterResults filterResults = new FilterResults();
       filterResults.values = suggestions;
@@ -67,19 +67,19 @@ import xyz.zedler.patrick.grocy.view.MaterialTimelineView;
 import xyz.zedler.patrick.grocy.viewmodel.MealPlanViewModel;
 
 public class MealPlanEntryAdapter extends
-    RecyclerView.Adapter<MealPlanEntryAdapter.ViewHolder> {
+    AsyncDiffAdapter<MealPlanEntryAdapter.ViewHolder> {
 
   private final static String TAG = MealPlanEntryAdapter.class.getSimpleName();
 
-  private final List<GroupedListItem> groupedListItems;
-  private final HashMap<Integer, Recipe> recipeHashMap;
-  private final HashMap<Integer, Product> productHashMap;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
-  private final HashMap<String, RecipeFulfillment> recipeResolvedFulfillmentHashMap;
-  private final HashMap<Integer, StockItem> stockItemHashMap;
-  private final HashMap<String, Userfield> userfieldHashMap;
-  private final List<String> activeFields;
+  private List<GroupedListItem> groupedListItems;
+  private HashMap<Integer, Recipe> recipeHashMap;
+  private HashMap<Integer, Product> productHashMap;
+  private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+  private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+  private HashMap<String, RecipeFulfillment> recipeResolvedFulfillmentHashMap;
+  private HashMap<Integer, StockItem> stockItemHashMap;
+  private HashMap<String, Userfield> userfieldHashMap;
+  private List<String> activeFields;
   private final PluralUtil pluralUtil;
   private final GrocyApi grocyApi;
   private final LazyHeaders grocyAuthHeaders;
@@ -561,48 +561,50 @@ public class MealPlanEntryAdapter extends
             || activeFields.contains(MealPlanViewModel.FIELD_ENERGY)
             || activeFields.contains(MealPlanViewModel.FIELD_FULFILLMENT))
     );
+    HashMap<Integer, Recipe> newRecipeHashMap = new HashMap<>(recipeHashMap);
+    HashMap<Integer, Product> newProductHashMap = new HashMap<>(productHashMap);
+    HashMap<Integer, QuantityUnit> newQuantityUnitHashMap = new HashMap<>(quantityUnitHashMap);
+    HashMap<Integer, ProductLastPurchased> newProductLastPurchasedHashMap
+        = new HashMap<>(productLastPurchasedHashMap);
+    HashMap<String, RecipeFulfillment> newRecipeResolvedFulfillmentHashMap
+        = new HashMap<>(recipeResolvedFulfillmentHashMap);
+    HashMap<Integer, StockItem> newStockItemHashMap = new HashMap<>(stockItemHashMap);
+    HashMap<String, Userfield> newUserfieldHashMap = new HashMap<>(userfieldHashMap);
+    List<String> newActiveFields = new ArrayList<>(activeFields);
+
     DiffCallback diffCallback = new DiffCallback(
         this.groupedListItems,
         newGroupedListItems,
         this.recipeHashMap,
-        recipeHashMap,
+        newRecipeHashMap,
         this.productHashMap,
-        productHashMap,
+        newProductHashMap,
         this.quantityUnitHashMap,
-        quantityUnitHashMap,
+        newQuantityUnitHashMap,
         this.productLastPurchasedHashMap,
-        productLastPurchasedHashMap,
+        newProductLastPurchasedHashMap,
         this.recipeResolvedFulfillmentHashMap,
-        recipeResolvedFulfillmentHashMap,
+        newRecipeResolvedFulfillmentHashMap,
         this.stockItemHashMap,
-        stockItemHashMap,
+        newStockItemHashMap,
         this.userfieldHashMap,
-        userfieldHashMap,
+        newUserfieldHashMap,
         this.activeFields,
-        activeFields,
+        newActiveFields,
         date
     );
 
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.recipeHashMap.clear();
-    this.recipeHashMap.putAll(recipeHashMap);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.recipeResolvedFulfillmentHashMap.clear();
-    this.recipeResolvedFulfillmentHashMap.putAll(recipeResolvedFulfillmentHashMap);
-    this.stockItemHashMap.clear();
-    this.stockItemHashMap.putAll(stockItemHashMap);
-    this.userfieldHashMap.clear();
-    this.userfieldHashMap.putAll(userfieldHashMap);
-    this.activeFields.clear();
-    this.activeFields.addAll(activeFields);
-    diffResult.dispatchUpdatesTo(this);
+    submitDiff(diffCallback, () -> {
+      this.groupedListItems = newGroupedListItems;
+      this.recipeHashMap = newRecipeHashMap;
+      this.productHashMap = newProductHashMap;
+      this.quantityUnitHashMap = newQuantityUnitHashMap;
+      this.productLastPurchasedHashMap = newProductLastPurchasedHashMap;
+      this.recipeResolvedFulfillmentHashMap = newRecipeResolvedFulfillmentHashMap;
+      this.stockItemHashMap = newStockItemHashMap;
+      this.userfieldHashMap = newUserfieldHashMap;
+      this.activeFields = newActiveFields;
+    }, null);
   }
 
   static class DiffCallback extends DiffUtil.Callback {
@@ -56,7 +56,7 @@ public class RecipeEditIngredientListEntryAdapter extends
   private final ArrayList<RecipePosition> recipePositions;
   private final ArrayList<Product> products;
   private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final List<QuantityUnitConversionResolved> unitConversions;
+  private List<QuantityUnitConversionResolved> unitConversions;
   private final RecipeEditIngredientListEntryAdapterListener listener;
 
   private final PluralUtil pluralUtil;
@@ -210,8 +210,7 @@ public class RecipeEditIngredientListEntryAdapter extends
     this.products.addAll(newProducts);
     this.quantityUnitHashMap.clear();
     this.quantityUnitHashMap.putAll(newQuantityUnitHashMap);
-    this.unitConversions.clear();
-    this.unitConversions.addAll(newUnitConversions);
+    this.unitConversions = new ArrayList<>(newUnitConversions);
     diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
@@ -61,22 +61,22 @@ import xyz.zedler.patrick.grocy.viewmodel.RecipesViewModel;
 import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class RecipeEntryAdapter extends
-    RecyclerView.Adapter<RecipeEntryAdapter.ViewHolder> {
+    AsyncDiffAdapter<RecipeEntryAdapter.ViewHolder> {
 
   private final static String TAG = RecipeEntryAdapter.class.getSimpleName();
   private final static boolean DEBUG = false;
 
   private Context context;
   private final LayoutManager layoutManager;
-  private final ArrayList<Recipe> recipes;
-  private final ArrayList<RecipeFulfillment> recipeFulfillments;
-  private final HashMap<String, Userfield> userfieldHashMap;
+  private ArrayList<Recipe> recipes;
+  private ArrayList<RecipeFulfillment> recipeFulfillments;
+  private HashMap<String, Userfield> userfieldHashMap;
   private final RecipesItemAdapterListener listener;
   private final GrocyApi grocyApi;
   private final LazyHeaders grocyAuthHeaders;
   private String sortMode;
   private boolean sortAscending;
-  private final List<String> activeFields;
+  private List<String> activeFields;
   private final int maxDecimalPlacesAmount;
   private final String energyUnit;
   private boolean containsPictures;
@@ -101,6 +101,7 @@ public class RecipeEntryAdapter extends
         SETTINGS_DEFAULT.STOCK.DECIMAL_PLACES_AMOUNT
     );
     energyUnit = sharedPrefs.getString(PREF.ENERGY_UNIT, PREF.ENERGY_UNIT_DEFAULT);
+    setHasStableIds(true);
   }
 
   @Override
@@ -260,6 +261,11 @@ public class RecipeEntryAdapter extends
     );
   }
 
+  @Override
+  public long getItemId(int position) {
+    return recipes.get(position).getId();
+  }
+
   @Override
   public int getItemCount() {
     return recipes.size();
@@ -272,16 +278,21 @@ public class RecipeEntryAdapter extends
 
   public void updateData(
       ArrayList<Recipe> newList,
-      ArrayList<RecipeFulfillment> newRecipeFulfillments,
-      HashMap<String, Userfield> newUserfieldHashMap,
+      ArrayList<RecipeFulfillment> recipeFulfillments,
+      HashMap<String, Userfield> userfieldHashMap,
       String sortMode,
       boolean sortAscending,
       List<String> activeFields,
       Runnable onListFilled
   ) {
+    ArrayList<Recipe> newRecipes = new ArrayList<>(newList);
+    ArrayList<RecipeFulfillment> newRecipeFulfillments = new ArrayList<>(recipeFulfillments);
+    HashMap<String, Userfield> newUserfieldHashMap = new HashMap<>(userfieldHashMap);
+    List<String> newActiveFields = new ArrayList<>(activeFields);
+
     RecipeEntryAdapter.DiffCallback diffCallback = new RecipeEntryAdapter.DiffCallback(
         this.recipes,
-        newList,
+        newRecipes,
         this.recipeFulfillments,
         newRecipeFulfillments,
         this.userfieldHashMap,
@@ -291,25 +302,21 @@ public class RecipeEntryAdapter extends
         this.sortAscending,
         sortAscending,
         this.activeFields,
-        activeFields
+        newActiveFields
     );
 
     if (onListFilled != null && !newList.isEmpty() && recipes.isEmpty()) {
       onListFilled.run();
     }
 
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.recipes.clear();
-    this.recipes.addAll(newList);
-    this.recipeFulfillments.clear();
-    this.recipeFulfillments.addAll(newRecipeFulfillments);
-    this.userfieldHashMap.clear();
-    this.userfieldHashMap.putAll(newUserfieldHashMap);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    this.activeFields.clear();
-    this.activeFields.addAll(activeFields);
-    diffResult.dispatchUpdatesTo(this);
+    submitDiff(diffCallback, () -> {
+      this.recipes = newRecipes;
+      this.recipeFulfillments = newRecipeFulfillments;
+      this.userfieldHashMap = newUserfieldHashMap;
+      this.sortMode = sortMode;
+      this.sortAscending = sortAscending;
+      this.activeFields = newActiveFields;
+    }, null);
 
     containsPictures = false;
     for (Recipe recipe : recipes) {
@@ -335,6 +342,11 @@ public class RecipeEntryAdapter extends
     boolean sortAscendingNew;
     List<String> activeFieldsOld;
     List<String> activeFieldsNew;
+    // the same for every item, so they are compared only once
+    boolean activeFieldsEqual;
+    boolean userfieldsEqual;
+    HashMap<Integer, RecipeFulfillment> oldRecipeFulfillmentHashMap;
+    HashMap<Integer, RecipeFulfillment> newRecipeFulfillmentHashMap;
 
     public DiffCallback(
         ArrayList<Recipe> oldItems,
@@ -362,6 +374,25 @@ public class RecipeEntryAdapter extends
       this.sortAscendingNew = sortAscendingNew;
       this.activeFieldsOld = activeFieldsOld;
       this.activeFieldsNew = activeFieldsNew;
+      this.activeFieldsEqual = ArrayUtil.areListsEqualIgnoreOrder(
+          activeFieldsOld, activeFieldsNew
+      );
+      this.userfieldsEqual = oldUserfieldHashMap.equals(newUserfieldHashMap);
+      this.oldRecipeFulfillmentHashMap = getRecipeFulfillmentHashMap(oldRecipeFulfillments);
+      this.newRecipeFulfillmentHashMap = getRecipeFulfillmentHashMap(newRecipeFulfillments);
+    }
+
+    private static HashMap<Integer, RecipeFulfillment> getRecipeFulfillmentHashMap(
+        ArrayList<RecipeFulfillment> recipeFulfillments
+    ) {
+      HashMap<Integer, RecipeFulfillment> hashMap = new HashMap<>();
+      for (RecipeFulfillment recipeFulfillment : recipeFulfillments) {
+        // first one wins like in RecipeFulfillment.getRecipeFulfillmentFromRecipeId
+        if (!hashMap.containsKey(recipeFulfillment.getRecipeId())) {
+          hashMap.put(recipeFulfillment.getRecipeId(), recipeFulfillment);
+        }
+      }
+      return hashMap;
     }
 
     @Override
@@ -391,15 +422,12 @@ public class RecipeEntryAdapter extends
       if (!compareContent) {
         return newItem.getId() == oldItem.getId();
       }
-      if (!ArrayUtil.areListsEqualIgnoreOrder(activeFieldsOld, activeFieldsNew)) {
-        return false;
-      }
-      if (!oldUserfieldHashMap.equals(newUserfieldHashMap)) {
+      if (!activeFieldsEqual || !userfieldsEqual) {
         return false;
       }
 
-      RecipeFulfillment recipeFulfillmentOld = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(oldRecipeFulfillments, oldItem.getId());
-      RecipeFulfillment recipeFulfillmentNew = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(newRecipeFulfillments, newItem.getId());
+      RecipeFulfillment recipeFulfillmentOld = oldRecipeFulfillmentHashMap.get(oldItem.getId());
+      RecipeFulfillment recipeFulfillmentNew = newRecipeFulfillmentHashMap.get(newItem.getId());
       if (recipeFulfillmentOld == null && recipeFulfillmentNew != null
           || recipeFulfillmentOld != null && recipeFulfillmentNew == null
           || recipeFulfillmentOld != null && !recipeFulfillmentOld.equals(recipeFulfillmentNew)) {
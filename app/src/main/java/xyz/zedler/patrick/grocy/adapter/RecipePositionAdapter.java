@@ -66,7 +66,7 @@ public class RecipePositionAdapter extends
   private final List<RecipePosition> recipePositions;
   private final List<Product> products;
   private final List<QuantityUnit> quantityUnits;
-  private final List<QuantityUnitConversionResolved> quantityUnitConversions;
+  private List<QuantityUnitConversionResolved> quantityUnitConversions;
   private final HashMap<Integer, StockItem> stockItemHashMap;
   private final List<ShoppingListItem> shoppingListItems;
   private final RecipePositionsItemAdapterListener listener;
@@ -357,8 +357,7 @@ public class RecipePositionAdapter extends
     this.products.addAll(newProducts);
     this.quantityUnits.clear();
     this.quantityUnits.addAll(newQuantityUnits);
-    this.quantityUnitConversions.clear();
-    this.quantityUnitConversions.addAll(newQuantityUnitConversions);
+    this.quantityUnitConversions = new ArrayList<>(newQuantityUnitConversions);
     this.stockItemHashMap.clear();
     this.stockItemHashMap.putAll(newStockItemHashMap);
     this.shoppingListItems.clear();
@@ -72,7 +72,7 @@ public class RecipePositionResolvedAdapter extends
   private final List<GroupedListItem> groupedListItems;
   private final List<Product> products;
   private final List<QuantityUnit> quantityUnits;
-  private final List<QuantityUnitConversionResolved> quantityUnitConversions;
+  private List<QuantityUnitConversionResolved> quantityUnitConversions;
   private final List<String> activeFields;
   private final RecipePositionsItemAdapterListener listener;
 
@@ -468,8 +468,7 @@ public class RecipePositionResolvedAdapter extends
     this.products.addAll(newProducts);
     this.quantityUnits.clear();
     this.quantityUnits.addAll(newQuantityUnits);
-    this.quantityUnitConversions.clear();
-    this.quantityUnitConversions.addAll(newQuantityUnitConversions);
+    this.quantityUnitConversions = new ArrayList<>(newQuantityUnitConversions);
     this.activeFields.clear();
     this.activeFields.addAll(newActiveFields);
     diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
@@ -25,9 +25,6 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.content.res.ColorStateList;
 import android.graphics.Paint;
-import android.text.Html;
-import android.text.Spanned;
-import android.text.SpannedString;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -39,6 +36,7 @@ import com.bumptech.glide.load.model.LazyHeaders;
 import com.google.android.material.chip.Chip;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import xyz.zedler.patrick.grocy.Constants.PREF;
@@ -49,50 +47,46 @@ import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListBottomNotesBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListGroupBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListItemBinding;
-import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingShoppingList;
 import xyz.zedler.patrick.grocy.model.GroupHeader;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.Product;
-import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListBottomNotes;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
-import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.ResUtil;
-import xyz.zedler.patrick.grocy.util.SortUtil;
-import xyz.zedler.patrick.grocy.util.TextUtil;
 import xyz.zedler.patrick.grocy.viewmodel.ShoppingListViewModel;
 import xyz.zedler.patrick.grocy.viewmodel.StockOverviewViewModel;
 import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class ShoppingListItemAdapter extends
-    RecyclerView.Adapter<ShoppingListItemAdapter.ViewHolder> {
+    AsyncDiffAdapter<ShoppingListItemAdapter.ViewHolder> {
 
   private final static String TAG = ShoppingListItemAdapter.class.getSimpleName();
 
-  private final ArrayList<GroupedListItem> groupedListItems;
-  private final HashMap<Integer, Product> productHashMap;
-  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final List<QuantityUnitConversionResolved> unitConversions;
-  private final HashMap<Integer, Double> shoppingListItemAmountsHashMap;
-  private final ArrayList<Integer> missingProductIds;
+  private ArrayList<GroupedListItem> groupedListItems;
+  private int[] contentHashes;
+  private HashMap<Integer, Product> productHashMap;
+  private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+  private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+  private List<QuantityUnitConversionResolved> unitConversions;
+  private HashMap<Integer, Double> shoppingListItemAmountsHashMap;
+  private ArrayList<Integer> missingProductIds;
   private final ShoppingListItemAdapterListener listener;
   private final GrocyApi grocyApi;
   private final LazyHeaders grocyAuthHeaders;
   private final PluralUtil pluralUtil;
   private String groupingMode;
-  private final List<String> activeFields;
+  private List<String> activeFields;
   private final int maxDecimalPlacesAmount;
   private final int decimalPlacesPriceDisplay;
   private final String currency;
-  private final boolean priceTrackingEnabled;
 
   public ShoppingListItemAdapter(
       Context context,
@@ -108,8 +102,6 @@ public class ShoppingListItemAdapter extends
         SETTINGS_DEFAULT.STOCK.DECIMAL_PLACES_PRICES_DISPLAY
     );
     this.currency = sharedPrefs.getString(PREF.CURRENCY, "");
-    this.priceTrackingEnabled = sharedPrefs
-        .getBoolean(PREF.FEATURE_STOCK_PRICE_TRACKING, true);
     this.productHashMap = new HashMap<>();
     this.productLastPurchasedHashMap = new HashMap<>();
     this.quantityUnitHashMap = new HashMap<>();
@@ -122,165 +114,8 @@ public class ShoppingListItemAdapter extends
     this.pluralUtil = new PluralUtil(context);
     this.activeFields = new ArrayList<>();
     this.groupedListItems = new ArrayList<>();
-  }
-
-  static ArrayList<GroupedListItem> getGroupedListItems(
-      Context context,
-      ArrayList<ShoppingListItem> shoppingListItems,
-      HashMap<Integer, ProductGroup> productGroupHashMap,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, String> productNamesHashMap,
-      HashMap<Integer, Store> storeHashMap,
-      HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
-      HashMap<Integer, Double> shoppingListItemAmountsHashMap,
-      String shoppingListNotes,
-      String groupingMode,
-      boolean priceTrackingEnabled,
-      int decimalPlacesPriceDisplay,
-      String currency
-  ) {
-    if (groupingMode.equals(FilterChipLiveDataGroupingShoppingList.GROUPING_NONE)) {
-      SortUtil.sortShoppingListItemsByName(shoppingListItems, productNamesHashMap, true);
-      ArrayList<GroupedListItem> groupedListItems = new ArrayList<>(shoppingListItems);
-      addBottomNotes(
-          context,
-          shoppingListNotes,
-          groupedListItems,
-          !shoppingListItems.isEmpty()
-      );
-      if (!shoppingListItems.isEmpty() && priceTrackingEnabled) {
-        addTotalPrice(context, shoppingListItems, groupedListItems, productLastPurchasedHashMap,
-            shoppingListItemAmountsHashMap, decimalPlacesPriceDisplay, currency);
-      }
-      return groupedListItems;
-    }
-    HashMap<String, ArrayList<ShoppingListItem>> shoppingListItemsGroupedHashMap = new HashMap<>();
-    ArrayList<ShoppingListItem> ungroupedItems = new ArrayList<>();
-    for (ShoppingListItem shoppingListItem : shoppingListItems) {
-      String groupName = getGroupName(shoppingListItem, productHashMap, productGroupHashMap,
-          storeHashMap, groupingMode);
-      if (groupName != null && !groupName.isEmpty()) {
-        ArrayList<ShoppingListItem> itemsFromGroup = shoppingListItemsGroupedHashMap.get(groupName);
-        if (itemsFromGroup == null) {
-          itemsFromGroup = new ArrayList<>();
-          shoppingListItemsGroupedHashMap.put(groupName, itemsFromGroup);
-        }
-        itemsFromGroup.add(shoppingListItem);
-      } else {
-        ungroupedItems.add(shoppingListItem);
-      }
-    }
-    ArrayList<GroupedListItem> groupedListItems = new ArrayList<>();
-    ArrayList<String> groupsSorted = new ArrayList<>(shoppingListItemsGroupedHashMap.keySet());
-    SortUtil.sortStringsByName(groupsSorted, true);
-    if (!ungroupedItems.isEmpty()) {
-      groupedListItems.add(new GroupHeader(context.getString(R.string.property_ungrouped)));
-      SortUtil.sortShoppingListItemsByName(ungroupedItems, productNamesHashMap, true);
-      groupedListItems.addAll(ungroupedItems);
-    }
-    for (String group : groupsSorted) {
-      ArrayList<ShoppingListItem> itemsFromGroup = shoppingListItemsGroupedHashMap.get(group);
-      if (itemsFromGroup == null) continue;
-      GroupHeader groupHeader = new GroupHeader(group);
-      groupHeader.setDisplayDivider(!ungroupedItems.isEmpty() || !groupsSorted.get(0).equals(group));
-      groupedListItems.add(groupHeader);
-      SortUtil.sortShoppingListItemsByName(itemsFromGroup, productNamesHashMap, true);
-      groupedListItems.addAll(itemsFromGroup);
-    }
-    addBottomNotes(
-        context,
-        shoppingListNotes,
-        groupedListItems,
-        !ungroupedItems.isEmpty() || !groupsSorted.isEmpty()
-    );
-    if ((!ungroupedItems.isEmpty() || !groupsSorted.isEmpty()) && priceTrackingEnabled) {
-      addTotalPrice(context, shoppingListItems, groupedListItems, productLastPurchasedHashMap,
-          shoppingListItemAmountsHashMap, decimalPlacesPriceDisplay, currency);
-    }
-    return groupedListItems;
-  }
-
-  static String getGroupName(
-      ShoppingListItem shoppingListItem,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, ProductGroup> productGroupHashMap,
-      HashMap<Integer, Store> storeHashMap,
-      String groupingMode
-  ) {
-    String groupName = null;
-    if (groupingMode.equals(FilterChipLiveDataGroupingShoppingList.GROUPING_PRODUCT_GROUP)
-        && shoppingListItem.hasProduct()) {
-      Product product = productHashMap.get(shoppingListItem.getProductIdInt());
-      Integer productGroupId = product != null && NumUtil.isStringInt(product.getProductGroupId())
-          ? Integer.parseInt(product.getProductGroupId())
-          : null;
-      ProductGroup productGroup = productGroupId != null
-          ? productGroupHashMap.get(productGroupId)
-          : null;
-      groupName = productGroup != null ? productGroup.getName() : null;
-    } else if (groupingMode.equals(FilterChipLiveDataGroupingShoppingList.GROUPING_STORE)
-        && shoppingListItem.hasProduct()) {
-      Product product = productHashMap.get(shoppingListItem.getProductIdInt());
-      Integer storeId = product != null && NumUtil.isStringInt(product.getStoreId())
-          ? Integer.parseInt(product.getStoreId())
-          : null;
-      Store store = storeId != null
-          ? storeHashMap.get(storeId)
-          : null;
-      groupName = store != null ? store.getName() : null;
-    }
-    return groupName;
-  }
-
-  static void addBottomNotes(
-      Context context,
-      String shoppingListNotes,
-      ArrayList<GroupedListItem> groupedListItems,
-      boolean displayDivider
-  ) {
-    if (shoppingListNotes == null) {
-      return;
-    }
-    Spanned spanned = Html.fromHtml(shoppingListNotes.trim());
-    Spanned notes = (Spanned) TextUtil.trimCharSequence(spanned);
-    if (notes != null && !notes.toString().trim().isEmpty()) {
-      GroupHeader h = new GroupHeader(context.getString(R.string.property_notes));
-      h.setDisplayDivider(displayDivider);
-      groupedListItems.add(h);
-      groupedListItems.add(new ShoppingListBottomNotes(notes));
-    }
-  }
-
-  static void addTotalPrice(
-      Context context,
-      List<ShoppingListItem> shoppingListItems,
-      ArrayList<GroupedListItem> groupedListItems,
-      HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
-      HashMap<Integer, Double> shoppingListItemAmountsHashMap,
-      int decimalPlacesPriceDisplay,
-      String currency
-  ) {
-    double priceTotal = 0;
-    for (ShoppingListItem shoppingListItem : shoppingListItems) {
-      ProductLastPurchased p = shoppingListItem.hasProduct()
-          ? productLastPurchasedHashMap.get(shoppingListItem.getProductIdInt()) : null;
-      if (p == null || p.getPrice() == null || p.getPrice().isEmpty()) continue;
-      double amount = shoppingListItem.getAmountDouble();
-      if (NumUtil.isStringDouble(p.getPrice())) priceTotal += NumUtil.toDouble(p.getPrice()) * amount;
-    }
-
-    GroupHeader h = new GroupHeader();
-    h.setDisplayDivider(true);
-    groupedListItems.add(h);
-    ShoppingListBottomNotes priceText = new ShoppingListBottomNotes(
-        new SpannedString(context.getString(
-            R.string.subtitle_total_price,
-            NumUtil.trimPrice(priceTotal, decimalPlacesPriceDisplay),
-            currency
-        ))
-    );
-    priceText.setClickable(false);
-    groupedListItems.add(priceText);
+    this.contentHashes = new int[0];
+    setHasStableIds(true);
   }
 
   public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -624,6 +459,17 @@ public class ShoppingListItemAdapter extends
     return groupedListItems.size();
   }
 
+  @Override
+  public long getItemId(int position) {
+    GroupedListItem item = groupedListItems.get(position);
+    if (item instanceof ShoppingListItem) {
+      return getEntityItemId(((ShoppingListItem) item).getId());
+    } else if (item instanceof GroupHeader) {
+      return getGroupHeaderItemId((GroupHeader) item);
+    }
+    return ID_BOTTOM_NOTES;
+  }
+
   public GroupedListItem getGroupedListItemForPos(int position) {
     if (groupedListItems == null || position < 0
         || position >= groupedListItems.size()) {
@@ -761,76 +607,96 @@ public class ShoppingListItemAdapter extends
   }
 
   public void updateData(
-      Context context,
-      ArrayList<ShoppingListItem> shoppingListItems,
+      ArrayList<GroupedListItem> groupedListItems,
       HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, String> productNamesHashMap,
       HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
       HashMap<Integer, QuantityUnit> quantityUnitHashMap,
       List<QuantityUnitConversionResolved> unitConversions,
-      HashMap<Integer, ProductGroup> productGroupHashMap,
-      HashMap<Integer, Store> storeHashMap,
       HashMap<Integer, Double> shoppingListItemAmountsHashMap,
       ArrayList<Integer> missingProductIds,
-      String shoppingListNotes,
       String groupingMode,
       List<String> activeFields,
       Runnable onListFilled
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, shoppingListItems,
-        productGroupHashMap, productHashMap, productNamesHashMap, storeHashMap,
-        productLastPurchasedHashMap, shoppingListItemAmountsHashMap,
-        shoppingListNotes, groupingMode, priceTrackingEnabled, decimalPlacesPriceDisplay, currency);
+    ArrayList<GroupedListItem> newGroupedListItems = new ArrayList<>(groupedListItems);
+    HashMap<Integer, Product> productMap = new HashMap<>(productHashMap);
+    HashMap<Integer, ProductLastPurchased> lastPurchasedMap
+        = new HashMap<>(productLastPurchasedHashMap);
+    HashMap<Integer, QuantityUnit> quMap = new HashMap<>(quantityUnitHashMap);
+    List<QuantityUnitConversionResolved> conversions
+        = QuantityUnitConversionIndex.indexed(unitConversions);
+    HashMap<Integer, Double> amountsMap = new HashMap<>(shoppingListItemAmountsHashMap);
+    ArrayList<Integer> missingIds = new ArrayList<>(missingProductIds);
+    List<String> fields = new ArrayList<>(activeFields);
+    int[] hashes = getContentHashes(newGroupedListItems, productMap);
+
     ShoppingListItemAdapter.DiffCallback diffCallback = new ShoppingListItemAdapter.DiffCallback(
         this.groupedListItems,
         newGroupedListItems,
+        this.contentHashes,
+        hashes,
         this.productHashMap,
-        productHashMap,
+        productMap,
         this.productLastPurchasedHashMap,
-        productLastPurchasedHashMap,
+        lastPurchasedMap,
         this.quantityUnitHashMap,
-        quantityUnitHashMap,
+        quMap,
         this.unitConversions,
-        unitConversions,
+        conversions,
         this.shoppingListItemAmountsHashMap,
-        shoppingListItemAmountsHashMap,
+        amountsMap,
         this.missingProductIds,
-        missingProductIds,
+        missingIds,
         this.groupingMode,
         groupingMode,
         this.activeFields,
-        activeFields
+        fields
     );
 
-    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
+    if (onListFilled != null && !newGroupedListItems.isEmpty()
+        && this.groupedListItems.isEmpty()) {
       onListFilled.run();
     }
 
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.unitConversions.clear();
-    this.unitConversions.addAll(unitConversions);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.shoppingListItemAmountsHashMap.clear();
-    this.shoppingListItemAmountsHashMap.putAll(shoppingListItemAmountsHashMap);
-    this.missingProductIds.clear();
-    this.missingProductIds.addAll(missingProductIds);
-    this.groupingMode = groupingMode;
-    this.activeFields.clear();
-    this.activeFields.addAll(activeFields);
-    diffResult.dispatchUpdatesTo(this);
+    submitDiff(diffCallback, () -> {
+      this.groupedListItems = newGroupedListItems;
+      this.contentHashes = hashes;
+      this.productHashMap = productMap;
+      this.quantityUnitHashMap = quMap;
+      this.unitConversions = conversions;
+      this.productLastPurchasedHashMap = lastPurchasedMap;
+      this.shoppingListItemAmountsHashMap = amountsMap;
+      this.missingProductIds = missingIds;
+      this.groupingMode = groupingMode;
+      this.activeFields = fields;
+    }, null);
+  }
+
+  // hash of every item including its product, computed once instead of for every pair
+  private static int[] getContentHashes(
+      ArrayList<GroupedListItem> items,
+      HashMap<Integer, Product> productHashMap
+  ) {
+    int[] hashes = new int[items.size()];
+    for (int i = 0; i < hashes.length; i++) {
+      GroupedListItem item = items.get(i);
+      if (!(item instanceof ShoppingListItem)) {
+        continue;
+      }
+      ShoppingListItem shoppingListItem = (ShoppingListItem) item;
+      Product product = shoppingListItem.hasProduct()
+          ? productHashMap.get(shoppingListItem.getProductIdInt()) : null;
+      hashes[i] = Objects.hash(shoppingListItem, product);
+    }
+    return hashes;
   }
 
   static class DiffCallback extends DiffUtil.Callback {
 
     ArrayList<GroupedListItem> oldItems;
     ArrayList<GroupedListItem> newItems;
+    int[] contentHashesOld;
+    int[] contentHashesNew;
     HashMap<Integer, Product> productHashMapOld;
     HashMap<Integer, Product> productHashMapNew;
     HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapOld;
@@ -847,10 +713,17 @@ public class ShoppingListItemAdapter extends
     String groupingModeNew;
     List<String> activeFieldsOld;
     List<String> activeFieldsNew;
+    // the same for every item, so they are compared only once
+    boolean activeFieldsEqual;
+    boolean showLastPrice;
+    HashSet<Integer> missingProductIdSetOld;
+    HashSet<Integer> missingProductIdSetNew;
 
     public DiffCallback(
         ArrayList<GroupedListItem> oldItems,
         ArrayList<GroupedListItem> newItems,
+        int[] contentHashesOld,
+        int[] contentHashesNew,
         HashMap<Integer, Product> productHashMapOld,
         HashMap<Integer, Product> productHashMapNew,
         HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapOld,
@@ -870,6 +743,8 @@ public class ShoppingListItemAdapter extends
     ) {
       this.oldItems = oldItems;
       this.newItems = newItems;
+      this.contentHashesOld = contentHashesOld;
+      this.contentHashesNew = contentHashesNew;
       this.productHashMapOld = productHashMapOld;
       this.productHashMapNew = productHashMapNew;
       this.productLastPurchasedHashMapOld = productLastPurchasedHashMapOld;
@@ -886,6 +761,13 @@ public class ShoppingListItemAdapter extends
       this.groupingModeNew = groupingModeNew;
       this.activeFieldsOld = activeFieldsOld;
       this.activeFieldsNew = activeFieldsNew;
+      this.activeFieldsEqual = ArrayUtil.areListsEqualIgnoreOrder(
+          activeFieldsOld, activeFieldsNew
+      );
+      this.showLastPrice = activeFieldsNew.contains(ShoppingListViewModel.FIELD_PRICE_LAST_UNIT)
+          || activeFieldsNew.contains(ShoppingListViewModel.FIELD_PRICE_LAST_TOTAL);
+      this.missingProductIdSetOld = new HashSet<>(missingProductIdsOld);
+      this.missingProductIdSetNew = new HashSet<>(missingProductIdsNew);
     }
 
     @Override
@@ -926,7 +808,8 @@ public class ShoppingListItemAdapter extends
         if (!compareContent) {
           return newItem.getId() == oldItem.getId();
         }
-        if (!ArrayUtil.areListsEqualIgnoreOrder(activeFieldsOld, activeFieldsNew)) {
+        if (!activeFieldsEqual
+            || contentHashesNew[newItemPos] != contentHashesOld[oldItemPos]) {
           return false;
         }
 
@@ -952,12 +835,11 @@ public class ShoppingListItemAdapter extends
         Double amountNew = shoppingListItemAmountsHashMapNew.get(newItem.getId());
 
         Boolean missingOld =
-            productIdOld != null ? missingProductIdsOld.contains(productIdOld) : null;
+            productIdOld != null ? missingProductIdSetOld.contains(productIdOld) : null;
         Boolean missingNew =
-            productIdNew != null ? missingProductIdsNew.contains(productIdNew) : null;
+            productIdNew != null ? missingProductIdSetNew.contains(productIdNew) : null;
 
-        if (activeFieldsNew.contains(ShoppingListViewModel.FIELD_PRICE_LAST_UNIT)
-            || activeFieldsNew.contains(ShoppingListViewModel.FIELD_PRICE_LAST_TOTAL)) {
+        if (showLastPrice) {
           ProductLastPurchased purchasedOld = productIdOld != null
               ? productLastPurchasedHashMapOld.get(productIdOld) : null;
           ProductLastPurchased purchasedNew = productIdNew != null
@@ -996,8 +878,7 @@ public class ShoppingListItemAdapter extends
         ) {
           return false;
         }
-
-        return newItem.equals(oldItem);
+        return true;
       } else if (oldItemType == GroupedListItem.TYPE_HEADER) {
         GroupHeader newGroup = (GroupHeader) newItems.get(newItemPos);
         GroupHeader oldGroup = (GroupHeader) oldItems.get(oldItemPos);
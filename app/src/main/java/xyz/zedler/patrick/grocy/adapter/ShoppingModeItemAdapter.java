@@ -43,7 +43,6 @@ import com.google.android.material.chip.Chip;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.SHOPPING_MODE;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
@@ -53,22 +52,19 @@ import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingModeBottomNotesBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingModeGroupBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingModeItemBinding;
-import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingShoppingList;
 import xyz.zedler.patrick.grocy.model.GroupHeader;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.Product;
-import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListBottomNotes;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
-import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.ResUtil;
-import xyz.zedler.patrick.grocy.util.SortUtil;
 import xyz.zedler.patrick.grocy.util.TextUtil;
 import xyz.zedler.patrick.grocy.util.UiUtil;
 import xyz.zedler.patrick.grocy.viewmodel.ShoppingListViewModel;
@@ -76,29 +72,27 @@ import xyz.zedler.patrick.grocy.viewmodel.ShoppingModeViewModel;
 import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class ShoppingModeItemAdapter extends
-    RecyclerView.Adapter<ShoppingModeItemAdapter.ViewHolder> {
+    AsyncDiffAdapter<ShoppingModeItemAdapter.ViewHolder> {
 
   private final Context context;
   private final LinearLayoutManager linearLayoutManager;
-  private final ArrayList<GroupedListItem> groupedListItems;
-  private final HashMap<Integer, Product> productHashMap;
-  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final List<QuantityUnitConversionResolved> unitConversions;
-  private final HashMap<Integer, Double> shoppingListItemAmountsHashMap;
-  private final ArrayList<Integer> missingProductIds;
+  private ArrayList<GroupedListItem> groupedListItems;
+  private HashMap<Integer, Product> productHashMap;
+  private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+  private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+  private List<QuantityUnitConversionResolved> unitConversions;
+  private HashMap<Integer, Double> shoppingListItemAmountsHashMap;
+  private ArrayList<Integer> missingProductIds;
   private final ShoppingModeItemClickListener listener;
   private final GrocyApi grocyApi;
   private final LazyHeaders grocyAuthHeaders;
   private final PluralUtil pluralUtil;
   private String groupingMode;
   private final boolean useSmallerFonts;
-  private final boolean showDoneItems;
-  private final List<String> activeFields;
+  private List<String> activeFields;
   private final int maxDecimalPlacesAmount;
   private final int decimalPlacesPriceDisplay;
   private final String currency;
-  private final boolean priceTrackingEnabled;
 
   public ShoppingModeItemAdapter(
       Context context,
@@ -122,10 +116,6 @@ public class ShoppingModeItemAdapter extends
         SHOPPING_MODE.USE_SMALLER_FONT,
         SETTINGS_DEFAULT.SHOPPING_MODE.USE_SMALLER_FONT
     );
-    this.showDoneItems = sharedPrefs.getBoolean(
-        Constants.SETTINGS.SHOPPING_MODE.SHOW_DONE_ITEMS,
-        Constants.SETTINGS_DEFAULT.SHOPPING_MODE.SHOW_DONE_ITEMS
-    );
     this.maxDecimalPlacesAmount = sharedPrefs.getInt(
         STOCK.DECIMAL_PLACES_AMOUNT,
         SETTINGS_DEFAULT.STOCK.DECIMAL_PLACES_AMOUNT
@@ -135,107 +125,10 @@ public class ShoppingModeItemAdapter extends
         SETTINGS_DEFAULT.STOCK.DECIMAL_PLACES_PRICES_DISPLAY
     );
     this.currency = sharedPrefs.getString(PREF.CURRENCY, "");
-    this.priceTrackingEnabled = sharedPrefs
-        .getBoolean(PREF.FEATURE_STOCK_PRICE_TRACKING, true);
     this.pluralUtil = new PluralUtil(context);
     this.groupedListItems = new ArrayList<>();
   }
 
-  static ArrayList<GroupedListItem> getGroupedListItems(
-      Context context,
-      ArrayList<ShoppingListItem> shoppingListItems,
-      HashMap<Integer, ProductGroup> productGroupHashMap,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, String> productNamesHashMap,
-      HashMap<Integer, Store> storeHashMap,
-      HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
-      HashMap<Integer, Double> shoppingListItemAmountsHashMap,
-      String shoppingListNotes,
-      String groupingMode,
-      boolean priceTrackingEnabled,
-      int decimalPlacesPriceDisplay,
-      String currency,
-      boolean showDoneItems
-  ) {
-    if (groupingMode.equals(FilterChipLiveDataGroupingShoppingList.GROUPING_NONE)) {
-      SortUtil.sortShoppingListItemsByName(shoppingListItems, productNamesHashMap, true);
-      ArrayList<GroupedListItem> groupedListItems = new ArrayList<>();
-      ArrayList<ShoppingListItem> doneItems = new ArrayList<>();
-      for (ShoppingListItem shoppingListItem : shoppingListItems) {
-        if (shoppingListItem.getDoneInt() == 1) {
-          if (showDoneItems) doneItems.add(shoppingListItem);
-          continue;
-        }
-        groupedListItems.add(shoppingListItem);
-      }
-      if (showDoneItems && !doneItems.isEmpty()) {
-        groupedListItems.add(new GroupHeader(context.getString(R.string.subtitle_done)));
-        groupedListItems.addAll(doneItems);
-      }
-      ShoppingListItemAdapter.addBottomNotes(
-          context,
-          shoppingListNotes,
-          groupedListItems,
-          !shoppingListItems.isEmpty()
-      );
-      return groupedListItems;
-    }
-    HashMap<String, ArrayList<ShoppingListItem>> shoppingListItemsGroupedHashMap = new HashMap<>();
-    ArrayList<ShoppingListItem> ungroupedItems = new ArrayList<>();
-    ArrayList<ShoppingListItem> doneItems = new ArrayList<>();
-    for (ShoppingListItem shoppingListItem : shoppingListItems) {
-      if (shoppingListItem.getDoneInt() == 1) {
-        if (showDoneItems) doneItems.add(shoppingListItem);
-        continue;
-      }
-      String groupName = ShoppingListItemAdapter.getGroupName(shoppingListItem, productHashMap,
-          productGroupHashMap, storeHashMap, groupingMode);
-      if (groupName != null && !groupName.isEmpty()) {
-        ArrayList<ShoppingListItem> itemsFromGroup = shoppingListItemsGroupedHashMap.get(groupName);
-        if (itemsFromGroup == null) {
-          itemsFromGroup = new ArrayList<>();
-          shoppingListItemsGroupedHashMap.put(groupName, itemsFromGroup);
-        }
-        itemsFromGroup.add(shoppingListItem);
-      } else {
-        ungroupedItems.add(shoppingListItem);
-      }
-    }
-    ArrayList<GroupedListItem> groupedListItems = new ArrayList<>();
-    ArrayList<String> groupsSorted = new ArrayList<>(shoppingListItemsGroupedHashMap.keySet());
-    SortUtil.sortStringsByName(groupsSorted, true);
-    if (!ungroupedItems.isEmpty()) {
-      groupedListItems.add(new GroupHeader(context.getString(R.string.property_ungrouped)));
-      SortUtil.sortShoppingListItemsByName(ungroupedItems, productNamesHashMap, true);
-      groupedListItems.addAll(ungroupedItems);
-    }
-    for (String group : groupsSorted) {
-      ArrayList<ShoppingListItem> itemsFromGroup = shoppingListItemsGroupedHashMap.get(group);
-      if (itemsFromGroup == null) continue;
-      GroupHeader groupHeader = new GroupHeader(group);
-      groupHeader.setDisplayDivider(!ungroupedItems.isEmpty() || !groupsSorted.get(0).equals(group));
-      groupedListItems.add(groupHeader);
-      SortUtil.sortShoppingListItemsByName(itemsFromGroup, productNamesHashMap, true);
-      groupedListItems.addAll(itemsFromGroup);
-    }
-    ShoppingListItemAdapter.addBottomNotes(
-        context,
-        shoppingListNotes,
-        groupedListItems,
-        !ungroupedItems.isEmpty() || !groupsSorted.isEmpty()
-    );
-    if (showDoneItems && !doneItems.isEmpty()) {
-      groupedListItems.add(new GroupHeader(context.getString(R.string.subtitle_done)));
-      groupedListItems.addAll(doneItems);
-    }
-    if ((!ungroupedItems.isEmpty() || !groupsSorted.isEmpty()) && priceTrackingEnabled) {
-      ShoppingListItemAdapter.addTotalPrice(context, shoppingListItems, groupedListItems,
-          productLastPurchasedHashMap, shoppingListItemAmountsHashMap,
-          decimalPlacesPriceDisplay, currency);
-    }
-    return groupedListItems;
-  }
-
   public static class ViewHolder extends RecyclerView.ViewHolder {
 
     public ViewHolder(View view) {
@@ -602,72 +495,66 @@ public class ShoppingModeItemAdapter extends
   }
 
   public void updateData(
-      Context context,
-      ArrayList<ShoppingListItem> shoppingListItems,
+      ArrayList<GroupedListItem> groupedListItems,
       HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, String> productNamesHashMap,
       HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
       HashMap<Integer, QuantityUnit> quantityUnitHashMap,
       List<QuantityUnitConversionResolved> unitConversions,
-      HashMap<Integer, ProductGroup> productGroupHashMap,
-      HashMap<Integer, Store> storeHashMap,
       HashMap<Integer, Double> shoppingListItemAmountsHashMap,
       ArrayList<Integer> missingProductIds,
-      String shoppingListNotes,
       String groupingMode,
       List<String> activeFields,
       Runnable onListFilled
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(
-        context, shoppingListItems,
-        productGroupHashMap, productHashMap, productNamesHashMap, storeHashMap,
-        productLastPurchasedHashMap, shoppingListItemAmountsHashMap,
-        shoppingListNotes, groupingMode, priceTrackingEnabled, decimalPlacesPriceDisplay,
-        currency, showDoneItems);
+    ArrayList<GroupedListItem> newGroupedListItems = new ArrayList<>(groupedListItems);
+    HashMap<Integer, Product> newProductHashMap = new HashMap<>(productHashMap);
+    HashMap<Integer, QuantityUnit> newQuantityUnitHashMap = new HashMap<>(quantityUnitHashMap);
+    List<QuantityUnitConversionResolved> newUnitConversions
+        = QuantityUnitConversionIndex.indexed(unitConversions);
+    HashMap<Integer, ProductLastPurchased> newProductLastPurchasedHashMap
+        = new HashMap<>(productLastPurchasedHashMap);
+    HashMap<Integer, Double> newShoppingListItemAmountsHashMap
+        = new HashMap<>(shoppingListItemAmountsHashMap);
+    ArrayList<Integer> newMissingProductIds = new ArrayList<>(missingProductIds);
+    List<String> newActiveFields = new ArrayList<>(activeFields);
+
     ShoppingListItemAdapter.DiffCallback diffCallback = new ShoppingListItemAdapter.DiffCallback(
         this.groupedListItems,
         newGroupedListItems,
         this.productHashMap,
-        productHashMap,
+        newProductHashMap,
         this.productLastPurchasedHashMap,
-        productLastPurchasedHashMap,
+        newProductLastPurchasedHashMap,
         this.quantityUnitHashMap,
-        quantityUnitHashMap,
+        newQuantityUnitHashMap,
         this.unitConversions,
-        unitConversions,
+        newUnitConversions,
         this.shoppingListItemAmountsHashMap,
-        shoppingListItemAmountsHashMap,
+        newShoppingListItemAmountsHashMap,
         this.missingProductIds,
-        missingProductIds,
+        newMissingProductIds,
         this.groupingMode,
         groupingMode,
         this.activeFields,
-        activeFields
+        newActiveFields
     );
 
-    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
+    if (onListFilled != null && !newGroupedListItems.isEmpty()
+        && this.groupedListItems.isEmpty()) {
       onListFilled.run();
     }
 
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.unitConversions.clear();
-    this.unitConversions.addAll(unitConversions);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.shoppingListItemAmountsHashMap.clear();
-    this.shoppingListItemAmountsHashMap.putAll(shoppingListItemAmountsHashMap);
-    this.missingProductIds.clear();
-    this.missingProductIds.addAll(missingProductIds);
-    this.groupingMode = groupingMode;
-    this.activeFields.clear();
-    this.activeFields.addAll(activeFields);
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
+    submitDiff(diffCallback, () -> {
+      this.groupedListItems = newGroupedListItems;
+      this.productHashMap = newProductHashMap;
+      this.quantityUnitHashMap = newQuantityUnitHashMap;
+      this.unitConversions = newUnitConversions;
+      this.productLastPurchasedHashMap = newProductLastPurchasedHashMap;
+      this.shoppingListItemAmountsHashMap = newShoppingListItemAmountsHashMap;
+      this.missingProductIds = newMissingProductIds;
+      this.groupingMode = groupingMode;
+      this.activeFields = newActiveFields;
+    }, new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
   @Override
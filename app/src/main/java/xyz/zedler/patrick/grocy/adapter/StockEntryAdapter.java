@@ -27,11 +27,12 @@ import android.view.View;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.core.content.res.ResourcesCompat;
+import androidx.paging.PagingDataAdapter;
 import androidx.preference.PreferenceManager;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Objects;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
@@ -39,8 +40,6 @@ import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListGroupBinding;
 import xyz.zedler.patrick.grocy.databinding.RowStockEntryBinding;
-import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingStockEntries;
-import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingStock;
 import xyz.zedler.patrick.grocy.model.GroupHeader;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.Location;
@@ -54,25 +53,18 @@ import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
 import xyz.zedler.patrick.grocy.util.ResUtil;
-import xyz.zedler.patrick.grocy.util.SortUtil;
-import xyz.zedler.patrick.grocy.viewmodel.StockOverviewViewModel;
 
 public class StockEntryAdapter extends
-    RecyclerView.Adapter<StockEntryAdapter.ViewHolder> {
+    PagingDataAdapter<GroupedListItem, StockEntryAdapter.ViewHolder> {
 
   private final static String TAG = StockEntryAdapter.class.getSimpleName();
 
-  private final ArrayList<GroupedListItem> groupedListItems;
-  private final HashMap<Integer, Product> productHashMap;
   private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
   private final HashMap<Integer, Location> locationHashMap;
   private final HashMap<Integer, Store> storeHashMap;
   private final PluralUtil pluralUtil;
   private final StockEntryAdapterListener listener;
   private final boolean showDateTracking;
-  private String sortMode;
-  private boolean sortAscending;
-  private String groupingMode;
   private final DateUtil dateUtil;
   private final String currency;
   private final int dueSoonDays;
@@ -83,6 +75,7 @@ public class StockEntryAdapter extends
       Context context,
       StockEntryAdapterListener listener
   ) {
+    super(DIFF_CALLBACK);
     SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
     this.showDateTracking = sharedPrefs.getBoolean(PREF.FEATURE_STOCK_BBD_TRACKING, true);
     this.currency = sharedPrefs.getString(PREF.CURRENCY, "");
@@ -100,111 +93,12 @@ public class StockEntryAdapter extends
     } else {
       this.dueSoonDays = Integer.parseInt(SETTINGS_DEFAULT.STOCK.DUE_SOON_DAYS);
     }
-    this.productHashMap = new HashMap<>();
     this.quantityUnitHashMap = new HashMap<>();
     this.locationHashMap = new HashMap<>();
     this.storeHashMap = new HashMap<>();
     this.pluralUtil = new PluralUtil(context);
     this.listener = listener;
     this.dateUtil = new DateUtil(context);
-    this.groupedListItems = new ArrayList<>();
-  }
-
-  static ArrayList<GroupedListItem> getGroupedListItems(
-      Context context,
-      ArrayList<StockEntry> stockEntries,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, Location> locationHashMap,
-      HashMap<Integer, Store> storeHashMap,
-      String currency,
-      DateUtil dateUtil,
-      String sortMode,
-      boolean sortAscending,
-      String groupingMode
-  ) {
-    if (groupingMode.equals(FilterChipLiveDataGroupingStockEntries.GROUPING_NONE)) {
-      sortStockEntries(context, stockEntries, productHashMap, sortMode, sortAscending);
-      return new ArrayList<>(stockEntries);
-    }
-    HashMap<String, ArrayList<StockEntry>> stockEntriesGroupedHashMap = new HashMap<>();
-    ArrayList<StockEntry> ungroupedItems = new ArrayList<>();
-    for (StockEntry stockEntry : stockEntries) {
-      String groupName = null;
-      switch (groupingMode) {
-        case FilterChipLiveDataGroupingStockEntries.GROUPING_PRODUCT:
-          Product product = productHashMap.get(stockEntry.getProductId());
-          groupName = product != null ? product.getName() : null;
-          break;
-        case FilterChipLiveDataGroupingStockEntries.GROUPING_DUE_DATE:
-          groupName = stockEntry.getBestBeforeDate();
-          if (groupName != null && !groupName.isEmpty()) {
-            groupName += "  " + dateUtil.getHumanForDaysFromNow(groupName);
-          }
-          break;
-        case FilterChipLiveDataGroupingStockEntries.GROUPING_PURCHASED_DATE:
-          groupName = stockEntry.getPurchasedDate();
-          if (groupName != null && !groupName.isEmpty()) {
-            groupName += "  " + dateUtil.getHumanForDaysFromNow(groupName);
-          }
-          break;
-        case FilterChipLiveDataGroupingStockEntries.GROUPING_LOCATION:
-          Location location = locationHashMap.get(stockEntry.getLocationIdInt());
-          groupName = location != null ? location.getName() : null;
-          break;
-        case FilterChipLiveDataGroupingStockEntries.GROUPING_STORE:
-          Store store = storeHashMap.get(stockEntry.getShoppingLocationIdInt());
-          groupName = store != null ? store.getName() : null;
-          break;
-      }
-      if (groupName != null && !groupName.isEmpty()) {
-        ArrayList<StockEntry> itemsFromGroup = stockEntriesGroupedHashMap.get(groupName);
-        if (itemsFromGroup == null) {
-          itemsFromGroup = new ArrayList<>();
-          stockEntriesGroupedHashMap.put(groupName, itemsFromGroup);
-        }
-        itemsFromGroup.add(stockEntry);
-      } else {
-        ungroupedItems.add(stockEntry);
-      }
-    }
-    ArrayList<GroupedListItem> groupedListItems = new ArrayList<>();
-    ArrayList<String> groupsSorted = new ArrayList<>(stockEntriesGroupedHashMap.keySet());
-    SortUtil.sortStringsByName(groupsSorted, true);
-    if (!ungroupedItems.isEmpty()) {
-      groupedListItems.add(new GroupHeader(context.getString(R.string.property_ungrouped)));
-      sortStockEntries(context, ungroupedItems, productHashMap, sortMode, sortAscending);
-      groupedListItems.addAll(ungroupedItems);
-    }
-    for (String group : groupsSorted) {
-      ArrayList<StockEntry> itemsFromGroup = stockEntriesGroupedHashMap.get(group);
-      if (itemsFromGroup == null) continue;
-      String groupString;
-      if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_VALUE)) {
-        groupString = group + " " + currency;
-      } else {
-        groupString = group;
-      }
-      GroupHeader groupHeader = new GroupHeader(groupString);
-      groupHeader.setDisplayDivider(!ungroupedItems.isEmpty() || !groupsSorted.get(0).equals(group));
-      groupedListItems.add(groupHeader);
-      sortStockEntries(context, itemsFromGroup, productHashMap, sortMode, sortAscending);
-      groupedListItems.addAll(itemsFromGroup);
-    }
-    return groupedListItems;
-  }
-
-  static void sortStockEntries(
-      Context context,
-      ArrayList<StockEntry> stockEntries,
-      HashMap<Integer, Product> productHashMap,
-      String sortMode,
-      boolean sortAscending
-  ) {
-    if (sortMode.equals(StockOverviewViewModel.SORT_DUE_DATE)) {
-      SortUtil.sortStockEntriesByDueDate(stockEntries, sortAscending);
-    } else {
-      SortUtil.sortStockEntriesByName(stockEntries, productHashMap, sortAscending);
-    }
   }
 
   public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -237,7 +131,7 @@ public class StockEntryAdapter extends
   @Override
   public int getItemViewType(int position) {
     return GroupedListItem.getType(
-        groupedListItems.get(position),
+        Objects.requireNonNull(getItem(position)),
         GroupedListItem.CONTEXT_STOCK_ENTRIES
     );
   }
@@ -266,7 +160,8 @@ public class StockEntryAdapter extends
   @Override
   public void onBindViewHolder(@NonNull final ViewHolder viewHolder, int positionDoNotUse) {
 
-    GroupedListItem groupedListItem = groupedListItems.get(viewHolder.getAdapterPosition());
+    GroupedListItem groupedListItem = getItem(viewHolder.getAdapterPosition());
+    if (groupedListItem == null) return;
 
     int type = getItemViewType(viewHolder.getAdapterPosition());
     if (type == GroupedListItem.TYPE_HEADER) {
@@ -282,7 +177,7 @@ public class StockEntryAdapter extends
 
     StockEntry stockEntry = (StockEntry) groupedListItem;
     StockItemViewHolder holder = (StockItemViewHolder) viewHolder;
-    Product product = productHashMap.get(stockEntry.getProductId());
+    Product product = stockEntry.getProduct();
     Context context = holder.binding.amount.getContext();
 
     // NAME
@@ -439,17 +334,11 @@ public class StockEntryAdapter extends
     );
   }
 
-  @Override
-  public int getItemCount() {
-    return groupedListItems.size();
-  }
-
   public GroupedListItem getGroupedListItemForPos(int position) {
-    if (groupedListItems == null || position < 0
-        || position >= groupedListItems.size()) {
+    if (position < 0 || position >= getItemCount()) {
       return null;
     }
-    return groupedListItems.get(position);
+    return peek(position);
   }
 
   public interface StockEntryAdapterListener {
@@ -457,189 +346,51 @@ public class StockEntryAdapter extends
     void onItemRowClicked(StockEntry stockEntry);
   }
 
-  public void updateData(
-      Context context,
-      ArrayList<StockEntry> newList,
+  public void updateLookups(
       HashMap<Integer, QuantityUnit> quantityUnitHashMap,
-      HashMap<Integer, Product> productHashMap,
       HashMap<Integer, Location> locationHashMap,
-      HashMap<Integer, Store> storeHashMap,
-      String sortMode,
-      boolean sortAscending,
-      String groupingMode,
-      Runnable onListFilled
+      HashMap<Integer, Store> storeHashMap
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, newList,
-        productHashMap, locationHashMap, storeHashMap, this.currency, this.dateUtil,
-        sortMode, sortAscending, groupingMode);
-    StockEntryAdapter.DiffCallback diffCallback = new StockEntryAdapter.DiffCallback(
-        this.groupedListItems,
-        newGroupedListItems,
-        this.productHashMap,
-        productHashMap,
-        this.quantityUnitHashMap,
-        quantityUnitHashMap,
-        this.locationHashMap,
-        locationHashMap,
-        this.storeHashMap,
-        storeHashMap,
-        this.sortMode,
-        sortMode,
-        this.sortAscending,
-        sortAscending,
-        this.groupingMode,
-        groupingMode
-    );
-
-    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
-      onListFilled.run();
-    }
-
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
     this.quantityUnitHashMap.clear();
     this.quantityUnitHashMap.putAll(quantityUnitHashMap);
     this.locationHashMap.clear();
     this.locationHashMap.putAll(locationHashMap);
     this.storeHashMap.clear();
     this.storeHashMap.putAll(storeHashMap);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    this.groupingMode = groupingMode;
-    diffResult.dispatchUpdatesTo(this);
+    notifyItemRangeChanged(0, getItemCount());
   }
 
-  static class DiffCallback extends DiffUtil.Callback {
-
-    ArrayList<GroupedListItem> oldItems;
-    ArrayList<GroupedListItem> newItems;
-    HashMap<Integer, Product> productHashMapOld;
-    HashMap<Integer, Product> productHashMapNew;
-    HashMap<Integer, QuantityUnit> quantityUnitHashMapOld;
-    HashMap<Integer, QuantityUnit> quantityUnitHashMapNew;
-    HashMap<Integer, Location> locationHashMapOld;
-    HashMap<Integer, Location> locationHashMapNew;
-    HashMap<Integer, Store> storeHashMapOld;
-    HashMap<Integer, Store> storeHashMapNew;
-    String sortModeOld;
-    String sortModeNew;
-    boolean sortAscendingOld;
-    boolean sortAscendingNew;
-    String groupingModeOld;
-    String groupingModeNew;
-
-    public DiffCallback(
-        ArrayList<GroupedListItem> oldItems,
-        ArrayList<GroupedListItem> newItems,
-        HashMap<Integer, Product> productHashMapOld,
-        HashMap<Integer, Product> productHashMapNew,
-        HashMap<Integer, QuantityUnit> quantityUnitHashMapOld,
-        HashMap<Integer, QuantityUnit> quantityUnitHashMapNew,
-        HashMap<Integer, Location> locationHashMapOld,
-        HashMap<Integer, Location> locationHashMapNew,
-        HashMap<Integer, Store> storeHashMapOld,
-        HashMap<Integer, Store> storeHashMapNew,
-        String sortModeOld,
-        String sortModeNew,
-        boolean sortAscendingOld,
-        boolean sortAscendingNew,
-        String groupingModeOld,
-        String groupingModeNew
-    ) {
-      this.newItems = newItems;
-      this.oldItems = oldItems;
-      this.productHashMapOld = productHashMapOld;
-      this.productHashMapNew = productHashMapNew;
-      this.quantityUnitHashMapOld = quantityUnitHashMapOld;
-      this.quantityUnitHashMapNew = quantityUnitHashMapNew;
-      this.locationHashMapOld = locationHashMapOld;
-      this.locationHashMapNew = locationHashMapNew;
-      this.storeHashMapOld = storeHashMapOld;
-      this.storeHashMapNew = storeHashMapNew;
-      this.sortModeOld = sortModeOld;
-      this.sortModeNew = sortModeNew;
-      this.sortAscendingOld = sortAscendingOld;
-      this.sortAscendingNew = sortAscendingNew;
-      this.groupingModeOld = groupingModeOld;
-      this.groupingModeNew = groupingModeNew;
-    }
-
-    @Override
-    public int getOldListSize() {
-      return oldItems.size();
-    }
+  private static final DiffUtil.ItemCallback<GroupedListItem> DIFF_CALLBACK
+      = new DiffUtil.ItemCallback<>() {
 
     @Override
-    public int getNewListSize() {
-      return newItems.size();
-    }
-
-    @Override
-    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
-      return compare(oldItemPosition, newItemPosition, false);
+    public boolean areItemsTheSame(
+        @NonNull GroupedListItem oldItem,
+        @NonNull GroupedListItem newItem
+    ) {
+      if (oldItem instanceof StockEntry && newItem instanceof StockEntry) {
+        return ((StockEntry) oldItem).getId() == ((StockEntry) newItem).getId();
+      } else if (oldItem instanceof GroupHeader && newItem instanceof GroupHeader) {
+        return Objects.equals(
+            ((GroupHeader) oldItem).getGroupName(),
+            ((GroupHeader) newItem).getGroupName()
+        );
+      }
+      return false;
     }
 
     @Override
-    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-      return compare(oldItemPosition, newItemPosition, true);
-    }
-
-    private boolean compare(int oldItemPos, int newItemPos, boolean compareContent) {
-      int oldItemType = GroupedListItem.getType(
-          oldItems.get(oldItemPos),
-          GroupedListItem.CONTEXT_STOCK_ENTRIES
-      );
-      int newItemType = GroupedListItem.getType(
-          newItems.get(newItemPos),
-          GroupedListItem.CONTEXT_STOCK_ENTRIES
-      );
-      if (oldItemType != newItemType) {
-        return false;
-      }
-      if (oldItemType == GroupedListItem.TYPE_ENTRY) {
-        StockEntry newEntry = (StockEntry) newItems.get(newItemPos);
-        StockEntry oldEntry = (StockEntry) oldItems.get(oldItemPos);
-        if (!compareContent) {
-          return newEntry.getProductId() == oldEntry.getProductId();
-        }
-        Product productNew = productHashMapNew.get(newEntry.getProductId());
-        Product productOld = productHashMapOld.get(oldEntry.getProductId());
-        if (productNew == null || !productNew.equals(productOld)) {
-          return false;
-        }
-        QuantityUnit quOld = quantityUnitHashMapOld.get(productOld.getQuIdStockInt());
-        QuantityUnit quNew = quantityUnitHashMapNew.get(productNew.getQuIdStockInt());
-        if (quOld == null && quNew != null
-            || quOld != null && quNew != null && quOld.getId() != quNew.getId()
-        ) {
-          return false;
-        }
-        Location locOld = locationHashMapOld.get(oldEntry.getLocationIdInt());
-        Location locNew = locationHashMapNew.get(newEntry.getLocationIdInt());
-        if (locOld == null && locNew != null
-            || locOld != null && locNew != null && locOld.getId() != locNew.getId()
-        ) {
-          return false;
-        }
-        Store storeOld = NumUtil.isStringInt(oldEntry.getShoppingLocationId())
-            ? storeHashMapOld.get(Integer.parseInt(oldEntry.getShoppingLocationId())) : null;
-        Store storeNew = NumUtil.isStringInt(newEntry.getShoppingLocationId())
-            ? storeHashMapNew.get(Integer.parseInt(newEntry.getShoppingLocationId())) : null;
-        if (storeOld == null && storeNew != null
-            || storeOld != null && storeNew != null && storeOld.getId() != storeNew.getId()
-        ) {
-          return false;
-        }
-        return newEntry.equals(oldEntry);
-      } else {
-        GroupHeader newGroup = (GroupHeader) newItems.get(newItemPos);
-        GroupHeader oldGroup = (GroupHeader) oldItems.get(oldItemPos);
-        return newGroup.getGroupName().equals(oldGroup.getGroupName())
-            && newGroup.getDisplayDivider() == oldGroup.getDisplayDivider();
+    public boolean areContentsTheSame(
+        @NonNull GroupedListItem oldItem,
+        @NonNull GroupedListItem newItem
+    ) {
+      if (oldItem instanceof StockEntry && newItem instanceof StockEntry) {
+        return oldItem.equals(newItem) && Objects.equals(
+            ((StockEntry) oldItem).getProduct(),
+            ((StockEntry) newItem).getProduct()
+        );
       }
+      return oldItem.equals(newItem);
     }
-  }
+  };
 }
@@ -35,6 +35,7 @@ import com.bumptech.glide.load.model.LazyHeaders;
 import com.google.android.material.chip.Chip;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
@@ -44,12 +45,8 @@ import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListGroupBinding;
 import xyz.zedler.patrick.grocy.databinding.RowStockItemBinding;
-import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingStock;
 import xyz.zedler.patrick.grocy.model.GroupHeader;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
-import xyz.zedler.patrick.grocy.model.Location;
-import xyz.zedler.patrick.grocy.model.Product;
-import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
@@ -61,25 +58,26 @@ import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.ResUtil;
-import xyz.zedler.patrick.grocy.util.SortUtil;
 import xyz.zedler.patrick.grocy.viewmodel.StockOverviewViewModel;
 import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class StockOverviewItemAdapter extends
-    RecyclerView.Adapter<StockOverviewItemAdapter.ViewHolder> {
+    AsyncDiffAdapter<StockOverviewItemAdapter.ViewHolder> {
 
   private final static String TAG = StockOverviewItemAdapter.class.getSimpleName();
 
-  private final ArrayList<GroupedListItem> groupedListItems;
-  private final ArrayList<String> shoppingListItemsProductIds;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final List<QuantityUnitConversionResolved> quantityUnitConversions;
-  private final HashMap<Integer, String> productAveragePriceHashMap;
-  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+  private ArrayList<GroupedListItem> groupedListItems;
+  private int[] contentHashes;
+  private ArrayList<String> shoppingListItemsProductIds;
+  private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+  private List<QuantityUnitConversionResolved> quantityUnitConversions;
+  private HashMap<Integer, String> productAveragePriceHashMap;
+  private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
   private final PluralUtil pluralUtil;
-  private final ArrayList<Integer> missingItemsProductIds;
-  private final HashMap<String, Userfield> userfieldHashMap;
+  private ArrayList<Integer> missingItemsProductIds;
+  private HashMap<String, Userfield> userfieldHashMap;
   private final StockOverviewItemAdapterListener listener;
   private final GrocyApi grocyApi;
   private final LazyHeaders grocyAuthHeaders;
@@ -89,7 +87,7 @@ public class StockOverviewItemAdapter extends
   private String sortMode;
   private boolean sortAscending;
   private String groupingMode;
-  private final List<String> activeFields;
+  private List<String> activeFields;
   private final DateUtil dateUtil;
   private final String currency;
   private final int maxDecimalPlacesAmount;
@@ -133,142 +131,8 @@ public class StockOverviewItemAdapter extends
     this.dateUtil = new DateUtil(context);
     this.activeFields = new ArrayList<>();
     this.groupedListItems = new ArrayList<>();
-  }
-
-  static ArrayList<GroupedListItem> getGroupedListItems(
-      Context context,
-      ArrayList<StockItem> stockItems,
-      HashMap<Integer, ProductGroup> productGroupHashMap,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, Location> locationHashMap,
-      HashMap<String, Userfield> userfieldHashMap,
-      String currency,
-      DateUtil dateUtil,
-      String sortMode,
-      boolean sortAscending,
-      String groupingMode,
-      int maxDecimalPlacesAmount,
-      int decimalPlacesPriceDisplay
-  ) {
-    if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_NONE)) {
-      sortStockItems(stockItems, userfieldHashMap, sortMode, sortAscending);
-      return new ArrayList<>(stockItems);
-    }
-    HashMap<String, ArrayList<StockItem>> stockItemsGroupedHashMap = new HashMap<>();
-    ArrayList<StockItem> ungroupedItems = new ArrayList<>();
-    for (StockItem stockItem : stockItems) {
-      String groupName = null;
-      if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_PRODUCT_GROUP)
-          && NumUtil.isStringInt(stockItem.getProduct().getProductGroupId())
-      ) {
-        int productGroupId = Integer.parseInt(stockItem.getProduct().getProductGroupId());
-        ProductGroup productGroup = productGroupHashMap.get(productGroupId);
-        groupName = productGroup != null ? productGroup.getName() : null;
-      } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_VALUE)) {
-        groupName = NumUtil.trimPrice(stockItem.getValueDouble(), decimalPlacesPriceDisplay);
-      } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_CALORIES_PER_STOCK)) {
-        groupName = NumUtil.isStringDouble(stockItem.getProduct().getCalories())
-            ? stockItem.getProduct().getCalories() : null;
-      } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_CALORIES)) {
-        groupName = NumUtil.isStringDouble(stockItem.getProduct().getCalories())
-            ? NumUtil.trimAmount(NumUtil.toDouble(stockItem.getProduct().getCalories())
-            * stockItem.getAmountDouble(), maxDecimalPlacesAmount) : null;
-      } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_DUE_DATE)) {
-        groupName = stockItem.getBestBeforeDate();
-        if (groupName != null && !groupName.isEmpty()) {
-          groupName += "  " + dateUtil.getHumanForDaysFromNow(groupName);
-        }
-      } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_MIN_STOCK_AMOUNT)) {
-        groupName = stockItem.getProduct().getMinStockAmount();
-      } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_PARENT_PRODUCT)
-          && NumUtil.isStringInt(stockItem.getProduct().getParentProductId())) {
-        int productId = Integer.parseInt(stockItem.getProduct().getParentProductId());
-        Product product = productHashMap.get(productId);
-        groupName = product != null ? product.getName() : null;
-      } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_DEFAULT_LOCATION)
-          && NumUtil.isStringInt(stockItem.getProduct().getLocationId())) {
-        int locationId = Integer.parseInt(stockItem.getProduct().getLocationId());
-        Location location = locationHashMap.get(locationId);
-        groupName = location != null ? location.getName() : null;
-      } else if (groupingMode.startsWith(Userfield.NAME_PREFIX)) {
-        String userfieldName = groupingMode.substring(
-            Userfield.NAME_PREFIX.length()
-        );
-        Userfield userfield = userfieldHashMap.get(userfieldName);
-        if (userfield != null) {
-          groupName = stockItem.getProduct().getUserfields().get(userfieldName);
-        }
-      }
-      if (groupName != null && !groupName.isEmpty()) {
-        ArrayList<StockItem> itemsFromGroup = stockItemsGroupedHashMap.get(groupName);
-        if (itemsFromGroup == null) {
-          itemsFromGroup = new ArrayList<>();
-          stockItemsGroupedHashMap.put(groupName, itemsFromGroup);
-        }
-        itemsFromGroup.add(stockItem);
-      } else {
-        ungroupedItems.add(stockItem);
-      }
-    }
-    ArrayList<GroupedListItem> groupedListItems = new ArrayList<>();
-    ArrayList<String> groupsSorted = new ArrayList<>(stockItemsGroupedHashMap.keySet());
-    if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_VALUE)
-        || groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_CALORIES)
-        || groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_MIN_STOCK_AMOUNT)) {
-      SortUtil.sortStringsByValue(groupsSorted);
-    } else {
-      SortUtil.sortStringsByName(groupsSorted, true);
-    }
-    if (!ungroupedItems.isEmpty()) {
-      groupedListItems.add(new GroupHeader(context.getString(R.string.property_ungrouped)));
-      sortStockItems(ungroupedItems, userfieldHashMap, sortMode, sortAscending);
-      groupedListItems.addAll(ungroupedItems);
-    }
-    for (String group : groupsSorted) {
-      ArrayList<StockItem> itemsFromGroup = stockItemsGroupedHashMap.get(group);
-      if (itemsFromGroup == null) continue;
-      String groupString;
-      if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_VALUE)) {
-        groupString = group + " " + currency;
-      } else {
-        groupString = group;
-      }
-      GroupHeader groupHeader = new GroupHeader(groupString);
-      groupHeader.setDisplayDivider(
-          !ungroupedItems.isEmpty() || !groupsSorted.get(0).equals(group)
-      );
-      groupedListItems.add(groupHeader);
-      sortStockItems(itemsFromGroup, userfieldHashMap, sortMode, sortAscending);
-      groupedListItems.addAll(itemsFromGroup);
-    }
-    return groupedListItems;
-  }
-
-  static void sortStockItems(
-      ArrayList<StockItem> stockItems,
-      HashMap<String, Userfield> userfieldHashMap,
-      String sortMode,
-      boolean sortAscending
-  ) {
-    if (sortMode.equals(StockOverviewViewModel.SORT_DUE_DATE)) {
-      SortUtil.sortStockItemsByBBD(stockItems, sortAscending);
-    } else if (sortMode.equals(StockOverviewViewModel.SORT_CREATED_TIMESTAMP)) {
-      SortUtil.sortStockItemsByCreatedTimestamp(stockItems, sortAscending);
-    } else if (sortMode.startsWith(Userfield.NAME_PREFIX)) {
-      String userfieldName = sortMode.substring(Userfield.NAME_PREFIX.length());
-      Userfield userfield = userfieldHashMap.get(userfieldName);
-      if (userfield != null) {
-        SortUtil.sortStockItemsByUserfieldValue(
-            stockItems,
-            userfield,
-            sortAscending
-        );
-      } else {
-        SortUtil.sortStockItemsByName(stockItems, sortAscending);
-      }
-    } else {
-      SortUtil.sortStockItemsByName(stockItems, sortAscending);
-    }
+    this.contentHashes = new int[0];
+    setHasStableIds(true);
   }
 
   public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -564,6 +428,15 @@ public class StockOverviewItemAdapter extends
     return groupedListItems.size();
   }
 
+  @Override
+  public long getItemId(int position) {
+    GroupedListItem item = groupedListItems.get(position);
+    if (item instanceof StockItem) {
+      return getEntityItemId(((StockItem) item).getProductId());
+    }
+    return getGroupHeaderItemId((GroupHeader) item);
+  }
+
   public GroupedListItem getGroupedListItemForPos(int position) {
     if (groupedListItems == null || position < 0
         || position >= groupedListItems.size()) {
@@ -578,16 +451,12 @@ public class StockOverviewItemAdapter extends
   }
 
   public void updateData(
-      Context context,
-      ArrayList<StockItem> newList,
+      ArrayList<GroupedListItem> newGroupedListItems,
       ArrayList<String> shoppingListItemsProductIds,
       HashMap<Integer, QuantityUnit> quantityUnitHashMap,
       List<QuantityUnitConversionResolved> quantityUnitConversions,
       HashMap<Integer, String> productAveragePriceHashMap,
       HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
-      HashMap<Integer, ProductGroup> productGroupHashMap,
-      HashMap<Integer, Product> productHashMap,
-      HashMap<Integer, Location> locationHashMap,
       ArrayList<Integer> missingItemsProductIds,
       HashMap<String, Userfield> userfieldHashMap,
       String sortMode,
@@ -596,27 +465,38 @@ public class StockOverviewItemAdapter extends
       List<String> activeFields,
       Runnable onListFilled
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, newList,
-        productGroupHashMap, productHashMap, locationHashMap, userfieldHashMap, this.currency,
-        this.dateUtil, sortMode, sortAscending, groupingMode, maxDecimalPlacesAmount,
-        decimalPlacesPriceDisplay);
+    ArrayList<GroupedListItem> items = new ArrayList<>(newGroupedListItems);
+    ArrayList<String> shoppingListIds = new ArrayList<>(shoppingListItemsProductIds);
+    HashMap<Integer, QuantityUnit> quMap = new HashMap<>(quantityUnitHashMap);
+    List<QuantityUnitConversionResolved> conversions
+        = QuantityUnitConversionIndex.indexed(quantityUnitConversions);
+    HashMap<Integer, String> avgPriceMap = new HashMap<>(productAveragePriceHashMap);
+    HashMap<Integer, ProductLastPurchased> lastPurchasedMap
+        = new HashMap<>(productLastPurchasedHashMap);
+    ArrayList<Integer> missingIds = new ArrayList<>(missingItemsProductIds);
+    HashMap<String, Userfield> userfieldMap = new HashMap<>(userfieldHashMap);
+    List<String> fields = new ArrayList<>(activeFields);
+    int[] hashes = getContentHashes(items);
+
     StockOverviewItemAdapter.DiffCallback diffCallback = new StockOverviewItemAdapter.DiffCallback(
         this.groupedListItems,
-        newGroupedListItems,
+        items,
+        this.contentHashes,
+        hashes,
         this.shoppingListItemsProductIds,
-        shoppingListItemsProductIds,
+        shoppingListIds,
         this.quantityUnitHashMap,
-        quantityUnitHashMap,
+        quMap,
         this.quantityUnitConversions,
-        quantityUnitConversions,
+        conversions,
         this.productAveragePriceHashMap,
-        productAveragePriceHashMap,
+        avgPriceMap,
         this.productLastPurchasedHashMap,
-        productLastPurchasedHashMap,
+        lastPurchasedMap,
         this.missingItemsProductIds,
-        missingItemsProductIds,
+        missingIds,
         this.userfieldHashMap,
-        userfieldHashMap,
+        userfieldMap,
         this.sortMode,
         sortMode,
         this.sortAscending,
@@ -624,52 +504,58 @@ public class StockOverviewItemAdapter extends
         this.groupingMode,
         groupingMode,
         this.activeFields,
-        activeFields
+        fields
     );
 
-    containsPictures = false;
-    for (StockItem stockItem : newList) {
-      if (stockItem.getProduct() == null) continue;
-      String pictureFileName = stockItem.getProduct().getPictureFileName();
+    boolean hasPictures = false;
+    for (GroupedListItem item : items) {
+      if (!(item instanceof StockItem) || ((StockItem) item).getProduct() == null) continue;
+      String pictureFileName = ((StockItem) item).getProduct().getPictureFileName();
       if (pictureFileName != null && !pictureFileName.isEmpty()) {
-        containsPictures = true;
+        hasPictures = true;
         break;
       }
     }
 
-    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
+    if (onListFilled != null && !items.isEmpty() && groupedListItems.isEmpty()) {
       onListFilled.run();
     }
 
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.shoppingListItemsProductIds.clear();
-    this.shoppingListItemsProductIds.addAll(shoppingListItemsProductIds);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.quantityUnitConversions.clear();
-    this.quantityUnitConversions.addAll(quantityUnitConversions);
-    this.productAveragePriceHashMap.clear();
-    this.productAveragePriceHashMap.putAll(productAveragePriceHashMap);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.missingItemsProductIds.clear();
-    this.missingItemsProductIds.addAll(missingItemsProductIds);
-    this.userfieldHashMap.clear();
-    this.userfieldHashMap.putAll(userfieldHashMap);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    this.groupingMode = groupingMode;
-    this.activeFields.clear();
-    this.activeFields.addAll(activeFields);
-    diffResult.dispatchUpdatesTo(this);
+    boolean finalHasPictures = hasPictures;
+    submitDiff(diffCallback, () -> {
+      this.containsPictures = finalHasPictures;
+      this.groupedListItems = items;
+      this.contentHashes = hashes;
+      this.shoppingListItemsProductIds = shoppingListIds;
+      this.quantityUnitHashMap = quMap;
+      this.quantityUnitConversions = conversions;
+      this.productAveragePriceHashMap = avgPriceMap;
+      this.productLastPurchasedHashMap = lastPurchasedMap;
+      this.missingItemsProductIds = missingIds;
+      this.userfieldHashMap = userfieldMap;
+      this.sortMode = sortMode;
+      this.sortAscending = sortAscending;
+      this.groupingMode = groupingMode;
+      this.activeFields = fields;
+    }, null);
+  }
+
+  // hash of every stock item including its product, computed once instead of for every pair
+  private static int[] getContentHashes(ArrayList<GroupedListItem> items) {
+    int[] hashes = new int[items.size()];
+    for (int i = 0; i < hashes.length; i++) {
+      GroupedListItem item = items.get(i);
+      hashes[i] = item instanceof StockItem ? item.hashCode() : 0;
+    }
+    return hashes;
   }
 
   static class DiffCallback extends DiffUtil.Callback {
 
     ArrayList<GroupedListItem> oldItems;
     ArrayList<GroupedListItem> newItems;
+    int[] contentHashesOld;
+    int[] contentHashesNew;
     ArrayList<String> shoppingListItemsProductIdsOld;
     ArrayList<String> shoppingListItemsProductIdsNew;
     HashMap<Integer, QuantityUnit> quantityUnitHashMapOld;
@@ -692,10 +578,21 @@ public class StockOverviewItemAdapter extends
     String groupingModeNew;
     List<String> activeFieldsOld;
     List<String> activeFieldsNew;
+    // the same for every item, so they are compared only once
+    boolean userfieldsEqual;
+    boolean activeFieldsEqual;
+    boolean showAveragePrice;
+    boolean showLastPrice;
+    HashSet<String> shoppingListItemsProductIdSetOld;
+    HashSet<String> shoppingListItemsProductIdSetNew;
+    HashSet<Integer> missingProductIdSetOld;
+    HashSet<Integer> missingProductIdSetNew;
 
     public DiffCallback(
         ArrayList<GroupedListItem> oldItems,
         ArrayList<GroupedListItem> newItems,
+        int[] contentHashesOld,
+        int[] contentHashesNew,
         ArrayList<String> shoppingListItemsProductIdsOld,
         ArrayList<String> shoppingListItemsProductIdsNew,
         HashMap<Integer, QuantityUnit> quantityUnitHashMapOld,
@@ -721,6 +618,8 @@ public class StockOverviewItemAdapter extends
     ) {
       this.newItems = newItems;
       this.oldItems = oldItems;
+      this.contentHashesOld = contentHashesOld;
+      this.contentHashesNew = contentHashesNew;
       this.shoppingListItemsProductIdsOld = shoppingListItemsProductIdsOld;
       this.shoppingListItemsProductIdsNew = shoppingListItemsProductIdsNew;
       this.quantityUnitHashMapOld = quantityUnitHashMapOld;
@@ -743,6 +642,18 @@ public class StockOverviewItemAdapter extends
       this.groupingModeNew = groupingModeNew;
       this.activeFieldsOld = activeFieldsOld;
       this.activeFieldsNew = activeFieldsNew;
+      this.userfieldsEqual = userfieldHashMapNew.equals(userfieldHashMapOld);
+      this.activeFieldsEqual = ArrayUtil.areListsEqualIgnoreOrder(
+          activeFieldsOld, activeFieldsNew
+      );
+      this.showAveragePrice = activeFieldsNew.contains(
+          StockOverviewViewModel.FIELD_AVERAGE_PRICE
+      );
+      this.showLastPrice = activeFieldsNew.contains(StockOverviewViewModel.FIELD_LAST_PRICE);
+      this.shoppingListItemsProductIdSetOld = new HashSet<>(shoppingListItemsProductIdsOld);
+      this.shoppingListItemsProductIdSetNew = new HashSet<>(shoppingListItemsProductIdsNew);
+      this.missingProductIdSetOld = new HashSet<>(missingProductIdsOld);
+      this.missingProductIdSetNew = new HashSet<>(missingProductIdsNew);
     }
 
     @Override
@@ -778,7 +689,7 @@ public class StockOverviewItemAdapter extends
         return false;
       }
       if (oldItemType == GroupedListItem.TYPE_ENTRY) {
-        if (!userfieldHashMapNew.equals(userfieldHashMapOld)) {
+        if (!userfieldsEqual) {
           return false;
         }
         StockItem newItem = (StockItem) newItems.get(newItemPos);
@@ -786,10 +697,10 @@ public class StockOverviewItemAdapter extends
         if (!compareContent) {
           return newItem.getProductId() == oldItem.getProductId();
         }
-        if (!newItem.getProduct().equals(oldItem.getProduct())) {
+        if (contentHashesNew[newItemPos] != contentHashesOld[oldItemPos]) {
           return false;
         }
-        if (!ArrayUtil.areListsEqualIgnoreOrder(activeFieldsOld, activeFieldsNew)) {
+        if (!activeFieldsEqual) {
           return false;
         }
         QuantityUnit quOld = quantityUnitHashMapOld.get(oldItem.getProduct().getQuIdStockInt());
@@ -800,22 +711,22 @@ public class StockOverviewItemAdapter extends
           return false;
         }
 
-        boolean isOnShoppingListOld = shoppingListItemsProductIdsOld
+        boolean isOnShoppingListOld = shoppingListItemsProductIdSetOld
             .contains(String.valueOf(oldItem.getProduct().getId()));
-        boolean isOnShoppingListNew = shoppingListItemsProductIdsNew
+        boolean isOnShoppingListNew = shoppingListItemsProductIdSetNew
             .contains(String.valueOf(newItem.getProduct().getId()));
         if (isOnShoppingListNew != isOnShoppingListOld) {
           return false;
         }
 
-        if (activeFieldsNew.contains(StockOverviewViewModel.FIELD_AVERAGE_PRICE)) {
+        if (showAveragePrice) {
           String priceOld = productAveragePriceHashMapOld.get(oldItem.getProductId());
           String priceNew = productAveragePriceHashMapNew.get(newItem.getProductId());
           if (priceOld == null && priceNew != null
               || priceOld != null && priceNew != null && !priceOld.equals(priceNew)) {
             return false;
           }
-        } else if (activeFieldsNew.contains(StockOverviewViewModel.FIELD_LAST_PRICE)) {
+        } else if (showLastPrice) {
           ProductLastPurchased purchasedOld = productLastPurchasedHashMapOld
               .get(oldItem.getProductId());
           ProductLastPurchased purchasedNew = productLastPurchasedHashMapNew
@@ -827,8 +738,8 @@ public class StockOverviewItemAdapter extends
           }
         }
 
-        boolean missingOld = missingProductIdsOld.contains(oldItem.getProductId());
-        boolean missingNew = missingProductIdsNew.contains(newItem.getProductId());
+        boolean missingOld = missingProductIdSetOld.contains(oldItem.getProductId());
+        boolean missingNew = missingProductIdSetNew.contains(newItem.getProductId());
         if (missingOld != missingNew) {
           return false;
         }
@@ -848,8 +759,7 @@ public class StockOverviewItemAdapter extends
         if (oldCon == null && newCon != null || newCon != null && !newCon.equals(oldCon)) {
           return false;
         }
-
-        return newItem.equals(oldItem);
+        return true;
       } else {
         GroupHeader newGroup = (GroupHeader) newItems.get(newItemPos);
         GroupHeader oldGroup = (GroupHeader) oldItems.get(oldItemPos);
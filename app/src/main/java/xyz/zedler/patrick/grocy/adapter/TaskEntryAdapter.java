@@ -44,16 +44,16 @@ import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.ResUtil;
 
 public class TaskEntryAdapter extends
-    RecyclerView.Adapter<TaskEntryAdapter.ViewHolder> {
+    AsyncDiffAdapter<TaskEntryAdapter.ViewHolder> {
 
   private final static String TAG = TaskEntryAdapter.class.getSimpleName();
   private final static boolean DEBUG = false;
 
   private Context context;
   private final LinearLayoutManager linearLayoutManager;
-  private final ArrayList<Task> tasks;
-  private final HashMap<Integer, TaskCategory> taskCategoriesHashMap;
-  private final HashMap<Integer, User> usersHashMap;
+  private ArrayList<Task> tasks;
+  private HashMap<Integer, TaskCategory> taskCategoriesHashMap;
+  private HashMap<Integer, User> usersHashMap;
   private final TasksItemAdapterListener listener;
   private String sortMode;
   private boolean sortAscending;
@@ -69,6 +69,7 @@ public class TaskEntryAdapter extends
     this.taskCategoriesHashMap = new HashMap<>();
     this.usersHashMap = new HashMap<>();
     this.listener = listener;
+    setHasStableIds(true);
   }
 
   @Override
@@ -206,6 +207,11 @@ public class TaskEntryAdapter extends
     );
   }
 
+  @Override
+  public long getItemId(int position) {
+    return tasks.get(position).getId();
+  }
+
   @Override
   public int getItemCount() {
     return tasks.size();
@@ -231,13 +237,17 @@ public class TaskEntryAdapter extends
       boolean sortAscending,
       Runnable onListFilled
   ) {
+    ArrayList<Task> newTasks = new ArrayList<>(newList);
+    HashMap<Integer, TaskCategory> newTaskCategoriesHashMap = new HashMap<>(taskCategoriesHashMap);
+    HashMap<Integer, User> newUsersHashMap = new HashMap<>(usersHashMap);
+
     TaskEntryAdapter.DiffCallback diffCallback = new TaskEntryAdapter.DiffCallback(
         this.tasks,
-        newList,
+        newTasks,
         this.taskCategoriesHashMap,
-        taskCategoriesHashMap,
+        newTaskCategoriesHashMap,
         this.usersHashMap,
-        usersHashMap,
+        newUsersHashMap,
         this.sortMode,
         sortMode,
         this.sortAscending,
@@ -248,16 +258,13 @@ public class TaskEntryAdapter extends
       onListFilled.run();
     }
 
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.tasks.clear();
-    this.tasks.addAll(newList);
-    this.taskCategoriesHashMap.clear();
-    this.taskCategoriesHashMap.putAll(taskCategoriesHashMap);
-    this.usersHashMap.clear();
-    this.usersHashMap.putAll(usersHashMap);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
+    submitDiff(diffCallback, () -> {
+      this.tasks = newTasks;
+      this.taskCategoriesHashMap = newTaskCategoriesHashMap;
+      this.usersHashMap = newUsersHashMap;
+      this.sortMode = sortMode;
+      this.sortAscending = sortAscending;
+    }, new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
   static class DiffCallback extends DiffUtil.Callback {
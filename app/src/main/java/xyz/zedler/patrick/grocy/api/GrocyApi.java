@@ -122,6 +122,10 @@ public class GrocyApi {
     baseUrl = serverUrl;
   }
 
+  public String getBaseUrl() {
+    return baseUrl;
+  }
+
   private String getUrl(String command) {
     return baseUrl + "/api" + command;
   }
@@ -299,6 +303,55 @@ public class GrocyApi {
     }
   }
 
+  /**
+   * Returns the newest stock log entries with an id greater than the given one
+   */
+  public String getStockLogEntriesNewerThan(int id, int limit) {
+    return getUrl(
+        "/objects/stock_log",
+        "query%5B%5D=" + new COMPARISON(
+            "id", COMPARISON_OPERATOR.GREATER, String.valueOf(id)
+        ).getQueryParam(),
+        "limit=" + limit,
+        "order=id%3Adesc"
+    );
+  }
+
+  /**
+   * Returns the newest stock log entries with an id less than the given one
+   */
+  public String getStockLogEntriesOlderThan(int id, int limit) {
+    return getUrl(
+        "/objects/stock_log",
+        "query%5B%5D=" + new COMPARISON(
+            "id", COMPARISON_OPERATOR.LESS, String.valueOf(id)
+        ).getQueryParam(),
+        "limit=" + limit,
+        "order=id%3Adesc"
+    );
+  }
+
+  /**
+   * Returns the undone stock log entries with an id greater than or equal to the given one
+   */
+  public String getUndoneStockLogEntries(int minId) {
+    return getObjects(
+        "stock_log",
+        new COMPARISON("undone", COMPARISON_OPERATOR.EQUAL, "1"),
+        new COMPARISON("id", COMPARISON_OPERATOR.GREATER_OR_EQUAL, String.valueOf(minId))
+    );
+  }
+
+  /**
+   * Returns all stock log entries of a transaction, e.g. to refresh them after an undo
+   */
+  public String getStockLogEntriesOfTransaction(String transactionId) {
+    return getObjects(
+        "stock_log",
+        new COMPARISON("transaction_id", COMPARISON_OPERATOR.EQUAL, transactionId)
+    );
+  }
+
   /**
    * Returns all products which are currently in stock incl. the next due date per product
    */
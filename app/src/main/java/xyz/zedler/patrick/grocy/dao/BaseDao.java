@@ -0,0 +1,39 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.dao;
+
+import androidx.room.Delete;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import java.util.List;
+
+/**
+ * Row operations every entity DAO shares, used by TableDiff to write only the rows which
+ * changed. Methods are blocking and must be called from a background thread.
+ */
+public interface BaseDao<T> {
+
+  @Insert(onConflict = OnConflictStrategy.REPLACE)
+  void upsertRows(List<T> rows);
+
+  @Delete
+  void deleteRows(List<T> rows);
+
+}
@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.Chore;
 
 @Dao
-public interface ChoreDao {
+public interface ChoreDao extends BaseDao<Chore> {
 
   @Query("SELECT * FROM chore_table")
   Single<List<Chore>> getChores();
@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 
 @Dao
-public interface ChoreEntryDao {
+public interface ChoreEntryDao extends BaseDao<ChoreEntry> {
 
   @Query("SELECT * FROM chore_entry_table")
   Single<List<ChoreEntry>> getChoreEntries();
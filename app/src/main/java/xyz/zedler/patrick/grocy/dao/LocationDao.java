@@ -23,16 +23,20 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.Location;
 
 @Dao
-public interface LocationDao {
+public interface LocationDao extends BaseDao<Location> {
 
   @Query("SELECT * FROM location_table")
   Single<List<Location>> getLocations();
 
+  @Query("SELECT * FROM location_table")
+  Flowable<List<Location>> observeLocations();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertLocations(List<Location> locations);
 
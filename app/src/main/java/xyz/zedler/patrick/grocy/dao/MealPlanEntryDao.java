@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.MealPlanEntry;
 
 @Dao
-public interface MealPlanEntryDao {
+public interface MealPlanEntryDao extends BaseDao<MealPlanEntry> {
 
   @Query("SELECT * FROM meal_plan_entry_table")
   Single<List<MealPlanEntry>> getMealPlanEntries();
@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.MealPlanSection;
 
 @Dao
-public interface MealPlanSectionDao {
+public interface MealPlanSectionDao extends BaseDao<MealPlanSection> {
 
   @Query("SELECT * FROM meal_plan_section_table")
   Single<List<MealPlanSection>> getMealPlanSections();
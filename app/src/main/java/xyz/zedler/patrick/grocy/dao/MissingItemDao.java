@@ -23,16 +23,20 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.MissingItem;
 
 @Dao
-public interface MissingItemDao {
+public interface MissingItemDao extends BaseDao<MissingItem> {
 
   @Query("SELECT * FROM missing_item_table")
   Single<List<MissingItem>> getMissingItems();
 
+  @Query("SELECT * FROM missing_item_table")
+  Flowable<List<MissingItem>> observeMissingItems();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertMissingItems(List<MissingItem> missingItems);
 
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+import xyz.zedler.patrick.grocy.model.PendingMutation;
+
+@Dao
+public interface PendingMutationDao {
+
+  @Query("SELECT * FROM pending_mutation_table WHERE state = 0 ORDER BY id")
+  Single<List<PendingMutation>> getPendingMutations();
+
+  // rejected mutations and mutations with an unknown outcome
+  @Query("SELECT * FROM pending_mutation_table WHERE state != 0 ORDER BY id")
+  LiveData<List<PendingMutation>> getConflictsLive();
+
+  @Query("SELECT COUNT(*) FROM pending_mutation_table WHERE state = 0")
+  LiveData<Integer> getPendingCountLive();
+
+  @Query("SELECT COUNT(*) FROM pending_mutation_table WHERE state = 0")
+  Single<Integer> countPendingMutations();
+
+  // synchronous, so it can be used in a transaction with the optimistic update
+  @Insert
+  long insertPendingMutation(PendingMutation pendingMutation);
+
+  @Query("UPDATE pending_mutation_table SET attempts = attempts + 1 WHERE id = :id")
+  Single<Integer> incrementAttempts(long id);
+
+  @Query("UPDATE pending_mutation_table SET state = 1, error = :error WHERE id = :id")
+  Single<Integer> markConflict(long id, String error);
+
+  @Query("UPDATE pending_mutation_table SET state = 2, error = :error WHERE id = :id")
+  Single<Integer> markUnknown(long id, String error);
+
+  @Query("DELETE FROM pending_mutation_table WHERE id = :id")
+  Single<Integer> deletePendingMutation(long id);
+
+  @Query("DELETE FROM pending_mutation_table WHERE state != 0")
+  Single<Integer> deleteConflicts();
+
+  @Query("DELETE FROM pending_mutation_table")
+  Single<Integer> deletePendingMutations();
+
+}
@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.ProductAveragePrice;
 
 @Dao
-public interface ProductAveragePriceDao {
+public interface ProductAveragePriceDao extends BaseDao<ProductAveragePrice> {
 
   @Query("SELECT * FROM product_average_price_table")
   Single<List<ProductAveragePrice>> getProductsAveragePrice();
@@ -28,11 +28,21 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 
 @Dao
-public interface ProductBarcodeDao {
+public interface ProductBarcodeDao extends BaseDao<ProductBarcode> {
 
   @Query("SELECT * FROM product_barcode_table")
   Single<List<ProductBarcode>> getProductBarcodes();
 
+  // blocking lookups by id for TableDiff.applyBatched()
+  @Query("SELECT * FROM product_barcode_table WHERE id IN (:ids)")
+  List<ProductBarcode> getProductBarcodes(List<Integer> ids);
+
+  @Query("SELECT id FROM product_barcode_table")
+  List<Integer> getProductBarcodeIds();
+
+  @Query("DELETE FROM product_barcode_table WHERE id IN (:ids)")
+  void deleteProductBarcodes(List<Integer> ids);
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertProductBarcodes(List<ProductBarcode> productBarcodes);
 
@@ -22,17 +22,31 @@ package xyz.zedler.patrick.grocy.dao;
 import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
+import androidx.paging.PagingSource;
 import androidx.room.Query;
+import androidx.room.RawQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.Product;
 
 @Dao
-public interface ProductDao {
+public interface ProductDao extends BaseDao<Product> {
 
   @Query("SELECT * FROM product_table")
   Single<List<Product>> getProducts();
 
+  @Query("SELECT * FROM product_table")
+  Flowable<List<Product>> observeProducts();
+
+  @RawQuery(observedEntities = Product.class)
+  PagingSource<Integer, Product> getProductsPaged(SupportSQLiteQuery query);
+
+  @Query("SELECT EXISTS(SELECT 1 FROM product_table "
+      + "WHERE picture_file_name IS NOT NULL AND picture_file_name != '')")
+  Single<Boolean> hasProductPictures();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertProducts(List<Product> products);
 
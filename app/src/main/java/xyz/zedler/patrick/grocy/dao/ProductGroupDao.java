@@ -23,16 +23,20 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 
 @Dao
-public interface ProductGroupDao {
+public interface ProductGroupDao extends BaseDao<ProductGroup> {
 
   @Query("SELECT * FROM product_group_table")
   Single<List<ProductGroup>> getProductGroups();
 
+  @Query("SELECT * FROM product_group_table")
+  Flowable<List<ProductGroup>> observeProductGroups();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertProductGroups(List<ProductGroup> productGroups);
 
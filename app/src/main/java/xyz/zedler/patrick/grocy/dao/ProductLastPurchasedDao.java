@@ -23,16 +23,20 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 
 @Dao
-public interface ProductLastPurchasedDao {
+public interface ProductLastPurchasedDao extends BaseDao<ProductLastPurchased> {
 
   @Query("SELECT * FROM product_last_purchased_table")
   Single<List<ProductLastPurchased>> getProductsLastPurchased();
 
+  @Query("SELECT * FROM product_last_purchased_table")
+  Flowable<List<ProductLastPurchased>> observeProductsLastPurchased();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertProductsLastPurchased(List<ProductLastPurchased> productsLastPurchased);
 
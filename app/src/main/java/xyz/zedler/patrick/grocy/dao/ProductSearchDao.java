@@ -0,0 +1,42 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+import xyz.zedler.patrick.grocy.model.ProductSearch;
+
+@Dao
+public interface ProductSearchDao {
+
+  // exact name matches first, then names starting with the input, then names with a word
+  // starting with it, and finally matches only in barcodes or descriptions
+  @Query("SELECT rowid, * FROM product_search_table WHERE product_search_table MATCH :match "
+      + "ORDER BY CASE WHEN name LIKE :exact ESCAPE '\\' THEN 0 "
+      + "WHEN name LIKE :exact || '%' ESCAPE '\\' THEN 1 "
+      + "WHEN name LIKE '% ' || :exact || '%' ESCAPE '\\' THEN 2 ELSE 3 END, "
+      + "length(name), name COLLATE NOCASE LIMIT :limit")
+  Single<List<ProductSearch>> searchProducts(String match, String exact, int limit);
+
+  @Query("SELECT rowid, * FROM product_search_table")
+  Single<List<ProductSearch>> getEntries();
+
+}
@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 
 @Dao
-public interface QuantityUnitConversionDao {
+public interface QuantityUnitConversionDao extends BaseDao<QuantityUnitConversion> {
 
   @Query("SELECT * FROM quantity_unit_conversion_table")
   Single<List<QuantityUnitConversion>> getConversions();
@@ -23,16 +23,20 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 
 @Dao
-public interface QuantityUnitConversionResolvedDao {
+public interface QuantityUnitConversionResolvedDao extends BaseDao<QuantityUnitConversionResolved> {
 
   @Query("SELECT * FROM quantity_unit_conversion_resolved_table")
   Single<List<QuantityUnitConversionResolved>> getConversionsResolved();
 
+  @Query("SELECT * FROM quantity_unit_conversion_resolved_table")
+  Flowable<List<QuantityUnitConversionResolved>> observeConversionsResolved();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertConversionsResolved(List<QuantityUnitConversionResolved> quantityUnitConversionsResolved);
 
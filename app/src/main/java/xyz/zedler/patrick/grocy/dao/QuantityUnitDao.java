@@ -23,16 +23,20 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 
 @Dao
-public interface QuantityUnitDao {
+public interface QuantityUnitDao extends BaseDao<QuantityUnit> {
 
   @Query("SELECT * FROM quantity_unit_table")
   Single<List<QuantityUnit>> getQuantityUnits();
 
+  @Query("SELECT * FROM quantity_unit_table")
+  Flowable<List<QuantityUnit>> observeQuantityUnits();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertQuantityUnits(List<QuantityUnit> quantityUnits);
 
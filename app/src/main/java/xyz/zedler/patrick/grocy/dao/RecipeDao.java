@@ -30,7 +30,7 @@ import io.reactivex.rxjava3.core.Single;
 import xyz.zedler.patrick.grocy.model.Recipe;
 
 @Dao
-public interface RecipeDao {
+public interface RecipeDao extends BaseDao<Recipe> {
 
   @Query("SELECT * FROM recipe_table")
   Single<List<Recipe>> getRecipes();
@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
 
 @Dao
-public interface RecipeFulfillmentDao {
+public interface RecipeFulfillmentDao extends BaseDao<RecipeFulfillment> {
 
   @Query("SELECT * FROM recipe_fulfillment_table")
   Single<List<RecipeFulfillment>> getRecipeFulfillments();
@@ -29,7 +29,7 @@ import xyz.zedler.patrick.grocy.model.RecipeNesting;
 import xyz.zedler.patrick.grocy.model.RecipeNestingResolved;
 
 @Dao
-public interface RecipeNestingDao {
+public interface RecipeNestingDao extends BaseDao<RecipeNesting> {
 
   @Query("SELECT * FROM recipe_nesting_table")
   Single<List<RecipeNesting>> getRecipeNestings();
@@ -30,7 +30,7 @@ import io.reactivex.rxjava3.core.Single;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
 
 @Dao
-public interface RecipePositionDao {
+public interface RecipePositionDao extends BaseDao<RecipePosition> {
 
   @Query("SELECT * FROM recipe_pos_table")
   Single<List<RecipePosition>> getRecipePositions();
@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.RecipePositionResolved;
 
 @Dao
-public interface RecipePositionResolvedDao {
+public interface RecipePositionResolvedDao extends BaseDao<RecipePositionResolved> {
 
   @Query("SELECT * FROM recipe_pos_resolved_table")
   Single<List<RecipePositionResolved>> getRecipePositionsResolved();
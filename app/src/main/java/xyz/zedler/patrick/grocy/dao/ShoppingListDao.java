@@ -24,12 +24,13 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
 
 @Dao
-public interface ShoppingListDao {
+public interface ShoppingListDao extends BaseDao<ShoppingList> {
 
   @Query("SELECT * FROM shopping_list_table")
   LiveData<List<ShoppingList>> getAllLive();
@@ -37,6 +38,9 @@ public interface ShoppingListDao {
   @Query("SELECT * FROM shopping_list_table")
   Single<List<ShoppingList>> getShoppingLists();
 
+  @Query("SELECT * FROM shopping_list_table")
+  Flowable<List<ShoppingList>> observeShoppingLists();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertShoppingLists(List<ShoppingList> shoppingLists);
 
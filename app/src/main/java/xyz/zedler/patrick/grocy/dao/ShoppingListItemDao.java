@@ -23,16 +23,20 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 
 @Dao
-public interface ShoppingListItemDao {
+public interface ShoppingListItemDao extends BaseDao<ShoppingListItem> {
 
   @Query("SELECT * FROM shopping_list_item_table")
   Single<List<ShoppingListItem>> getShoppingListItems();
 
+  @Query("SELECT * FROM shopping_list_item_table")
+  Flowable<List<ShoppingListItem>> observeShoppingListItems();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertShoppingListItems(List<ShoppingListItem> shoppingListItems);
 
@@ -22,17 +22,42 @@ package xyz.zedler.patrick.grocy.dao;
 import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
+import androidx.paging.PagingSource;
 import androidx.room.Query;
+import androidx.room.RawQuery;
+import androidx.room.Transaction;
+import androidx.sqlite.db.SupportSQLiteQuery;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
+import xyz.zedler.patrick.grocy.model.Location;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.StockEntry;
+import xyz.zedler.patrick.grocy.model.StockEntryItem;
+import xyz.zedler.patrick.grocy.model.Store;
 
 @Dao
-public interface StockEntryDao {
+public interface StockEntryDao extends BaseDao<StockEntry> {
 
   @Query("SELECT * FROM stock_entry_table")
   Single<List<StockEntry>> getStockEntries();
 
+  // blocking lookups by id for TableDiff.applyBatched()
+  @Query("SELECT * FROM stock_entry_table WHERE id IN (:ids)")
+  List<StockEntry> getStockEntries(List<Integer> ids);
+
+  @Query("SELECT id FROM stock_entry_table")
+  List<Integer> getStockEntryIds();
+
+  @Query("DELETE FROM stock_entry_table WHERE id IN (:ids)")
+  void deleteStockEntries(List<Integer> ids);
+
+  @Transaction
+  @RawQuery(observedEntities = {
+      StockEntry.class, Product.class, ProductBarcode.class, Location.class, Store.class
+  })
+  PagingSource<Integer, StockEntryItem> getStockEntriesPaged(SupportSQLiteQuery query);
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertStockEntries(List<StockEntry> stockEntries);
 
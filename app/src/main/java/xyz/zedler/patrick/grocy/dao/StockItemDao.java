@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.StockItem;
 
 @Dao
-public interface StockItemDao {
+public interface StockItemDao extends BaseDao<StockItem> {
 
   @Query("SELECT * FROM stock_item_table")
   Single<List<StockItem>> getStockItems();
@@ -39,4 +39,32 @@ public interface StockItemDao {
   @Query("DELETE FROM stock_item_table")
   Single<Integer> deleteStockItems();
 
+  // Optimistic updates for offline stock actions, replaced by the next download.
+  // Amounts are stored as text, so they are cast before comparing them with numbers.
+
+  @Query("UPDATE stock_item_table SET "
+      + "amount = MAX(CAST(amount AS REAL) - :amount, 0), "
+      + "amount_aggregated = MAX(CAST(amount_aggregated AS REAL) - :amount, 0), "
+      + "amount_opened = MIN(CAST(amount_opened AS REAL), "
+      + "MAX(CAST(amount AS REAL) - :amount, 0)), "
+      + "amount_opened_aggregated = MIN(CAST(amount_opened_aggregated AS REAL), "
+      + "MAX(CAST(amount_aggregated AS REAL) - :amount, 0)) "
+      + "WHERE product_id = :productId")
+  int applyConsumed(int productId, double amount);
+
+  @Query("UPDATE stock_item_table SET "
+      + "amount_opened = MIN(CAST(amount_opened AS REAL) + :amount, CAST(amount AS REAL)), "
+      + "amount_opened_aggregated = MIN(CAST(amount_opened_aggregated AS REAL) + :amount, "
+      + "CAST(amount_aggregated AS REAL)) "
+      + "WHERE product_id = :productId")
+  int applyOpened(int productId, double amount);
+
+  @Query("UPDATE stock_item_table SET "
+      + "amount_aggregated = MAX(CAST(amount_aggregated AS REAL) "
+      + "- CAST(amount AS REAL) + :newAmount, 0), "
+      + "amount = :newAmount, "
+      + "amount_opened = MIN(CAST(amount_opened AS REAL), :newAmount) "
+      + "WHERE product_id = :productId")
+  int applyInventory(int productId, double newAmount);
+
 }
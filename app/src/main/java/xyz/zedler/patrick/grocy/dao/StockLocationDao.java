@@ -23,16 +23,20 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.StockLocation;
 
 @Dao
-public interface StockLocationDao {
+public interface StockLocationDao extends BaseDao<StockLocation> {
 
   @Query("SELECT * FROM stock_current_location_table")
   Single<List<StockLocation>> getStockLocations();
 
+  @Query("SELECT * FROM stock_current_location_table")
+  Flowable<List<StockLocation>> observeStockLocations();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertStockLocations(List<StockLocation> stockLocation);
 
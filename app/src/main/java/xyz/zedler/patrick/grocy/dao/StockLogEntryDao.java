@@ -0,0 +1,52 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+import xyz.zedler.patrick.grocy.model.StockLogEntry;
+
+@Dao
+public interface StockLogEntryDao extends BaseDao<StockLogEntry> {
+
+  @Query("SELECT * FROM stock_log_entry_table ORDER BY id DESC LIMIT :limit OFFSET :offset")
+  Single<List<StockLogEntry>> getStockLogEntries(int limit, int offset);
+
+  @Query("SELECT stock_log_entry_table.* FROM stock_log_entry_table "
+      + "LEFT JOIN product_table ON product_table.id = stock_log_entry_table.product_id "
+      + "WHERE product_table.name LIKE '%' || :search || '%' "
+      + "OR stock_log_entry_table.note LIKE '%' || :search || '%' "
+      + "ORDER BY stock_log_entry_table.id DESC LIMIT :limit OFFSET :offset")
+  Single<List<StockLogEntry>> searchStockLogEntries(String search, int limit, int offset);
+
+  @Query("SELECT COALESCE(MAX(id), 0) FROM stock_log_entry_table")
+  Single<Integer> getNewestId();
+
+  @Query("SELECT COALESCE(MIN(id), 0) FROM stock_log_entry_table")
+  Single<Integer> getOldestId();
+
+  @Query("SELECT COUNT(*) FROM stock_log_entry_table")
+  Single<Integer> count();
+
+  @Query("DELETE FROM stock_log_entry_table")
+  Single<Integer> deleteStockLogEntries();
+
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.List;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductAveragePrice;
+import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
+import xyz.zedler.patrick.grocy.model.StockOverviewItem;
+
+/**
+ * Queries of the stock overview. The stock items are joined with their due and missing state
+ * from the stock status table, all other queries are limited to the products in stock.
+ * The queries are observed, so each of them emits again when one of the tables it reads from
+ * changes.
+ */
+@Dao
+public interface StockOverviewDao {
+
+  // Stock items with the state of the stock status table, plus missing products which are
+  // not in stock at all
+  @Transaction
+  @Query("SELECT s.amount, s.amount_aggregated, s.value, s.best_before_date, "
+      + "s.amount_opened, s.amount_opened_aggregated, s.is_aggregated_amount, s.due_type, "
+      + "s.product_id, COALESCE(st.due, 0) AS item_due, "
+      + "COALESCE(st.overdue, 0) AS item_overdue, COALESCE(st.expired, 0) AS item_expired, "
+      + "COALESCE(st.missing, 0) AS item_missing, "
+      + "COALESCE(st.missing_partly_in_stock, 0) AS item_missing_partly_in_stock "
+      + "FROM stock_item_table s "
+      + "LEFT JOIN stock_status_table st ON st.product_id = s.product_id "
+      + "UNION ALL "
+      + "SELECT NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, st.product_id, 0, 0, 0, 1, 0 "
+      + "FROM stock_status_table st "
+      + "WHERE st.in_stock = 0 AND st.missing_partly_in_stock = 0")
+  Flowable<List<StockOverviewItem>> observeStockOverviewItems();
+
+  // only needed for grouping by parent product
+  @Query("SELECT * FROM product_table WHERE id IN "
+      + "(SELECT parent_product_id FROM product_table WHERE parent_product_id IS NOT NULL)")
+  Flowable<List<Product>> observeParentProducts();
+
+  @Query("SELECT * FROM quantity_unit_conversion_resolved_table "
+      + "WHERE product_id IN (SELECT product_id FROM stock_item_table)")
+  Flowable<List<QuantityUnitConversionResolved>> observeConversionsOfStock();
+
+  @Query("SELECT * FROM product_average_price_table "
+      + "WHERE product_id IN (SELECT product_id FROM stock_item_table)")
+  Flowable<List<ProductAveragePrice>> observeAveragePricesOfStock();
+
+  @Query("SELECT * FROM product_last_purchased_table "
+      + "WHERE product_id IN (SELECT product_id FROM stock_item_table)")
+  Flowable<List<ProductLastPurchased>> observeLastPurchasedOfStock();
+
+  @Query("SELECT DISTINCT product_id FROM shopping_list_item_table "
+      + "WHERE product_id IS NOT NULL AND product_id != ''")
+  Flowable<List<String>> observeShoppingListProductIds();
+
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+import xyz.zedler.patrick.grocy.model.StockStatusCounts;
+
+@Dao
+public interface StockStatusDao {
+
+  String VOLATILE_EXISTS = "EXISTS (SELECT 1 FROM volatile_item_table v "
+      + "WHERE v.product_id = s.product_id AND v.volatile_type = ";
+
+  String OWN_STOCK = " AND COALESCE(p.no_own_stock, '0') != '1')";
+
+  @Query("DELETE FROM stock_status_table")
+  void deleteStockStatus();
+
+  @Query("DELETE FROM stock_status_table WHERE product_id IN (:productIds)")
+  void deleteStockStatus(List<Integer> productIds);
+
+  String INSERT_INTO = "INSERT INTO stock_status_table (product_id, in_stock, due, "
+      + "overdue, expired, missing, missing_partly_in_stock, opened, hidden, value) ";
+
+  String SELECT_IN_STOCK = "SELECT s.product_id, 1, "
+      + "(" + VOLATILE_EXISTS + "1" + OWN_STOCK + ", "
+      + "(" + VOLATILE_EXISTS + "2" + OWN_STOCK + ", "
+      + "(" + VOLATILE_EXISTS + "3" + OWN_STOCK + ", "
+      + "m.id IS NOT NULL, "
+      + "COALESCE(m.is_partly_in_stock = '1', 0), "
+      + "COALESCE(CAST(s.amount_opened AS REAL) > 0, 0), "
+      + "COALESCE(p.hide_on_stock_overview = '1', 0), "
+      + "COALESCE(CAST(s.value AS REAL), 0) "
+      + "FROM stock_item_table s "
+      + "LEFT JOIN missing_item_table m ON m.id = s.product_id "
+      + "LEFT JOIN product_table p ON p.id = s.product_id ";
+
+  String SELECT_MISSING_NOT_IN_STOCK = "SELECT m.id, 0, 0, 0, 0, 1, "
+      + "COALESCE(m.is_partly_in_stock = '1', 0), 0, "
+      + "COALESCE(p.hide_on_stock_overview = '1', 0), 0 "
+      + "FROM missing_item_table m "
+      + "LEFT JOIN product_table p ON p.id = m.id "
+      + "WHERE NOT EXISTS (SELECT 1 FROM stock_item_table s WHERE s.product_id = m.id)";
+
+  // products in stock, plus missing products which are not in stock at all
+  String INSERT_STOCK_STATUS = INSERT_INTO + SELECT_IN_STOCK + "UNION ALL "
+      + SELECT_MISSING_NOT_IN_STOCK;
+
+  @Query(INSERT_STOCK_STATUS)
+  void insertStockStatus();
+
+  @Query(INSERT_INTO + SELECT_IN_STOCK + "WHERE s.product_id IN (:productIds) "
+      + "UNION ALL " + SELECT_MISSING_NOT_IN_STOCK + " AND m.id IN (:productIds)")
+  void insertStockStatus(List<Integer> productIds);
+
+  // blocking, must be called from a background thread
+  @Transaction
+  default void refreshStockStatus() {
+    deleteStockStatus();
+    insertStockStatus();
+  }
+
+  // recomputes only the given products, blocking like refreshStockStatus()
+  @Transaction
+  default void refreshStockStatus(List<Integer> productIds) {
+    deleteStockStatus(productIds);
+    insertStockStatus(productIds);
+  }
+
+  String COUNTS = "SELECT "
+      + "COALESCE(SUM(in_stock AND due), 0) AS due_soon_count, "
+      + "COALESCE(SUM(in_stock AND NOT due AND overdue), 0) AS overdue_count, "
+      + "COALESCE(SUM(in_stock AND NOT due AND NOT overdue AND expired), 0) AS expired_count, "
+      + "COALESCE(SUM(missing), 0) AS missing_count, "
+      + "COALESCE(SUM(missing AND product_id IN (SELECT product_id "
+      + "FROM shopping_list_item_table WHERE product_id IS NOT NULL)), 0) "
+      + "AS missing_on_shopping_list_count, "
+      + "COALESCE(SUM(in_stock AND (NOT missing OR missing_partly_in_stock)), 0) "
+      + "AS in_stock_count, "
+      + "COALESCE(SUM(in_stock AND NOT hidden AND (NOT missing OR missing_partly_in_stock)), 0) "
+      + "AS in_stock_visible_count, "
+      + "COALESCE(SUM(in_stock AND opened), 0) AS opened_count, "
+      + "COALESCE(SUM(CASE WHEN in_stock AND NOT hidden "
+      + "AND (NOT missing OR missing_partly_in_stock) THEN value END), 0) AS stock_value_visible "
+      + "FROM stock_status_table";
+
+  @Query(COUNTS)
+  Flowable<StockStatusCounts> observeCounts();
+
+  @Query(COUNTS)
+  Single<StockStatusCounts> getCounts();
+
+}
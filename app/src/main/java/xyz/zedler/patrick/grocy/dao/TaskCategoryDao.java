@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
 
 @Dao
-public interface TaskCategoryDao {
+public interface TaskCategoryDao extends BaseDao<TaskCategory> {
 
   @Query("SELECT * FROM task_category_table")
   Single<List<TaskCategory>> getTaskCategories();
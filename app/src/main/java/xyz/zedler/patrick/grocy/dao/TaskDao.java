@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.Task;
 
 @Dao
-public interface TaskDao {
+public interface TaskDao extends BaseDao<Task> {
 
   @Query("SELECT * FROM task_table")
   Single<List<Task>> getTasks();
@@ -23,16 +23,20 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.User;
 
 @Dao
-public interface UserDao {
+public interface UserDao extends BaseDao<User> {
 
   @Query("SELECT * FROM user_table")
   Single<List<User>> getUsers();
 
+  @Query("SELECT * FROM user_table")
+  Flowable<List<User>> observeUsers();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertUsers(List<User> users);
 
@@ -23,16 +23,20 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.Userfield;
 
 @Dao
-public interface UserfieldDao {
+public interface UserfieldDao extends BaseDao<Userfield> {
 
   @Query("SELECT * FROM userfield_table")
   Single<List<Userfield>> getUserfields();
 
+  @Query("SELECT * FROM userfield_table")
+  Flowable<List<Userfield>> observeUserfields();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertStores(List<Userfield> userfields);
 
@@ -28,7 +28,7 @@ import java.util.List;
 import xyz.zedler.patrick.grocy.model.VolatileItem;
 
 @Dao
-public interface VolatileItemDao {
+public interface VolatileItemDao extends BaseDao<VolatileItem> {
 
   @Query("SELECT * FROM volatile_item_table")
   Single<List<VolatileItem>> getVolatileItems();
@@ -20,10 +20,14 @@
 package xyz.zedler.patrick.grocy.database;
 
 import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.annotation.NonNull;
+import androidx.preference.PreferenceManager;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
@@ -33,12 +37,14 @@ import xyz.zedler.patrick.grocy.dao.LocationDao;
 import xyz.zedler.patrick.grocy.dao.MealPlanEntryDao;
 import xyz.zedler.patrick.grocy.dao.MealPlanSectionDao;
 import xyz.zedler.patrick.grocy.dao.MissingItemDao;
+import xyz.zedler.patrick.grocy.dao.PendingMutationDao;
 import xyz.zedler.patrick.grocy.dao.PendingProductBarcodeDao;
 import xyz.zedler.patrick.grocy.dao.PendingProductDao;
 import xyz.zedler.patrick.grocy.dao.ProductAveragePriceDao;
 import xyz.zedler.patrick.grocy.dao.ProductBarcodeDao;
 import xyz.zedler.patrick.grocy.dao.ProductDao;
 import xyz.zedler.patrick.grocy.dao.ProductGroupDao;
+import xyz.zedler.patrick.grocy.dao.ProductSearchDao;
 import xyz.zedler.patrick.grocy.dao.ProductLastPurchasedDao;
 import xyz.zedler.patrick.grocy.dao.QuantityUnitConversionDao;
 import xyz.zedler.patrick.grocy.dao.QuantityUnitConversionResolvedDao;
@@ -54,6 +60,9 @@ import xyz.zedler.patrick.grocy.dao.ShoppingListItemDao;
 import xyz.zedler.patrick.grocy.dao.StockEntryDao;
 import xyz.zedler.patrick.grocy.dao.StockItemDao;
 import xyz.zedler.patrick.grocy.dao.StockLocationDao;
+import xyz.zedler.patrick.grocy.dao.StockLogEntryDao;
+import xyz.zedler.patrick.grocy.dao.StockOverviewDao;
+import xyz.zedler.patrick.grocy.dao.StockStatusDao;
 import xyz.zedler.patrick.grocy.dao.StoreDao;
 import xyz.zedler.patrick.grocy.dao.StoredPurchaseDao;
 import xyz.zedler.patrick.grocy.dao.TaskCategoryDao;
@@ -67,6 +76,7 @@ import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.MealPlanEntry;
 import xyz.zedler.patrick.grocy.model.MealPlanSection;
 import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.PendingMutation;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.PendingProductBarcode;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -74,6 +84,7 @@ import xyz.zedler.patrick.grocy.model.ProductAveragePrice;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
+import xyz.zedler.patrick.grocy.model.ProductSearch;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
@@ -89,6 +100,8 @@ import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockEntry;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.StockLocation;
+import xyz.zedler.patrick.grocy.model.StockLogEntry;
+import xyz.zedler.patrick.grocy.model.StockStatus;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.model.StoredPurchase;
 import xyz.zedler.patrick.grocy.model.Task;
@@ -133,17 +146,22 @@ import xyz.zedler.patrick.grocy.repository.MainRepository.OnVersionListener;
         RecipeNesting.class,
         MealPlanEntry.class,
         MealPlanSection.class,
-        Userfield.class
+        Userfield.class,
+        StockLogEntry.class,
+        PendingMutation.class,
+        ProductSearch.class,
+        StockStatus.class
     },
     views = {
         RecipeNestingResolved.class
     },
-    version = 54
+    version = 59
 )
 @TypeConverters({Converters.class})
 public abstract class AppDatabase extends RoomDatabase {
 
   private static AppDatabase INSTANCE;
+  private static String instanceName;
 
   public abstract ShoppingListDao shoppingListDao();
 
@@ -213,19 +231,52 @@ public abstract class AppDatabase extends RoomDatabase {
 
   public abstract ServerDao serverDao();
 
-  public static AppDatabase getAppDatabase(Context context) {
-    if (INSTANCE == null) {
-      INSTANCE = Room.databaseBuilder(
-          context.getApplicationContext(),
-          AppDatabase.class,
-          "app_database"
-      ).fallbackToDestructiveMigration().build();
+  public abstract StockLogEntryDao stockLogEntryDao();
+
+  public abstract PendingMutationDao pendingMutationDao();
+
+  public abstract StockOverviewDao stockOverviewDao();
+
+  public abstract ProductSearchDao productSearchDao();
+
+  public abstract StockStatusDao stockStatusDao();
+
+  /**
+   * Returns the database of the current server and opens it if necessary. After the server was
+   * switched, the database of the previous server is closed.
+   */
+  public static synchronized AppDatabase getAppDatabase(Context context) {
+    Context appContext = context.getApplicationContext();
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(appContext);
+    String name = DatabaseProfiles.getDatabaseName(sharedPrefs);
+    if (INSTANCE != null && name.equals(instanceName)) {
+      return INSTANCE;
+    }
+    if (INSTANCE != null) {
+      INSTANCE.close();
     }
+    DatabaseProfiles.activate(appContext, sharedPrefs, name);
+    INSTANCE = Room.databaseBuilder(appContext, AppDatabase.class, name)
+        .addMigrations(DatabaseMigrations.ALL)
+        .fallbackToDestructiveMigrationFrom(DatabaseMigrations.getDestructiveVersions())
+        .fallbackToDestructiveMigrationOnDowngrade()
+        .addCallback(new Callback() {
+          @Override
+          public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            ProductSearchIndex.createTriggers(db);
+          }
+        })
+        .build();
+    instanceName = name;
     return INSTANCE;
   }
 
-  public static void destroyInstance() {
+  public static synchronized void destroyInstance() {
+    if (INSTANCE != null) {
+      INSTANCE.close();
+    }
     INSTANCE = null;
+    instanceName = null;
   }
 
   public void getVersion(OnVersionListener versionListener) {
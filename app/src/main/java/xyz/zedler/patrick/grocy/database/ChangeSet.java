@@ -0,0 +1,84 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.database;
+
+import androidx.annotation.NonNull;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keys of the rows which were inserted, updated or deleted when a downloaded entity list
+ * was applied to its table.
+ */
+public class ChangeSet<K> {
+
+  private final Set<K> inserted = new HashSet<>();
+  private final Set<K> updated = new HashSet<>();
+  private final Set<K> deleted = new HashSet<>();
+
+  void addInserted(K key) {
+    inserted.add(key);
+  }
+
+  void addUpdated(K key) {
+    updated.add(key);
+  }
+
+  void addDeleted(K key) {
+    deleted.add(key);
+  }
+
+  void addDeletedAll(Collection<K> keys) {
+    deleted.addAll(keys);
+  }
+
+  public Set<K> getInserted() {
+    return Collections.unmodifiableSet(inserted);
+  }
+
+  public Set<K> getUpdated() {
+    return Collections.unmodifiableSet(updated);
+  }
+
+  public Set<K> getDeleted() {
+    return Collections.unmodifiableSet(deleted);
+  }
+
+  public boolean isEmpty() {
+    return inserted.isEmpty() && updated.isEmpty() && deleted.isEmpty();
+  }
+
+  public int size() {
+    return inserted.size() + updated.size() + deleted.size();
+  }
+
+  public boolean contains(K key) {
+    return inserted.contains(key) || updated.contains(key) || deleted.contains(key);
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "ChangeSet(inserted=" + inserted.size() + ", updated=" + updated.size()
+        + ", deleted=" + deleted.size() + ')';
+  }
+}
@@ -9,14 +9,25 @@ import java.util.Map;
 public class Converters {
   private static Gson gson = new Gson();
 
+  // values are decoded when they are read, see UserfieldMap
   @TypeConverter
   public static Map<String, String> stringToMap(String value) {
-    Type type = new TypeToken<Map<String, String>>() {}.getType();
-    return gson.fromJson(value, type);
+    if (value == null || value.equals("null")) {
+      return null;
+    }
+    return new UserfieldMap(value);
   }
 
   @TypeConverter
   public static String mapToString(Map<String, String> map) {
+    if (map instanceof UserfieldMap) {
+      return ((UserfieldMap) map).getJson();
+    }
     return gson.toJson(map);
   }
+
+  static Map<String, String> decodeMap(String value) {
+    Type type = new TypeToken<Map<String, String>>() {}.getType();
+    return gson.fromJson(value, type);
+  }
 }
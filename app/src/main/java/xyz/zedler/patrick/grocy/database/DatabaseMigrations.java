@@ -0,0 +1,94 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import xyz.zedler.patrick.grocy.dao.StockStatusDao;
+
+/**
+ * Migrations from the first version with an exported schema in app/schemas onwards, so the
+ * offline data and unsynced purchases survive app updates. Older versions are recreated.
+ * Every schema change needs a new migration here and a test in DatabaseMigrationsTest, which
+ * checks the statements against the schemas Room exports for the entities.
+ */
+public class DatabaseMigrations {
+
+  public final static int FIRST_MIGRATED_VERSION = 54;
+
+  // versions 55 to 58 were never released, so their changes are made in one step
+  static final Migration MIGRATION_54_59 = new Migration(54, 59) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      db.execSQL("CREATE TABLE IF NOT EXISTS `stock_log_entry_table` (`id` INTEGER NOT NULL, "
+          + "`product_id` INTEGER NOT NULL, `amount` TEXT, `best_before_date` TEXT, "
+          + "`purchased_date` TEXT, `used_date` TEXT, `spoiled` TEXT, `stock_id` TEXT, "
+          + "`transaction_type` TEXT, `price` TEXT, `undone` TEXT, `undone_timestamp` TEXT, "
+          + "`opened_date` TEXT, `location_id` TEXT, `recipe_id` TEXT, `correlation_id` TEXT, "
+          + "`transaction_id` TEXT, `stock_row_id` TEXT, `shopping_location_id` TEXT, "
+          + "`user_id` TEXT, `row_created_timestamp` TEXT, `note` TEXT, PRIMARY KEY(`id`))");
+
+      db.execSQL("CREATE TABLE IF NOT EXISTS `pending_mutation_table` "
+          + "(`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `idempotency_key` TEXT, "
+          + "`type` TEXT, `url` TEXT, `body` TEXT, `product_id` INTEGER NOT NULL, "
+          + "`description` TEXT, `state` INTEGER NOT NULL, `attempts` INTEGER NOT NULL, "
+          + "`error` TEXT, `created_time` INTEGER NOT NULL)");
+
+      db.execSQL("CREATE INDEX IF NOT EXISTS `index_volatile_item_table_product_id_volatile_type` "
+          + "ON `volatile_item_table` (`product_id`, `volatile_type`)");
+      db.execSQL("CREATE INDEX IF NOT EXISTS `index_stock_current_location_table_product_id` "
+          + "ON `stock_current_location_table` (`product_id`)");
+      db.execSQL("CREATE INDEX IF NOT EXISTS `index_product_table_parent_product_id` "
+          + "ON `product_table` (`parent_product_id`)");
+      db.execSQL("CREATE INDEX IF NOT EXISTS `index_product_barcode_table_barcode` "
+          + "ON `product_barcode_table` (`barcode`)");
+      db.execSQL("CREATE INDEX IF NOT EXISTS "
+          + "`index_quantity_unit_conversion_resolved_table_product_id` "
+          + "ON `quantity_unit_conversion_resolved_table` (`product_id`)");
+
+      // filled together with its triggers when the database is opened
+      db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `product_search_table` USING FTS4("
+          + "`product_id` INTEGER NOT NULL, `pending` INTEGER NOT NULL, `name` TEXT, "
+          + "`barcodes` TEXT, `description` TEXT, tokenize=unicode61, "
+          + "notindexed=`product_id`, notindexed=`pending`, prefix=`2,3`)");
+
+      db.execSQL("CREATE TABLE IF NOT EXISTS `stock_status_table` "
+          + "(`product_id` INTEGER NOT NULL, `in_stock` INTEGER NOT NULL, "
+          + "`due` INTEGER NOT NULL, `overdue` INTEGER NOT NULL, `expired` INTEGER NOT NULL, "
+          + "`missing` INTEGER NOT NULL, `missing_partly_in_stock` INTEGER NOT NULL, "
+          + "`opened` INTEGER NOT NULL, `hidden` INTEGER NOT NULL, `value` REAL NOT NULL, "
+          + "PRIMARY KEY(`product_id`))");
+      db.execSQL(StockStatusDao.INSERT_STOCK_STATUS);
+    }
+  };
+
+  public static final Migration[] ALL = {
+      MIGRATION_54_59
+  };
+
+  // all versions before the first migration, the database is recreated when coming from them
+  public static int[] getDestructiveVersions() {
+    int[] versions = new int[FIRST_MIGRATED_VERSION - 1];
+    for (int i = 0; i < versions.length; i++) {
+      versions[i] = i + 1;
+    }
+    return versions;
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.database;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.util.Log;
+import androidx.annotation.Nullable;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+
+/**
+ * Every account on a server has its own database file and its own sync state (the
+ * db-changed-times and fingerprints), so switching back to it only needs the usual incremental
+ * sync. Pending mutations in the database are only replayed with the account they were made
+ * with.
+ * The sync state of the active database lives in the default preferences where all downloads
+ * read it, the sync state of the inactive databases is stored in separate preference files.
+ */
+public class DatabaseProfiles {
+
+  private final static String TAG = DatabaseProfiles.class.getSimpleName();
+
+  // single database before there were profiles, now used while no server is set up
+  public final static String DEFAULT_NAME = "app_database";
+  private final static String SYNC_STATE_PREFS_PREFIX = "sync_state_";
+  private final static String[] FILE_SUFFIXES = {"", "-wal", "-shm", "-journal"};
+
+  public static String getDatabaseName(SharedPreferences sharedPrefs) {
+    String serverUrl = sharedPrefs.getString(PREF.SERVER_URL, null);
+    if (serverUrl == null || serverUrl.isEmpty()) {
+      return DEFAULT_NAME;
+    }
+    String apiKey = sharedPrefs.getString(PREF.API_KEY, null);
+    return DEFAULT_NAME + "_" + getAccountKey(serverUrl, apiKey);
+  }
+
+  private static String getAccountKey(String serverUrl, @Nullable String apiKey) {
+    String normalized = serverUrl.trim().toLowerCase();
+    while (normalized.endsWith("/")) {
+      normalized = normalized.substring(0, normalized.length() - 1);
+    }
+    // API keys belong to one user, each user of a server gets its own database
+    if (apiKey != null && !apiKey.isEmpty()) {
+      normalized += "\n" + apiKey;
+    }
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(normalized.getBytes(StandardCharsets.UTF_8));
+      StringBuilder key = new StringBuilder();
+      for (int i = 0; i < 8; i++) {
+        key.append(String.format("%02x", hash[i]));
+      }
+      return key.toString();
+    } catch (NoSuchAlgorithmException e) {
+      Log.e(TAG, "getAccountKey: " + e);
+      return Integer.toHexString(normalized.hashCode());
+    }
+  }
+
+  /**
+   * Moves the sync state of the previously active database out of the default preferences and
+   * the one of the given database in. Must be called while no database is open.
+   */
+  @SuppressLint("ApplySharedPref")
+  static void activate(Context context, SharedPreferences sharedPrefs, String name) {
+    String removedName = sharedPrefs.getString(PREF.DATABASE_TO_REMOVE, null);
+    if (removedName != null) {
+      removeDatabase(context, sharedPrefs, removedName);
+    }
+    String activeName = sharedPrefs.getString(PREF.ACTIVE_DATABASE, DEFAULT_NAME);
+    if (activeName.equals(name)) {
+      return;
+    }
+    if (activeName.equals(DEFAULT_NAME) && !name.equals(DEFAULT_NAME)
+        && adoptDefaultDatabase(context, name)) {
+      // data and sync state of the single database from before belong to this server
+      sharedPrefs.edit().putString(PREF.ACTIVE_DATABASE, name).commit();
+      return;
+    }
+
+    SharedPreferences.Editor editor = sharedPrefs.edit();
+    SharedPreferences.Editor stashEditor = getSyncStatePrefs(context, activeName).edit().clear();
+    for (Map.Entry<String, ?> entry : sharedPrefs.getAll().entrySet()) {
+      if (isSyncStateKey(entry.getKey())) {
+        putValue(stashEditor, entry.getKey(), entry.getValue());
+        editor.remove(entry.getKey());
+      }
+    }
+    SharedPreferences restorePrefs = getSyncStatePrefs(context, name);
+    for (Map.Entry<String, ?> entry : restorePrefs.getAll().entrySet()) {
+      if (isSyncStateKey(entry.getKey())) {
+        putValue(editor, entry.getKey(), entry.getValue());
+      }
+    }
+    stashEditor.commit();
+    editor.putString(PREF.ACTIVE_DATABASE, name).commit();
+    restorePrefs.edit().clear().apply();
+  }
+
+  /**
+   * Marks the database of the active account for removal, e.g. on logout. It is still open, so
+   * the file and its sync state are deleted before the next database is opened after the
+   * restart of the app.
+   */
+  @SuppressLint("ApplySharedPref")
+  public static void removeActiveDatabase(SharedPreferences sharedPrefs) {
+    String activeName = sharedPrefs.getString(PREF.ACTIVE_DATABASE, DEFAULT_NAME);
+    // the app is restarted right after this, apply() could be lost
+    sharedPrefs.edit().putString(PREF.DATABASE_TO_REMOVE, activeName).commit();
+  }
+
+  @SuppressLint("ApplySharedPref")
+  private static void removeDatabase(Context context, SharedPreferences sharedPrefs, String name) {
+    if (!context.deleteDatabase(name) && context.getDatabasePath(name).exists()) {
+      Log.e(TAG, "removeDatabase: could not delete " + name);
+    }
+    getSyncStatePrefs(context, name).edit().clear().commit();
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+      context.deleteSharedPreferences(SYNC_STATE_PREFS_PREFIX + name);
+    }
+    SharedPreferences.Editor editor = sharedPrefs.edit().remove(PREF.DATABASE_TO_REMOVE);
+    if (name.equals(sharedPrefs.getString(PREF.ACTIVE_DATABASE, DEFAULT_NAME))) {
+      // the sync state of the active database is in the default preferences
+      for (String key : sharedPrefs.getAll().keySet()) {
+        if (isSyncStateKey(key)) {
+          editor.remove(key);
+        }
+      }
+      editor.remove(PREF.ACTIVE_DATABASE);
+    }
+    editor.commit();
+  }
+
+  /**
+   * Clears the stored sync state of the inactive databases, so they are fully downloaded again
+   * like the active one after clearCachingRelatedSharedPreferences.
+   */
+  public static void clearInactiveSyncStates(Context context) {
+    for (String name : context.databaseList()) {
+      if (name.startsWith(DEFAULT_NAME) && !name.contains("-")) {
+        getSyncStatePrefs(context, name).edit().clear().apply();
+      }
+    }
+  }
+
+  private static boolean adoptDefaultDatabase(Context context, String name) {
+    File defaultFile = context.getDatabasePath(DEFAULT_NAME);
+    if (!defaultFile.exists() || context.getDatabasePath(name).exists()) {
+      return false;
+    }
+    for (String suffix : FILE_SUFFIXES) {
+      File file = context.getDatabasePath(DEFAULT_NAME + suffix);
+      if (file.exists() && !file.renameTo(context.getDatabasePath(name + suffix))) {
+        Log.e(TAG, "adoptDefaultDatabase: could not rename " + file.getName());
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static SharedPreferences getSyncStatePrefs(Context context, String name) {
+    return context.getSharedPreferences(SYNC_STATE_PREFS_PREFIX + name, Context.MODE_PRIVATE);
+  }
+
+  private static boolean isSyncStateKey(String key) {
+    return key.startsWith(PREF.DB_LAST_TIME_PREFIX)
+        || key.startsWith(PREF.BACKGROUND_SYNC_TIME_PREFIX);
+  }
+
+  private static void putValue(SharedPreferences.Editor editor, String key, Object value) {
+    if (value instanceof String) {
+      editor.putString(key, (String) value);
+    } else if (value instanceof Long) {
+      editor.putLong(key, (Long) value);
+    } else if (value instanceof Integer) {
+      editor.putInt(key, (Integer) value);
+    } else if (value instanceof Boolean) {
+      editor.putBoolean(key, (Boolean) value);
+    } else if (value instanceof Float) {
+      editor.putFloat(key, (Float) value);
+    }
+  }
+}
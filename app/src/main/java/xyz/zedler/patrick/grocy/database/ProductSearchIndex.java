@@ -0,0 +1,140 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.database;
+
+import android.database.Cursor;
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import java.util.Locale;
+
+/**
+ * Keeps product_search_table in sync with the product, pending product and barcode tables.
+ * The triggers run inside the transaction of the write, so the index is updated for every
+ * changed row without any extra work in the download or edit code.
+ */
+public class ProductSearchIndex {
+
+  private final static String INSERT_PRODUCT = "INSERT INTO product_search_table"
+      + "(rowid, product_id, pending, name, barcodes, description) "
+      + "SELECT NEW.id, NEW.id, 0, NEW.name, group_concat(barcode, ' '), NEW.description "
+      + "FROM product_barcode_table WHERE product_id = NEW.id;";
+
+  private final static String INSERT_PENDING_PRODUCT = "INSERT INTO product_search_table"
+      + "(rowid, product_id, pending, name, barcodes, description) "
+      + "SELECT -NEW.id, NEW.id, 1, NEW.name, group_concat(barcode, ' '), NULL "
+      + "FROM pending_product_barcode_table WHERE pending_product_id = NEW.id;";
+
+  private final static String UPDATE_BARCODES = "UPDATE product_search_table SET barcodes = "
+      + "(SELECT group_concat(barcode, ' ') FROM product_barcode_table "
+      + "WHERE product_id = %1$s.product_id) "
+      + "WHERE rowid = CAST(%1$s.product_id AS INTEGER);";
+
+  private final static String UPDATE_PENDING_BARCODES = "UPDATE product_search_table "
+      + "SET barcodes = (SELECT group_concat(barcode, ' ') FROM pending_product_barcode_table "
+      + "WHERE pending_product_id = %1$s.pending_product_id) "
+      + "WHERE rowid = -%1$s.pending_product_id;";
+
+  private final static String[] TRIGGERS = {
+      createTrigger("product_insert", "AFTER INSERT ON product_table",
+          "DELETE FROM product_search_table WHERE rowid = NEW.id;" + INSERT_PRODUCT),
+      createTrigger("product_update", "AFTER UPDATE ON product_table",
+          "DELETE FROM product_search_table WHERE rowid = OLD.id;" + INSERT_PRODUCT),
+      createTrigger("product_delete", "AFTER DELETE ON product_table",
+          "DELETE FROM product_search_table WHERE rowid = OLD.id;"),
+      createTrigger("pending_product_insert", "AFTER INSERT ON pending_product_table",
+          "DELETE FROM product_search_table WHERE rowid = -NEW.id;" + INSERT_PENDING_PRODUCT),
+      createTrigger("pending_product_update", "AFTER UPDATE ON pending_product_table",
+          "DELETE FROM product_search_table WHERE rowid = -OLD.id;" + INSERT_PENDING_PRODUCT),
+      createTrigger("pending_product_delete", "AFTER DELETE ON pending_product_table",
+          "DELETE FROM product_search_table WHERE rowid = -OLD.id;"),
+      createTrigger("barcode_insert", "AFTER INSERT ON product_barcode_table",
+          String.format(UPDATE_BARCODES, "NEW")),
+      createTrigger("barcode_update", "AFTER UPDATE ON product_barcode_table",
+          String.format(UPDATE_BARCODES, "OLD") + String.format(UPDATE_BARCODES, "NEW")),
+      createTrigger("barcode_delete", "AFTER DELETE ON product_barcode_table",
+          String.format(UPDATE_BARCODES, "OLD")),
+      createTrigger("pending_barcode_insert", "AFTER INSERT ON pending_product_barcode_table",
+          String.format(UPDATE_PENDING_BARCODES, "NEW")),
+      createTrigger("pending_barcode_update", "AFTER UPDATE ON pending_product_barcode_table",
+          String.format(UPDATE_PENDING_BARCODES, "OLD")
+              + String.format(UPDATE_PENDING_BARCODES, "NEW")),
+      createTrigger("pending_barcode_delete", "AFTER DELETE ON pending_product_barcode_table",
+          String.format(UPDATE_PENDING_BARCODES, "OLD"))
+  };
+
+  private static String createTrigger(String name, String event, String statements) {
+    return "CREATE TRIGGER IF NOT EXISTS product_search_" + name + " " + event
+        + " BEGIN " + statements + " END";
+  }
+
+  /**
+   * Creates the missing sync triggers and fills the index if it is empty while products
+   * exist, e.g. after the table was added by a migration. Called on every open.
+   */
+  public static void createTriggers(SupportSQLiteDatabase db) {
+    for (String trigger : TRIGGERS) {
+      db.execSQL(trigger);
+    }
+    boolean needsRebuild;
+    try (Cursor cursor = db.query("SELECT NOT EXISTS(SELECT 1 FROM product_search_table) "
+        + "AND (EXISTS(SELECT 1 FROM product_table) "
+        + "OR EXISTS(SELECT 1 FROM pending_product_table))")) {
+      needsRebuild = cursor.moveToFirst() && cursor.getInt(0) == 1;
+    }
+    if (needsRebuild) {
+      rebuild(db);
+    }
+  }
+
+  public static void rebuild(SupportSQLiteDatabase db) {
+    db.beginTransaction();
+    try {
+      db.execSQL("DELETE FROM product_search_table");
+      db.execSQL("INSERT INTO product_search_table"
+          + "(rowid, product_id, pending, name, barcodes, description) "
+          + "SELECT id, id, 0, name, (SELECT group_concat(barcode, ' ') "
+          + "FROM product_barcode_table WHERE product_id = product_table.id), description "
+          + "FROM product_table");
+      db.execSQL("INSERT INTO product_search_table"
+          + "(rowid, product_id, pending, name, barcodes, description) "
+          + "SELECT -id, id, 1, name, (SELECT group_concat(barcode, ' ') "
+          + "FROM pending_product_barcode_table "
+          + "WHERE pending_product_id = pending_product_table.id), NULL "
+          + "FROM pending_product_table");
+      db.setTransactionSuccessful();
+    } finally {
+      db.endTransaction();
+    }
+  }
+
+  /**
+   * FTS expression which matches all words of the input as prefixes in any column,
+   * or null if the input contains no searchable word.
+   */
+  @Nullable
+  public static String getMatchQuery(String input) {
+    StringBuilder match = new StringBuilder();
+    for (String word : input.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+      if (word.isEmpty()) continue;
+      if (match.length() > 0) match.append(' ');
+      match.append(word).append('*');
+    }
+    return match.length() > 0 ? match.toString() : null;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.database;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Latest change set of every entity type, numbered in the order the diffs were applied.
+ * Kept for the whole process, because a download can be shared between screens and its diff
+ * is then applied by the DownloadHelper of the screen which started it.
+ * Diffs run on background threads, so every access is synchronized.
+ */
+public class TableChanges {
+
+  private static final HashMap<Class<?>, Entry> latestChanges = new HashMap<>();
+  private static long sequence;
+
+  public static synchronized long getSequence() {
+    return sequence;
+  }
+
+  public static synchronized void record(Class<?> type, ChangeSet<?> changeSet) {
+    if (changeSet.isEmpty()) {
+      return;
+    }
+    sequence++;
+    latestChanges.put(type, new Entry(sequence, changeSet));
+  }
+
+  // only the latest change set of a type is kept, older ones of the same type are replaced
+  public static synchronized Map<Class<?>, ChangeSet<?>> getSince(long sequence) {
+    HashMap<Class<?>, ChangeSet<?>> changeSets = new HashMap<>();
+    for (Map.Entry<Class<?>, Entry> entry : latestChanges.entrySet()) {
+      if (entry.getValue().sequence > sequence) {
+        changeSets.put(entry.getKey(), entry.getValue().changeSet);
+      }
+    }
+    return Collections.unmodifiableMap(changeSets);
+  }
+
+  private static class Entry {
+
+    final long sequence;
+    final ChangeSet<?> changeSet;
+
+    Entry(long sequence, ChangeSet<?> changeSet) {
+      this.sequence = sequence;
+      this.changeSet = changeSet;
+    }
+  }
+}
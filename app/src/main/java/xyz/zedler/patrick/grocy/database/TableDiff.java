@@ -0,0 +1,290 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.database;
+
+import io.reactivex.rxjava3.core.Single;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import xyz.zedler.patrick.grocy.dao.BaseDao;
+
+/**
+ * Applies a downloaded entity list to its table inside one transaction. Rows are matched by
+ * key, so only inserted, changed and removed rows are written and readers never see the
+ * table empty between delete and insert.
+ */
+public class TableDiff {
+
+  public interface KeyFunction<T, K> {
+
+    K getKey(T row);
+  }
+
+  public interface ContentEquality<T> {
+
+    boolean isSameContent(T stored, T incoming);
+  }
+
+  // blocking, must be called from a background thread
+  public static <T, K> ChangeSet<K> apply(
+      AppDatabase appDatabase,
+      BaseDao<T> dao,
+      Single<List<T>> storedRows,
+      List<T> incomingRows,
+      KeyFunction<T, K> keyFunction
+  ) {
+    return apply(appDatabase, dao, storedRows, incomingRows, keyFunction, Objects::equals);
+  }
+
+  public static <T, K> ChangeSet<K> apply(
+      AppDatabase appDatabase,
+      BaseDao<T> dao,
+      Single<List<T>> storedRows,
+      List<T> incomingRows,
+      KeyFunction<T, K> keyFunction,
+      ContentEquality<T> contentEquality
+  ) {
+    return appDatabase.runInTransaction(() -> {
+      Session<T, K> session = new Session<>(dao, storedRows, keyFunction, contentEquality);
+      session.applyBatch(incomingRows);
+      return session.finish();
+    });
+  }
+
+  /**
+   * Like apply(), but the incoming rows are read from a source which delivers them in
+   * batches and the stored rows are looked up by the keys of each batch, so neither the
+   * incoming nor the stored table has to be held in memory, only the keys seen so far.
+   * Every batch is written in its own transaction, because the source may read from the
+   * network. Stored rows which were not part of the incoming rows are deleted at the end.
+   * Blocking, must be called from a background thread.
+   */
+  public static <T, K> ChangeSet<K> applyBatched(
+      AppDatabase appDatabase,
+      BaseDao<T> dao,
+      KeyedTable<T, K> storedTable,
+      RowSource<T> incomingRows,
+      KeyFunction<T, K> keyFunction,
+      ContentEquality<T> contentEquality
+  ) throws Exception {
+    KeyedSession<T, K> session = new KeyedSession<>(
+        dao, storedTable, keyFunction, contentEquality
+    );
+    incomingRows.read(batch -> appDatabase.runInTransaction(() -> session.applyBatch(batch)));
+    return appDatabase.runInTransaction(session::finish);
+  }
+
+  /**
+   * Keyed access to the stored rows of a table for applyBatched().
+   * Lists of keys passed to it are never longer than MAX_KEYS_PER_QUERY.
+   */
+  public static class KeyedTable<T, K> {
+
+    public interface RowsByKeys<T, K> {
+
+      List<T> getRows(List<K> keys);
+    }
+
+    public interface AllKeys<K> {
+
+      List<K> getKeys();
+    }
+
+    public interface DeleteByKeys<K> {
+
+      void deleteRows(List<K> keys);
+    }
+
+    private final RowsByKeys<T, K> rowsByKeys;
+    private final AllKeys<K> allKeys;
+    private final DeleteByKeys<K> deleteByKeys;
+
+    public KeyedTable(
+        RowsByKeys<T, K> rowsByKeys,
+        AllKeys<K> allKeys,
+        DeleteByKeys<K> deleteByKeys
+    ) {
+      this.rowsByKeys = rowsByKeys;
+      this.allKeys = allKeys;
+      this.deleteByKeys = deleteByKeys;
+    }
+  }
+
+  // stays below the SQLite limit of 999 variables
+  public final static int MAX_KEYS_PER_QUERY = 500;
+
+  public interface RowSource<T> {
+
+    // passes all rows in batches to the consumer
+    void read(BatchConsumer<T> consumer) throws Exception;
+  }
+
+  public interface BatchConsumer<T> {
+
+    void accept(List<T> batch);
+  }
+
+  private static class KeyedSession<T, K> {
+
+    private final BaseDao<T> dao;
+    private final KeyedTable<T, K> storedTable;
+    private final KeyFunction<T, K> keyFunction;
+    private final ContentEquality<T> contentEquality;
+    private final HashSet<K> seenKeys;
+    private final ChangeSet<K> changeSet;
+
+    KeyedSession(
+        BaseDao<T> dao,
+        KeyedTable<T, K> storedTable,
+        KeyFunction<T, K> keyFunction,
+        ContentEquality<T> contentEquality
+    ) {
+      this.dao = dao;
+      this.storedTable = storedTable;
+      this.keyFunction = keyFunction;
+      this.contentEquality = contentEquality;
+      seenKeys = new HashSet<>();
+      changeSet = new ChangeSet<>();
+    }
+
+    void applyBatch(List<T> incomingRows) {
+      HashMap<K, T> storedHashMap = new HashMap<>();
+      ArrayList<K> keys = new ArrayList<>();
+      for (T incoming : incomingRows) {
+        keys.add(keyFunction.getKey(incoming));
+        if (keys.size() == MAX_KEYS_PER_QUERY) {
+          putRows(storedHashMap, keys);
+          keys.clear();
+        }
+      }
+      if (!keys.isEmpty()) {
+        putRows(storedHashMap, keys);
+      }
+
+      List<T> rowsToUpsert = new ArrayList<>();
+      List<T> rowsToDelete = new ArrayList<>();
+      for (T incoming : incomingRows) {
+        K key = keyFunction.getKey(incoming);
+        seenKeys.add(key);
+        T stored = storedHashMap.remove(key);
+        if (stored == null) {
+          changeSet.addInserted(key);
+          rowsToUpsert.add(incoming);
+        } else if (!contentEquality.isSameContent(stored, incoming)) {
+          changeSet.addUpdated(key);
+          rowsToDelete.add(stored);
+          rowsToUpsert.add(incoming);
+        }
+      }
+      if (!rowsToDelete.isEmpty()) {
+        dao.deleteRows(rowsToDelete);
+      }
+      if (!rowsToUpsert.isEmpty()) {
+        dao.upsertRows(rowsToUpsert);
+      }
+    }
+
+    private void putRows(HashMap<K, T> storedHashMap, List<K> keys) {
+      for (T row : storedTable.rowsByKeys.getRows(keys)) {
+        storedHashMap.put(keyFunction.getKey(row), row);
+      }
+    }
+
+    // deletes all stored rows which were not part of the incoming rows
+    ChangeSet<K> finish() {
+      ArrayList<K> keysToDelete = new ArrayList<>();
+      for (K key : storedTable.allKeys.getKeys()) {
+        if (seenKeys.contains(key)) continue;
+        changeSet.addDeleted(key);
+        keysToDelete.add(key);
+        if (keysToDelete.size() == MAX_KEYS_PER_QUERY) {
+          storedTable.deleteByKeys.deleteRows(keysToDelete);
+          keysToDelete = new ArrayList<>();
+        }
+      }
+      if (!keysToDelete.isEmpty()) {
+        storedTable.deleteByKeys.deleteRows(keysToDelete);
+      }
+      return changeSet;
+    }
+  }
+
+  private static class Session<T, K> {
+
+    private final BaseDao<T> dao;
+    private final KeyFunction<T, K> keyFunction;
+    private final ContentEquality<T> contentEquality;
+    private final HashMap<K, T> storedHashMap;
+    private final ChangeSet<K> changeSet;
+
+    Session(
+        BaseDao<T> dao,
+        Single<List<T>> storedRows,
+        KeyFunction<T, K> keyFunction,
+        ContentEquality<T> contentEquality
+    ) {
+      this.dao = dao;
+      this.keyFunction = keyFunction;
+      this.contentEquality = contentEquality;
+      storedHashMap = new HashMap<>();
+      for (T row : storedRows.blockingGet()) {
+        storedHashMap.put(keyFunction.getKey(row), row);
+      }
+      changeSet = new ChangeSet<>();
+    }
+
+    void applyBatch(List<T> incomingRows) {
+      List<T> rowsToUpsert = new ArrayList<>();
+      List<T> rowsToDelete = new ArrayList<>();
+      for (T incoming : incomingRows) {
+        K key = keyFunction.getKey(incoming);
+        T stored = storedHashMap.remove(key);
+        if (stored == null) {
+          changeSet.addInserted(key);
+          rowsToUpsert.add(incoming);
+        } else if (!contentEquality.isSameContent(stored, incoming)) {
+          changeSet.addUpdated(key);
+          // delete stored row first because auto generated primary keys of incoming
+          // rows don't match the stored ones
+          rowsToDelete.add(stored);
+          rowsToUpsert.add(incoming);
+        }
+      }
+      if (!rowsToDelete.isEmpty()) {
+        dao.deleteRows(rowsToDelete);
+      }
+      if (!rowsToUpsert.isEmpty()) {
+        dao.upsertRows(rowsToUpsert);
+      }
+    }
+
+    // deletes all stored rows which were not part of the incoming rows
+    ChangeSet<K> finish() {
+      if (!storedHashMap.isEmpty()) {
+        changeSet.addDeletedAll(storedHashMap.keySet());
+        dao.deleteRows(new ArrayList<>(storedHashMap.values()));
+        storedHashMap.clear();
+      }
+      return changeSet;
+    }
+  }
+}
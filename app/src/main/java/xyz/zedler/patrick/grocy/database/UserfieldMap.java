@@ -0,0 +1,91 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.database;
+
+import androidx.annotation.NonNull;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Userfield values of a row, kept as the JSON string from the database until a value is read.
+ * Most screens never show userfields, so rows are loaded without a Gson parse and are written
+ * back to the database or into a Parcel without encoding them again.
+ */
+public class UserfieldMap extends AbstractMap<String, String> {
+
+  private final String json;
+  private Map<String, String> values;
+
+  UserfieldMap(@NonNull String json) {
+    this.json = json;
+  }
+
+  String getJson() {
+    return json;
+  }
+
+  private synchronized Map<String, String> getValues() {
+    if (values == null) {
+      Map<String, String> decoded = Converters.decodeMap(json);
+      values = decoded != null ? Collections.unmodifiableMap(decoded) : Collections.emptyMap();
+    }
+    return values;
+  }
+
+  @Override
+  public String get(Object key) {
+    return getValues().get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return getValues().containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return getValues().size();
+  }
+
+  @NonNull
+  @Override
+  public Set<Entry<String, String>> entrySet() {
+    return getValues().entrySet();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    // rows from the database are compared by list diffs without decoding them
+    if (o instanceof UserfieldMap && Objects.equals(json, ((UserfieldMap) o).json)) {
+      return true;
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return getValues().hashCode();
+  }
+}
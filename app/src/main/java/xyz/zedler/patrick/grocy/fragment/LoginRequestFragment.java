@@ -89,6 +89,7 @@ public class LoginRequestFragment extends BaseFragment {
         activity.updateGrocyApi();
         activity.netUtil.createWebSocketClient();
         activity.netUtil.resetHassSessionTimer();
+        activity.startServerSync();
         new Handler().postDelayed(this::navigateToStartDestination, 500);
       } else if (event.getType() == Event.BOTTOM_SHEET) {
         BottomSheetEvent bottomSheetEvent = (BottomSheetEvent) event;
@@ -32,7 +32,9 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.widget.Toolbar;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import kotlin.Unit;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.ACTION;
 import xyz.zedler.patrick.grocy.R;
@@ -67,6 +69,7 @@ public class MasterObjectListFragment extends BaseFragment
   private AppBarBehavior appBarBehavior;
   private ClickUtil clickUtil;
   private InfoFullscreenHelper infoFullscreenHelper;
+  private boolean isListEmpty = true;
   private FragmentMasterObjectListBinding binding;
   private MasterObjectListViewModel viewModel;
 
@@ -152,11 +155,29 @@ public class MasterObjectListFragment extends BaseFragment
     );
     binding.recycler.setAdapter(adapter);
 
-    viewModel.getDisplayedItemsLive().observe(getViewLifecycleOwner(), objects -> {
-      if (objects == null) {
+    isListEmpty = true;
+    viewModel.getDisplayedItemsLive().observe(getViewLifecycleOwner(), pagingData -> {
+      if (pagingData == null) {
         return;
       }
-      if (objects.isEmpty()) {
+      adapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData);
+    });
+    viewModel.getContainsPicturesLive().observe(
+        getViewLifecycleOwner(), adapter::setContainsPictures
+    );
+    adapter.addLoadStateListener(loadStates -> {
+      if (binding == null || !(loadStates.getRefresh() instanceof LoadState.NotLoading)) {
+        return Unit.INSTANCE;
+      }
+      boolean isEmpty = adapter.getItemCount() == 0;
+      if (isEmpty && !loadStates.getAppend().getEndOfPaginationReached()) {
+        return Unit.INSTANCE; // nothing loaded yet
+      }
+      if (isListEmpty && !isEmpty) {
+        binding.recycler.scheduleLayoutAnimation();
+      }
+      isListEmpty = isEmpty;
+      if (isEmpty) {
         InfoFullscreen info;
         if (viewModel.isSearchActive()) {
           info = new InfoFullscreen(InfoFullscreen.INFO_NO_SEARCH_RESULTS);
@@ -187,7 +208,7 @@ public class MasterObjectListFragment extends BaseFragment
       } else {
         viewModel.getInfoFullscreenLive().setValue(null);
       }
-      adapter.updateData(objects, () -> binding.recycler.scheduleLayoutAnimation());
+      return Unit.INSTANCE;
     });
 
     viewModel.getEventHandler().observeEvent(getViewLifecycleOwner(), event -> {
@@ -19,6 +19,7 @@
 
 package xyz.zedler.patrick.grocy.fragment;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -27,11 +28,14 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
+import java.util.List;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
 import xyz.zedler.patrick.grocy.behavior.SystemBarBehavior;
 import xyz.zedler.patrick.grocy.databinding.FragmentSettingsCatDebuggingBinding;
+import xyz.zedler.patrick.grocy.helper.SyncMetrics;
+import xyz.zedler.patrick.grocy.helper.SyncMetrics.FetchMetric;
 import xyz.zedler.patrick.grocy.model.BottomSheetEvent;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
@@ -93,6 +97,10 @@ public class SettingsCatDebuggingFragment extends BaseFragment {
 
     binding.switchLogging.post(() -> binding.switchLogging.jumpDrawablesToCurrentState());
 
+    SyncMetrics.getInstance().getMetricsLive().observe(
+        getViewLifecycleOwner(), this::showSyncMetrics
+    );
+
     activity.getScrollBehavior().setNestedOverScrollFixEnabled(false);
     activity.getScrollBehavior().setUpScroll(
         binding.appBar, false, binding.scroll, false
@@ -102,4 +110,25 @@ public class SettingsCatDebuggingFragment extends BaseFragment {
 
     setForPreviousDestination(Constants.ARGUMENT.ANIMATED, false);
   }
+
+  private void showSyncMetrics(List<FetchMetric> metrics) {
+    if (metrics == null || metrics.isEmpty()) {
+      binding.textSyncMetrics.setText(R.string.msg_sync_metrics_empty);
+      return;
+    }
+    StringBuilder text = new StringBuilder();
+    for (int i = metrics.size() - 1; i >= 0; i--) { // newest first
+      text.append(metrics.get(i));
+      if (i > 0) text.append('\n');
+    }
+    binding.textSyncMetrics.setText(text);
+  }
+
+  public void exportSyncMetrics() {
+    Intent intent = new Intent(Intent.ACTION_SEND);
+    intent.putExtra(Intent.EXTRA_SUBJECT, getString(R.string.setting_sync_metrics));
+    intent.putExtra(Intent.EXTRA_TEXT, SyncMetrics.getInstance().exportCsv());
+    intent.setType("text/csv");
+    startActivity(Intent.createChooser(intent, null));
+  }
 }
@@ -102,6 +102,9 @@ public class SettingsCatNetworkFragment extends BaseFragment {
       }
     });
 
+    viewModel.getOkHttpEnabledLive().observe(
+        getViewLifecycleOwner(), enabled -> viewModel.setOkHttpEnabled(enabled)
+    );
     viewModel.getTorEnabledLive().observe(getViewLifecycleOwner(), enabled -> {
       viewModel.setTorEnabled(enabled);
       assert viewModel.getProxyEnabledLive().getValue() != null;
@@ -122,6 +125,7 @@ public class SettingsCatNetworkFragment extends BaseFragment {
 
     binding.switchLoadingCircle.post(() -> {
       binding.switchLoadingCircle.jumpDrawablesToCurrentState();
+      binding.switchOkhttp.jumpDrawablesToCurrentState();
       binding.switchTor.jumpDrawablesToCurrentState();
       binding.switchProxy.jumpDrawablesToCurrentState();
     });
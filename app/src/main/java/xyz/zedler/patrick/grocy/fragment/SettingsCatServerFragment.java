@@ -45,6 +45,7 @@ import xyz.zedler.patrick.grocy.util.ClickUtil;
 import xyz.zedler.patrick.grocy.util.ResUtil;
 import xyz.zedler.patrick.grocy.util.RestartUtil;
 import xyz.zedler.patrick.grocy.viewmodel.SettingsViewModel;
+import xyz.zedler.patrick.grocy.worker.SyncWorker;
 
 public class SettingsCatServerFragment extends BaseFragment {
 
@@ -190,12 +191,20 @@ public class SettingsCatServerFragment extends BaseFragment {
         .setMessage(isDemoInstance ? R.string.msg_logout_demo : R.string.msg_logout)
         .setPositiveButton(R.string.action_logout, (dialog, which) -> {
           performHapticHeavyClick();
-          viewModel.clearAllTables();
-          viewModel.clearServerRelatedSharedPreferences();
-          new Handler().postDelayed(() -> RestartUtil.restartApp(requireContext()), 500);
+          viewModel.removeServerData();
+          logout();
+        }).setNeutralButton(R.string.action_logout_keep_data, (dialog, which) -> {
+          performHapticHeavyClick();
+          logout();
         }).setNegativeButton(R.string.action_cancel, (dialog, which) -> performHapticClick())
         .setOnCancelListener(dialog -> performHapticClick())
         .create();
     dialogLogout.show();
   }
+
+  private void logout() {
+    viewModel.clearServerRelatedSharedPreferences();
+    SyncWorker.cancelSync(requireContext());
+    new Handler().postDelayed(() -> RestartUtil.restartApp(requireContext()), 500);
+  }
 }
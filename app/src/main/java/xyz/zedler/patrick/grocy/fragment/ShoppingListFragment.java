@@ -165,21 +165,16 @@ public class ShoppingListFragment extends BaseFragment implements
         getViewLifecycleOwner(), this::changeAppBarTitle
     );
 
-    viewModel.getFilteredShoppingListItemsLive().observe(getViewLifecycleOwner(), items -> {
+    viewModel.getGroupedListItemsLive().observe(getViewLifecycleOwner(), items -> {
       if (items == null) return;
       adapter.updateData(
-          requireContext(),
           items,
           viewModel.getProductHashMap(),
-          viewModel.getProductNamesHashMap(),
           viewModel.getProductLastPurchasedHashMap(),
           viewModel.getQuantityUnitHashMap(),
           viewModel.getUnitConversions(),
-          viewModel.getProductGroupHashMap(),
-          viewModel.getStoreHashMap(),
           viewModel.getShoppingListItemAmountsHashMap(),
           viewModel.getMissingProductIds(),
-          viewModel.getShoppingListNotes(),
           viewModel.getGroupingMode(),
           viewModel.getActiveFields(),
           () -> binding.recycler.scheduleLayoutAnimation()
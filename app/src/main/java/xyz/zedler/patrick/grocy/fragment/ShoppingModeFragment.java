@@ -159,19 +159,20 @@ public class ShoppingModeFragment extends BaseFragment implements
       } else {
         viewModel.getInfoFullscreenLive().setValue(null);
       }
+    });
+
+    viewModel.getGroupedListItemsLive().observe(getViewLifecycleOwner(), items -> {
+      if (items == null) {
+        return;
+      }
       adapter.updateData(
-          requireContext(),
           items,
           viewModel.getProductHashMap(),
-          viewModel.getProductNamesHashMap(),
           viewModel.getProductLastPurchasedHashMap(),
           viewModel.getQuantityUnitHashMap(),
           viewModel.getUnitConversions(),
-          viewModel.getProductGroupHashMap(),
-          viewModel.getStoreHashMap(),
           viewModel.getShoppingListItemAmountsHashMap(),
           viewModel.getMissingProductIds(),
-          viewModel.getShoppingListNotes(),
           viewModel.getGroupingMode(),
           viewModel.getActiveFields(),
           () -> binding.recycler.scheduleLayoutAnimation()
@@ -27,9 +27,11 @@ import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import java.util.List;
+import kotlin.Unit;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.R;
@@ -67,6 +69,7 @@ public class StockEntriesFragment extends BaseFragment implements StockEntryAdap
   private FragmentStockEntriesBinding binding;
   private InfoFullscreenHelper infoFullscreenHelper;
   private EmbeddedFragmentScanner embeddedFragmentScanner;
+  private boolean isListEmpty = true;
 
   @Override
   public View onCreateView(
@@ -137,6 +140,7 @@ public class StockEntriesFragment extends BaseFragment implements StockEntryAdap
         new LinearLayoutManager(activity, LinearLayoutManager.VERTICAL, false)
     );
     StockEntryAdapter adapter = new StockEntryAdapter(requireContext(), this);
+    isListEmpty = true;
     binding.recycler.setAdapter(adapter);
 
     if (savedInstanceState == null) {
@@ -149,20 +153,29 @@ public class StockEntriesFragment extends BaseFragment implements StockEntryAdap
         infoFullscreen -> infoFullscreenHelper.setInfo(infoFullscreen)
     );
 
-    viewModel.getFilteredStockEntriesLive().observe(getViewLifecycleOwner(), items -> {
-      if (items == null) return;
-      adapter.updateData(
-          requireContext(),
-          items,
+    viewModel.getStockEntriesPagedLive().observe(getViewLifecycleOwner(), pagingData -> {
+      if (pagingData == null) return;
+      adapter.updateLookups(
           viewModel.getQuantityUnitHashMap(),
-          viewModel.getProductHashMap(),
           viewModel.getLocationHashMap(),
-          viewModel.getStoreHashMap(),
-          viewModel.getSortMode(),
-          viewModel.isSortAscending(),
-          viewModel.getGroupingMode(),
-          () -> binding.recycler.scheduleLayoutAnimation()
+          viewModel.getStoreHashMap()
       );
+      adapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData);
+    });
+    adapter.addLoadStateListener(loadStates -> {
+      if (binding == null || !(loadStates.getRefresh() instanceof LoadState.NotLoading)) {
+        return Unit.INSTANCE;
+      }
+      boolean isEmpty = adapter.getItemCount() == 0;
+      if (isEmpty && !loadStates.getAppend().getEndOfPaginationReached()) {
+        return Unit.INSTANCE; // nothing loaded yet
+      }
+      if (isListEmpty && !isEmpty) {
+        binding.recycler.scheduleLayoutAnimation();
+      }
+      isListEmpty = isEmpty;
+      viewModel.updateInfoFullscreen(isEmpty);
+      return Unit.INSTANCE;
     });
 
     embeddedFragmentScanner.setScannerVisibilityLive(viewModel.getScannerVisibilityLive());
@@ -212,7 +225,7 @@ public class StockEntriesFragment extends BaseFragment implements StockEntryAdap
                 viewModel.performAction(Constants.ACTION.CONSUME, (StockEntry) item1);
               }
           ));
-          Product product = viewModel.getProductHashMap().get(stockEntry.getProductId());
+          Product product = stockEntry.getProduct();
           if (product != null && product.getEnableTareWeightHandlingInt() == 0
               && viewModel.isFeatureEnabled(PREF.FEATURE_STOCK_OPENED_TRACKING)
               && stockEntry.getOpen() == 0
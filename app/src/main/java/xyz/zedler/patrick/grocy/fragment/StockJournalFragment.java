@@ -156,7 +156,7 @@ public class StockJournalFragment extends BaseFragment implements StockLogEntryA
 
       @Override
       public boolean isLoading() {
-        return viewModel.getIsLoadingLive().getValue() != null
+        return viewModel.isLoadingNextPage() || viewModel.getIsLoadingLive().getValue() != null
             && viewModel.getIsLoadingLive().getValue();
       }
     });
@@ -155,19 +155,15 @@ public class StockOverviewFragment extends BaseFragment implements
         infoFullscreen -> infoFullscreenHelper.setInfo(infoFullscreen)
     );
 
-    viewModel.getFilteredStockItemsLive().observe(getViewLifecycleOwner(), items -> {
+    viewModel.getGroupedListItemsLive().observe(getViewLifecycleOwner(), items -> {
       if (items == null) return;
       adapter.updateData(
-          requireContext(),
           items,
           viewModel.getShoppingListItemsProductIds(),
           viewModel.getQuantityUnitHashMap(),
           viewModel.getQuantityUnitConversions(),
           viewModel.getProductAveragePriceHashMap(),
           viewModel.getProductLastPurchasedHashMap(),
-          viewModel.getProductGroupHashMap(),
-          viewModel.getProductHashMap(),
-          viewModel.getLocationHashMap(),
           viewModel.getProductIdsMissingItems(),
           viewModel.getUserfieldHashMap(),
           viewModel.getSortMode(),
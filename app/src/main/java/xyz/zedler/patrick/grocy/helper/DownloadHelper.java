@@ -19,10 +19,13 @@
 
 package xyz.zedler.patrick.grocy.helper;
 
+import android.annotation.SuppressLint;
 import android.app.Activity;
 import android.app.Application;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.util.Base64;
 import android.util.Log;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
@@ -31,22 +34,55 @@ import androidx.preference.PreferenceManager;
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
 import com.android.volley.VolleyError;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpHeaderParser;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
+import xyz.zedler.patrick.grocy.dao.BaseDao;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.ChangeSet;
+import xyz.zedler.patrick.grocy.database.TableChanges;
+import xyz.zedler.patrick.grocy.database.TableDiff;
+import xyz.zedler.patrick.grocy.database.TableDiff.BatchConsumer;
+import xyz.zedler.patrick.grocy.database.TableDiff.ContentEquality;
+import xyz.zedler.patrick.grocy.database.TableDiff.KeyFunction;
+import xyz.zedler.patrick.grocy.database.TableDiff.KeyedTable;
+import xyz.zedler.patrick.grocy.helper.SyncMetrics.FetchMetric;
 import xyz.zedler.patrick.grocy.model.Chore;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 import xyz.zedler.patrick.grocy.model.Location;
@@ -82,15 +118,25 @@ import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.web.CustomByteArrayRequest;
 import xyz.zedler.patrick.grocy.web.CustomJsonArrayRequest;
 import xyz.zedler.patrick.grocy.web.CustomJsonObjectRequest;
+import xyz.zedler.patrick.grocy.web.CustomStreamRequest;
 import xyz.zedler.patrick.grocy.web.CustomStringRequest;
 import xyz.zedler.patrick.grocy.web.NetworkQueue;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.OnQueueEmptyListener;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
+import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItemWithoutLoading;
 import xyz.zedler.patrick.grocy.web.RequestQueueSingleton;
+import xyz.zedler.patrick.grocy.web.WireBytes;
 
 public class DownloadHelper {
 
   private static final String TAG = DownloadHelper.class.getSimpleName();
+  private static final int STREAM_BATCH_SIZE = 250;
+  // above this, the whole stock status table is recomputed (and SQLite variables are limited)
+  private static final int MAX_STOCK_STATUS_PRODUCTS = 400;
+  // tables from which the stock status table is computed
+  private static final List<Class<?>> STOCK_STATUS_SOURCES = Arrays.asList(
+      StockItem.class, VolatileItem.class, MissingItem.class, Product.class
+  );
 
   public final Application application;
   public final GrocyApi grocyApi;
@@ -103,11 +149,15 @@ public class DownloadHelper {
   public final AppDatabase appDatabase;
 
   private final ArrayList<NetworkQueue> queueArrayList;
+  private final SyncCoordinator syncCoordinator;
+  private final MutationOutbox mutationOutbox;
+  private final SyncMetrics syncMetrics;
   public final String tag;
   private final String apiKey;
   public final boolean debug;
   private final int timeoutSeconds;
   private int loadingRequests;
+  private Map<Class<?>, ChangeSet<?>> lastChangeSets = Collections.emptyMap();
 
   public DownloadHelper(
       Application application,
@@ -127,6 +177,9 @@ public class DownloadHelper {
     apiKey = sharedPrefs.getString(Constants.PREF.API_KEY, "");
     uuidHelper = UUID.randomUUID().toString();
     queueArrayList = new ArrayList<>();
+    syncCoordinator = SyncCoordinator.getInstance(application);
+    mutationOutbox = MutationOutbox.getInstance(application);
+    syncMetrics = SyncMetrics.getInstance();
     loadingRequests = 0;
     this.onLoadingListener = onLoadingListener;
     this.offlineLive = offlineLive;
@@ -155,6 +208,9 @@ public class DownloadHelper {
     this.apiKey = apiKey;
     uuidHelper = UUID.randomUUID().toString();
     queueArrayList = new ArrayList<>();
+    syncCoordinator = SyncCoordinator.getInstance(application);
+    mutationOutbox = MutationOutbox.getInstance(application);
+    syncMetrics = SyncMetrics.getInstance();
     loadingRequests = 0;
     this.onLoadingListener = onLoadingListener;
     this.offlineLive = null;
@@ -178,6 +234,7 @@ public class DownloadHelper {
       queue.reset(true);
     }
     requestQueue.cancelAll(uuidHelper);
+    syncCoordinator.detach(uuidHelper);
   }
 
   public String getUuid() {
@@ -205,6 +262,53 @@ public class DownloadHelper {
     requestQueue.add(request);
   }
 
+  /**
+   * GET request for the list of an entity which is stored in a table. The listener receives
+   * a new FetchMetric with the request time and size, which is passed on to
+   * isResponseUnchanged, applyDiff and putSyncState and recorded by them.
+   *
+   * @param lastTimePrefKey one of the PREF.DB_LAST_TIME_* keys
+   */
+  public void getEntity(
+      String url,
+      String tag,
+      String lastTimePrefKey,
+      OnEntityResponseListener onResponse,
+      OnErrorListener onError
+  ) {
+    String sessionKey = sharedPrefs
+        .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
+    long startedAt = SystemClock.elapsedRealtime();
+    WireBytes wireBytes = new WireBytes();
+    CustomStringRequest request = new CustomStringRequest(
+        Request.Method.GET,
+        url,
+        apiKey,
+        sessionKey,
+        response -> {
+          // JSON is mostly ASCII, so the length in chars is close enough to the size in bytes
+          FetchMetric metric = new FetchMetric(
+              lastTimePrefKey,
+              getHttpStackName(),
+              SystemClock.elapsedRealtime() - startedAt,
+              response != null ? response.length() : -1,
+              wireBytes.get()
+          );
+          onResponse.onResponse(response, metric);
+        },
+        onError::onError,
+        timeoutSeconds,
+        tag
+    );
+    request.setWireBytes(wireBytes);
+    requestQueue.add(request);
+  }
+
+  private String getHttpStackName() {
+    return RequestQueueSingleton.getInstance(application).getHttpStack()
+        .getClass().getSimpleName();
+  }
+
   // for requests without loading progress (set noLoadingProgress=true) TODO
   public void get(
       String url,
@@ -289,6 +393,17 @@ public class DownloadHelper {
       JSONObject json,
       OnJSONArrayResponseListener onResponse,
       OnErrorListener onError
+  ) {
+    postWithArray(url, json, null, uuidHelper, onResponse, onError);
+  }
+
+  public void postWithArray(
+      String url,
+      JSONObject json,
+      @Nullable String idempotencyKey,
+      String tag,
+      OnJSONArrayResponseListener onResponse,
+      OnErrorListener onError
   ) {
     String sessionKey = sharedPrefs
         .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
@@ -301,8 +416,9 @@ public class DownloadHelper {
         onResponse::onResponse,
         onError::onError,
         timeoutSeconds,
-        uuidHelper
+        tag
     );
+    request.setIdempotencyKey(idempotencyKey);
     requestQueue.add(request);
   }
 
@@ -399,9 +515,21 @@ public class DownloadHelper {
       OnStringResponseListener onResponseListener,
       OnMultiTypeErrorListener onErrorListener
   ) {
-    get(
-        grocyApi.getDbChangedTime(),
+    // all screens which are opened at the same time share one request
+    String url = grocyApi.getDbChangedTime();
+    syncCoordinator.perform(
+        url,
         uuidHelper,
+        (responseListener, errorListener, requestTag) -> get(
+            url,
+            requestTag,
+            responseListener::onResponse,
+            errorListener::onError,
+            !sharedPrefs.getBoolean(
+                Constants.SETTINGS.NETWORK.LOADING_CIRCLE,
+                Constants.SETTINGS_DEFAULT.NETWORK.LOADING_CIRCLE
+            )
+        ),
         response -> {
           try {
             JSONObject body = new JSONObject(response);
@@ -412,12 +540,336 @@ public class DownloadHelper {
             onErrorListener.onError(e);
           }
         },
-        onErrorListener::onError,
-        !sharedPrefs.getBoolean(
-            Constants.SETTINGS.NETWORK.LOADING_CIRCLE,
-            Constants.SETTINGS_DEFAULT.NETWORK.LOADING_CIRCLE
-        )
+        onErrorListener
+    );
+  }
+
+
+  /**
+   * Compares the fingerprint of a downloaded entity list with the fingerprint stored at the
+   * last successful database update of this entity. If they are equal, only the
+   * db-changed-time of the entity is advanced and the caller can skip parsing the response
+   * and rewriting its table.
+   *
+   * @param metric metric of the download from getEntity, recorded if the response is skipped
+   * @return true if the stored table already reflects the response
+   */
+  public boolean isResponseUnchanged(
+      FetchMetric metric,
+      String dbChangedTime,
+      String response,
+      boolean forceUpdate
+  ) {
+    boolean unchanged = !forceUpdate && response != null && isFingerprintUnchanged(
+        metric.getLastTimePrefKey(), dbChangedTime, getFingerprint(response), false
+    );
+    if (unchanged) {
+      metric.setSkipped(true);
+      syncMetrics.add(metric);
+    }
+    return unchanged;
+  }
+
+  public boolean isFingerprintUnchanged(
+      String lastTimePrefKey,
+      String dbChangedTime,
+      @Nullable String fingerprint,
+      boolean forceUpdate
+  ) {
+    if (forceUpdate || fingerprint == null) {
+      return false;
+    }
+    // without db-changed-time the table was invalidated or never written,
+    // so the stored fingerprint can't be trusted
+    if (sharedPrefs.getString(lastTimePrefKey, null) == null) {
+      return false;
+    }
+    String storedFingerprint = sharedPrefs.getString(
+        lastTimePrefKey + Constants.PREF.DB_FINGERPRINT_SUFFIX, null
+    );
+    if (!fingerprint.equals(storedFingerprint)) {
+      return false;
+    }
+    sharedPrefs.edit().putString(lastTimePrefKey, dbChangedTime).apply();
+    if (debug) {
+      Log.i(tag, "downloadData: skipped unchanged response for " + lastTimePrefKey);
+    }
+    return true;
+  }
+
+  // Stores db-changed-time and response fingerprint after the table of an entity was written
+  public void putSyncState(FetchMetric metric, String dbChangedTime, String response) {
+    putSyncStateFingerprint(metric.getLastTimePrefKey(), dbChangedTime, getFingerprint(response));
+    syncMetrics.add(metric);
+  }
+
+  private void putSyncStateFingerprint(
+      String lastTimePrefKey,
+      String dbChangedTime,
+      @Nullable String fingerprint
+  ) {
+    sharedPrefs.edit()
+        .putString(lastTimePrefKey, dbChangedTime)
+        .putString(lastTimePrefKey + Constants.PREF.DB_FINGERPRINT_SUFFIX, fingerprint)
+        .apply();
+  }
+
+  /**
+   * Applies a downloaded entity list to its table. If the table is a source of the stock
+   * status table, the status of the changed products is recomputed.
+   * Blocking, must be called from a background thread.
+   *
+   * @param metric metric of the download from getEntity, receives the database time
+   */
+  public <T, K> ChangeSet<K> applyDiff(
+      FetchMetric metric,
+      Class<?> type,
+      BaseDao<T> dao,
+      Single<List<T>> storedRows,
+      List<T> incomingRows,
+      KeyFunction<T, K> keyFunction
+  ) {
+    return applyDiff(metric, type, dao, storedRows, incomingRows, keyFunction, Objects::equals);
+  }
+
+  public <T, K> ChangeSet<K> applyDiff(
+      FetchMetric metric,
+      Class<?> type,
+      BaseDao<T> dao,
+      Single<List<T>> storedRows,
+      List<T> incomingRows,
+      KeyFunction<T, K> keyFunction,
+      ContentEquality<T> contentEquality
+  ) {
+    long startedAt = SystemClock.elapsedRealtime();
+    ChangeSet<K> changeSet = TableDiff.apply(
+        appDatabase, dao, storedRows, incomingRows, keyFunction, contentEquality
+    );
+    // some downloads write more than one table, the time until the first diff includes
+    // the switch to the background thread
+    metric.addDiff(startedAt, SystemClock.elapsedRealtime() - startedAt, changeSet.size());
+    if (debug) {
+      Log.i(tag, "applyDiff: " + type.getSimpleName() + " " + changeSet);
+    }
+    if (!changeSet.isEmpty() && STOCK_STATUS_SOURCES.contains(type)) {
+      refreshStockStatus(changeSet);
+    }
+    TableChanges.record(type, changeSet);
+    return changeSet;
+  }
+
+  private void refreshStockStatus(ChangeSet<?> changeSet) {
+    HashSet<Integer> productIds = new HashSet<>();
+    for (Set<?> keys : Arrays.asList(
+        changeSet.getInserted(), changeSet.getUpdated(), changeSet.getDeleted()
+    )) {
+      for (Object key : keys) {
+        Integer productId = getProductIdOfKey(key);
+        if (productId == null || productIds.size() >= MAX_STOCK_STATUS_PRODUCTS) {
+          appDatabase.stockStatusDao().refreshStockStatus();
+          return;
+        }
+        productIds.add(productId);
+      }
+    }
+    appDatabase.stockStatusDao().refreshStockStatus(new ArrayList<>(productIds));
+  }
+
+  // all stock status sources are keyed by product id, volatile items by "productId_type"
+  @Nullable
+  private static Integer getProductIdOfKey(Object key) {
+    if (key instanceof Integer) {
+      return (Integer) key;
+    }
+    String keyString = String.valueOf(key);
+    int separator = keyString.indexOf('_');
+    String productId = separator >= 0 ? keyString.substring(0, separator) : keyString;
+    return NumUtil.isStringInt(productId) ? Integer.parseInt(productId) : null;
+  }
+
+  /**
+   * Downloads an entity list and writes it to its table while the response body is read
+   * with a JsonReader. The request runs on an io thread with the HTTP stack of the request
+   * queue, the body is read from the connection and rows are written in batches of
+   * STREAM_BATCH_SIZE, so neither the body nor the complete object list nor the stored table
+   * has to be held in memory.
+   * The fingerprint of the body is only known after it was read, so an unchanged response
+   * is still read completely, but it doesn't write any rows.
+   * onResponse receives false if nothing changed.
+   */
+  @SuppressLint("CheckResult")
+  public <T, K> void getIntoTable(
+      String url,
+      String tag,
+      Class<T> type,
+      String lastTimePrefKey,
+      String dbChangedTime,
+      boolean forceUpdate,
+      BaseDao<T> dao,
+      KeyedTable<T, K> storedTable,
+      KeyFunction<T, K> keyFunction,
+      OnObjectResponseListener<Boolean> onResponse,
+      OnErrorListener onError
+  ) {
+    String sessionKey = sharedPrefs
+        .getString(Constants.PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY, null);
+    long startedAt = SystemClock.elapsedRealtime();
+    WireBytes wireBytes = new WireBytes();
+    AtomicReference<FetchMetric> fetchMetric = new AtomicReference<>();
+    CustomStreamRequest<Boolean> request = new CustomStreamRequest<>(
+        url,
+        apiKey,
+        sessionKey,
+        (content, headers) -> {
+          long requestMillis = SystemClock.elapsedRealtime() - startedAt;
+          long parseStartedAt = SystemClock.elapsedRealtime();
+          Charset charset = Charset.forName(HttpHeaderParser.parseCharset(headers, "UTF-8"));
+          MessageDigest digest = MessageDigest.getInstance("SHA-256");
+          CountingInputStream countingStream = new CountingInputStream(
+              content != null ? content : new ByteArrayInputStream(new byte[0])
+          );
+          // parsing and writing are interleaved, so the time in the consumer is measured
+          AtomicLong parseMillis = new AtomicLong();
+          ChangeSet<K> changeSet = TableDiff.applyBatched(
+              appDatabase,
+              dao,
+              storedTable,
+              consumer -> {
+                long readStartedAt = SystemClock.elapsedRealtime();
+                AtomicLong writeMillis = new AtomicLong();
+                readJsonArray(
+                    new DigestInputStream(countingStream, digest), charset, type, batch -> {
+                      long writeStartedAt = SystemClock.elapsedRealtime();
+                      consumer.accept(batch);
+                      writeMillis.addAndGet(SystemClock.elapsedRealtime() - writeStartedAt);
+                    }
+                );
+                parseMillis.set(
+                    SystemClock.elapsedRealtime() - readStartedAt - writeMillis.get()
+                );
+              },
+              keyFunction,
+              Objects::equals
+          );
+          String fingerprint = Base64.encodeToString(digest.digest(), Base64.NO_WRAP);
+          FetchMetric metric = new FetchMetric(
+              lastTimePrefKey, getHttpStackName(), requestMillis, countingStream.getCount(), -1
+          );
+          // transferred bytes are only known after the stream was closed
+          fetchMetric.set(metric);
+          boolean unchanged = changeSet.isEmpty() && isFingerprintUnchanged(
+              lastTimePrefKey, dbChangedTime, fingerprint, forceUpdate
+          );
+          if (unchanged) {
+            metric.setSkipped(true);
+            return false;
+          }
+          long totalMillis = SystemClock.elapsedRealtime() - parseStartedAt;
+          metric.setParseMillis(parseMillis.get());
+          metric.setDbMillis(totalMillis - parseMillis.get());
+          metric.setRowsChanged(changeSet.size());
+          putSyncStateFingerprint(lastTimePrefKey, dbChangedTime, fingerprint);
+          if (debug) {
+            Log.i(this.tag, "getIntoTable: " + type.getSimpleName() + " " + changeSet);
+          }
+          TableChanges.record(type, changeSet);
+          return !changeSet.isEmpty();
+        },
+        timeoutSeconds,
+        tag
     );
+    request.setWireBytes(wireBytes);
+    BaseHttpStack httpStack = RequestQueueSingleton.getInstance(application).getHttpStack();
+    // not cancelled with the request queue, a started table write is always finished
+    Single.fromCallable(() -> {
+      Boolean changed = request.execute(httpStack);
+      FetchMetric metric = fetchMetric.get();
+      if (metric != null) {
+        metric.setWireBytes(wireBytes.get());
+        syncMetrics.add(metric);
+      }
+      return changed;
+    })
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(
+            onResponse::onResponse,
+            throwable -> onError.onError(throwable instanceof VolleyError
+                ? (VolleyError) throwable : new VolleyError(throwable))
+        );
+  }
+
+  private <T> void readJsonArray(
+      InputStream content,
+      Charset charset,
+      Class<T> type,
+      BatchConsumer<T> consumer
+  ) throws IOException {
+    try (JsonReader reader = new JsonReader(new InputStreamReader(content, charset))) {
+      List<T> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+      reader.beginArray();
+      while (reader.hasNext()) {
+        batch.add(gson.fromJson(reader, type));
+        if (batch.size() == STREAM_BATCH_SIZE) {
+          consumer.accept(batch);
+          batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        }
+      }
+      reader.endArray();
+      if (!batch.isEmpty()) {
+        consumer.accept(batch);
+      }
+    }
+  }
+
+  private static class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+    CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int result = super.read();
+      if (result != -1) count++;
+      return result;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int result = super.read(buffer, offset, length);
+      if (result > 0) count += result;
+      return result;
+    }
+
+    long getCount() {
+      return count;
+    }
+  }
+
+  @Nullable
+  public static String getFingerprint(@Nullable String response) {
+    if (response == null) {
+      return null;
+    }
+    return getFingerprint(response.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Nullable
+  public static String getFingerprint(@Nullable byte[] response) {
+    if (response == null) {
+      return null;
+    }
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(response);
+      return Base64.encodeToString(hash, Base64.NO_WRAP);
+    } catch (NoSuchAlgorithmException e) {
+      Log.e(TAG, "getFingerprint: " + e);
+      return null;
+    }
   }
 
   public NetworkQueue newQueue(
@@ -467,28 +919,42 @@ public class DownloadHelper {
       Class<?>... types
   ) {
     if (dbChangedTime == null) {
-      getTimeDbChanged(
-          time -> updateData(
-              onFinished,
-              errorListener,
-              time,
-              forceUpdate,
-              errorsOnlyWithForceUpdate,
-              extraQueueItem,
-              types
-          ),
-          error -> {
-            if (offlineLive != null) offlineLive.setValue(true);
-            if (errorsOnlyWithForceUpdate && !forceUpdate) {
-              return;
-            }
-            errorListener.onError(error);
-          }
+      OnStringResponseListener onTime = time -> updateData(
+          onFinished,
+          errorListener,
+          time,
+          forceUpdate,
+          errorsOnlyWithForceUpdate,
+          extraQueueItem,
+          types
       );
+      OnMultiTypeErrorListener onTimeError = error -> {
+        if (offlineLive != null) offlineLive.setValue(true);
+        if (errorsOnlyWithForceUpdate && !forceUpdate) {
+          return;
+        }
+        errorListener.onError(error);
+      };
+      getTimeDbChanged(time -> {
+        if (!mutationOutbox.hasPendingMutations()) {
+          onTime.onResponse(time);
+          return;
+        }
+        // send offline changes first, so the downloaded data already contains them
+        mutationOutbox.replay(this, replayedCount -> {
+          if (replayedCount == 0) {
+            onTime.onResponse(time);
+          } else {
+            getTimeDbChanged(onTime, onTimeError);
+          }
+        });
+      }, onTimeError);
       return;
     }
 
+    long changeSequence = TableChanges.getSequence();
     NetworkQueue queue = newQueue(updated -> {
+      lastChangeSets = TableChanges.getSince(changeSequence);
       if (offlineLive != null) offlineLive.setValue(false);
       onFinished.onQueueEmpty(updated);
     }, error -> {
@@ -498,77 +964,144 @@ public class DownloadHelper {
       }
       errorListener.onError(error);
     });
+    if (debug) {
+      queue.setOnStageFinishedListener(timing -> Log.i(tag, "updateData: " + timing));
+    }
 
-    for (Class<?> type : types) {
-      if (type == Product.class) {
-        queue.append(Product.updateProducts(this, dbChangedTime, forceUpdate, null, false));
-      } else if (type == ProductGroup.class) {
-        queue.append(ProductGroup.updateProductGroups(this, dbChangedTime, forceUpdate, null));
-      } else if (type == QuantityUnit.class) {
-        queue.append(QuantityUnit.updateQuantityUnits(this, dbChangedTime, forceUpdate, null));
-      } else if (type == QuantityUnitConversion.class) {
-        queue.append(QuantityUnitConversion.updateQuantityUnitConversions(this, dbChangedTime, forceUpdate, null));
-      } else if (type == QuantityUnitConversionResolved.class) {
-        queue.append(QuantityUnitConversionResolved.updateQuantityUnitConversions(this, dbChangedTime, forceUpdate, false, null));
-      } else if (type == Location.class) {
-        queue.append(Location.updateLocations(this, dbChangedTime, forceUpdate, null));
-      } else if (type == StockLocation.class) {
-        queue.append(StockLocation.updateStockCurrentLocations(this, dbChangedTime, forceUpdate, null));
-      } else if (type == ProductLastPurchased.class) {
-        queue.append(ProductLastPurchased.updateProductsLastPurchased(this, dbChangedTime, forceUpdate, null, true));
-      } else if (type == ProductAveragePrice.class) {
-        queue.append(ProductAveragePrice.updateProductsAveragePrice(this, dbChangedTime, forceUpdate, null, true));
-      } else if (type == ProductBarcode.class) {
-        queue.append(ProductBarcode.updateProductBarcodes(this, dbChangedTime, forceUpdate, null));
-      } else if (type == User.class) {
-        queue.append(User.updateUsers(this, dbChangedTime, forceUpdate, null));
-      } else if (type == StockItem.class) {
-        queue.append(StockItem.updateStockItems(this, dbChangedTime, forceUpdate, null));
-      } else if (type == StockEntry.class) {
-        queue.append(StockEntry.updateStockEntries(this, dbChangedTime, forceUpdate, null));
-      } else if (type == VolatileItem.class) {
-        queue.append(VolatileItem.updateVolatile(this, dbChangedTime, forceUpdate, null));
-      } else if (type == MissingItem.class) {
-        queue.append(MissingItem.updateMissingItems(this, dbChangedTime, forceUpdate, null));
-      } else if (type == ShoppingListItem.class) {
-        queue.append(ShoppingListItem.updateShoppingListItems(this, dbChangedTime, forceUpdate,
-            null));
-      } else if (type == ShoppingListItemWithSync.class) {
-        queue.append(ShoppingListItem.updateShoppingListItemsWithoutNotSyncedItems(this, dbChangedTime, forceUpdate,
-            null));
-      } else if (type == ShoppingList.class) {
-        queue.append(ShoppingList.updateShoppingLists(this, dbChangedTime, forceUpdate, null));
-      } else if (type == Store.class) {
-        queue.append(Store.updateStores(this, dbChangedTime, forceUpdate, null));
-      } else if (type == Task.class) {
-        queue.append(Task.updateTasks(this, dbChangedTime, forceUpdate, null));
-      } else if (type == TaskCategory.class) {
-        queue.append(TaskCategory.updateTaskCategories(this, dbChangedTime, forceUpdate, null));
-      } else if (type == Chore.class) {
-        queue.append(Chore.updateChores(this, dbChangedTime, forceUpdate, null));
-      } else if (type == ChoreEntry.class) {
-        queue.append(ChoreEntry.updateChoreEntries(this, dbChangedTime, forceUpdate, null));
-      } else if (type == Recipe.class) {
-        queue.append(Recipe.updateRecipes(this, dbChangedTime, forceUpdate, null));
-      } else if (type == RecipeFulfillment.class) {
-        queue.append(RecipeFulfillment.updateRecipeFulfillments(this, dbChangedTime, forceUpdate, null));
-      } else if (type == RecipePosition.class) {
-        queue.append(RecipePosition.updateRecipePositions(this, dbChangedTime, forceUpdate, null));
-      } else if (type == RecipePositionResolved.class) {
-        queue.append(RecipePositionResolved.updateRecipePositionsResolved(this, dbChangedTime, forceUpdate, null));
-      } else if (type == Userfield.class) {
-        queue.append(Userfield.updateUserfields(this, dbChangedTime, forceUpdate, null));
-      } else if (type == MealPlanEntry.class) {
-        queue.append(MealPlanEntry.updateMealPlanEntries(this, dbChangedTime, null));
-      } else if (type == MealPlanSection.class) {
-        queue.append(MealPlanSection.updateMealPlanSections(this, dbChangedTime, null));
-      }
+    for (int i = 0; i < types.length; i++) {
+      QueueItem queueItem = getUpdateQueueItem(types[i], dbChangedTime, forceUpdate);
+      if (queueItem == null) continue;
+      // screens list their types in the order they need them, so the first ones start first
+      queueItem = shareQueueItem(types[i], dbChangedTime, forceUpdate, queueItem);
+      queueItem.setStageKey(types[i])
+          .setPriority(types.length - i)
+          .dependsOn(getEntityDependencies(types[i]));
+      queue.append(queueItem);
     }
 
     queue.append(extraQueueItem);
     queue.start();
   }
 
+  /**
+   * Keys of the rows which the last finished updateData call inserted, updated or deleted,
+   * by the entity type which was passed to applyDiff or getIntoTable. Types without changes
+   * are missing. Includes downloads of other screens which this call attached to, and can be
+   * read in the onFinished listener to refresh only what changed.
+   */
+  public Map<Class<?>, ChangeSet<?>> getLastChangeSets() {
+    return lastChangeSets;
+  }
+
+  @Nullable
+  private QueueItem getUpdateQueueItem(Class<?> type, String dbChangedTime, boolean forceUpdate) {
+    if (type == Product.class) {
+      return Product.updateProducts(this, dbChangedTime, forceUpdate, null, false);
+    } else if (type == ProductGroup.class) {
+      return ProductGroup.updateProductGroups(this, dbChangedTime, forceUpdate, null);
+    } else if (type == QuantityUnit.class) {
+      return QuantityUnit.updateQuantityUnits(this, dbChangedTime, forceUpdate, null);
+    } else if (type == QuantityUnitConversion.class) {
+      return QuantityUnitConversion.updateQuantityUnitConversions(this, dbChangedTime, forceUpdate, null);
+    } else if (type == QuantityUnitConversionResolved.class) {
+      return QuantityUnitConversionResolved.updateQuantityUnitConversions(this, dbChangedTime, forceUpdate, false, null);
+    } else if (type == Location.class) {
+      return Location.updateLocations(this, dbChangedTime, forceUpdate, null);
+    } else if (type == StockLocation.class) {
+      return StockLocation.updateStockCurrentLocations(this, dbChangedTime, forceUpdate, null);
+    } else if (type == ProductLastPurchased.class) {
+      return ProductLastPurchased.updateProductsLastPurchased(this, dbChangedTime, forceUpdate, null, true);
+    } else if (type == ProductAveragePrice.class) {
+      return ProductAveragePrice.updateProductsAveragePrice(this, dbChangedTime, forceUpdate, null, true);
+    } else if (type == ProductBarcode.class) {
+      return ProductBarcode.updateProductBarcodes(this, dbChangedTime, forceUpdate, null);
+    } else if (type == User.class) {
+      return User.updateUsers(this, dbChangedTime, forceUpdate, null);
+    } else if (type == StockItem.class) {
+      return StockItem.updateStockItems(this, dbChangedTime, forceUpdate, null);
+    } else if (type == StockEntry.class) {
+      return StockEntry.updateStockEntries(this, dbChangedTime, forceUpdate, null);
+    } else if (type == VolatileItem.class) {
+      return VolatileItem.updateVolatile(this, dbChangedTime, forceUpdate, null);
+    } else if (type == MissingItem.class) {
+      return MissingItem.updateMissingItems(this, dbChangedTime, forceUpdate, null);
+    } else if (type == ShoppingListItem.class) {
+      return ShoppingListItem.updateShoppingListItems(this, dbChangedTime, forceUpdate,
+          null);
+    } else if (type == ShoppingListItemWithSync.class) {
+      return ShoppingListItem.updateShoppingListItemsWithoutNotSyncedItems(this, dbChangedTime, forceUpdate,
+          null);
+    } else if (type == ShoppingList.class) {
+      return ShoppingList.updateShoppingLists(this, dbChangedTime, forceUpdate, null);
+    } else if (type == Store.class) {
+      return Store.updateStores(this, dbChangedTime, forceUpdate, null);
+    } else if (type == Task.class) {
+      return Task.updateTasks(this, dbChangedTime, forceUpdate, null);
+    } else if (type == TaskCategory.class) {
+      return TaskCategory.updateTaskCategories(this, dbChangedTime, forceUpdate, null);
+    } else if (type == Chore.class) {
+      return Chore.updateChores(this, dbChangedTime, forceUpdate, null);
+    } else if (type == ChoreEntry.class) {
+      return ChoreEntry.updateChoreEntries(this, dbChangedTime, forceUpdate, null);
+    } else if (type == Recipe.class) {
+      return Recipe.updateRecipes(this, dbChangedTime, forceUpdate, null);
+    } else if (type == RecipeFulfillment.class) {
+      return RecipeFulfillment.updateRecipeFulfillments(this, dbChangedTime, forceUpdate, null);
+    } else if (type == RecipePosition.class) {
+      return RecipePosition.updateRecipePositions(this, dbChangedTime, forceUpdate, null);
+    } else if (type == RecipePositionResolved.class) {
+      return RecipePositionResolved.updateRecipePositionsResolved(this, dbChangedTime, forceUpdate, null);
+    } else if (type == Userfield.class) {
+      return Userfield.updateUserfields(this, dbChangedTime, forceUpdate, null);
+    } else if (type == MealPlanEntry.class) {
+      return MealPlanEntry.updateMealPlanEntries(this, dbChangedTime, null);
+    } else if (type == MealPlanSection.class) {
+      return MealPlanSection.updateMealPlanSections(this, dbChangedTime, null);
+    }
+    return null;
+  }
+
+  // Lets other screens attach to this download while it is running instead of repeating it
+  private QueueItem shareQueueItem(
+      Class<?> type,
+      String dbChangedTime,
+      boolean forceUpdate,
+      QueueItem queueItem
+  ) {
+    if (queueItem instanceof QueueItemWithoutLoading) {
+      return queueItem; // only reads from database
+    }
+    // a forced download must not attach to a normal one, which may skip unchanged responses
+    String key = type.getName() + " " + grocyApi.getBaseUrl() + " " + dbChangedTime
+        + (forceUpdate ? " forced" : "");
+    return new QueueItem() {
+      @Override
+      public void perform(
+          @Nullable OnStringResponseListener responseListener,
+          @Nullable OnMultiTypeErrorListener errorListener,
+          @Nullable String uuid
+      ) {
+        if (debug && syncCoordinator.isInFlight(key)) {
+          Log.i(tag, "updateData: attached to running download of " + type.getSimpleName());
+        }
+        syncCoordinator.perform(
+            key, uuidHelper, queueItem::perform, responseListener, errorListener
+        );
+      }
+    };
+  }
+
+  private static Class<?>[] getEntityDependencies(Class<?> type) {
+    if (type == MissingItem.class) {
+      // volatile download writes the missing items table too
+      return new Class<?>[]{VolatileItem.class};
+    } else if (type == QuantityUnitConversionResolved.class) {
+      // resolved conversions are looked up by product
+      return new Class<?>[]{Product.class};
+    }
+    return new Class<?>[0];
+  }
+
   public interface OnObjectsResponseListener<T> {
 
     void onResponse(List<T> objects);
@@ -579,6 +1112,11 @@ public class DownloadHelper {
     void onResponse(T object);
   }
 
+  public interface OnEntityResponseListener {
+
+    void onResponse(String response, FetchMetric metric);
+  }
+
   public interface OnStringResponseListener {
 
     void onResponse(String response);
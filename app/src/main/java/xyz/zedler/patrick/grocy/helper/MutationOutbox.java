@@ -0,0 +1,395 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.util.Log;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.preference.PreferenceManager;
+import com.android.volley.NoConnectionError;
+import com.android.volley.VolleyError;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import org.json.JSONException;
+import org.json.JSONObject;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+import xyz.zedler.patrick.grocy.dao.PendingMutationDao;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnJSONArrayResponseListener;
+import xyz.zedler.patrick.grocy.model.PendingMutation;
+import xyz.zedler.patrick.grocy.web.NetworkQueue;
+import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
+import xyz.zedler.patrick.grocy.worker.SyncWorker;
+
+/**
+ * Write-ahead outbox for stock actions. If the device is offline, the request could not be
+ * delivered or older mutations are still waiting, the mutation is stored together with an
+ * optimistic update of the stock table and replayed later in the order it was made.
+ * Must only be used from the main thread.
+ */
+public class MutationOutbox {
+
+  private static final String TAG = MutationOutbox.class.getSimpleName();
+  private static final int MAX_PARALLEL_REPLAYS = 3;
+  // tables which a stock action changes on the server
+  private static final String[] STOCK_SYNC_STATE_KEYS = {
+      PREF.DB_LAST_TIME_STOCK_ITEMS,
+      PREF.DB_LAST_TIME_STOCK_ENTRIES,
+      PREF.DB_LAST_TIME_STOCK_LOCATIONS,
+      PREF.DB_LAST_TIME_VOLATILE,
+      PREF.DB_LAST_TIME_VOLATILE_MISSING
+  };
+
+  private static MutationOutbox instance;
+  private final Context context;
+  private final SharedPreferences sharedPrefs;
+  private final AppDatabase appDatabase;
+  private final PendingMutationDao dao;
+  private final ConnectivityManager cm;
+  private final LiveData<Integer> pendingCountLive;
+  private final Observer<Integer> pendingCountObserver;
+  private int pendingCount; // -1 until the count was loaded from the database
+  private boolean isReplaying;
+
+  private MutationOutbox(Context context, AppDatabase appDatabase) {
+    this.context = context.getApplicationContext();
+    sharedPrefs = PreferenceManager.getDefaultSharedPreferences(this.context);
+    this.appDatabase = appDatabase;
+    dao = appDatabase.pendingMutationDao();
+    cm = (ConnectivityManager) this.context.getSystemService(Context.CONNECTIVITY_SERVICE);
+    pendingCount = -1;
+    pendingCountLive = dao.getPendingCountLive();
+    pendingCountObserver = count -> pendingCount = count != null ? count : 0;
+    pendingCountLive.observeForever(pendingCountObserver);
+  }
+
+  public static synchronized MutationOutbox getInstance(Context context) {
+    // every server has its own database and with it its own outbox
+    AppDatabase appDatabase = AppDatabase.getAppDatabase(context);
+    if (instance != null && instance.appDatabase != appDatabase) {
+      instance.pendingCountLive.removeObserver(instance.pendingCountObserver);
+      instance = null;
+    }
+    if (instance == null) {
+      instance = new MutationOutbox(context, appDatabase);
+    }
+    return instance;
+  }
+
+  public LiveData<Integer> getPendingCountLive() {
+    return dao.getPendingCountLive();
+  }
+
+  public LiveData<List<PendingMutation>> getConflictsLive() {
+    return dao.getConflictsLive();
+  }
+
+  // true as long as the count is unknown, a replay of an empty outbox is cheap
+  public boolean hasPendingMutations() {
+    return pendingCount != 0;
+  }
+
+  /**
+   * Sends the stock action directly if possible. Otherwise it is stored and onQueued is called
+   * as soon as the optimistic update is written, so the UI never waits for the network.
+   */
+  public void postStockAction(
+      DownloadHelper dlHelper,
+      String type,
+      String url,
+      JSONObject body,
+      int productId,
+      @Nullable String description,
+      OnJSONArrayResponseListener onResponse,
+      Runnable onQueued,
+      OnErrorListener onError
+  ) {
+    String idempotencyKey = UUID.randomUUID().toString();
+    if (pendingCount != 0 || !isOnline()) {
+      // keep the order, newer mutations must not overtake the stored ones
+      enqueue(type, url, body, productId, description, idempotencyKey, onQueued, onError);
+      return;
+    }
+    dlHelper.postWithArray(url, body, idempotencyKey, dlHelper.getUuid(), onResponse, error -> {
+      if (error instanceof NoConnectionError) {
+        enqueue(type, url, body, productId, description, idempotencyKey, onQueued, onError);
+      } else {
+        onError.onError(error);
+      }
+    });
+  }
+
+  private void enqueue(
+      String type,
+      String url,
+      JSONObject body,
+      int productId,
+      @Nullable String description,
+      String idempotencyKey,
+      Runnable onQueued,
+      OnErrorListener onError
+  ) {
+    PendingMutation mutation = new PendingMutation();
+    mutation.setIdempotencyKey(idempotencyKey);
+    mutation.setType(type);
+    mutation.setUrl(url);
+    mutation.setBody(body.toString());
+    mutation.setProductId(productId);
+    mutation.setDescription(description);
+    mutation.setState(PendingMutation.STATE_PENDING);
+    mutation.setCreatedTime(System.currentTimeMillis());
+    pendingCount = Math.max(pendingCount, 0) + 1;
+    Single.fromCallable(() -> appDatabase.runInTransaction(() -> {
+          long id = dao.insertPendingMutation(mutation);
+          applyOptimistically(mutation.getType(), productId, body);
+          return id;
+        }))
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(id -> {
+          invalidateStockSyncState();
+          SyncWorker.scheduleSyncOnConnectivity(context);
+          onQueued.run();
+        }, throwable -> {
+          Log.e(TAG, "enqueue: " + throwable);
+          onError.onError(new VolleyError(throwable));
+        });
+  }
+
+  /**
+   * Only the stock overview is updated optimistically. The stock entries table and the other
+   * tables which the action changes on the server are left unchanged. The optimistic write
+   * can also stay in the table if the mutation is rejected or discarded, and in that case the
+   * db-changed-time of the server does not move. Removing the sync state of these tables
+   * makes the next sync download them again, and their diff corrects the local rows.
+   */
+  private void invalidateStockSyncState() {
+    SharedPreferences.Editor editPrefs = sharedPrefs.edit();
+    for (String key : STOCK_SYNC_STATE_KEYS) {
+      editPrefs.remove(key);
+      editPrefs.remove(key + PREF.DB_FINGERPRINT_SUFFIX);
+    }
+    editPrefs.apply();
+  }
+
+  private void applyOptimistically(String type, int productId, JSONObject body) {
+    switch (type) {
+      case PendingMutation.TYPE_CONSUME:
+        appDatabase.stockItemDao().applyConsumed(productId, body.optDouble("amount", 0));
+        break;
+      case PendingMutation.TYPE_OPEN:
+        appDatabase.stockItemDao().applyOpened(productId, body.optDouble("amount", 0));
+        break;
+      case PendingMutation.TYPE_INVENTORY:
+        if (body.has("new_amount")) {
+          appDatabase.stockItemDao().applyInventory(productId, body.optDouble("new_amount", 0));
+        }
+        break;
+      default:
+        // transfers don't change the amount of the product
+        return;
+    }
+    appDatabase.stockStatusDao().refreshStockStatus();
+  }
+
+  /**
+   * Replays all pending mutations. Mutations of the same product are sent one after another,
+   * mutations of different products in parallel. Rejected mutations are kept as conflicts,
+   * if the connection is lost the replay stops and is continued on the next call. Mutations
+   * which may have reached the server without an answer (timeouts, server errors) are never
+   * sent again, they are kept with an unknown outcome and shown like conflicts.
+   */
+  public void replay(DownloadHelper dlHelper, @Nullable OnReplayFinishedListener listener) {
+    if (isReplaying || !isOnline()) {
+      if (listener != null) {
+        listener.onReplayFinished(0);
+      }
+      return;
+    }
+    isReplaying = true;
+    dao.getPendingMutations()
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(mutations -> {
+          if (mutations.isEmpty()) {
+            finishReplay(listener, 0);
+            return;
+          }
+          NetworkQueue queue = dlHelper.newQueue(
+              updated -> finishReplay(listener, mutations.size()),
+              error -> finishReplay(listener, 0)
+          ).setMaxParallelRequests(MAX_PARALLEL_REPLAYS);
+          HashMap<Integer, Long> lastMutationOfProduct = new HashMap<>();
+          for (int i = 0; i < mutations.size(); i++) {
+            PendingMutation mutation = mutations.get(i);
+            QueueItem queueItem = replayQueueItem(dlHelper, mutation)
+                .setStageKey(mutation.getId())
+                .setPriority(mutations.size() - i);
+            Long previousId = lastMutationOfProduct.put(mutation.getProductId(), mutation.getId());
+            if (previousId != null) {
+              queueItem.dependsOn(previousId);
+            }
+            queue.append(queueItem);
+          }
+          queue.start();
+        }, throwable -> {
+          Log.e(TAG, "replay: " + throwable);
+          finishReplay(listener, 0);
+        });
+  }
+
+  private void finishReplay(@Nullable OnReplayFinishedListener listener, int count) {
+    isReplaying = false;
+    if (listener != null) {
+      listener.onReplayFinished(count);
+    }
+  }
+
+  private QueueItem replayQueueItem(DownloadHelper dlHelper, PendingMutation mutation) {
+    return new QueueItem() {
+      @Override
+      public void perform(
+          @Nullable DownloadHelper.OnStringResponseListener responseListener,
+          @Nullable DownloadHelper.OnMultiTypeErrorListener errorListener,
+          @Nullable String uuid
+      ) {
+        JSONObject body;
+        try {
+          body = new JSONObject(mutation.getBody());
+        } catch (JSONException e) {
+          invalidateStockSyncState();
+          updateAndContinue(dao.markConflict(mutation.getId(), e.toString()), responseListener);
+          return;
+        }
+        dlHelper.postWithArray(
+            mutation.getUrl(),
+            body,
+            mutation.getIdempotencyKey(),
+            uuid,
+            response -> updateAndContinue(
+                dao.deletePendingMutation(mutation.getId()), responseListener
+            ),
+            error -> {
+              if (isConflict(error)) {
+                invalidateStockSyncState();
+                updateAndContinue(
+                    dao.markConflict(mutation.getId(), getErrorMessage(error)),
+                    responseListener
+                );
+              } else if (isNotApplied(error)) {
+                dao.incrementAttempts(mutation.getId())
+                    .subscribeOn(Schedulers.io())
+                    .onErrorComplete()
+                    .subscribe();
+                if (errorListener != null) {
+                  errorListener.onError(error);
+                }
+              } else {
+                // grocy ignores the idempotency key, sending it again could apply it twice
+                invalidateStockSyncState();
+                updateAndContinue(
+                    dao.markUnknown(mutation.getId(), error.networkResponse != null
+                        ? getErrorMessage(error)
+                        : error.getClass().getSimpleName()),
+                    responseListener
+                );
+              }
+            }
+        );
+      }
+    };
+  }
+
+  private static void updateAndContinue(
+      Single<Integer> update,
+      @Nullable DownloadHelper.OnStringResponseListener responseListener
+  ) {
+    update.subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .doFinally(() -> {
+          if (responseListener != null) {
+            responseListener.onResponse(null);
+          }
+        })
+        .subscribe(ignored -> {}, throwable -> Log.e(TAG, "replay: " + throwable));
+  }
+
+  // The server rejected the mutation itself, retrying it would not help
+  private static boolean isConflict(VolleyError error) {
+    if (error.networkResponse == null) {
+      return false;
+    }
+    int statusCode = error.networkResponse.statusCode;
+    return statusCode >= 400 && statusCode < 500
+        && statusCode != 401 && statusCode != 403 && statusCode != 408 && statusCode != 429;
+  }
+
+  // The request did not reach the server or was refused before it was handled
+  private static boolean isNotApplied(VolleyError error) {
+    if (error instanceof NoConnectionError) {
+      return true;
+    }
+    if (error.networkResponse == null) {
+      return false; // timeouts and lost responses
+    }
+    int statusCode = error.networkResponse.statusCode;
+    return statusCode == 401 || statusCode == 403 || statusCode == 408 || statusCode == 429;
+  }
+
+  private static String getErrorMessage(VolleyError error) {
+    String data = new String(error.networkResponse.data, StandardCharsets.UTF_8);
+    try {
+      return new JSONObject(data).getString("error_message");
+    } catch (JSONException e) {
+      return data.isEmpty() ? String.valueOf(error.networkResponse.statusCode) : data;
+    }
+  }
+
+  public void discardConflicts() {
+    invalidateStockSyncState();
+    dao.deleteConflicts()
+        .subscribeOn(Schedulers.io())
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  private boolean isOnline() {
+    if (cm == null) {
+      return false;
+    }
+    NetworkInfo networkInfo = cm.getActiveNetworkInfo();
+    return networkInfo != null && networkInfo.isConnectedOrConnecting();
+  }
+
+  public interface OnReplayFinishedListener {
+    void onReplayFinished(int replayedCount);
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.helper;
+
+import android.content.Context;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.web.RequestQueueSingleton;
+
+/**
+ * Shares running downloads between all DownloadHelpers of the app. If a download with the
+ * same key is already in flight, e.g. the products of the same server and db-changed-time
+ * requested by another screen, the caller attaches to it instead of starting a new request.
+ * Must only be used from the main thread.
+ */
+public class SyncCoordinator {
+
+  private static SyncCoordinator instance;
+  private final Context context;
+  private final HashMap<String, InFlight> inFlightFetches;
+
+  private SyncCoordinator(Context context) {
+    this.context = context.getApplicationContext();
+    inFlightFetches = new HashMap<>();
+  }
+
+  public static synchronized SyncCoordinator getInstance(Context context) {
+    if (instance == null) {
+      instance = new SyncCoordinator(context);
+    }
+    return instance;
+  }
+
+  /**
+   * Starts the fetch or attaches the listeners to the running fetch with the same key.
+   * The fetch is performed with its own request tag, so it is only cancelled if all callers
+   * have detached.
+   */
+  public void perform(
+      String key,
+      String callerTag,
+      Fetch fetch,
+      @Nullable OnStringResponseListener responseListener,
+      @Nullable OnMultiTypeErrorListener errorListener
+  ) {
+    InFlight inFlight = inFlightFetches.get(key);
+    if (inFlight != null) {
+      inFlight.callers.add(new Caller(callerTag, responseListener, errorListener));
+      return;
+    }
+    InFlight newInFlight = new InFlight();
+    newInFlight.callers.add(new Caller(callerTag, responseListener, errorListener));
+    inFlightFetches.put(key, newInFlight);
+    fetch.perform(response -> {
+      if (inFlightFetches.get(key) == newInFlight) {
+        inFlightFetches.remove(key);
+      }
+      for (Caller caller : newInFlight.callers) {
+        if (caller.responseListener != null) {
+          caller.responseListener.onResponse(response);
+        }
+      }
+    }, error -> {
+      if (inFlightFetches.get(key) == newInFlight) {
+        inFlightFetches.remove(key);
+      }
+      for (Caller caller : newInFlight.callers) {
+        if (caller.errorListener != null) {
+          caller.errorListener.onError(error);
+        }
+      }
+    }, newInFlight.requestTag);
+  }
+
+  public boolean isInFlight(String key) {
+    return inFlightFetches.containsKey(key);
+  }
+
+  // Removes all listeners of the caller and cancels fetches nobody is waiting for anymore
+  public void detach(String callerTag) {
+    Iterator<Map.Entry<String, InFlight>> iterator = inFlightFetches.entrySet().iterator();
+    while (iterator.hasNext()) {
+      InFlight inFlight = iterator.next().getValue();
+      inFlight.callers.removeIf(caller -> caller.tag.equals(callerTag));
+      if (inFlight.callers.isEmpty()) {
+        iterator.remove();
+        RequestQueueSingleton.getInstance(context).getRequestQueue()
+            .cancelAll(inFlight.requestTag);
+      }
+    }
+  }
+
+  public interface Fetch {
+
+    void perform(
+        OnStringResponseListener responseListener,
+        OnMultiTypeErrorListener errorListener,
+        String requestTag
+    );
+  }
+
+  private static class InFlight {
+
+    private final String requestTag = UUID.randomUUID().toString();
+    private final ArrayList<Caller> callers = new ArrayList<>();
+  }
+
+  private static class Caller {
+
+    private final String tag;
+    private final OnStringResponseListener responseListener;
+    private final OnMultiTypeErrorListener errorListener;
+
+    Caller(
+        String tag,
+        @Nullable OnStringResponseListener responseListener,
+        @Nullable OnMultiTypeErrorListener errorListener
+    ) {
+      this.tag = tag;
+      this.responseListener = responseListener;
+      this.errorListener = errorListener;
+    }
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ring buffer with the timings of the last entity downloads of all DownloadHelpers, shown in
+ * the debugging settings. Request time and size tell about the server and the network,
+ * parse and database time about the device. Each metric names the HTTP stack which made the
+ * request, so request time and transferred bytes of the stacks can be compared.
+ */
+public class SyncMetrics {
+
+  public static final int CAPACITY = 200;
+
+  private static SyncMetrics instance;
+  private final ArrayDeque<FetchMetric> metrics;
+  private final MutableLiveData<List<FetchMetric>> metricsLive;
+
+  private SyncMetrics() {
+    metrics = new ArrayDeque<>(CAPACITY);
+    metricsLive = new MutableLiveData<>(new ArrayList<>());
+  }
+
+  public static synchronized SyncMetrics getInstance() {
+    if (instance == null) {
+      instance = new SyncMetrics();
+    }
+    return instance;
+  }
+
+  public synchronized void add(FetchMetric metric) {
+    if (metrics.size() == CAPACITY) {
+      metrics.pollFirst();
+    }
+    metrics.addLast(metric);
+    metricsLive.postValue(new ArrayList<>(metrics));
+  }
+
+  // newest metric last
+  public synchronized List<FetchMetric> getMetrics() {
+    return new ArrayList<>(metrics);
+  }
+
+  public LiveData<List<FetchMetric>> getMetricsLive() {
+    return metricsLive;
+  }
+
+  public synchronized void clear() {
+    metrics.clear();
+    metricsLive.postValue(new ArrayList<>());
+  }
+
+  public String exportCsv() {
+    StringBuilder csv = new StringBuilder(
+        "time,entity,stack,request_ms,bytes,wire_bytes,parse_ms,db_ms,rows_changed,skipped\n"
+    );
+    for (FetchMetric metric : getMetrics()) {
+      csv.append(metric.toCsvLine()).append('\n');
+    }
+    return csv.toString();
+  }
+
+  /**
+   * Timings of one entity download. Values which could not be measured, e.g. the database
+   * time of a skipped download, are -1. Created per request, so it is never shared between
+   * downloads.
+   */
+  public static class FetchMetric {
+
+    private final String lastTimePrefKey;
+    private final String entity;
+    private final String stack;
+    private final long timestamp;
+    private final long requestMillis;
+    private final long bytes; // decompressed
+    private long wireBytes; // transferred, -1 if the stack doesn't know it
+    private long parseMillis = -1;
+    private long dbMillis = -1;
+    private int rowsChanged = -1;
+    private boolean skipped;
+    private final long parseStartedAt; // elapsed realtime
+
+    FetchMetric(
+        String lastTimePrefKey,
+        String stack,
+        long requestMillis,
+        long bytes,
+        long wireBytes
+    ) {
+      this.lastTimePrefKey = lastTimePrefKey;
+      this.entity = lastTimePrefKey.replaceFirst("^db_last_time_", "");
+      this.stack = stack;
+      this.timestamp = System.currentTimeMillis();
+      this.requestMillis = requestMillis;
+      this.bytes = bytes;
+      this.wireBytes = wireBytes;
+      this.parseStartedAt = SystemClock.elapsedRealtime();
+    }
+
+    String getLastTimePrefKey() {
+      return lastTimePrefKey;
+    }
+
+    public String getEntity() {
+      return entity;
+    }
+
+    public String getStack() {
+      return stack;
+    }
+
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    public long getRequestMillis() {
+      return requestMillis;
+    }
+
+    public long getBytes() {
+      return bytes;
+    }
+
+    public long getWireBytes() {
+      return wireBytes;
+    }
+
+    void setWireBytes(long wireBytes) {
+      this.wireBytes = wireBytes;
+    }
+
+    public long getParseMillis() {
+      return parseMillis;
+    }
+
+    void setParseMillis(long parseMillis) {
+      this.parseMillis = parseMillis;
+    }
+
+    public long getDbMillis() {
+      return dbMillis;
+    }
+
+    void setDbMillis(long dbMillis) {
+      this.dbMillis = dbMillis;
+    }
+
+    public int getRowsChanged() {
+      return rowsChanged;
+    }
+
+    void setRowsChanged(int rowsChanged) {
+      this.rowsChanged = rowsChanged;
+    }
+
+    public boolean isSkipped() {
+      return skipped;
+    }
+
+    void setSkipped(boolean skipped) {
+      this.skipped = skipped;
+    }
+
+    // parse time is the time from the response until the first diff
+    void addDiff(long startedAt, long millis, int rows) {
+      if (dbMillis == -1) {
+        parseMillis = startedAt - parseStartedAt;
+        dbMillis = 0;
+        rowsChanged = 0;
+      }
+      dbMillis += millis;
+      rowsChanged += rows;
+    }
+
+    String toCsvLine() {
+      return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.ENGLISH)
+          .format(new Date(timestamp))
+          + "," + entity + "," + stack + "," + requestMillis + "," + bytes + "," + wireBytes
+          + "," + parseMillis
+          + "," + dbMillis + "," + rowsChanged + "," + skipped;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+      String request = entity + " (" + stack + "): request " + requestMillis + " ms, "
+          + bytes + " B, " + (wireBytes != -1 ? wireBytes + " B transferred, " : "");
+      if (skipped) {
+        return request + "unchanged";
+      }
+      return request + "parse " + parseMillis + " ms, db " + dbMillis + " ms, "
+          + rowsChanged + " rows";
+    }
+  }
+}
@@ -441,21 +441,35 @@ public class Chore implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(ENTITY.CHORES),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_CHORES,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<Chore>>() {
                 }.getType();
                 ArrayList<Chore> chores = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Chores: " + chores);
+                  Log.i(dlHelper.tag, "download Chores: " + chores.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.choreDao().deleteChores().blockingSubscribe();
-                  dlHelper.appDatabase.choreDao().insertChores(chores).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_CHORES, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      Chore.class,
+                      dlHelper.appDatabase.choreDao(),
+                      dlHelper.appDatabase.choreDao().getChores(),
+                      chores,
+                      Chore::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
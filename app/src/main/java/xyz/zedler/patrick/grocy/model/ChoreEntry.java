@@ -265,23 +265,35 @@ public class ChoreEntry implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getChores(),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_CHORE_ENTRIES,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<ChoreEntry>>() {
                 }.getType();
                 ArrayList<ChoreEntry> choreEntries = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ChoreEntries: " + choreEntries);
+                  Log.i(dlHelper.tag, "download ChoreEntries: " + choreEntries.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.choreEntryDao()
-                      .deleteChoreEntries().blockingSubscribe();
-                  dlHelper.appDatabase.choreEntryDao()
-                      .insertChoreEntries(choreEntries).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_CHORE_ENTRIES, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      ChoreEntry.class,
+                      dlHelper.appDatabase.choreEntryDao(),
+                      dlHelper.appDatabase.choreEntryDao().getChoreEntries(),
+                      choreEntries,
+                      ChoreEntry::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
@@ -227,7 +227,7 @@ public class Location implements Parcelable {
               }.getType();
               ArrayList<Location> locations = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download Locations: " + locations);
+                Log.i(dlHelper.tag, "download Locations: " + locations.size());
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(locations);
@@ -267,23 +267,35 @@ public class Location implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.LOCATIONS),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_LOCATIONS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<Location>>() {
                 }.getType();
                 ArrayList<Location> locations = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Locations: " + locations);
+                  Log.i(dlHelper.tag, "download Locations: " + locations.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.locationDao()
-                      .deleteLocations().blockingSubscribe();
-                  dlHelper.appDatabase.locationDao()
-                      .insertLocations(locations).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_LOCATIONS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      Location.class,
+                      dlHelper.appDatabase.locationDao(),
+                      dlHelper.appDatabase.locationDao().getLocations(),
+                      locations,
+                      Location::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
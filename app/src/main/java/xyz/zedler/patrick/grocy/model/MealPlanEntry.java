@@ -306,23 +306,35 @@ public class MealPlanEntry extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.MEAL_PLAN),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_MEAL_PLAN_ENTRIES,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, false
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<MealPlanEntry>>() {
                 }.getType();
                 ArrayList<MealPlanEntry> mealPlanEntries = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download MealPlanEntries: " + mealPlanEntries);
+                  Log.i(dlHelper.tag, "download MealPlanEntries: " + mealPlanEntries.size());
                 }
                 Single.fromCallable(() -> {
-                      dlHelper.appDatabase.mealPlanEntryDao()
-                          .deleteMealPlanEntries().blockingSubscribe();
-                      dlHelper.appDatabase.mealPlanEntryDao()
-                          .insertMealPlanEntries(mealPlanEntries).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_MEAL_PLAN_ENTRIES, dbChangedTime).apply();
+                      dlHelper.applyDiff(
+                          metric,
+                          MealPlanEntry.class,
+                          dlHelper.appDatabase.mealPlanEntryDao(),
+                          dlHelper.appDatabase.mealPlanEntryDao().getMealPlanEntries(),
+                          mealPlanEntries,
+                          MealPlanEntry::getId
+                      );
+                      dlHelper.putSyncState(metric, dbChangedTime, response);
                       return true;
                     })
                     .subscribeOn(Schedulers.io())
@@ -222,23 +222,35 @@ public class MealPlanSection extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(ENTITY.MEAL_PLAN_SECTIONS),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_MEAL_PLAN_SECTIONS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, false
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<MealPlanSection>>() {
                 }.getType();
                 ArrayList<MealPlanSection> mealPlanSections = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download MealPlanSections: " + mealPlanSections);
+                  Log.i(dlHelper.tag, "download MealPlanSections: " + mealPlanSections.size());
                 }
                 Single.fromCallable(() -> {
-                      dlHelper.appDatabase.mealPlanSectionDao()
-                          .deleteMealPlanSections().blockingSubscribe();
-                      dlHelper.appDatabase.mealPlanSectionDao()
-                          .insertMealPlanSections(mealPlanSections).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_MEAL_PLAN_SECTIONS, dbChangedTime).apply();
+                      dlHelper.applyDiff(
+                          metric,
+                          MealPlanSection.class,
+                          dlHelper.appDatabase.mealPlanSectionDao(),
+                          dlHelper.appDatabase.mealPlanSectionDao().getMealPlanSections(),
+                          mealPlanSections,
+                          MealPlanSection::getId
+                      );
+                      dlHelper.putSyncState(metric, dbChangedTime, response);
                       return true;
                     })
                     .subscribeOn(Schedulers.io())
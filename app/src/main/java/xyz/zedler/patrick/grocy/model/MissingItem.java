@@ -35,6 +35,7 @@ import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
@@ -147,6 +148,26 @@ public class MissingItem implements Parcelable {
     return 0;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    MissingItem missingItem = (MissingItem) o;
+    return id == missingItem.id &&
+        Objects.equals(name, missingItem.name) &&
+        Objects.equals(amountMissing, missingItem.amountMissing) &&
+        Objects.equals(isPartlyInStock, missingItem.isPartlyInStock);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, name, amountMissing, isPartlyInStock);
+  }
+
   @NonNull
   @Override
   public String toString() {
@@ -171,10 +192,19 @@ public class MissingItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getStockVolatile(),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_VOLATILE_MISSING,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download Volatile (only missing): success");
                 }
@@ -198,11 +228,15 @@ public class MissingItem implements Parcelable {
                 }
                 ArrayList<MissingItem> finalMissingItems = missingItems;
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.missingItemDao().deleteMissingItems().blockingSubscribe();
-                  dlHelper.appDatabase.missingItemDao()
-                      .insertMissingItems(finalMissingItems).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_VOLATILE_MISSING, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      MissingItem.class,
+                      dlHelper.appDatabase.missingItemDao(),
+                      dlHelper.appDatabase.missingItemDao().getMissingItems(),
+                      finalMissingItems,
+                      MissingItem::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
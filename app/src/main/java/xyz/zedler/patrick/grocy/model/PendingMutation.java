@@ -0,0 +1,174 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Mutating API call which is stored until it was accepted by the server. The rows are replayed
+ * in the order of their ids, the idempotency key stays the same for every attempt.
+ */
+@Entity(tableName = "pending_mutation_table")
+public class PendingMutation {
+
+  public static final int STATE_PENDING = 0;
+  public static final int STATE_CONFLICT = 1;
+  // sent, but it is not known whether the server applied it
+  public static final int STATE_UNKNOWN = 2;
+
+  public static final String TYPE_CONSUME = "consume";
+  public static final String TYPE_OPEN = "open";
+  public static final String TYPE_TRANSFER = "transfer";
+  public static final String TYPE_INVENTORY = "inventory";
+
+  @PrimaryKey(autoGenerate = true)
+  @ColumnInfo(name = "id")
+  private long id;
+
+  @ColumnInfo(name = "idempotency_key")
+  private String idempotencyKey;
+
+  @ColumnInfo(name = "type")
+  private String type;
+
+  @ColumnInfo(name = "url")
+  private String url;
+
+  @ColumnInfo(name = "body")
+  private String body;
+
+  @ColumnInfo(name = "product_id")
+  private int productId;
+
+  @ColumnInfo(name = "description")
+  private String description;
+
+  @ColumnInfo(name = "state")
+  private int state;
+
+  @ColumnInfo(name = "attempts")
+  private int attempts;
+
+  @ColumnInfo(name = "error")
+  private String error;
+
+  @ColumnInfo(name = "created_time")
+  private long createdTime;
+
+  public PendingMutation() {
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public void setId(long id) {
+    this.id = id;
+  }
+
+  public String getIdempotencyKey() {
+    return idempotencyKey;
+  }
+
+  public void setIdempotencyKey(String idempotencyKey) {
+    this.idempotencyKey = idempotencyKey;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public void setUrl(String url) {
+    this.url = url;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  public int getProductId() {
+    return productId;
+  }
+
+  public void setProductId(int productId) {
+    this.productId = productId;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public void setDescription(String description) {
+    this.description = description;
+  }
+
+  public int getState() {
+    return state;
+  }
+
+  public void setState(int state) {
+    this.state = state;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public void setError(String error) {
+    this.error = error;
+  }
+
+  public long getCreatedTime() {
+    return createdTime;
+  }
+
+  public void setCreatedTime(long createdTime) {
+    this.createdTime = createdTime;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "PendingMutation(" + id + ", " + type + ", " + productId + ')';
+  }
+}
@@ -28,6 +28,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
@@ -57,7 +58,10 @@ import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItemWithoutLoading;
 
-@Entity(tableName = "product_table")
+@Entity(
+    tableName = "product_table",
+    indices = @Index("parent_product_id")
+)
 public class Product extends GroupedListItem implements Parcelable {
 
   @PrimaryKey
@@ -1107,23 +1111,35 @@ public class Product extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.PRODUCTS),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_PRODUCTS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<Product>>() {
                 }.getType();
                 ArrayList<Product> products = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Products: " + products);
+                  Log.i(dlHelper.tag, "download Products: " + products.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.productDao()
-                      .deleteProducts().blockingSubscribe();
-                  dlHelper.appDatabase.productDao()
-                      .insertProducts(products).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_PRODUCTS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      Product.class,
+                      dlHelper.appDatabase.productDao(),
+                      dlHelper.appDatabase.productDao().getProducts(),
+                      products,
+                      Product::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
@@ -149,23 +149,37 @@ public class ProductAveragePrice implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(ENTITY.PRODUCTS_AVERAGE_PRICE),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_PRODUCTS_AVERAGE_PRICE,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<ProductAveragePrice>>() {
                 }.getType();
                 ArrayList<ProductAveragePrice> productsAveragePrice = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ProductsAveragePrice: " + productsAveragePrice);
+                  Log.i(
+                      dlHelper.tag, "download ProductsAveragePrice: " + productsAveragePrice.size()
+                  );
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.productAveragePriceDao()
-                      .deleteProductsAveragePrice().blockingSubscribe();
-                  dlHelper.appDatabase.productAveragePriceDao()
-                      .insertProductsAveragePrice(productsAveragePrice).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_PRODUCTS_AVERAGE_PRICE, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      ProductAveragePrice.class,
+                      dlHelper.appDatabase.productAveragePriceDao(),
+                      dlHelper.appDatabase.productAveragePriceDao().getProductsAveragePrice(),
+                      productsAveragePrice,
+                      ProductAveragePrice::getProductId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
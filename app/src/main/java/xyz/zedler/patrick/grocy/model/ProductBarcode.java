@@ -27,6 +27,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
@@ -43,6 +44,7 @@ import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
+import xyz.zedler.patrick.grocy.database.TableDiff.KeyedTable;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
@@ -52,7 +54,10 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
-@Entity(tableName = "product_barcode_table")
+@Entity(
+    tableName = "product_barcode_table",
+    indices = @Index("barcode")
+)
 public class ProductBarcode implements Parcelable {
 
   @PrimaryKey
@@ -348,24 +353,57 @@ public class ProductBarcode implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          if (onResponseListener == null) {
+            // nobody needs the objects, so they can be written while the body is parsed
+            dlHelper.getIntoTable(
+                dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.PRODUCT_BARCODES),
+                uuid,
+                ProductBarcode.class,
+                PREF.DB_LAST_TIME_PRODUCT_BARCODES,
+                dbChangedTime,
+                forceUpdate,
+                dlHelper.appDatabase.productBarcodeDao(),
+                new KeyedTable<ProductBarcode, Integer>(
+                    dlHelper.appDatabase.productBarcodeDao()::getProductBarcodes,
+                    dlHelper.appDatabase.productBarcodeDao()::getProductBarcodeIds,
+                    dlHelper.appDatabase.productBarcodeDao()::deleteProductBarcodes
+                ),
+                ProductBarcode::getId,
+                written -> {
+                  if (responseListener != null) {
+                    responseListener.onResponse(null);
+                  }
+                },
+                error -> {
+                  if (errorListener != null) {
+                    errorListener.onError(error);
+                  }
+                }
+            );
+            return;
+          }
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.PRODUCT_BARCODES),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_PRODUCT_BARCODES,
+              (response, metric) -> {
                 Type type = new TypeToken<List<ProductBarcode>>() {
                 }.getType();
                 ArrayList<ProductBarcode> barcodes
                     = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Barcodes: " + barcodes);
+                  Log.i(dlHelper.tag, "download Barcodes: " + barcodes.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.productBarcodeDao()
-                      .deleteProductBarcodes().blockingSubscribe();
-                  dlHelper.appDatabase.productBarcodeDao()
-                      .insertProductBarcodes(barcodes).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_PRODUCT_BARCODES, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      ProductBarcode.class,
+                      dlHelper.appDatabase.productBarcodeDao(),
+                      dlHelper.appDatabase.productBarcodeDao().getProductBarcodes(),
+                      barcodes,
+                      ProductBarcode::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
@@ -464,7 +502,7 @@ public class ProductBarcode implements Parcelable {
               ArrayList<ProductBarcode> barcodes
                   = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download filtered Barcodes: " + barcodes);
+                Log.i(dlHelper.tag, "download filtered Barcodes: " + barcodes.size());
               }
               if (onResponseListener != null) {
                 ProductBarcode barcode = !barcodes.isEmpty()
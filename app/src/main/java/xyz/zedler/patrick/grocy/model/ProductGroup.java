@@ -215,7 +215,7 @@ public class ProductGroup extends GroupedListItem implements Parcelable {
               }.getType();
               ArrayList<ProductGroup> productGroups = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download ProductGroups: " + productGroups);
+                Log.i(dlHelper.tag, "download ProductGroups: " + productGroups.size());
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(productGroups);
@@ -255,23 +255,35 @@ public class ProductGroup extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.PRODUCT_GROUPS),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_PRODUCT_GROUPS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<ProductGroup>>() {
                 }.getType();
                 ArrayList<ProductGroup> productGroups = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ProductGroups: " + productGroups);
+                  Log.i(dlHelper.tag, "download ProductGroups: " + productGroups.size());
                 }
                 Single.fromCallable(() -> {
-                      dlHelper.appDatabase.productGroupDao()
-                          .deleteProductGroups().blockingSubscribe();
-                      dlHelper.appDatabase.productGroupDao()
-                          .insertProductGroups(productGroups).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_PRODUCT_GROUPS, dbChangedTime).apply();
+                      dlHelper.applyDiff(
+                          metric,
+                          ProductGroup.class,
+                          dlHelper.appDatabase.productGroupDao(),
+                          dlHelper.appDatabase.productGroupDao().getProductGroups(),
+                          productGroups,
+                          ProductGroup::getId
+                      );
+                      dlHelper.putSyncState(metric, dbChangedTime, response);
                       return true;
                     })
                     .subscribeOn(Schedulers.io())
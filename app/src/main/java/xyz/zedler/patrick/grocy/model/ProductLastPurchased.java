@@ -215,23 +215,37 @@ public class ProductLastPurchased implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(ENTITY.PRODUCTS_LAST_PURCHASED),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_PRODUCTS_LAST_PURCHASED,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<ProductLastPurchased>>() {
                 }.getType();
                 ArrayList<ProductLastPurchased> productsLastPurchased = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ProductsLastPurchased: " + productsLastPurchased);
+                  Log.i(
+                      dlHelper.tag, "download ProductsLastPurchased: " + productsLastPurchased.size()
+                  );
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.productLastPurchasedDao()
-                      .deleteProductsLastPurchased().blockingSubscribe();
-                  dlHelper.appDatabase.productLastPurchasedDao()
-                      .insertProductsLastPurchased(productsLastPurchased).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_PRODUCTS_LAST_PURCHASED, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      ProductLastPurchased.class,
+                      dlHelper.appDatabase.productLastPurchasedDao(),
+                      dlHelper.appDatabase.productLastPurchasedDao().getProductsLastPurchased(),
+                      productsLastPurchased,
+                      ProductLastPurchased::getProductId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
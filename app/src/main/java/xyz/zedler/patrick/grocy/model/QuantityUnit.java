@@ -262,7 +262,7 @@ public class QuantityUnit implements Parcelable {
               }.getType();
               ArrayList<QuantityUnit> quantityUnits = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download QuantityUnits: " + quantityUnits);
+                Log.i(dlHelper.tag, "download QuantityUnits: " + quantityUnits.size());
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(quantityUnits);
@@ -302,22 +302,35 @@ public class QuantityUnit implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.QUANTITY_UNITS),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_QUANTITY_UNITS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<QuantityUnit>>() {
                 }.getType();
                 ArrayList<QuantityUnit> quantityUnits = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download QuantityUnits: " + quantityUnits);
+                  Log.i(dlHelper.tag, "download QuantityUnits: " + quantityUnits.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.quantityUnitDao().deleteQuantityUnits().blockingSubscribe();
-                  dlHelper.appDatabase.quantityUnitDao()
-                      .insertQuantityUnits(quantityUnits).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_QUANTITY_UNITS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      QuantityUnit.class,
+                      dlHelper.appDatabase.quantityUnitDao(),
+                      dlHelper.appDatabase.quantityUnitDao().getQuantityUnits(),
+                      quantityUnits,
+                      QuantityUnit::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
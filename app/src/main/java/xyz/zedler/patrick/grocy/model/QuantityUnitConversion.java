@@ -281,25 +281,40 @@ public class QuantityUnitConversion implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.QUANTITY_UNIT_CONVERSIONS),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric,
+                    dbChangedTime,
+                    response,
+                    forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<QuantityUnitConversion>>() {
                 }.getType();
                 List<QuantityUnitConversion> conversions
                     = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download QuantityUnitConversions: "
-                      + conversions);
+                      + conversions.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.quantityUnitConversionDao()
-                      .deleteConversions().blockingSubscribe();
-                  dlHelper.appDatabase.quantityUnitConversionDao()
-                      .insertConversions(conversions).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      QuantityUnitConversion.class,
+                      dlHelper.appDatabase.quantityUnitConversionDao(),
+                      dlHelper.appDatabase.quantityUnitConversionDao().getConversions(),
+                      conversions,
+                      QuantityUnitConversion::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
@@ -23,6 +23,7 @@ import android.annotation.SuppressLint;
 import android.util.Log;
 import androidx.annotation.Nullable;
 import androidx.room.Entity;
+import androidx.room.Index;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Single;
@@ -36,10 +37,14 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
-@Entity(tableName = "quantity_unit_conversion_resolved_table")
+@Entity(
+    tableName = "quantity_unit_conversion_resolved_table",
+    indices = @Index("product_id")
+)
 public class QuantityUnitConversionResolved extends QuantityUnitConversion {
 
   public QuantityUnitConversionResolved() {
@@ -60,15 +65,8 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
       int fromQuId,
       int toQuId
   ) {
-    String productIdStr = String.valueOf(productId);
-    for (QuantityUnitConversionResolved tmpConversion : conversionsResolved) {
-      if (productIdStr.equals(tmpConversion.getProductId())
-          && tmpConversion.getFromQuId() == fromQuId
-          && tmpConversion.getToQuId() == toQuId) {
-        return tmpConversion;
-      }
-    }
-    return null;
+    return QuantityUnitConversionIndex.get(conversionsResolved)
+        .getProductConversion(productId, fromQuId, toQuId);
   }
 
   @SuppressLint("CheckResult")
@@ -91,11 +89,24 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
             @Nullable String uuid
         ) {
           boolean isServerVersion4 = VersionUtil.isGrocyServerMin400(dlHelper.sharedPrefs);
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(isServerVersion4
                   ? ENTITY.QUANTITY_UNIT_CONVERSIONS_RESOLVED : ENTITY.QUANTITY_UNIT_CONVERSIONS),
               uuid,
-              response -> Single.fromCallable(() -> {
+              PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric,
+                    dbChangedTime,
+                    response,
+                    forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
+                Single.fromCallable(() -> {
                     Type type = new TypeToken<List<QuantityUnitConversionResolved>>() {
                     }.getType();
                     List<QuantityUnitConversionResolved> conversionsResolved;
@@ -104,7 +115,7 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
                           .fromJson(response, type);
                       if (dlHelper.debug) {
                         Log.i(dlHelper.tag, "download QuantityUnitConversionsResolved: "
-                            + conversionsResolvedNotForDb);
+                            + conversionsResolvedNotForDb.size());
                       }
                       conversionsResolved = new ArrayList<>();
                       int id = 0;
@@ -120,15 +131,18 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
                           .fromJson(response, type);
                       if (dlHelper.debug) {
                         Log.i(dlHelper.tag, "download QuantityUnitConversions: "
-                            + conversionsResolved);
+                            + conversionsResolved.size());
                       }
                     }
-                dlHelper.appDatabase.quantityUnitConversionResolvedDao()
-                    .deleteConversionsResolved().blockingSubscribe();
-                dlHelper.appDatabase.quantityUnitConversionResolvedDao()
-                    .insertConversionsResolved(conversionsResolved).blockingSubscribe();
-                dlHelper.sharedPrefs.edit()
-                    .putString(PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED, dbChangedTime).apply();
+                dlHelper.applyDiff(
+                    metric,
+                    QuantityUnitConversionResolved.class,
+                    dlHelper.appDatabase.quantityUnitConversionResolvedDao(),
+                    dlHelper.appDatabase.quantityUnitConversionResolvedDao().getConversionsResolved(),
+                    conversionsResolved,
+                    QuantityUnitConversionResolved::getId
+                );
+                dlHelper.putSyncState(metric, dbChangedTime, response);
                 return conversionsResolved;
               })
                   .subscribeOn(Schedulers.io())
@@ -144,7 +158,8 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
                     if (errorListener != null) {
                       errorListener.onError(throwable);
                     }
-                  }),
+                  });
+              },
               error -> {
                 if (errorListener != null) {
                   errorListener.onError(error);
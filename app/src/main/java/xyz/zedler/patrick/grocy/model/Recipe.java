@@ -348,22 +348,35 @@ public class Recipe implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getRecipes(),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_RECIPES,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<Recipe>>() {
                 }.getType();
                 ArrayList<Recipe> recipes = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Recipes: " + recipes);
+                  Log.i(dlHelper.tag, "download Recipes: " + recipes.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.recipeDao().deleteRecipes().blockingSubscribe();
-                  dlHelper.appDatabase.recipeDao()
-                      .insertRecipes(recipes).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_RECIPES, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      Recipe.class,
+                      dlHelper.appDatabase.recipeDao(),
+                      dlHelper.appDatabase.recipeDao().getRecipes(),
+                      recipes,
+                      Recipe::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
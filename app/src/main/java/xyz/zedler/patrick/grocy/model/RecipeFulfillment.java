@@ -311,23 +311,35 @@ public class RecipeFulfillment implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getRecipeFulfillments(),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_RECIPE_FULFILLMENTS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<RecipeFulfillment>>() {
                 }.getType();
                 ArrayList<RecipeFulfillment> recipeFulfillments = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download RecipeFulfillments: " + recipeFulfillments);
+                  Log.i(dlHelper.tag, "download RecipeFulfillments: " + recipeFulfillments.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.recipeFulfillmentDao()
-                      .deleteRecipeFulfillments().blockingSubscribe();
-                  dlHelper.appDatabase.recipeFulfillmentDao()
-                      .insertRecipeFulfillments(recipeFulfillments).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_RECIPE_FULFILLMENTS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      RecipeFulfillment.class,
+                      dlHelper.appDatabase.recipeFulfillmentDao(),
+                      dlHelper.appDatabase.recipeFulfillmentDao().getRecipeFulfillments(),
+                      recipeFulfillments,
+                      RecipeFulfillment::getRecipeId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
@@ -179,23 +179,35 @@ public class RecipeNesting implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getRecipeNestings(),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_RECIPE_NESTINGS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<RecipeNesting>>() {
                 }.getType();
                 ArrayList<RecipeNesting> recipeNestings = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download RecipeNestings: " + recipeNestings);
+                  Log.i(dlHelper.tag, "download RecipeNestings: " + recipeNestings.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.recipeNestingDao()
-                      .deleteRecipeNestings().blockingSubscribe();
-                  dlHelper.appDatabase.recipeNestingDao()
-                      .insertRecipeNestings(recipeNestings).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_RECIPE_NESTINGS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      RecipeNesting.class,
+                      dlHelper.appDatabase.recipeNestingDao(),
+                      dlHelper.appDatabase.recipeNestingDao().getRecipeNestings(),
+                      recipeNestings,
+                      RecipeNesting::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
@@ -357,15 +357,24 @@ public class RecipePosition implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getRecipePositions(),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_RECIPE_POSITIONS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<RecipePosition>>() {
                 }.getType();
                 ArrayList<RecipePosition> recipePositions = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download RecipePositions: " + recipePositions);
+                  Log.i(dlHelper.tag, "download RecipePositions: " + recipePositions.size());
                 }
                 // fix crash, amount can be NaN according to a user
                 for (int i = 0; i < recipePositions.size(); i++) {
@@ -375,12 +384,15 @@ public class RecipePosition implements Parcelable {
                   }
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.recipePositionDao()
-                      .deleteRecipePositions().blockingSubscribe();
-                  dlHelper.appDatabase.recipePositionDao()
-                      .insertRecipePositions(recipePositions).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_RECIPE_POSITIONS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      RecipePosition.class,
+                      dlHelper.appDatabase.recipePositionDao(),
+                      dlHelper.appDatabase.recipePositionDao().getRecipePositions(),
+                      recipePositions,
+                      RecipePosition::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
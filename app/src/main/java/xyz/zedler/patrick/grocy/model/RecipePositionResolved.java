@@ -441,17 +441,29 @@ public class RecipePositionResolved extends GroupedListItem {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getRecipePositionsResolved(),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_RECIPE_POSITIONS_RESOLVED,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric,
+                    dbChangedTime,
+                    response,
+                    forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<RecipePositionResolved>>() {
                 }.getType();
                 ArrayList<RecipePositionResolved> recipePositionsResolved = dlHelper.gson
                     .fromJson(response, type);
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download RecipePositionResolved: "
-                      + recipePositionsResolved);
+                      + recipePositionsResolved.size());
                 }
                 // fix crash, amount can be NaN according to a user
                 for (int i = 0; i < recipePositionsResolved.size(); i++) {
@@ -465,14 +477,15 @@ public class RecipePositionResolved extends GroupedListItem {
                   }
                 }
                 Single.fromCallable(() -> {
-                      dlHelper.appDatabase.recipePositionResolvedDao()
-                          .deleteRecipePositionsResolved().blockingSubscribe();
-                      dlHelper.appDatabase.recipePositionResolvedDao()
-                          .insertRecipePositionsResolved(recipePositionsResolved)
-                          .blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_RECIPE_POSITIONS_RESOLVED, dbChangedTime)
-                          .apply();
+                      dlHelper.applyDiff(
+                          metric,
+                          RecipePositionResolved.class,
+                          dlHelper.appDatabase.recipePositionResolvedDao(),
+                          dlHelper.appDatabase.recipePositionResolvedDao().getRecipePositionsResolved(),
+                          recipePositionsResolved,
+                          RecipePositionResolved::getId
+                      );
+                      dlHelper.putSyncState(metric, dbChangedTime, response);
                       return true;
                     })
                     .subscribeOn(Schedulers.io())
@@ -36,6 +36,7 @@ import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
@@ -124,6 +125,25 @@ public class ShoppingList implements Parcelable {
     return 0;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ShoppingList shoppingList = (ShoppingList) o;
+    return id == shoppingList.id &&
+        Objects.equals(name, shoppingList.name) &&
+        Objects.equals(notes, shoppingList.notes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, name, notes);
+  }
+
   @NonNull
   @Override
   public String toString() {
@@ -150,7 +170,7 @@ public class ShoppingList implements Parcelable {
               }.getType();
               ArrayList<ShoppingList> shoppingLists = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download ShoppingLists: " + shoppingLists);
+                Log.i(dlHelper.tag, "download ShoppingLists: " + shoppingLists.size());
               }
               onResponseListener.onResponse(shoppingLists);
               if (responseListener != null) {
@@ -188,23 +208,35 @@ public class ShoppingList implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.SHOPPING_LISTS),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_SHOPPING_LISTS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<ShoppingList>>() {
                 }.getType();
                 ArrayList<ShoppingList> shoppingLists = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ShoppingLists: " + shoppingLists);
+                  Log.i(dlHelper.tag, "download ShoppingLists: " + shoppingLists.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.shoppingListDao()
-                      .deleteShoppingLists().blockingSubscribe();
-                  dlHelper.appDatabase.shoppingListDao()
-                      .insertShoppingLists(shoppingLists).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_SHOPPING_LISTS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      ShoppingList.class,
+                      dlHelper.appDatabase.shoppingListDao(),
+                      dlHelper.appDatabase.shoppingListDao().getShoppingLists(),
+                      shoppingLists,
+                      ShoppingList::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
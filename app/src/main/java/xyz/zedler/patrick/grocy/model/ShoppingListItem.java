@@ -371,23 +371,27 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.SHOPPING_LIST),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS,
+              (response, metric) -> {
                 Type type = new TypeToken<List<ShoppingListItem>>() {
                 }.getType();
                 ArrayList<ShoppingListItem> shoppingListItems = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ShoppingListItems: " + shoppingListItems);
+                  Log.i(dlHelper.tag, "download ShoppingListItems: " + shoppingListItems.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.shoppingListItemDao()
-                      .deleteShoppingListItems().blockingSubscribe();
-                  dlHelper.appDatabase.shoppingListItemDao()
-                      .insertShoppingListItems(shoppingListItems).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      ShoppingListItem.class,
+                      dlHelper.appDatabase.shoppingListItemDao(),
+                      dlHelper.appDatabase.shoppingListItemDao().getShoppingListItems(),
+                      shoppingListItems,
+                      ShoppingListItem::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
@@ -439,15 +443,24 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.SHOPPING_LIST),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<ShoppingListItem>>() {
                 }.getType();
                 ArrayList<ShoppingListItem> shoppingListItems = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download ShoppingListItems: " + shoppingListItems);
+                  Log.i(dlHelper.tag, "download ShoppingListItems: " + shoppingListItems.size());
                 }
 
                 dlHelper.appDatabase.shoppingListItemDao().getShoppingListItems()
@@ -468,10 +481,15 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
                       }
                     })
                     .flatMap(completeItems -> {
-                      dlHelper.appDatabase.shoppingListItemDao().deleteAll();
-                      dlHelper.appDatabase.shoppingListItemDao().insertAll(shoppingListItems);
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, dbChangedTime).apply();
+                      dlHelper.applyDiff(
+                          metric,
+                          ShoppingListItem.class,
+                          dlHelper.appDatabase.shoppingListItemDao(),
+                          dlHelper.appDatabase.shoppingListItemDao().getShoppingListItems(),
+                          shoppingListItems,
+                          ShoppingListItem::getId
+                      );
+                      dlHelper.putSyncState(metric, dbChangedTime, response);
                       return Single.just(shoppingListItems);
                     })
                     .subscribeOn(Schedulers.io())
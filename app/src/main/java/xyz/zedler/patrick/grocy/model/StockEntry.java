@@ -40,6 +40,7 @@ import java.util.List;
 import java.util.Objects;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
+import xyz.zedler.patrick.grocy.database.TableDiff.KeyedTable;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
@@ -104,6 +105,9 @@ public class StockEntry extends GroupedListItem implements Parcelable {
   @SerializedName("note")
   private String note;
 
+  @Ignore
+  private transient Product product;
+
   public StockEntry() {
   }
 
@@ -127,6 +131,7 @@ public class StockEntry extends GroupedListItem implements Parcelable {
     locationId = parcel.readString();
     shoppingLocationId = parcel.readString();
     note = parcel.readString();
+    product = parcel.readParcelable(Product.class.getClassLoader());
   }
 
   @Override
@@ -144,6 +149,7 @@ public class StockEntry extends GroupedListItem implements Parcelable {
     dest.writeString(locationId);
     dest.writeString(shoppingLocationId);
     dest.writeString(note);
+    dest.writeParcelable(product, 0);
   }
 
   public static final Creator<StockEntry> CREATOR = new Creator<>() {
@@ -271,6 +277,14 @@ public class StockEntry extends GroupedListItem implements Parcelable {
     this.note = note;
   }
 
+  public Product getProduct() {
+    return product;
+  }
+
+  public void setProduct(Product product) {
+    this.product = product;
+  }
+
   public static StockEntry getStockEntryFromId(List<StockEntry> stockEntries, String id) {
     for (StockEntry stockEntry : stockEntries) {
       if (stockEntry.getStockId().equals(id)) {
@@ -338,10 +352,40 @@ public class StockEntry extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          if (onResponseListener == null) {
+            // nobody needs the objects, so they can be written while the body is parsed
+            dlHelper.getIntoTable(
+                dlHelper.grocyApi.getObjects(ENTITY.STOCK_ENTRIES),
+                uuid,
+                StockEntry.class,
+                PREF.DB_LAST_TIME_STOCK_ENTRIES,
+                dbChangedTime,
+                forceUpdate,
+                dlHelper.appDatabase.stockEntryDao(),
+                new KeyedTable<StockEntry, Integer>(
+                    dlHelper.appDatabase.stockEntryDao()::getStockEntries,
+                    dlHelper.appDatabase.stockEntryDao()::getStockEntryIds,
+                    dlHelper.appDatabase.stockEntryDao()::deleteStockEntries
+                ),
+                StockEntry::getId,
+                written -> {
+                  if (responseListener != null) {
+                    responseListener.onResponse(null);
+                  }
+                },
+                error -> {
+                  if (errorListener != null) {
+                    errorListener.onError(error);
+                  }
+                }
+            );
+            return;
+          }
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(ENTITY.STOCK_ENTRIES),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_STOCK_ENTRIES,
+              (response, metric) -> {
                 Type type = new TypeToken<List<StockEntry>>() {
                 }.getType();
                 ArrayList<StockEntry> stockEntries = dlHelper.gson.fromJson(response, type);
@@ -349,11 +393,15 @@ public class StockEntry extends GroupedListItem implements Parcelable {
                   Log.i(dlHelper.tag, "dowload StockEntries: " + stockEntries);
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.stockEntryDao().deleteStockEntries().blockingSubscribe();
-                  dlHelper.appDatabase.stockEntryDao()
-                      .insertStockEntries(stockEntries).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_STOCK_ENTRIES, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      StockEntry.class,
+                      dlHelper.appDatabase.stockEntryDao(),
+                      dlHelper.appDatabase.stockEntryDao().getStockEntries(),
+                      stockEntries,
+                      StockEntry::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
@@ -409,7 +457,7 @@ public class StockEntry extends GroupedListItem implements Parcelable {
               }.getType();
               ArrayList<StockEntry> stockEntries = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download StockEntries: " + stockEntries);
+                Log.i(dlHelper.tag, "download StockEntries: " + stockEntries.size());
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(stockEntries);
@@ -369,6 +369,27 @@ public class StockItem extends GroupedListItem implements Parcelable {
         Objects.equals(product, stockItem.product);
   }
 
+  // Compares the stored columns only, the product object is not part of the table
+  public boolean equalsIgnoringProduct(StockItem stockItem) {
+    if (stockItem == null) {
+      return false;
+    }
+    return itemDue == stockItem.itemDue &&
+        itemOverdue == stockItem.itemOverdue &&
+        itemExpired == stockItem.itemExpired &&
+        itemMissing == stockItem.itemMissing &&
+        itemMissingAndPartlyInStock == stockItem.itemMissingAndPartlyInStock &&
+        Objects.equals(amount, stockItem.amount) &&
+        Objects.equals(amountAggregated, stockItem.amountAggregated) &&
+        Objects.equals(value, stockItem.value) &&
+        Objects.equals(bestBeforeDate, stockItem.bestBeforeDate) &&
+        Objects.equals(amountOpened, stockItem.amountOpened) &&
+        Objects.equals(amountOpenedAggregated, stockItem.amountOpenedAggregated) &&
+        Objects.equals(isAggregatedAmount, stockItem.isAggregatedAmount) &&
+        Objects.equals(dueType, stockItem.dueType) &&
+        productId == stockItem.productId;
+  }
+
   @Override
   public int hashCode() {
     return Objects
@@ -401,22 +422,36 @@ public class StockItem extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getStock(),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_STOCK_ITEMS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<StockItem>>() {
                 }.getType();
                 ArrayList<StockItem> stockItems = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download StockItems: " + stockItems);
+                  Log.i(dlHelper.tag, "download StockItems: " + stockItems.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.stockItemDao().deleteStockItems().blockingSubscribe();
-                  dlHelper.appDatabase.stockItemDao()
-                      .insertStockItems(stockItems).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_STOCK_ITEMS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      StockItem.class,
+                      dlHelper.appDatabase.stockItemDao(),
+                      dlHelper.appDatabase.stockItemDao().getStockItems(),
+                      stockItems,
+                      StockItem::getProductId,
+                      StockItem::equalsIgnoringProduct
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
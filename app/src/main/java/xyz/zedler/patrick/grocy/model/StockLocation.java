@@ -27,6 +27,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
@@ -36,6 +37,7 @@ import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
@@ -47,7 +49,10 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
-@Entity(tableName = "stock_current_location_table")
+@Entity(
+    tableName = "stock_current_location_table",
+    indices = @Index("product_id")
+)
 public class StockLocation implements Parcelable {
 
   @PrimaryKey(autoGenerate = true)
@@ -178,6 +183,27 @@ public class StockLocation implements Parcelable {
     return 0;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    StockLocation stockLocation = (StockLocation) o;
+    return productId == stockLocation.productId &&
+        locationId == stockLocation.locationId &&
+        Objects.equals(amount, stockLocation.amount) &&
+        Objects.equals(locationName, stockLocation.locationName) &&
+        Objects.equals(isFreezer, stockLocation.isFreezer);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(productId, locationId, amount, locationName, isFreezer);
+  }
+
   @NonNull
   @Override
   public String toString() {
@@ -205,7 +231,7 @@ public class StockLocation implements Parcelable {
               }.getType();
               ArrayList<StockLocation> stockLocations = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download StockLocations: " + stockLocations);
+                Log.i(dlHelper.tag, "download StockLocations: " + stockLocations.size());
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(stockLocations);
@@ -253,23 +279,35 @@ public class StockLocation implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.STOCK_CURRENT_LOCATIONS),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_STOCK_LOCATIONS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<StockLocation>>() {
                 }.getType();
                 ArrayList<StockLocation> locations = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download StockCurrentLocations: " + locations);
+                  Log.i(dlHelper.tag, "download StockCurrentLocations: " + locations.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.stockLocationDao()
-                      .deleteStockLocations().blockingSubscribe();
-                  dlHelper.appDatabase.stockLocationDao()
-                      .insertStockLocations(locations).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_STOCK_LOCATIONS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      StockLocation.class,
+                      dlHelper.appDatabase.stockLocationDao(),
+                      dlHelper.appDatabase.stockLocationDao().getStockLocations(),
+                      locations,
+                      location -> location.getProductId() + "_" + location.getLocationId()
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
@@ -24,11 +24,18 @@ import android.os.Parcelable;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.List;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
@@ -37,77 +44,101 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
-@Entity(tableName = "stock_item_table")
+@Entity(tableName = "stock_log_entry_table")
 public class StockLogEntry implements Parcelable {
 
+  @PrimaryKey
+  @ColumnInfo(name = "id")
   @SerializedName("id")
   private int id;
 
+  @ColumnInfo(name = "product_id")
   @SerializedName("product_id")
   private int productId;
 
+  @ColumnInfo(name = "amount")
   @SerializedName("amount")
   private String amount;
 
+  @ColumnInfo(name = "best_before_date")
   @SerializedName("best_before_date")
   private String bestBeforeDate;
 
+  @ColumnInfo(name = "purchased_date")
   @SerializedName("purchased_date")
   private String purchasedDate;
 
+  @ColumnInfo(name = "used_date")
   @SerializedName("used_date")
   private String usedDate;
 
+  @ColumnInfo(name = "spoiled")
   @SerializedName("spoiled")
   private String spoiled;
 
+  @ColumnInfo(name = "stock_id")
   @SerializedName("stock_id")
   private String stockId;
 
+  @ColumnInfo(name = "transaction_type")
   @SerializedName("transaction_type")
   private String transactionType;
 
+  @ColumnInfo(name = "price")
   @SerializedName("price")
   private String price;
 
+  @ColumnInfo(name = "undone")
   @SerializedName("undone")
   private String undone;
 
+  @ColumnInfo(name = "undone_timestamp")
   @SerializedName("undone_timestamp")
   private String undoneTimestamp;
 
+  @ColumnInfo(name = "opened_date")
   @SerializedName("opened_date")
   private String openedDate;
 
+  @ColumnInfo(name = "location_id")
   @SerializedName("location_id")
   private String locationId;
 
+  @ColumnInfo(name = "recipe_id")
   @SerializedName("recipe_id")
   private String recipeId;
 
+  @ColumnInfo(name = "correlation_id")
   @SerializedName("correlation_id")
   private String correlationId;
 
+  @ColumnInfo(name = "transaction_id")
   @SerializedName("transaction_id")
   private String transactionId;
 
+  @ColumnInfo(name = "stock_row_id")
   @SerializedName("stock_row_id")
   private String stockRowId;
 
+  @ColumnInfo(name = "shopping_location_id")
   @SerializedName("shopping_location_id")
   private String shoppingLocationId;
 
+  @ColumnInfo(name = "user_id")
   @SerializedName("user_id")
   private String userId;
 
+  @ColumnInfo(name = "row_created_timestamp")
   @SerializedName("row_created_timestamp")
   private String rowCreatedTimestamp;
 
+  @ColumnInfo(name = "note")
   @SerializedName("note")
   private String note;
 
   public StockLogEntry() {}
 
+  @Ignore
   private StockLogEntry(Parcel parcel) {
     id = parcel.readInt();
     productId = parcel.readInt();
@@ -176,46 +207,90 @@ public class StockLogEntry implements Parcelable {
     return id;
   }
 
+  public void setId(int id) {
+    this.id = id;
+  }
+
   public int getProductId() {
     return productId;
   }
 
+  public void setProductId(int productId) {
+    this.productId = productId;
+  }
+
   public String getAmount() {
     return amount;
   }
 
+  public void setAmount(String amount) {
+    this.amount = amount;
+  }
+
   public String getBestBeforeDate() {
     return bestBeforeDate;
   }
 
+  public void setBestBeforeDate(String bestBeforeDate) {
+    this.bestBeforeDate = bestBeforeDate;
+  }
+
   public String getPurchasedDate() {
     return purchasedDate;
   }
 
+  public void setPurchasedDate(String purchasedDate) {
+    this.purchasedDate = purchasedDate;
+  }
+
   public String getUsedDate() {
     return usedDate;
   }
 
+  public void setUsedDate(String usedDate) {
+    this.usedDate = usedDate;
+  }
+
   public String getSpoiled() {
     return spoiled;
   }
 
+  public void setSpoiled(String spoiled) {
+    this.spoiled = spoiled;
+  }
+
   public String getStockId() {
     return stockId;
   }
 
+  public void setStockId(String stockId) {
+    this.stockId = stockId;
+  }
+
   public String getTransactionType() {
     return transactionType;
   }
 
+  public void setTransactionType(String transactionType) {
+    this.transactionType = transactionType;
+  }
+
   public String getPrice() {
     return price;
   }
 
+  public void setPrice(String price) {
+    this.price = price;
+  }
+
   public String getUndone() {
     return undone;
   }
 
+  public void setUndone(String undone) {
+    this.undone = undone;
+  }
+
   public boolean getUndoneBoolean() {
     return NumUtil.isStringInt(undone) && Integer.parseInt(undone) == 1;
   }
@@ -224,46 +299,90 @@ public class StockLogEntry implements Parcelable {
     return undoneTimestamp;
   }
 
+  public void setUndoneTimestamp(String undoneTimestamp) {
+    this.undoneTimestamp = undoneTimestamp;
+  }
+
   public String getOpenedDate() {
     return openedDate;
   }
 
+  public void setOpenedDate(String openedDate) {
+    this.openedDate = openedDate;
+  }
+
   public String getLocationId() {
     return locationId;
   }
 
+  public void setLocationId(String locationId) {
+    this.locationId = locationId;
+  }
+
   public String getRecipeId() {
     return recipeId;
   }
 
+  public void setRecipeId(String recipeId) {
+    this.recipeId = recipeId;
+  }
+
   public String getCorrelationId() {
     return correlationId;
   }
 
+  public void setCorrelationId(String correlationId) {
+    this.correlationId = correlationId;
+  }
+
   public String getTransactionId() {
     return transactionId;
   }
 
+  public void setTransactionId(String transactionId) {
+    this.transactionId = transactionId;
+  }
+
   public String getStockRowId() {
     return stockRowId;
   }
 
+  public void setStockRowId(String stockRowId) {
+    this.stockRowId = stockRowId;
+  }
+
   public String getShoppingLocationId() {
     return shoppingLocationId;
   }
 
+  public void setShoppingLocationId(String shoppingLocationId) {
+    this.shoppingLocationId = shoppingLocationId;
+  }
+
   public String getUserId() {
     return userId;
   }
 
+  public void setUserId(String userId) {
+    this.userId = userId;
+  }
+
   public String getRowCreatedTimestamp() {
     return rowCreatedTimestamp;
   }
 
+  public void setRowCreatedTimestamp(String rowCreatedTimestamp) {
+    this.rowCreatedTimestamp = rowCreatedTimestamp;
+  }
+
   public String getNote() {
     return note;
   }
 
+  public void setNote(String note) {
+    this.note = note;
+  }
+
   @Override
   public int describeContents() {
     return 0;
@@ -298,7 +417,7 @@ public class StockLogEntry implements Parcelable {
               }.getType();
               ArrayList<StockLogEntry> stockLogEntries = dlHelper.gson.fromJson(response, type);
               if (dlHelper.debug) {
-                Log.i(dlHelper.tag, "download StockLogEntry: " + stockLogEntries);
+                Log.i(dlHelper.tag, "download StockLogEntry: " + stockLogEntries.size());
               }
               if (onResponseListener != null) {
                 onResponseListener.onResponse(stockLogEntries);
@@ -328,4 +447,203 @@ public class StockLogEntry implements Parcelable {
   ) {
     return getStockLogEntries(dlHelper, limit, offset, -1, onResponseListener, null);
   }
+
+  /**
+   * Downloads the entries which are newer than the newest cached entry and stores them.
+   * If at least limit entries are new, there may be a gap to the cached entries, so the
+   * cache is replaced with the downloaded entries, same as with replaceCache.
+   * Cached entries can be undone later, e.g. in the web UI, without a new id. So if the cache
+   * is kept, the undone entries in the cached id range are downloaded again.
+   *
+   * @param onCacheReplaced called if the cache was replaced, older entries have to be
+   *                        downloaded again
+   */
+  public static QueueItem updateNewStockLogEntries(
+      DownloadHelper dlHelper,
+      int limit,
+      boolean replaceCache,
+      @Nullable Runnable onCacheReplaced
+  ) {
+    return new QueueItem() {
+      @Override
+      public void perform(
+          @Nullable OnStringResponseListener responseListener,
+          @Nullable OnMultiTypeErrorListener errorListener,
+          @Nullable String uuid
+      ) {
+        Single.zip(
+                dlHelper.appDatabase.stockLogEntryDao().getNewestId(),
+                dlHelper.appDatabase.stockLogEntryDao().getOldestId(),
+                (newestId, oldestId) -> new int[]{newestId, oldestId}
+            )
+            .subscribeOn(Schedulers.io())
+            .observeOn(AndroidSchedulers.mainThread())
+            .doOnSuccess(ids -> {
+              ReplaceCondition replaceCondition
+                  = entries -> replaceCache || ids[0] > 0 && entries.size() >= limit;
+              downloadAndStore(
+                  dlHelper,
+                  dlHelper.grocyApi.getStockLogEntriesNewerThan(
+                      replaceCache ? 0 : ids[0], limit
+                  ),
+                  uuid,
+                  replaceCondition,
+                  entries -> {
+                    if (replaceCondition.shouldReplace(entries) || ids[1] == 0) {
+                      if (replaceCondition.shouldReplace(entries) && onCacheReplaced != null) {
+                        onCacheReplaced.run();
+                      }
+                      if (responseListener != null) {
+                        responseListener.onResponse(null);
+                      }
+                      return;
+                    }
+                    downloadAndStore(
+                        dlHelper,
+                        dlHelper.grocyApi.getUndoneStockLogEntries(ids[1]),
+                        uuid,
+                        undoneEntries -> false,
+                        null,
+                        responseListener,
+                        errorListener
+                    );
+                  },
+                  null,
+                  errorListener
+              );
+            })
+            .doOnError(throwable -> {
+              if (errorListener != null) {
+                errorListener.onError(throwable);
+              }
+            })
+            .onErrorComplete()
+            .subscribe();
+      }
+    };
+  }
+
+  /**
+   * Downloads entries which are older than the oldest cached entry and appends them to
+   * the cache. The listener gets the downloaded entries, fewer than limit means that the
+   * beginning of the journal is reached.
+   */
+  public static QueueItem updateOlderStockLogEntries(
+      DownloadHelper dlHelper,
+      int limit,
+      OnObjectsResponseListener<StockLogEntry> onResponseListener
+  ) {
+    return new QueueItem() {
+      @Override
+      public void perform(
+          @Nullable OnStringResponseListener responseListener,
+          @Nullable OnMultiTypeErrorListener errorListener,
+          @Nullable String uuid
+      ) {
+        dlHelper.appDatabase.stockLogEntryDao().getOldestId()
+            .subscribeOn(Schedulers.io())
+            .observeOn(AndroidSchedulers.mainThread())
+            .doOnSuccess(oldestId -> downloadAndStore(
+                dlHelper,
+                oldestId > 0
+                    ? dlHelper.grocyApi.getStockLogEntriesOlderThan(oldestId, limit)
+                    : dlHelper.grocyApi.getStockLogEntriesNewerThan(0, limit),
+                uuid,
+                entries -> false,
+                onResponseListener,
+                responseListener,
+                errorListener
+            ))
+            .doOnError(throwable -> {
+              if (errorListener != null) {
+                errorListener.onError(throwable);
+              }
+            })
+            .onErrorComplete()
+            .subscribe();
+      }
+    };
+  }
+
+  // Refreshes the cached entries of a transaction, e.g. after it was undone
+  public static QueueItem updateStockLogEntriesOfTransaction(
+      DownloadHelper dlHelper,
+      String transactionId
+  ) {
+    return new QueueItem() {
+      @Override
+      public void perform(
+          @Nullable OnStringResponseListener responseListener,
+          @Nullable OnMultiTypeErrorListener errorListener,
+          @Nullable String uuid
+      ) {
+        downloadAndStore(
+            dlHelper,
+            dlHelper.grocyApi.getStockLogEntriesOfTransaction(transactionId),
+            uuid,
+            entries -> false,
+            null,
+            responseListener,
+            errorListener
+        );
+      }
+    };
+  }
+
+  private static void downloadAndStore(
+      DownloadHelper dlHelper,
+      String url,
+      String uuid,
+      ReplaceCondition replaceCache,
+      @Nullable OnObjectsResponseListener<StockLogEntry> onResponseListener,
+      @Nullable OnStringResponseListener responseListener,
+      @Nullable OnMultiTypeErrorListener errorListener
+  ) {
+    dlHelper.get(
+        url,
+        uuid,
+        response -> {
+          Type type = new TypeToken<List<StockLogEntry>>() {
+          }.getType();
+          ArrayList<StockLogEntry> entries = dlHelper.gson.fromJson(response, type);
+          if (dlHelper.debug) {
+            Log.i(dlHelper.tag, "download StockLogEntries: " + entries.size());
+          }
+          Single.fromCallable(() -> {
+            dlHelper.appDatabase.runInTransaction(() -> {
+              if (replaceCache.shouldReplace(entries)) {
+                dlHelper.appDatabase.stockLogEntryDao().deleteStockLogEntries().blockingGet();
+              }
+              dlHelper.appDatabase.stockLogEntryDao().upsertRows(entries);
+            });
+            return true;
+          })
+              .subscribeOn(Schedulers.io())
+              .observeOn(AndroidSchedulers.mainThread())
+              .doFinally(() -> {
+                if (onResponseListener != null) {
+                  onResponseListener.onResponse(entries);
+                }
+                if (responseListener != null) {
+                  responseListener.onResponse(response);
+                }
+              })
+              .subscribe(ignored -> {}, throwable -> {
+                if (errorListener != null) {
+                  errorListener.onError(throwable);
+                }
+              });
+        },
+        error -> {
+          if (errorListener != null) {
+            errorListener.onError(error);
+          }
+        }
+    );
+  }
+
+  private interface ReplaceCondition {
+
+    boolean shouldReplace(List<StockLogEntry> downloadedEntries);
+  }
 }
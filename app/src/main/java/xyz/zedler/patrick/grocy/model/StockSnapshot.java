@@ -0,0 +1,256 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import xyz.zedler.patrick.grocy.repository.StockOverviewRepository.StockOverviewData;
+import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.FacetIndex;
+import xyz.zedler.patrick.grocy.util.NumUtil;
+
+/**
+ * Indexed state of the stock overview, built in the background from the observed database
+ * queries. A snapshot is never modified after it was built, so it can be filtered on any thread
+ * while the next one is built. The maps are passed to the adapter and must not be changed.
+ */
+public class StockSnapshot {
+
+  public final static String FACET_HIDDEN = "hidden";
+  public final static String FACET_STATUS = "status";
+  public final static String FACET_PRODUCT_GROUP = "product_group";
+  public final static String FACET_LOCATION = "location";
+
+  private final StockOverviewData data;
+  private final List<StockItem> stockItems;
+  // indexed like stockItems
+  private final String[] productNamesLowerCase;
+  private final FacetIndex<StockItem> stockIndex;
+  private final boolean containsItemsWithoutProduct;
+  private final HashMap<Integer, Product> productHashMap;
+  private final HashMap<Integer, ProductGroup> productGroupHashMap;
+  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+  private final HashMap<Integer, String> productAveragePriceHashMap;
+  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+  private final ArrayList<String> shoppingListItemsProductIds;
+  private final HashMap<Integer, MissingItem> missingItemHashMap;
+  private final ArrayList<Integer> missingItemsProductIds;
+  private final HashMap<Integer, Location> locationHashMap;
+  private final HashMap<String, Userfield> userfieldHashMap;
+
+  /**
+   * Parts whose query result did not change since the previous snapshot are taken over from it.
+   */
+  public StockSnapshot(StockOverviewData data, @Nullable StockSnapshot previous) {
+    this.data = data;
+    StockOverviewData prev = previous != null ? previous.data : null;
+
+    quantityUnitHashMap = prev != null && data.getQuantityUnits() == prev.getQuantityUnits()
+        ? previous.quantityUnitHashMap
+        : ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
+    productGroupHashMap = prev != null && data.getProductGroups() == prev.getProductGroups()
+        ? previous.productGroupHashMap
+        : ArrayUtil.getProductGroupsHashMap(data.getProductGroups());
+    productAveragePriceHashMap = prev != null
+        && data.getProductsAveragePrice() == prev.getProductsAveragePrice()
+        ? previous.productAveragePriceHashMap
+        : ArrayUtil.getProductAveragePriceHashMap(data.getProductsAveragePrice());
+    productLastPurchasedHashMap = prev != null
+        && data.getProductsLastPurchased() == prev.getProductsLastPurchased()
+        ? previous.productLastPurchasedHashMap
+        : ArrayUtil.getProductLastPurchasedHashMap(data.getProductsLastPurchased());
+    shoppingListItemsProductIds = prev != null
+        && data.getShoppingListProductIds() == prev.getShoppingListProductIds()
+        ? previous.shoppingListItemsProductIds
+        : new ArrayList<>(data.getShoppingListProductIds());
+    locationHashMap = prev != null && data.getLocations() == prev.getLocations()
+        ? previous.locationHashMap
+        : ArrayUtil.getLocationsHashMap(data.getLocations());
+    userfieldHashMap = prev != null && data.getUserfields() == prev.getUserfields()
+        ? previous.userfieldHashMap
+        : ArrayUtil.getUserfieldHashMap(data.getUserfields());
+
+    if (prev != null && data.getMissingItems() == prev.getMissingItems()) {
+      missingItemHashMap = previous.missingItemHashMap;
+      missingItemsProductIds = previous.missingItemsProductIds;
+    } else {
+      missingItemHashMap = new HashMap<>();
+      for (MissingItem missingItem : data.getMissingItems()) {
+        missingItemHashMap.put(missingItem.getId(), missingItem);
+      }
+      missingItemsProductIds = new ArrayList<>(missingItemHashMap.keySet());
+    }
+
+    boolean stockItemsChanged = prev == null
+        || data.getStockOverviewItems() != prev.getStockOverviewItems()
+        || data.getParentProducts() != prev.getParentProducts();
+    if (!stockItemsChanged) {
+      stockItems = previous.stockItems;
+      productNamesLowerCase = previous.productNamesLowerCase;
+      containsItemsWithoutProduct = previous.containsItemsWithoutProduct;
+      productHashMap = previous.productHashMap;
+    } else {
+      // due, missing and own stock state is read from the stock status table
+      List<StockOverviewItem> overviewItems = data.getStockOverviewItems();
+      ArrayList<StockItem> items = new ArrayList<>(overviewItems.size());
+      productHashMap = ArrayUtil.getProductsHashMap(data.getParentProducts());
+      boolean withoutProduct = false;
+      for (StockOverviewItem overviewItem : overviewItems) {
+        if (overviewItem.product == null) {
+          withoutProduct = true;
+          continue;
+        }
+        items.add(overviewItem.getStockItemWithProduct());
+        productHashMap.put(overviewItem.product.getId(), overviewItem.product);
+      }
+      productNamesLowerCase = new String[items.size()];
+      for (int i = 0; i < items.size(); i++) {
+        productNamesLowerCase[i] = items.get(i).getProduct().getName().toLowerCase();
+      }
+      stockItems = Collections.unmodifiableList(items);
+      containsItemsWithoutProduct = withoutProduct;
+    }
+
+    if (!stockItemsChanged && data.getMissingItems() == prev.getMissingItems()
+        && data.getStockCurrentLocations() == prev.getStockCurrentLocations()) {
+      stockIndex = previous.stockIndex;
+    } else {
+      stockIndex = buildStockIndex(
+          stockItems, missingItemHashMap, data.getStockCurrentLocations()
+      );
+    }
+  }
+
+  private static FacetIndex<StockItem> buildStockIndex(
+      List<StockItem> stockItems,
+      HashMap<Integer, MissingItem> missingItemHashMap,
+      List<StockLocation> stockLocations
+  ) {
+    FacetIndex<StockItem> index = new FacetIndex<>(stockItems);
+    HashMap<Integer, Integer> positions = new HashMap<>(stockItems.size());
+    for (int i = 0; i < stockItems.size(); i++) {
+      StockItem item = stockItems.get(i);
+      Product product = item.getProduct();
+      positions.put(item.getProductId(), i);
+      index.add(FACET_HIDDEN, product.getHideOnStockOverviewBoolean(), i);
+      if (NumUtil.isStringInt(product.getProductGroupId())) {
+        index.add(FACET_PRODUCT_GROUP, Integer.parseInt(product.getProductGroupId()), i);
+      }
+
+      boolean hasOwnStock = !product.getNoOwnStockBoolean();
+      if (hasOwnStock && (item.isItemDue() || item.isItemOverdue() || item.isItemExpired())) {
+        index.add(FACET_STATUS, FilterChipLiveDataStatusStock.STATUS_NOT_FRESH, i);
+      }
+      if (hasOwnStock && item.isItemDue()) {
+        index.add(FACET_STATUS, FilterChipLiveDataStatusStock.STATUS_DUE_SOON, i);
+      }
+      if (hasOwnStock && item.isItemOverdue()) {
+        index.add(FACET_STATUS, FilterChipLiveDataStatusStock.STATUS_OVERDUE, i);
+      }
+      if (hasOwnStock && item.isItemExpired()) {
+        index.add(FACET_STATUS, FilterChipLiveDataStatusStock.STATUS_EXPIRED, i);
+      }
+      MissingItem missingItem = missingItemHashMap.get(item.getProductId());
+      if (missingItem != null) {
+        index.add(FACET_STATUS, FilterChipLiveDataStatusStock.STATUS_BELOW_MIN, i);
+      }
+      if (missingItem == null || missingItem.getIsPartlyInStockBoolean()) {
+        index.add(FACET_STATUS, FilterChipLiveDataStatusStock.STATUS_IN_STOCK, i);
+      }
+      if (item.getAmountOpenedDouble() > 0) {
+        index.add(FACET_STATUS, FilterChipLiveDataStatusStock.STATUS_OPENED, i);
+      }
+    }
+    for (StockLocation stockLocation : stockLocations) {
+      Integer position = positions.get(stockLocation.getProductId());
+      if (position != null) {
+        index.add(FACET_LOCATION, stockLocation.getLocationId(), position);
+      }
+    }
+    return index;
+  }
+
+  public StockOverviewData getData() {
+    return data;
+  }
+
+  public List<StockItem> getStockItems() {
+    return stockItems;
+  }
+
+  public String getProductNameLowerCase(int index) {
+    return productNamesLowerCase[index];
+  }
+
+  public FacetIndex<StockItem> getStockIndex() {
+    return stockIndex;
+  }
+
+  /**
+   * Stock items whose product is not in the database yet are left out,
+   * the cached products should be downloaded again.
+   */
+  public boolean containsItemsWithoutProduct() {
+    return containsItemsWithoutProduct;
+  }
+
+  public HashMap<Integer, Product> getProductHashMap() {
+    return productHashMap;
+  }
+
+  public HashMap<Integer, ProductGroup> getProductGroupHashMap() {
+    return productGroupHashMap;
+  }
+
+  public HashMap<Integer, QuantityUnit> getQuantityUnitHashMap() {
+    return quantityUnitHashMap;
+  }
+
+  public List<QuantityUnitConversionResolved> getQuantityUnitConversions() {
+    return data.getQuantityUnitConversions();
+  }
+
+  public HashMap<Integer, String> getProductAveragePriceHashMap() {
+    return productAveragePriceHashMap;
+  }
+
+  public HashMap<Integer, ProductLastPurchased> getProductLastPurchasedHashMap() {
+    return productLastPurchasedHashMap;
+  }
+
+  public ArrayList<String> getShoppingListItemsProductIds() {
+    return shoppingListItemsProductIds;
+  }
+
+  public ArrayList<Integer> getMissingItemsProductIds() {
+    return missingItemsProductIds;
+  }
+
+  public HashMap<Integer, Location> getLocationHashMap() {
+    return locationHashMap;
+  }
+
+  public HashMap<String, Userfield> getUserfieldHashMap() {
+    return userfieldHashMap;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Due, missing and in-stock state of one product, resolved from the stock, volatile, missing
+ * and product tables by StockStatusDao.refreshStockStatus() whenever one of them is synced.
+ * Contains all products in stock and all missing products.
+ */
+@Entity(tableName = "stock_status_table")
+public class StockStatus {
+
+  @PrimaryKey
+  @ColumnInfo(name = "product_id")
+  private int productId;
+
+  @ColumnInfo(name = "in_stock")
+  private boolean inStock;
+
+  @ColumnInfo(name = "due")
+  private boolean due;
+
+  @ColumnInfo(name = "overdue")
+  private boolean overdue;
+
+  @ColumnInfo(name = "expired")
+  private boolean expired;
+
+  @ColumnInfo(name = "missing")
+  private boolean missing;
+
+  @ColumnInfo(name = "missing_partly_in_stock")
+  private boolean missingPartlyInStock;
+
+  @ColumnInfo(name = "opened")
+  private boolean opened;
+
+  @ColumnInfo(name = "hidden")
+  private boolean hidden;
+
+  @ColumnInfo(name = "value")
+  private double value;
+
+  public int getProductId() {
+    return productId;
+  }
+
+  public void setProductId(int productId) {
+    this.productId = productId;
+  }
+
+  public boolean isInStock() {
+    return inStock;
+  }
+
+  public void setInStock(boolean inStock) {
+    this.inStock = inStock;
+  }
+
+  public boolean isDue() {
+    return due;
+  }
+
+  public void setDue(boolean due) {
+    this.due = due;
+  }
+
+  public boolean isOverdue() {
+    return overdue;
+  }
+
+  public void setOverdue(boolean overdue) {
+    this.overdue = overdue;
+  }
+
+  public boolean isExpired() {
+    return expired;
+  }
+
+  public void setExpired(boolean expired) {
+    this.expired = expired;
+  }
+
+  public boolean isMissing() {
+    return missing;
+  }
+
+  public void setMissing(boolean missing) {
+    this.missing = missing;
+  }
+
+  public boolean isMissingPartlyInStock() {
+    return missingPartlyInStock;
+  }
+
+  public void setMissingPartlyInStock(boolean missingPartlyInStock) {
+    this.missingPartlyInStock = missingPartlyInStock;
+  }
+
+  public boolean isOpened() {
+    return opened;
+  }
+
+  public void setOpened(boolean opened) {
+    this.opened = opened;
+  }
+
+  public boolean isHidden() {
+    return hidden;
+  }
+
+  public void setHidden(boolean hidden) {
+    this.hidden = hidden;
+  }
+
+  public double getValue() {
+    return value;
+  }
+
+  public void setValue(double value) {
+    this.value = value;
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * Counts of the stock status table, read by the stock overview filter chips and the
+ * dashboard. Due, overdue and expired are exclusive in this order, like in the overview.
+ */
+public class StockStatusCounts {
+
+  @ColumnInfo(name = "due_soon_count")
+  public int dueSoonCount;
+
+  @ColumnInfo(name = "overdue_count")
+  public int overdueCount;
+
+  @ColumnInfo(name = "expired_count")
+  public int expiredCount;
+
+  @ColumnInfo(name = "missing_count")
+  public int missingCount;
+
+  @ColumnInfo(name = "missing_on_shopping_list_count")
+  public int missingOnShoppingListCount;
+
+  @ColumnInfo(name = "in_stock_count")
+  public int inStockCount;
+
+  // like in_stock_count, but without products hidden on the stock overview
+  @ColumnInfo(name = "in_stock_visible_count")
+  public int inStockVisibleCount;
+
+  @ColumnInfo(name = "opened_count")
+  public int openedCount;
+
+  @ColumnInfo(name = "stock_value_visible")
+  public double stockValueVisible;
+
+  public int getNotFreshCount() {
+    return dueSoonCount + overdueCount + expiredCount;
+  }
+}
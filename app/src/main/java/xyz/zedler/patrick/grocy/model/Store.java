@@ -190,21 +190,35 @@ public class Store implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.STORES),
               uuid,
-              response -> {
+              Constants.PREF.DB_LAST_TIME_STORES,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<Store>>() {
                 }.getType();
                 ArrayList<Store> stores = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Stores: " + stores);
+                  Log.i(dlHelper.tag, "download Stores: " + stores.size());
                 }
                 Single.fromCallable(() -> {
-                      dlHelper.appDatabase.storeDao().deleteStores().blockingSubscribe();
-                      dlHelper.appDatabase.storeDao().insertStores(stores).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(Constants.PREF.DB_LAST_TIME_STORES, dbChangedTime).apply();
+                      dlHelper.applyDiff(
+                          metric,
+                          Store.class,
+                          dlHelper.appDatabase.storeDao(),
+                          dlHelper.appDatabase.storeDao().getStores(),
+                          stores,
+                          Store::getId
+                      );
+                      dlHelper.putSyncState(metric, dbChangedTime, response);
                       return true;
                     })
                     .subscribeOn(Schedulers.io())
@@ -316,21 +316,35 @@ public class Task implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(ENTITY.TASKS),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_TASKS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<Task>>() {
                 }.getType();
                 ArrayList<Task> tasks = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Tasks: " + tasks);
+                  Log.i(dlHelper.tag, "download Tasks: " + tasks.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.taskDao().deleteTasks().blockingSubscribe();
-                  dlHelper.appDatabase.taskDao().insertTasks(tasks).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_TASKS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      Task.class,
+                      dlHelper.appDatabase.taskDao(),
+                      dlHelper.appDatabase.taskDao().getTasks(),
+                      tasks,
+                      Task::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
@@ -238,22 +238,35 @@ public class TaskCategory extends GroupedListItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(ENTITY.TASK_CATEGORIES),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_TASK_CATEGORIES,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<TaskCategory>>() {
                 }.getType();
                 ArrayList<TaskCategory> taskCategories = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Task categories: " + taskCategories);
+                  Log.i(dlHelper.tag, "download Task categories: " + taskCategories.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.taskCategoryDao().deleteCategories().blockingSubscribe();
-                  dlHelper.appDatabase.taskCategoryDao()
-                      .insertCategories(taskCategories).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_TASK_CATEGORIES, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      TaskCategory.class,
+                      dlHelper.appDatabase.taskCategoryDao(),
+                      dlHelper.appDatabase.taskCategoryDao().getTaskCategories(),
+                      taskCategories,
+                      TaskCategory::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
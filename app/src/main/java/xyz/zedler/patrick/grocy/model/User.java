@@ -237,21 +237,35 @@ public class User implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getUsers(),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_USERS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<User>>() {
                 }.getType();
                 ArrayList<User> users = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Users: " + users);
+                  Log.i(dlHelper.tag, "download Users: " + users.size());
                 }
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.userDao().deleteUsers().blockingSubscribe();
-                  dlHelper.appDatabase.userDao().insertUsers(users).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_USERS, dbChangedTime).apply();
+                  dlHelper.applyDiff(
+                      metric,
+                      User.class,
+                      dlHelper.appDatabase.userDao(),
+                      dlHelper.appDatabase.userDao().getUsers(),
+                      users,
+                      User::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   return true;
                 })
                     .subscribeOn(Schedulers.io())
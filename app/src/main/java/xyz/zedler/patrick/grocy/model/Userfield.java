@@ -353,21 +353,35 @@ public class Userfield implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.USERFIELDS),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_USERFIELDS,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 Type type = new TypeToken<List<Userfield>>() {
                 }.getType();
                 ArrayList<Userfield> userfields = dlHelper.gson.fromJson(response, type);
                 if (dlHelper.debug) {
-                  Log.i(dlHelper.tag, "download Userfields: " + userfields);
+                  Log.i(dlHelper.tag, "download Userfields: " + userfields.size());
                 }
                 Single.fromCallable(() -> {
-                      dlHelper.appDatabase.userfieldDao().deleteUserfields().blockingSubscribe();
-                      dlHelper.appDatabase.userfieldDao().insertStores(userfields).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_USERFIELDS, dbChangedTime).apply();
+                      dlHelper.applyDiff(
+                          metric,
+                          Userfield.class,
+                          dlHelper.appDatabase.userfieldDao(),
+                          dlHelper.appDatabase.userfieldDao().getUserfields(),
+                          userfields,
+                          Userfield::getId
+                      );
+                      dlHelper.putSyncState(metric, dbChangedTime, response);
                       return true;
                     })
                     .subscribeOn(Schedulers.io())
@@ -27,6 +27,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 import com.android.volley.Response;
@@ -37,6 +38,7 @@ import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
@@ -46,7 +48,10 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
-@Entity(tableName = "volatile_item_table")
+@Entity(
+    tableName = "volatile_item_table",
+    indices = @Index(value = {"product_id", "volatile_type"})
+)
 public class VolatileItem implements Parcelable {
 
   public final static int TYPE_DUE = 1;
@@ -129,6 +134,24 @@ public class VolatileItem implements Parcelable {
     return 0;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    VolatileItem volatileItem = (VolatileItem) o;
+    return productId == volatileItem.productId &&
+        volatileType == volatileItem.volatileType;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(productId, volatileType);
+  }
+
   @NonNull
   @Override
   public String toString() {
@@ -153,10 +176,22 @@ public class VolatileItem implements Parcelable {
             @Nullable OnMultiTypeErrorListener errorListener,
             @Nullable String uuid
         ) {
-          dlHelper.get(
+          dlHelper.getEntity(
               dlHelper.grocyApi.getStockVolatile(),
               uuid,
-              response -> {
+              PREF.DB_LAST_TIME_VOLATILE,
+              (response, metric) -> {
+                if (onResponseListener == null && dlHelper.isResponseUnchanged(
+                    metric, dbChangedTime, response, forceUpdate
+                )) {
+                  // missing items are part of the same response
+                  dlHelper.sharedPrefs.edit()
+                      .putString(PREF.DB_LAST_TIME_VOLATILE_MISSING, dbChangedTime).apply();
+                  if (responseListener != null) {
+                    responseListener.onResponse(response);
+                  }
+                  return;
+                }
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "updateVolatile: success");
                 }
@@ -220,14 +255,24 @@ public class VolatileItem implements Parcelable {
                 ArrayList<StockItem> finalExpiredItems = expiredItems;
                 ArrayList<MissingItem> finalMissingItems = missingItems;
                 Single.fromCallable(() -> {
-                  dlHelper.appDatabase.volatileItemDao().deleteVolatileItems().blockingSubscribe();
-                  dlHelper.appDatabase.volatileItemDao()
-                      .insertVolatileItems(volatileItemsTogether).blockingSubscribe();
-                  dlHelper.appDatabase.missingItemDao().deleteMissingItems().blockingSubscribe();
-                  dlHelper.appDatabase.missingItemDao()
-                      .insertMissingItems(finalMissingItems).blockingSubscribe();
+                  dlHelper.applyDiff(
+                      metric,
+                      VolatileItem.class,
+                      dlHelper.appDatabase.volatileItemDao(),
+                      dlHelper.appDatabase.volatileItemDao().getVolatileItems(),
+                      volatileItemsTogether,
+                      item -> item.getProductId() + "_" + item.getVolatileType()
+                  );
+                  dlHelper.applyDiff(
+                      metric,
+                      MissingItem.class,
+                      dlHelper.appDatabase.missingItemDao(),
+                      dlHelper.appDatabase.missingItemDao().getMissingItems(),
+                      finalMissingItems,
+                      MissingItem::getId
+                  );
+                  dlHelper.putSyncState(metric, dbChangedTime, response);
                   dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_VOLATILE, dbChangedTime)
                       .putString(PREF.DB_LAST_TIME_VOLATILE_MISSING, dbChangedTime).apply();
                   return true;
                 })
@@ -32,6 +32,7 @@ import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 
 public class InventoryRepository {
 
@@ -66,7 +67,7 @@ public class InventoryRepository {
       this.products = products;
       this.barcodes = barcodes;
       this.quantityUnits = quantityUnits;
-      this.quantityUnitConversions = quantityUnitConversions;
+      this.quantityUnitConversions = QuantityUnitConversionIndex.indexed(quantityUnitConversions);
       this.stores = stores;
       this.locations = locations;
     }
@@ -20,8 +20,6 @@
 package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
-import io.reactivex.rxjava3.core.Single;
-import io.reactivex.rxjava3.schedulers.Schedulers;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
 
 public class MainRepository {
@@ -32,14 +30,6 @@ public class MainRepository {
     this.appDatabase = AppDatabase.getAppDatabase(application);
   }
 
-  public void clearAllTables() {
-    Single
-        .just(0)
-        .doFinally(appDatabase::clearAllTables)
-        .subscribeOn(Schedulers.io())
-        .subscribe();
-  }
-
   public interface OnVersionListener {
     void onVersion(int version);
   }
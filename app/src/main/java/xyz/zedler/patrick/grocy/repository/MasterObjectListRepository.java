@@ -20,12 +20,18 @@
 package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingSource;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.ArrayList;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.ProductSearchIndex;
 import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
@@ -33,6 +39,8 @@ import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
 import xyz.zedler.patrick.grocy.model.Userfield;
+import xyz.zedler.patrick.grocy.util.TextUtil;
+import xyz.zedler.patrick.grocy.viewmodel.MasterObjectListViewModel;
 
 public class MasterObjectListRepository {
 
@@ -103,10 +111,16 @@ public class MasterObjectListRepository {
     }
   }
 
-  public void loadFromDatabase(DataListener onSuccess, Consumer<Throwable> onError) {
+  public void loadFromDatabase(
+      boolean includeProducts,
+      DataListener onSuccess,
+      Consumer<Throwable> onError
+  ) {
     Single
         .zip(
-            appDatabase.productDao().getProducts(),
+            includeProducts
+                ? appDatabase.productDao().getProducts()
+                : Single.just(new ArrayList<>()),
             appDatabase.productGroupDao().getProductGroups(),
             appDatabase.storeDao().getStores(),
             appDatabase.locationDao().getLocations(),
@@ -122,4 +136,71 @@ public class MasterObjectListRepository {
         .onErrorComplete()
         .subscribe();
   }
+
+  public void hasProductPictures(Consumer<Boolean> onSuccess) {
+    appDatabase.productDao().hasProductPictures()
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .doOnSuccess(onSuccess)
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  public PagingSource<Integer, Product> getProductsPagingSource(SupportSQLiteQuery query) {
+    return appDatabase.productDao().getProductsPaged(query);
+  }
+
+  /**
+   * Builds the query for the paged product list. Products whose name contains the search are
+   * listed first, followed by the given fuzzy name matches.
+   */
+  public static SupportSQLiteQuery getProductsQuery(
+      @Nullable Integer productGroupId,
+      @Nullable String search,
+      List<Integer> fuzzyProductIds,
+      String sortMode,
+      boolean sortAscending
+  ) {
+    StringBuilder sql = new StringBuilder("SELECT * FROM product_table WHERE 1");
+    List<Object> args = new ArrayList<>();
+    if (productGroupId != null) {
+      sql.append(" AND product_group_id = ?");
+      args.add(String.valueOf(productGroupId));
+    }
+    String pattern = null;
+    if (search != null && !search.isEmpty()) {
+      pattern = TextUtil.getSqlLikePattern(search);
+      sql.append(" AND (name LIKE ? ESCAPE '\\'");
+      args.add(pattern);
+      String match = ProductSearchIndex.getMatchQuery(search);
+      if (match != null) {
+        // barcodes and descriptions are searched with the full-text index
+        sql.append(" OR id IN (SELECT product_id FROM product_search_table"
+            + " WHERE product_search_table MATCH ? AND pending = 0)");
+        args.add(match);
+      }
+      if (!fuzzyProductIds.isEmpty()) {
+        sql.append(" OR id IN (");
+        for (int i = 0; i < fuzzyProductIds.size(); i++) {
+          sql.append(i == 0 ? "?" : ", ?");
+          args.add(fuzzyProductIds.get(i));
+        }
+        sql.append(")");
+      }
+      sql.append(")");
+    }
+    sql.append(" ORDER BY ");
+    if (pattern != null) {
+      sql.append("name LIKE ? ESCAPE '\\' DESC, ");
+      args.add(pattern);
+    }
+    if (sortMode.equals(MasterObjectListViewModel.SORT_CREATED_TIMESTAMP)) {
+      sql.append("row_created_timestamp");
+    } else {
+      // same order as the Collator in SortUtil, NOCASE only folds ASCII letters
+      sql.append("name COLLATE LOCALIZED");
+    }
+    sql.append(sortAscending ? " ASC" : " DESC").append(", id");
+    return new SimpleSQLiteQuery(sql.toString(), args.toArray());
+  }
 }
@@ -35,6 +35,7 @@ import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 
 public class MasterProductRepository {
 
@@ -79,7 +80,7 @@ public class MasterProductRepository {
       this.locations = locations;
       this.quantityUnits = quantityUnits;
       this.conversions = conversions;
-      this.conversionsResolved = conversionsResolved;
+      this.conversionsResolved = QuantityUnitConversionIndex.indexed(conversionsResolved);
     }
 
     public List<Product> getProducts() {
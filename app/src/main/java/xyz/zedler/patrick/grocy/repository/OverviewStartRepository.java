@@ -21,21 +21,19 @@ package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
-import xyz.zedler.patrick.grocy.model.MissingItem;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
-import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StockStatusCounts;
 import xyz.zedler.patrick.grocy.model.StoredPurchase;
 import xyz.zedler.patrick.grocy.model.Task;
-import xyz.zedler.patrick.grocy.model.VolatileItem;
-import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class OverviewStartRepository {
 
@@ -51,7 +49,6 @@ public class OverviewStartRepository {
 
   public static class OverviewStartData {
 
-    private final List<StockItem> stockItems;
     private final List<ShoppingListItem> shoppingListItems;
     private final List<ShoppingList> shoppingLists;
     private final List<Product> products;
@@ -59,11 +56,9 @@ public class OverviewStartRepository {
     private final List<Recipe> recipes;
     private final List<ChoreEntry> choreEntries;
     private final List<Task> tasks;
-    private final List<VolatileItem> volatileItems;
-    private final List<MissingItem> missingItems;
+    private final StockStatusCounts stockStatusCounts;
 
     public OverviewStartData(
-        List<StockItem> stockItems,
         List<ShoppingListItem> shoppingListItems,
         List<ShoppingList> shoppingLists,
         List<Product> products,
@@ -71,10 +66,8 @@ public class OverviewStartRepository {
         List<Recipe> recipes,
         List<ChoreEntry> choreEntries,
         List<Task> tasks,
-        List<VolatileItem> volatileItems,
-        List<MissingItem> missingItems
+        StockStatusCounts stockStatusCounts
     ) {
-      this.stockItems = stockItems;
       this.shoppingListItems = shoppingListItems;
       this.shoppingLists = shoppingLists;
       this.products = products;
@@ -82,12 +75,7 @@ public class OverviewStartRepository {
       this.recipes = recipes;
       this.choreEntries = choreEntries;
       this.tasks = tasks;
-      this.volatileItems = volatileItems;
-      this.missingItems = missingItems;
-    }
-
-    public List<StockItem> getStockItems() {
-      return stockItems;
+      this.stockStatusCounts = stockStatusCounts;
     }
 
     public List<ShoppingListItem> getShoppingListItems() {
@@ -118,19 +106,14 @@ public class OverviewStartRepository {
       return tasks;
     }
 
-    public List<VolatileItem> getVolatileItems() {
-      return volatileItems;
-    }
-
-    public List<MissingItem> getMissingItems() {
-      return missingItems;
+    public StockStatusCounts getStockStatusCounts() {
+      return stockStatusCounts;
     }
   }
 
   public void loadFromDatabase(DataListener onSuccess, Consumer<Throwable> onError) {
-    RxJavaUtil
+    Single
         .zip(
-            appDatabase.stockItemDao().getStockItems(),
             appDatabase.shoppingListItemDao().getShoppingListItems(),
             appDatabase.shoppingListDao().getShoppingLists(),
             appDatabase.productDao().getProducts(),
@@ -138,8 +121,7 @@ public class OverviewStartRepository {
             appDatabase.recipeDao().getRecipes(),
             appDatabase.choreEntryDao().getChoreEntries(),
             appDatabase.taskDao().getTasks(),
-            appDatabase.volatileItemDao().getVolatileItems(),
-            appDatabase.missingItemDao().getMissingItems(),
+            appDatabase.stockStatusDao().getCounts(),
             OverviewStartData::new
         )
         .subscribeOn(Schedulers.io())
@@ -0,0 +1,157 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.repository;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.ProductSearchIndex;
+import xyz.zedler.patrick.grocy.model.ProductSearch;
+import xyz.zedler.patrick.grocy.util.FuzzyMatcher;
+import xyz.zedler.patrick.grocy.util.TextUtil;
+
+public class ProductSearchRepository {
+
+  private final static int MIN_FUZZY_INPUT_LENGTH = 3;
+  private final static long DEBOUNCE_MILLIS = 150;
+
+  // shared by all repositories, built again after the products of the database changed
+  private static AppDatabase matcherDatabase;
+  private static FuzzyMatcher<ProductSearch> matcher;
+  private static int productsVersion;
+
+  private final AppDatabase appDatabase;
+  private Disposable searchDisposable;
+
+  public ProductSearchRepository(Context context) {
+    this.appDatabase = AppDatabase.getAppDatabase(context);
+  }
+
+  public interface SearchResultListener {
+    void onResult(String input, List<ProductSearch> results);
+  }
+
+  /**
+   * Searches in the background after the input did not change for a moment and cancels the
+   * previous search of this repository, so only the result for the latest input is delivered
+   * on the main thread.
+   */
+  public void search(String input, int limit, SearchResultListener onResult) {
+    startSearch(input, () -> searchBlocking(input, limit), onResult);
+  }
+
+  /**
+   * Like {@link #search}, but only with the fuzzy matcher, e.g. to add products with typos to
+   * results which are already matched by name.
+   */
+  public void searchFuzzy(String input, int limit, SearchResultListener onResult) {
+    startSearch(input, () -> getMatcher().match(input, FuzzyMatcher.DEFAULT_MIN_SCORE, limit),
+        onResult);
+  }
+
+  private void startSearch(
+      String input,
+      Callable<List<ProductSearch>> search,
+      SearchResultListener onResult
+  ) {
+    cancelSearch();
+    searchDisposable = Single.timer(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS, Schedulers.io())
+        .map(ignored -> search.call())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(results -> onResult.onResult(input, results), throwable -> {});
+  }
+
+  public void cancelSearch() {
+    if (searchDisposable != null) {
+      searchDisposable.dispose();
+      searchDisposable = null;
+    }
+  }
+
+  // blocking, must be called from a background thread
+  public List<ProductSearch> searchBlocking(String input, int limit) {
+    String match = ProductSearchIndex.getMatchQuery(input);
+    if (match == null) {
+      return new ArrayList<>();
+    }
+    List<ProductSearch> results = appDatabase.productSearchDao()
+        .searchProducts(match, TextUtil.escapeSqlLike(input.trim()), limit).blockingGet();
+    if (!results.isEmpty() || input.trim().length() < MIN_FUZZY_INPUT_LENGTH) {
+      return results;
+    }
+    // no word starts with the input, so it probably contains a typo
+    return getMatcher().match(input, FuzzyMatcher.DEFAULT_MIN_SCORE, limit);
+  }
+
+  // blocking, the matcher is only built again if the products changed
+  private FuzzyMatcher<ProductSearch> getMatcher() {
+    int version;
+    synchronized (ProductSearchRepository.class) {
+      if (matcherDatabase != appDatabase) {
+        matcherDatabase = appDatabase;
+        matcher = null;
+        productsVersion++;
+        appDatabase.getInvalidationTracker().addObserver(new ProductsObserver(appDatabase));
+      }
+      if (matcher != null) {
+        return matcher;
+      }
+      version = productsVersion;
+    }
+    List<ProductSearch> entries = appDatabase.productSearchDao().getEntries().blockingGet();
+    FuzzyMatcher<ProductSearch> newMatcher = new FuzzyMatcher<>(entries, ProductSearch::getName);
+    synchronized (ProductSearchRepository.class) {
+      // products changed while it was built, the next search builds it again
+      if (version == productsVersion) {
+        matcher = newMatcher;
+      }
+    }
+    return newMatcher;
+  }
+
+  private static class ProductsObserver extends InvalidationTracker.Observer {
+
+    private final AppDatabase database;
+
+    ProductsObserver(AppDatabase database) {
+      super("product_table", "pending_product_table");
+      this.database = database;
+    }
+
+    @Override
+    public void onInvalidated(@NonNull Set<String> tables) {
+      synchronized (ProductSearchRepository.class) {
+        if (matcherDatabase == database) {
+          matcher = null;
+          productsVersion++;
+        }
+      }
+    }
+  }
+}
@@ -35,6 +35,7 @@ import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.model.StoredPurchase;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class PurchaseRepository {
@@ -79,7 +80,7 @@ public class PurchaseRepository {
       this.barcodes = barcodes;
       this.pendingProductBarcodes = pendingProductBarcodes;
       this.quantityUnits = quantityUnits;
-      this.quantityUnitConversions = quantityUnitConversions;
+      this.quantityUnitConversions = QuantityUnitConversionIndex.indexed(quantityUnitConversions);
       this.stores = stores;
       this.locations = locations;
       this.shoppingListItems = shoppingListItems;
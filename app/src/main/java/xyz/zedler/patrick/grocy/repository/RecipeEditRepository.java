@@ -31,6 +31,7 @@ import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 
 public class RecipeEditRepository {
 
@@ -63,7 +64,7 @@ public class RecipeEditRepository {
       this.productBarcodes = productBarcodes;
       this.recipePositions = recipePositions;
       this.quantityUnits = quantityUnits;
-      this.quantityUnitConversions = quantityUnitConversions;
+      this.quantityUnitConversions = QuantityUnitConversionIndex.indexed(quantityUnitConversions);
     }
 
     public List<Product> getProducts() {
@@ -35,6 +35,7 @@ import xyz.zedler.patrick.grocy.model.RecipePositionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.Userfield;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class RecipesRepository {
@@ -81,7 +82,7 @@ public class RecipesRepository {
       this.recipePositionsResolved = recipePositionsResolved;
       this.products = products;
       this.quantityUnits = quantityUnits;
-      this.quantityUnitConversions = quantityUnitConversions;
+      this.quantityUnitConversions = QuantityUnitConversionIndex.indexed(quantityUnitConversions);
       this.stockItems = stockItems;
       this.shoppingListItems = shoppingListItems;
       this.userfields = userfields;
@@ -31,6 +31,7 @@ import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 
 public class ShoppingListItemEditRepository {
 
@@ -63,7 +64,7 @@ public class ShoppingListItemEditRepository {
       this.products = products;
       this.barcodes = barcodes;
       this.quantityUnits = quantityUnits;
-      this.quantityUnitConversions = quantityUnitConversions;
+      this.quantityUnitConversions = QuantityUnitConversionIndex.indexed(quantityUnitConversions);
     }
 
     public List<ShoppingList> getShoppingLists() {
@@ -22,10 +22,13 @@ package xyz.zedler.patrick.grocy.repository;
 import android.app.Application;
 import androidx.lifecycle.LiveData;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
 import xyz.zedler.patrick.grocy.model.MissingItem;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -36,9 +39,13 @@ import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 
 public class ShoppingListRepository {
 
+  // a sync writes many tables shortly after each other, emit them together
+  private final static long THROTTLE_MILLIS = 100;
+
   private final AppDatabase appDatabase;
 
   public ShoppingListRepository(Application application) {
@@ -77,7 +84,7 @@ public class ShoppingListRepository {
       this.shoppingLists = shoppingLists;
       this.productGroups = productGroups;
       this.quantityUnits = quantityUnits;
-      this.unitConversions = unitConversions;
+      this.unitConversions = QuantityUnitConversionIndex.indexed(unitConversions);
       this.products = products;
       this.productsLastPurchased = productsLastPurchased;
       this.stores = stores;
@@ -143,6 +150,32 @@ public class ShoppingListRepository {
         .subscribe();
   }
 
+  /**
+   * Observes all tables of the shopping list. Every emission carries the latest result of each
+   * query, results of queries whose tables did not change are the same instances as before.
+   * Conversions are indexed once per query result, not once per emission.
+   */
+  public Disposable observeShoppingList(DataListener onChanged, Consumer<Throwable> onError) {
+    return Flowable
+        .combineLatest(
+            appDatabase.shoppingListItemDao().observeShoppingListItems(),
+            appDatabase.shoppingListDao().observeShoppingLists(),
+            appDatabase.productGroupDao().observeProductGroups(),
+            appDatabase.quantityUnitDao().observeQuantityUnits(),
+            appDatabase.quantityUnitConversionResolvedDao().observeConversionsResolved()
+                .map(QuantityUnitConversionIndex::indexed),
+            appDatabase.productDao().observeProducts(),
+            appDatabase.productLastPurchasedDao().observeProductsLastPurchased(),
+            appDatabase.storeDao().observeStores(),
+            appDatabase.missingItemDao().observeMissingItems(),
+            ShoppingListData::new
+        )
+        .throttleLatest(THROTTLE_MILLIS, TimeUnit.MILLISECONDS, true)
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(onChanged::actionFinished, onError);
+  }
+
   public void insertShoppingListItems(
       Runnable onFinished,
       ShoppingListItem... shoppingListItems
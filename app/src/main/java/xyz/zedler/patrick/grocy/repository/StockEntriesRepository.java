@@ -20,22 +20,34 @@
 package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingSource;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingStockEntries;
 import xyz.zedler.patrick.grocy.model.Location;
-import xyz.zedler.patrick.grocy.model.Product;
-import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
-import xyz.zedler.patrick.grocy.model.StockEntry;
+import xyz.zedler.patrick.grocy.model.StockEntryItem;
 import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.util.TextUtil;
+import xyz.zedler.patrick.grocy.viewmodel.StockEntriesViewModel;
 import xyz.zedler.patrick.grocy.model.User;
 
 public class StockEntriesRepository {
 
+  // a sync writes many tables shortly after each other, emit them together
+  private final static long THROTTLE_MILLIS = 100;
+
   private final AppDatabase appDatabase;
 
   public StockEntriesRepository(Application application) {
@@ -49,26 +61,17 @@ public class StockEntriesRepository {
   public static class StockOverviewData {
 
     private final List<QuantityUnit> quantityUnits;
-    private final List<StockEntry> stockEntries;
-    private final List<Product> products;
-    private final List<ProductBarcode> productBarcodes;
     private final List<Location> locations;
     private final List<Store> stores;
     private final List<User> users;
 
     public StockOverviewData(
         List<QuantityUnit> quantityUnits,
-        List<StockEntry> stockEntries,
-        List<Product> products,
-        List<ProductBarcode> productBarcodes,
         List<Location> locations,
         List<Store> stores,
         List<User> users
     ) {
       this.quantityUnits = quantityUnits;
-      this.stockEntries = stockEntries;
-      this.products = products;
-      this.productBarcodes = productBarcodes;
       this.locations = locations;
       this.stores = stores;
       this.users = users;
@@ -78,18 +81,6 @@ public class StockEntriesRepository {
       return quantityUnits;
     }
 
-    public List<StockEntry> getStockEntries() {
-      return stockEntries;
-    }
-
-    public List<Product> getProducts() {
-      return products;
-    }
-
-    public List<ProductBarcode> getProductBarcodes() {
-      return productBarcodes;
-    }
-
     public List<Location> getLocations() {
       return locations;
     }
@@ -107,9 +98,6 @@ public class StockEntriesRepository {
     Single
         .zip(
             appDatabase.quantityUnitDao().getQuantityUnits(),
-            appDatabase.stockEntryDao().getStockEntries(),
-            appDatabase.productDao().getProducts(),
-            appDatabase.productBarcodeDao().getProductBarcodes(),
             appDatabase.locationDao().getLocations(),
             appDatabase.storeDao().getStores(),
             appDatabase.userDao().getUsers(),
@@ -122,4 +110,105 @@ public class StockEntriesRepository {
         .onErrorComplete()
         .subscribe();
   }
+
+  /**
+   * Observes the tables which the entries are displayed with. The entries themselves are paged
+   * and their PagingSource is invalidated by Room, so they are not part of this.
+   */
+  public Disposable observeStockEntriesData(
+      StockOverviewDataListener onChanged,
+      Consumer<Throwable> onError
+  ) {
+    return Flowable
+        .combineLatest(
+            appDatabase.quantityUnitDao().observeQuantityUnits(),
+            appDatabase.locationDao().observeLocations(),
+            appDatabase.storeDao().observeStores(),
+            appDatabase.userDao().observeUsers(),
+            StockOverviewData::new
+        )
+        .throttleLatest(THROTTLE_MILLIS, TimeUnit.MILLISECONDS, true)
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(onChanged::actionFinished, onError);
+  }
+
+  public PagingSource<Integer, StockEntryItem> getStockEntriesPagingSource(
+      SupportSQLiteQuery query
+  ) {
+    return appDatabase.stockEntryDao().getStockEntriesPaged(query);
+  }
+
+  /**
+   * Builds the query for the paged stock entries list. Entries are ordered by their group first
+   * (ungrouped entries on top) so that group headers can be inserted between adjacent rows.
+   * Names are compared with the LOCALIZED collator of Android's SQLite like the Collator in
+   * SortUtil, NOCASE would only fold ASCII letters and put umlauts after "z".
+   */
+  public static SupportSQLiteQuery getStockEntriesQuery(
+      @Nullable Integer productId,
+      @Nullable Integer locationId,
+      @Nullable String search,
+      String sortMode,
+      boolean sortAscending,
+      String groupingMode
+  ) {
+    StringBuilder sql = new StringBuilder("SELECT stock_entry_table.* FROM stock_entry_table "
+        + "LEFT JOIN product_table ON product_table.id = stock_entry_table.product_id "
+        + "WHERE 1");
+    List<Object> args = new ArrayList<>();
+    if (productId != null) {
+      sql.append(" AND stock_entry_table.product_id = ?");
+      args.add(productId);
+    }
+    if (locationId != null) {
+      sql.append(" AND stock_entry_table.location_id = ?");
+      args.add(String.valueOf(locationId));
+    }
+    if (search != null && !search.isEmpty()) {
+      String pattern = TextUtil.getSqlLikePattern(search);
+      sql.append(" AND (product_table.name LIKE ? ESCAPE '\\'")
+          .append(" OR stock_entry_table.note LIKE ? ESCAPE '\\'")
+          .append(" OR stock_entry_table.product_id IN (SELECT product_id")
+          .append(" FROM product_barcode_table WHERE barcode = ? COLLATE NOCASE))");
+      args.add(pattern);
+      args.add(pattern);
+      args.add(search);
+    }
+
+    String groupExpression = getStockEntriesGroupExpression(groupingMode);
+    String direction = sortAscending ? " ASC" : " DESC";
+    sql.append(" ORDER BY ");
+    if (groupExpression != null) {
+      sql.append("IFNULL(").append(groupExpression).append(", '') = '' DESC, ")
+          .append(groupExpression).append(" COLLATE LOCALIZED, ");
+    }
+    if (sortMode.equals(StockEntriesViewModel.SORT_DUE_DATE)) {
+      sql.append("stock_entry_table.best_before_date").append(direction);
+    } else {
+      sql.append("product_table.name COLLATE LOCALIZED").append(direction);
+    }
+    sql.append(", stock_entry_table.id");
+    return new SimpleSQLiteQuery(sql.toString(), args.toArray());
+  }
+
+  @Nullable
+  private static String getStockEntriesGroupExpression(String groupingMode) {
+    switch (groupingMode) {
+      case FilterChipLiveDataGroupingStockEntries.GROUPING_PRODUCT:
+        return "product_table.name";
+      case FilterChipLiveDataGroupingStockEntries.GROUPING_DUE_DATE:
+        return "stock_entry_table.best_before_date";
+      case FilterChipLiveDataGroupingStockEntries.GROUPING_PURCHASED_DATE:
+        return "stock_entry_table.purchased_date";
+      case FilterChipLiveDataGroupingStockEntries.GROUPING_LOCATION:
+        return "(SELECT name FROM location_table "
+            + "WHERE location_table.id = stock_entry_table.location_id)";
+      case FilterChipLiveDataGroupingStockEntries.GROUPING_STORE:
+        return "(SELECT name FROM store_table "
+            + "WHERE store_table.id = stock_entry_table.shopping_location_id)";
+      default:
+        return null;
+    }
+  }
 }
@@ -21,28 +21,32 @@ package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
 import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.MissingItem;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductAveragePrice;
-import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
-import xyz.zedler.patrick.grocy.model.ShoppingListItem;
-import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.StockLocation;
+import xyz.zedler.patrick.grocy.model.StockOverviewItem;
+import xyz.zedler.patrick.grocy.model.StockStatusCounts;
 import xyz.zedler.patrick.grocy.model.Userfield;
-import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class StockOverviewRepository {
 
+  // a sync writes many tables shortly after each other, emit them together
+  private final static long THROTTLE_MILLIS = 100;
+
   private final AppDatabase appDatabase;
 
   public StockOverviewRepository(Application application) {
@@ -58,15 +62,13 @@ public class StockOverviewRepository {
     private final List<QuantityUnit> quantityUnits;
     private final List<QuantityUnitConversionResolved> quantityUnitConversions;
     private final List<ProductGroup> productGroups;
-    private final List<StockItem> stockItems;
-    private final List<Product> products;
+    private final List<StockOverviewItem> stockOverviewItems;
+    private final List<Product> parentProducts;
     private final List<ProductAveragePrice> productsAveragePrice;
     private final List<ProductLastPurchased> productsLastPurchased;
-    private final List<ProductBarcode> productBarcodes;
-    private final List<ShoppingListItem> shoppingListItems;
+    private final List<String> shoppingListProductIds;
     private final List<Location> locations;
     private final List<StockLocation> stockCurrentLocations;
-    private final List<VolatileItem> volatileItems;
     private final List<MissingItem> missingItems;
     private final List<Userfield> userfields;
 
@@ -74,30 +76,26 @@ public class StockOverviewRepository {
         List<QuantityUnit> quantityUnits,
         List<QuantityUnitConversionResolved> quantityUnitConversions,
         List<ProductGroup> productGroups,
-        List<StockItem> stockItems,
-        List<Product> products,
+        List<StockOverviewItem> stockOverviewItems,
+        List<Product> parentProducts,
         List<ProductAveragePrice> productsAveragePrice,
         List<ProductLastPurchased> productsLastPurchased,
-        List<ProductBarcode> productBarcodes,
-        List<ShoppingListItem> shoppingListItems,
+        List<String> shoppingListProductIds,
         List<Location> locations,
         List<StockLocation> stockCurrentLocations,
-        List<VolatileItem> volatileItems,
         List<MissingItem> missingItems,
         List<Userfield> userfields
     ) {
       this.quantityUnits = quantityUnits;
-      this.quantityUnitConversions = quantityUnitConversions;
+      this.quantityUnitConversions = QuantityUnitConversionIndex.indexed(quantityUnitConversions);
       this.productGroups = productGroups;
-      this.stockItems = stockItems;
-      this.products = products;
+      this.stockOverviewItems = stockOverviewItems;
+      this.parentProducts = parentProducts;
       this.productsAveragePrice = productsAveragePrice;
       this.productsLastPurchased = productsLastPurchased;
-      this.productBarcodes = productBarcodes;
-      this.shoppingListItems = shoppingListItems;
+      this.shoppingListProductIds = shoppingListProductIds;
       this.locations = locations;
       this.stockCurrentLocations = stockCurrentLocations;
-      this.volatileItems = volatileItems;
       this.missingItems = missingItems;
       this.userfields = userfields;
     }
@@ -114,12 +112,12 @@ public class StockOverviewRepository {
       return productGroups;
     }
 
-    public List<StockItem> getStockItems() {
-      return stockItems;
+    public List<StockOverviewItem> getStockOverviewItems() {
+      return stockOverviewItems;
     }
 
-    public List<Product> getProducts() {
-      return products;
+    public List<Product> getParentProducts() {
+      return parentProducts;
     }
 
     public List<ProductAveragePrice> getProductsAveragePrice() {
@@ -130,12 +128,8 @@ public class StockOverviewRepository {
       return productsLastPurchased;
     }
 
-    public List<ProductBarcode> getProductBarcodes() {
-      return productBarcodes;
-    }
-
-    public List<ShoppingListItem> getShoppingListItems() {
-      return shoppingListItems;
+    public List<String> getShoppingListProductIds() {
+      return shoppingListProductIds;
     }
 
     public List<Location> getLocations() {
@@ -146,10 +140,6 @@ public class StockOverviewRepository {
       return stockCurrentLocations;
     }
 
-    public List<VolatileItem> getVolatileItems() {
-      return volatileItems;
-    }
-
     public List<MissingItem> getMissingItems() {
       return missingItems;
     }
@@ -159,30 +149,46 @@ public class StockOverviewRepository {
     }
   }
 
-  public void loadFromDatabase(StockOverviewDataListener onSuccess, Consumer<Throwable> onError) {
-    RxJavaUtil
-        .zip(
-            appDatabase.quantityUnitDao().getQuantityUnits(),
-            appDatabase.quantityUnitConversionResolvedDao().getConversionsResolved(),
-            appDatabase.productGroupDao().getProductGroups(),
-            appDatabase.stockItemDao().getStockItems(),
-            appDatabase.productDao().getProducts(),
-            appDatabase.productAveragePriceDao().getProductsAveragePrice(),
-            appDatabase.productLastPurchasedDao().getProductsLastPurchased(),
-            appDatabase.productBarcodeDao().getProductBarcodes(),
-            appDatabase.shoppingListItemDao().getShoppingListItems(),
-            appDatabase.locationDao().getLocations(),
-            appDatabase.stockLocationDao().getStockLocations(),
-            appDatabase.volatileItemDao().getVolatileItems(),
-            appDatabase.missingItemDao().getMissingItems(),
-            appDatabase.userfieldDao().getUserfields(),
+  /**
+   * Observes all tables of the stock overview. Every emission carries the latest result of each
+   * query, results of queries whose tables did not change are the same instances as before.
+   * Conversions are indexed once per query result, not once per emission.
+   */
+  public Disposable observeStockOverview(
+      StockOverviewDataListener onChanged,
+      Consumer<Throwable> onError
+  ) {
+    return RxJavaUtil
+        .combineLatest(
+            appDatabase.quantityUnitDao().observeQuantityUnits(),
+            appDatabase.stockOverviewDao().observeConversionsOfStock()
+                .map(QuantityUnitConversionIndex::indexed),
+            appDatabase.productGroupDao().observeProductGroups(),
+            appDatabase.stockOverviewDao().observeStockOverviewItems(),
+            appDatabase.stockOverviewDao().observeParentProducts(),
+            appDatabase.stockOverviewDao().observeAveragePricesOfStock(),
+            appDatabase.stockOverviewDao().observeLastPurchasedOfStock(),
+            appDatabase.stockOverviewDao().observeShoppingListProductIds(),
+            appDatabase.locationDao().observeLocations(),
+            appDatabase.stockLocationDao().observeStockLocations(),
+            appDatabase.missingItemDao().observeMissingItems(),
+            appDatabase.userfieldDao().observeUserfields(),
             StockOverviewData::new
         )
+        .throttleLatest(THROTTLE_MILLIS, TimeUnit.MILLISECONDS, true)
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(onChanged::actionFinished, onError);
+  }
+
+  public Disposable observeStockStatusCounts(
+      Consumer<StockStatusCounts> onChanged,
+      Consumer<Throwable> onError
+  ) {
+    return appDatabase.stockStatusDao().observeCounts()
+        .throttleLatest(THROTTLE_MILLIS, TimeUnit.MILLISECONDS, true)
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
-        .doOnSuccess(onSuccess::actionFinished)
-        .doOnError(onError)
-        .onErrorComplete()
-        .subscribe();
+        .subscribe(onChanged, onError);
   }
 }
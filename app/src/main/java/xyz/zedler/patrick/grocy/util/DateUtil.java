@@ -54,6 +54,20 @@ public class DateUtil {
   private static final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat(
       "HH:mm:ss", Locale.ENGLISH
   );
+  // SimpleDateFormat is not thread-safe, lists are also sorted and grouped in the background
+  private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT_LOCAL = new ThreadLocal<>() {
+    @Override
+    protected SimpleDateFormat initialValue() {
+      return new SimpleDateFormat("yyyy-MM-dd", Locale.ENGLISH);
+    }
+  };
+  private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT_WITH_TIME_LOCAL
+      = new ThreadLocal<>() {
+    @Override
+    protected SimpleDateFormat initialValue() {
+      return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.ENGLISH);
+    }
+  };
   private final Context context;
 
   public DateUtil(Context context) {
@@ -67,8 +81,8 @@ public class DateUtil {
     Date date = null;
     try {
       date = dateString.split(" ").length == 2
-          ? DATE_FORMAT_WITH_TIME.parse(dateString)
-          : DATE_FORMAT.parse(dateString);
+          ? DATE_FORMAT_WITH_TIME_LOCAL.get().parse(dateString)
+          : DATE_FORMAT_LOCAL.get().parse(dateString);
     } catch (ParseException e) {
       Log.e(TAG, "getDate: ");
     }
@@ -269,7 +283,7 @@ public class DateUtil {
         // Check if days are about the same as to the never expiring date
         Calendar calendarNever = Calendar.getInstance();
         try {
-          Date dateNever = DATE_FORMAT.parse(Constants.DATE.NEVER_OVERDUE);
+          Date dateNever = DATE_FORMAT_LOCAL.get().parse(Constants.DATE.NEVER_OVERDUE);
           if (dateNever != null) {
             calendarNever.setTime(dateNever);
           }
@@ -0,0 +1,122 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Bitsets of the item positions for every value of a filter facet, e.g. all items of a product
+ * group. It is filled once when the data is loaded, filter chip combinations are then answered
+ * with intersections instead of evaluating every item again.
+ * Must not be changed after it was filled, then it can be read from any thread.
+ */
+public class FacetIndex<T> {
+
+  private final List<T> items;
+  private final HashMap<String, HashMap<Integer, BitSet>> facets;
+
+  public FacetIndex(List<T> items) {
+    this.items = items;
+    this.facets = new HashMap<>();
+  }
+
+  public void add(String facet, int value, int position) {
+    HashMap<Integer, BitSet> values = facets.get(facet);
+    if (values == null) {
+      values = new HashMap<>();
+      facets.put(facet, values);
+    }
+    BitSet bits = values.get(value);
+    if (bits == null) {
+      bits = new BitSet(items.size());
+      values.put(value, bits);
+    }
+    bits.set(position);
+  }
+
+  public void add(String facet, boolean value, int position) {
+    add(facet, value ? 1 : 0, position);
+  }
+
+  public List<T> getItems() {
+    return items;
+  }
+
+  public BitSet selectAll() {
+    BitSet selection = new BitSet(items.size());
+    selection.set(0, items.size());
+    return selection;
+  }
+
+  /**
+   * Returns a new selection which can be narrowed further with {@link #and}.
+   */
+  public BitSet select(String facet, int value) {
+    BitSet bits = getBits(facet, value);
+    return bits != null ? (BitSet) bits.clone() : new BitSet();
+  }
+
+  public BitSet select(String facet, boolean value) {
+    return select(facet, value ? 1 : 0);
+  }
+
+  public void and(BitSet selection, String facet, int value) {
+    BitSet bits = getBits(facet, value);
+    if (bits != null) {
+      selection.and(bits);
+    } else {
+      selection.clear();
+    }
+  }
+
+  public void and(BitSet selection, String facet, boolean value) {
+    and(selection, facet, value ? 1 : 0);
+  }
+
+  public int count(BitSet selection, String facet, int value) {
+    BitSet bits = getBits(facet, value);
+    if (bits == null) {
+      return 0;
+    }
+    BitSet intersection = (BitSet) selection.clone();
+    intersection.and(bits);
+    return intersection.cardinality();
+  }
+
+  public int count(BitSet selection, String facet, boolean value) {
+    return count(selection, facet, value ? 1 : 0);
+  }
+
+  public ArrayList<T> getItems(BitSet selection) {
+    ArrayList<T> selectedItems = new ArrayList<>(selection.cardinality());
+    for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+      selectedItems.add(items.get(i));
+    }
+    return selectedItems;
+  }
+
+  private BitSet getBits(String facet, int value) {
+    HashMap<Integer, BitSet> values = facets.get(facet);
+    return values != null ? values.get(value) : null;
+  }
+}
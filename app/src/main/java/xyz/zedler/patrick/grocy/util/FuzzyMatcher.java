@@ -0,0 +1,193 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fuzzy search over item names which tolerates typos. Names are indexed by their trigrams when
+ * the matcher is built, a query only computes the edit distance for the names which share
+ * trigrams with it. Can be used from any thread after it was built, a query returns early
+ * with no results if its thread is interrupted because the query was cancelled.
+ */
+public class FuzzyMatcher<T> {
+
+  public final static int DEFAULT_MIN_SCORE = 70;
+  private final static int GRAM_LENGTH = 3;
+  private final static int INTERRUPT_CHECK_INTERVAL = 256;
+
+  private final List<T> items;
+  private final String[] names;
+  private final HashMap<String, int[]> postings;
+
+  public interface NameProvider<T> {
+    String getName(T item);
+  }
+
+  public FuzzyMatcher(List<T> items, NameProvider<T> nameProvider) {
+    this.items = items;
+    names = new String[items.size()];
+    HashMap<String, ArrayList<Integer>> positionsByGram = new HashMap<>();
+    for (int i = 0; i < items.size(); i++) {
+      String name = nameProvider.getName(items.get(i));
+      names[i] = name != null ? name.trim().toLowerCase() : "";
+      for (String gram : getGrams(names[i])) {
+        ArrayList<Integer> positions = positionsByGram.get(gram);
+        if (positions == null) {
+          positions = new ArrayList<>();
+          positionsByGram.put(gram, positions);
+        }
+        positions.add(i);
+      }
+    }
+    postings = new HashMap<>(positionsByGram.size());
+    for (String gram : positionsByGram.keySet()) {
+      ArrayList<Integer> positions = positionsByGram.get(gram);
+      int[] positionsArray = new int[positions.size()];
+      for (int i = 0; i < positionsArray.length; i++) {
+        positionsArray[i] = positions.get(i);
+      }
+      postings.put(gram, positionsArray);
+    }
+  }
+
+  /**
+   * Returns the items with a score of at least minScore (0-100), best matches first.
+   */
+  public List<T> match(String input, int minScore, int limit) {
+    String query = input != null ? input.trim().toLowerCase() : "";
+    if (query.isEmpty() || items.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Set<String> queryGrams = getGrams(query);
+    int[] sharedGrams = new int[items.size()];
+    for (String gram : queryGrams) {
+      int[] positions = postings.get(gram);
+      if (positions == null) continue;
+      for (int position : positions) {
+        sharedGrams[position]++;
+      }
+    }
+    // a typo changes at most GRAM_LENGTH grams, names sharing fewer need more than two typos
+    int minSharedGrams = Math.max(1, queryGrams.size() - 2 * GRAM_LENGTH);
+
+    int queryWordCount = query.split("\\s+").length;
+    ArrayList<Match> matches = new ArrayList<>();
+    for (int i = 0; i < sharedGrams.length; i++) {
+      if (i % INTERRUPT_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+        return new ArrayList<>();
+      }
+      if (sharedGrams[i] < minSharedGrams) continue;
+      int score = getScore(query, queryWordCount, names[i]);
+      if (score >= minScore) {
+        matches.add(new Match(i, score, names[i].length()));
+      }
+    }
+    Collections.sort(matches, (match1, match2) -> match1.score != match2.score
+        ? Integer.compare(match2.score, match1.score)
+        : Integer.compare(match1.length, match2.length));
+    ArrayList<T> results = new ArrayList<>(Math.min(limit, matches.size()));
+    for (Match match : matches) {
+      if (results.size() == limit) break;
+      results.add(items.get(match.position));
+    }
+    return results;
+  }
+
+  /**
+   * Best similarity of the query to the whole name or to the same number of consecutive words.
+   */
+  private static int getScore(String query, int queryWordCount, String name) {
+    int score = getSimilarity(query, name);
+    String[] words = name.split("\\s+");
+    if (words.length <= queryWordCount) {
+      return score;
+    }
+    for (int start = 0; start + queryWordCount <= words.length && score < 100; start++) {
+      StringBuilder part = new StringBuilder(words[start]);
+      for (int i = start + 1; i < start + queryWordCount; i++) {
+        part.append(' ').append(words[i]);
+      }
+      score = Math.max(score, getSimilarity(query, part.toString()));
+    }
+    return score;
+  }
+
+  public static int getSimilarity(String a, String b) {
+    int maxLength = Math.max(a.length(), b.length());
+    if (maxLength == 0) {
+      return 100;
+    }
+    return Math.round(100f * (maxLength - getLevenshteinDistance(a, b)) / maxLength);
+  }
+
+  public static int getLevenshteinDistance(String a, String b) {
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        current[j] = Math.min(
+            Math.min(current[j - 1] + 1, previous[j] + 1),
+            previous[j - 1] + cost
+        );
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[b.length()];
+  }
+
+  private static Set<String> getGrams(String text) {
+    HashSet<String> grams = new HashSet<>();
+    for (String word : text.split("\\s+")) {
+      if (word.isEmpty()) continue;
+      // padded, so words shorter than a gram and word boundaries are indexed too
+      String padded = " " + word + " ";
+      for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+        grams.add(padded.substring(i, i + GRAM_LENGTH));
+      }
+    }
+    return grams;
+  }
+
+  private static class Match {
+
+    final int position;
+    final int score;
+    final int length;
+
+    Match(int position, int score, int length) {
+      this.position = position;
+      this.score = score;
+      this.length = length;
+    }
+  }
+}
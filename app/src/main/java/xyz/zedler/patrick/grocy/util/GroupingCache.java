@@ -0,0 +1,216 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Partitions items into named groups and sorts the groups and the items inside of them.
+ * <p>
+ * The sorted order of every group is kept until the next call. If a group contains the same
+ * items as before (compared by their signatures), its cached order is applied to the new items
+ * instead of sorting them again. The group names are only sorted again if the set of names
+ * changed. A different cache key (e.g. another grouping or sort mode) clears the cache.
+ */
+public class GroupingCache<T> {
+
+  public interface GroupNameProvider<T> {
+
+    @Nullable
+    String getGroupName(T item);
+  }
+
+  public interface ItemSorter<T> {
+
+    void sort(ArrayList<T> items);
+  }
+
+  public interface GroupSorter {
+
+    void sort(ArrayList<String> groupNames);
+  }
+
+  public interface SignatureProvider<T> {
+
+    /**
+     * Returns everything the item sorter looks at, by default the item itself.
+     */
+    Object getSignature(T item);
+  }
+
+  public static class Groups<T> {
+
+    private final ArrayList<T> ungroupedItems;
+    private final LinkedHashMap<String, ArrayList<T>> groups;
+
+    private Groups(ArrayList<T> ungroupedItems, LinkedHashMap<String, ArrayList<T>> groups) {
+      this.ungroupedItems = ungroupedItems;
+      this.groups = groups;
+    }
+
+    public ArrayList<T> getUngroupedItems() {
+      return ungroupedItems;
+    }
+
+    /**
+     * Groups in sorted order, each with its sorted items.
+     */
+    public LinkedHashMap<String, ArrayList<T>> getGroups() {
+      return groups;
+    }
+
+    public boolean isEmpty() {
+      return ungroupedItems.isEmpty() && groups.isEmpty();
+    }
+  }
+
+  private static class CachedGroup {
+
+    private final ArrayList<Object> signatures;
+    private final int[] order;
+
+    private CachedGroup(ArrayList<Object> signatures, int[] order) {
+      this.signatures = signatures;
+      this.order = order;
+    }
+  }
+
+  private String cacheKey;
+  private final HashMap<String, CachedGroup> cachedGroups = new HashMap<>();
+  private final HashMap<String, CachedGroup> cachedUngrouped = new HashMap<>();
+  private HashSet<String> cachedGroupNames;
+  private ArrayList<String> cachedGroupNamesSorted;
+
+  /**
+   * Can be called from any thread, calls are serialized because they share the cache.
+   */
+  public synchronized Groups<T> group(
+      @NonNull List<T> items,
+      @NonNull String cacheKey,
+      @NonNull GroupNameProvider<T> groupNameProvider,
+      @NonNull GroupSorter groupSorter,
+      @NonNull ItemSorter<T> itemSorter,
+      @Nullable SignatureProvider<T> signatureProvider
+  ) {
+    if (!cacheKey.equals(this.cacheKey)) {
+      clear();
+      this.cacheKey = cacheKey;
+    }
+
+    HashMap<String, ArrayList<T>> partitions = new HashMap<>();
+    ArrayList<T> ungroupedItems = new ArrayList<>();
+    for (T item : items) {
+      String groupName = groupNameProvider.getGroupName(item);
+      if (groupName == null || groupName.isEmpty()) {
+        ungroupedItems.add(item);
+        continue;
+      }
+      ArrayList<T> itemsFromGroup = partitions.get(groupName);
+      if (itemsFromGroup == null) {
+        itemsFromGroup = new ArrayList<>();
+        partitions.put(groupName, itemsFromGroup);
+      }
+      itemsFromGroup.add(item);
+    }
+
+    HashSet<String> groupNames = new HashSet<>(partitions.keySet());
+    if (!groupNames.equals(cachedGroupNames)) {
+      ArrayList<String> groupNamesSorted = new ArrayList<>(groupNames);
+      groupSorter.sort(groupNamesSorted);
+      cachedGroupNames = groupNames;
+      cachedGroupNamesSorted = groupNamesSorted;
+      cachedGroups.keySet().retainAll(groupNames);
+    }
+
+    LinkedHashMap<String, ArrayList<T>> groups = new LinkedHashMap<>();
+    for (String groupName : cachedGroupNamesSorted) {
+      groups.put(groupName, sortGroup(
+          cachedGroups, groupName, partitions.get(groupName), itemSorter, signatureProvider
+      ));
+    }
+    return new Groups<>(
+        sortGroup(cachedUngrouped, "", ungroupedItems, itemSorter, signatureProvider),
+        groups
+    );
+  }
+
+  public synchronized void clear() {
+    cacheKey = null;
+    cachedGroups.clear();
+    cachedUngrouped.clear();
+    cachedGroupNames = null;
+    cachedGroupNamesSorted = null;
+  }
+
+  private ArrayList<T> sortGroup(
+      HashMap<String, CachedGroup> cache,
+      String groupName,
+      ArrayList<T> items,
+      ItemSorter<T> itemSorter,
+      @Nullable SignatureProvider<T> signatureProvider
+  ) {
+    ArrayList<Object> signatures = new ArrayList<>(items.size());
+    for (T item : items) {
+      signatures.add(signatureProvider != null ? signatureProvider.getSignature(item) : item);
+    }
+
+    CachedGroup cachedGroup = cache.get(groupName);
+    if (cachedGroup != null && cachedGroup.signatures.size() == signatures.size()) {
+      boolean unchanged = true;
+      for (int i = 0; i < signatures.size() && unchanged; i++) {
+        unchanged = Objects.equals(cachedGroup.signatures.get(i), signatures.get(i));
+      }
+      if (unchanged) {
+        ArrayList<T> sorted = new ArrayList<>(items.size());
+        for (int position : cachedGroup.order) {
+          sorted.add(items.get(position));
+        }
+        return sorted;
+      }
+    }
+
+    ArrayList<T> sorted = new ArrayList<>(items);
+    itemSorter.sort(sorted);
+    IdentityHashMap<T, Integer> positions = new IdentityHashMap<>(items.size());
+    for (int i = 0; i < items.size(); i++) {
+      positions.put(items.get(i), i);
+    }
+    int[] order = new int[sorted.size()];
+    for (int i = 0; i < sorted.size(); i++) {
+      Integer position = positions.get(sorted.get(i));
+      if (position == null) {
+        // sorter replaced items, this group can't be reused
+        cache.remove(groupName);
+        return sorted;
+      }
+      order[i] = position;
+    }
+    cache.put(groupName, new CachedGroup(signatures, order));
+    return sorted;
+  }
+}
@@ -245,12 +245,18 @@ public class PrefsUtil {
     editPrefs.remove(PREF.DB_LAST_TIME_USERFIELDS);
     editPrefs.remove(PREF.DB_LAST_TIME_MEAL_PLAN_ENTRIES);
     editPrefs.remove(PREF.DB_LAST_TIME_MEAL_PLAN_SECTIONS);
+    for (String key : sharedPrefs.getAll().keySet()) {
+      if (key.endsWith(PREF.DB_FINGERPRINT_SUFFIX)
+          || key.startsWith(PREF.BACKGROUND_SYNC_TIME_PREFIX)) {
+        editPrefs.remove(key);
+      }
+    }
     editPrefs.apply();
   }
 
   public static void clearServerRelatedSharedPreferences(SharedPreferences sharedPrefs) {
-    clearCachingRelatedSharedPreferences(sharedPrefs);
-
+    // the caching related preferences are kept, the next AppDatabase.getAppDatabase() stores
+    // them together with the database of this server for the next login
     SharedPreferences.Editor editPrefs = sharedPrefs.edit();
     editPrefs.remove(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY);
     editPrefs.remove(PREF.HOME_ASSISTANT_INGRESS_SESSION_KEY_TIME);
@@ -0,0 +1,182 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.RandomAccess;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
+
+/**
+ * Conversions grouped by product and source unit, so the conversions of a product don't have to
+ * be searched in the list of all conversions.
+ * <p>
+ * Conversion lists are wrapped with indexed() where they are loaded from the database. The
+ * wrapped list is unmodifiable and carries its index, so all lookups on it share one index and
+ * it can't get out of date. Can be read from any thread.
+ */
+public class QuantityUnitConversionIndex {
+
+  private final HashMap<Integer, ArrayList<QuantityUnitConversionResolved>> productConversions;
+  private final HashMap<Long, ArrayList<QuantityUnitConversionResolved>> productConversionsFrom;
+  private final HashMap<Integer, ArrayList<QuantityUnitConversionResolved>> defaultConversionsFrom;
+  private final HashMap<Long, HashMap<Integer, QuantityUnitConversionResolved>> conversionsFromTo;
+
+  private static class IndexedConversions extends AbstractList<QuantityUnitConversionResolved>
+      implements RandomAccess {
+
+    private final List<QuantityUnitConversionResolved> conversions;
+    private final QuantityUnitConversionIndex index;
+
+    private IndexedConversions(List<QuantityUnitConversionResolved> conversions) {
+      // copied, so changes to the given list can't make the index stale
+      this.conversions = new ArrayList<>(conversions);
+      this.index = new QuantityUnitConversionIndex(this.conversions);
+    }
+
+    @Override
+    public QuantityUnitConversionResolved get(int index) {
+      return conversions.get(index);
+    }
+
+    @Override
+    public int size() {
+      return conversions.size();
+    }
+  }
+
+  private QuantityUnitConversionIndex(@NonNull List<QuantityUnitConversionResolved> conversions) {
+    productConversions = new HashMap<>();
+    productConversionsFrom = new HashMap<>();
+    defaultConversionsFrom = new HashMap<>();
+    conversionsFromTo = new HashMap<>();
+
+    for (QuantityUnitConversionResolved conversion : conversions) {
+      if (!NumUtil.isStringInt(conversion.getProductId())) {
+        addTo(defaultConversionsFrom, conversion.getFromQuId(), conversion);
+        continue;
+      }
+      int productId = conversion.getProductIdInt();
+      long productFromKey = getKey(productId, conversion.getFromQuId());
+      addTo(productConversions, productId, conversion);
+      addTo(productConversionsFrom, productFromKey, conversion);
+
+      HashMap<Integer, QuantityUnitConversionResolved> conversionsTo
+          = conversionsFromTo.get(productFromKey);
+      if (conversionsTo == null) {
+        conversionsTo = new HashMap<>();
+        conversionsFromTo.put(productFromKey, conversionsTo);
+      }
+      // first conversion wins like in a search through the list
+      if (!conversionsTo.containsKey(conversion.getToQuId())) {
+        conversionsTo.put(conversion.getToQuId(), conversion);
+      }
+    }
+  }
+
+  /**
+   * Returns an unmodifiable copy of the list which carries its index. The index is built right
+   * away, so this should be called on the thread which loads the list.
+   */
+  @NonNull
+  public static List<QuantityUnitConversionResolved> indexed(
+      @Nullable List<QuantityUnitConversionResolved> conversions
+  ) {
+    if (conversions instanceof IndexedConversions) {
+      return conversions;
+    }
+    return new IndexedConversions(conversions != null ? conversions : Collections.emptyList());
+  }
+
+  /**
+   * Returns the index of a list from indexed(). For other lists, a new index is built.
+   */
+  public static QuantityUnitConversionIndex get(
+      @Nullable List<QuantityUnitConversionResolved> conversions
+  ) {
+    if (conversions instanceof IndexedConversions) {
+      return ((IndexedConversions) conversions).index;
+    }
+    return new QuantityUnitConversionIndex(
+        conversions != null ? conversions : Collections.emptyList()
+    );
+  }
+
+  /**
+   * All conversions of the product in list order.
+   */
+  @NonNull
+  public List<QuantityUnitConversionResolved> getProductConversions(int productId) {
+    List<QuantityUnitConversionResolved> conversions = productConversions.get(productId);
+    return conversions != null ? conversions : Collections.emptyList();
+  }
+
+  /**
+   * Conversions of the product from the given unit (usually the stock unit) in list order.
+   */
+  @NonNull
+  public List<QuantityUnitConversionResolved> getProductConversions(int productId, int fromQuId) {
+    List<QuantityUnitConversionResolved> conversions
+        = productConversionsFrom.get(getKey(productId, fromQuId));
+    return conversions != null ? conversions : Collections.emptyList();
+  }
+
+  /**
+   * Conversions without product from the given unit in list order.
+   */
+  @NonNull
+  public List<QuantityUnitConversionResolved> getDefaultConversions(int fromQuId) {
+    List<QuantityUnitConversionResolved> conversions = defaultConversionsFrom.get(fromQuId);
+    return conversions != null ? conversions : Collections.emptyList();
+  }
+
+  @Nullable
+  public QuantityUnitConversionResolved getProductConversion(
+      int productId,
+      int fromQuId,
+      int toQuId
+  ) {
+    HashMap<Integer, QuantityUnitConversionResolved> conversionsTo
+        = conversionsFromTo.get(getKey(productId, fromQuId));
+    return conversionsTo != null ? conversionsTo.get(toQuId) : null;
+  }
+
+  private static long getKey(int productId, int quId) {
+    return ((long) productId << 32) | (quId & 0xffffffffL);
+  }
+
+  private static <K> void addTo(
+      HashMap<K, ArrayList<QuantityUnitConversionResolved>> map,
+      K key,
+      QuantityUnitConversionResolved conversion
+  ) {
+    ArrayList<QuantityUnitConversionResolved> conversions = map.get(key);
+    if (conversions == null) {
+      conversions = new ArrayList<>();
+      map.put(key, conversions);
+    }
+    conversions.add(conversion);
+  }
+}
@@ -43,20 +43,21 @@ public class QuantityUnitConversionUtil {
     if (!useResolvedConversions) {
       return getUnitFactors(quantityUnitHashMap, unitConversions, product);
     }
+    QuantityUnitConversionIndex index = QuantityUnitConversionIndex.get(unitConversions);
     HashMap<QuantityUnit, Double> unitFactors = new HashMap<>();
-    for (QuantityUnitConversion conversion : unitConversions) {
-      if (conversion.getProductIdInt() != product.getId()) continue;
-
-      // We need this check because unitConversions list can contain multiple entry for the same "to" QU.
-      //
-      // Example:
-      // Bottle -> mL | 100.0
-      // mL -> Bottle | 0.01
-      // Bottle -> Bottle | 1.0
-      //
-      // Without this check the output map will contain 0.01 for Bottle key
-      if (conversion.getFromQuId() != product.getQuIdStockInt()) continue;
 
+    // We only take conversions from the stock QU because unitConversions list can contain
+    // multiple entry for the same "to" QU.
+    //
+    // Example:
+    // Bottle -> mL | 100.0
+    // mL -> Bottle | 0.01
+    // Bottle -> Bottle | 1.0
+    //
+    // Otherwise the output map would contain 0.01 for Bottle key
+    for (QuantityUnitConversion conversion : index.getProductConversions(
+        product.getId(), product.getQuIdStockInt()
+    )) {
       QuantityUnit unit = quantityUnitHashMap.get(conversion.getToQuId());
       if (unit == null || unitFactors.containsKey(unit)) continue;
       unitFactors.put(unit, conversion.getFactor());
@@ -80,11 +81,8 @@ public class QuantityUnitConversionUtil {
     if (!unitFactors.containsKey(purchaseUnit)) {
       unitFactors.put(purchaseUnit, 1 / product.getQuFactorPurchaseToStockDouble());
     }
-    for (QuantityUnitConversion conversion : unitConversions) {
-      if (!NumUtil.isStringInt(conversion.getProductId())
-          || product.getId() != conversion.getProductIdInt()) {
-        continue;
-      }
+    QuantityUnitConversionIndex index = QuantityUnitConversionIndex.get(unitConversions);
+    for (QuantityUnitConversion conversion : index.getProductConversions(product.getId())) {
       // Only add product specific conversions
       // ("overriding" standard conversions which are added in the next step)
       QuantityUnit unit = quantityUnitHashMap.get(conversion.getToQuId());
@@ -93,11 +91,7 @@ public class QuantityUnitConversionUtil {
       }
       unitFactors.put(unit, conversion.getFactor());
     }
-    for (QuantityUnitConversion conversion : unitConversions) {
-      if (NumUtil.isStringInt(conversion.getProductId())
-          || stockUnit.getId() != conversion.getFromQuId()) {
-        continue;
-      }
+    for (QuantityUnitConversion conversion : index.getDefaultConversions(stockUnit.getId())) {
       // Only add standard unit conversions
       QuantityUnit unit = quantityUnitHashMap.get(conversion.getToQuId());
       if (unit == null || unitFactors.containsKey(unit)) {
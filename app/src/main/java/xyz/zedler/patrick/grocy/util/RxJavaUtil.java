@@ -22,10 +22,12 @@ package xyz.zedler.patrick.grocy.util;
 import io.reactivex.rxjava3.annotations.CheckReturnValue;
 import io.reactivex.rxjava3.annotations.NonNull;
 import io.reactivex.rxjava3.annotations.SchedulerSupport;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.core.SingleSource;
 import io.reactivex.rxjava3.functions.Function;
 import java.util.Objects;
+import org.reactivestreams.Publisher;
 
 public class RxJavaUtil {
 
@@ -244,6 +246,35 @@ public class RxJavaUtil {
     }
   }
 
+  @CheckReturnValue
+  @NonNull
+  @SchedulerSupport(SchedulerSupport.NONE)
+  public static <T1, T2, T3, T4, T5, T6, T7, T8, T9, T10, T11, T12, R> Flowable<R> combineLatest(
+      @NonNull Publisher<? extends T1> source1, @NonNull Publisher<? extends T2> source2,
+      @NonNull Publisher<? extends T3> source3, @NonNull Publisher<? extends T4> source4,
+      @NonNull Publisher<? extends T5> source5, @NonNull Publisher<? extends T6> source6,
+      @NonNull Publisher<? extends T7> source7, @NonNull Publisher<? extends T8> source8,
+      @NonNull Publisher<? extends T9> source9, @NonNull Publisher<? extends T10> source10,
+      @NonNull Publisher<? extends T11> source11, @NonNull Publisher<? extends T12> source12,
+      @NonNull Function12<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6,
+                ? super T7, ? super T8, ? super T9, ? super T10, ? super T11, ? super T12, ? extends R> combiner
+  ) {
+    Objects.requireNonNull(source1, "source1 is null");
+    Objects.requireNonNull(source2, "source2 is null");
+    Objects.requireNonNull(source3, "source3 is null");
+    Objects.requireNonNull(source4, "source4 is null");
+    Objects.requireNonNull(source5, "source5 is null");
+    Objects.requireNonNull(source6, "source6 is null");
+    Objects.requireNonNull(source7, "source7 is null");
+    Objects.requireNonNull(source8, "source8 is null");
+    Objects.requireNonNull(source9, "source9 is null");
+    Objects.requireNonNull(source10, "source10 is null");
+    Objects.requireNonNull(source11, "source11 is null");
+    Objects.requireNonNull(source12, "source12 is null");
+    Objects.requireNonNull(combiner, "combiner is null");
+    return Flowable.combineLatestArray(new Publisher[]{source1, source2, source3, source4, source5, source6, source7, source8, source9, source10, source11, source12}, toFunction(combiner));
+  }
+
 
   @CheckReturnValue
   @NonNull
@@ -22,6 +22,7 @@ package xyz.zedler.patrick.grocy.util;
 import android.content.pm.ShortcutInfo;
 import android.os.Build;
 import androidx.annotation.RequiresApi;
+import java.text.CollationKey;
 import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -58,21 +59,115 @@ public class SortUtil {
       ",J<k,K<l,L<m,M<n,N<o,O<p,P<q,Q<r,R<s, S & SS,ß<t,T& TH, Þ &TH," +
       "þ <u,U<v,V<w,W<x,X<y,Y<z,Z&AE,Æ&AE,æ&OE,Œ&OE,œ";
 
+  private interface TextKeyProvider<T> {
+
+    String getText(T item);
+  }
+
+  private interface NumberKeyProvider<T> {
+
+    long getNumber(T item);
+  }
+
+  private interface UserfieldsProvider<T> {
+
+    Map<String, String> getUserfields(T item);
+  }
+
+  private static class SortKey<T> {
+
+    private final T item;
+    private final CollationKey collationKey;
+    private final long numberKey;
+
+    private SortKey(T item, CollationKey collationKey, long numberKey) {
+      this.item = item;
+      this.collationKey = collationKey;
+      this.numberKey = numberKey;
+    }
+  }
+
+  /**
+   * Sorts the items by the collation keys of their texts. Each key is computed once per item
+   * instead of on every comparison, items without text come first.
+   */
+  private static <T> void sortByText(
+      List<T> items, Collator collator, TextKeyProvider<T> provider, boolean ascending
+  ) {
+    ArrayList<SortKey<T>> sortKeys = new ArrayList<>(items.size());
+    for (T item : items) {
+      String text = provider.getText(item);
+      sortKeys.add(new SortKey<>(item, text != null ? collator.getCollationKey(text) : null, 0));
+    }
+    Comparator<SortKey<T>> comparator = (key1, key2) -> {
+      if (key1.collationKey == null && key2.collationKey == null) {
+        return 0;
+      } else if (key1.collationKey == null) {
+        return -1;
+      } else if (key2.collationKey == null) {
+        return 1;
+      }
+      return key1.collationKey.compareTo(key2.collationKey);
+    };
+    applySortKeys(items, sortKeys, ascending ? comparator : comparator.reversed());
+  }
+
+  private static <T> void sortByNumber(
+      List<T> items, NumberKeyProvider<T> provider, boolean ascending
+  ) {
+    ArrayList<SortKey<T>> sortKeys = new ArrayList<>(items.size());
+    for (T item : items) {
+      sortKeys.add(new SortKey<>(item, null, provider.getNumber(item)));
+    }
+    Comparator<SortKey<T>> comparator = (key1, key2) -> Long.compare(
+        key1.numberKey, key2.numberKey
+    );
+    applySortKeys(items, sortKeys, ascending ? comparator : comparator.reversed());
+  }
+
+  /**
+   * Sorts the items by their dates, each date string is parsed only once. Items without date
+   * come first.
+   */
+  private static <T> void sortByDate(
+      List<T> items, TextKeyProvider<T> provider, boolean ascending
+  ) {
+    sortByNumber(items, item -> getDateKey(provider.getText(item)), ascending);
+  }
+
+  private static long getDateKey(String dateString) {
+    Date date = DateUtil.getDate(dateString);
+    return date != null ? date.getTime() : Long.MIN_VALUE;
+  }
+
+  private static <T> void applySortKeys(
+      List<T> items, ArrayList<SortKey<T>> sortKeys, Comparator<SortKey<T>> comparator
+  ) {
+    Collections.sort(sortKeys, comparator);
+    for (int i = 0; i < sortKeys.size(); i++) {
+      items.set(i, sortKeys.get(i).item);
+    }
+  }
+
+  private static Collator getCollator() {
+    return Collator.getInstance(LocaleUtil.getLocale());
+  }
+
   private static void compareStockItemsWithExtGerman(List<StockItem> items, boolean asc) {
-    Collections.sort(items, (item1, item2) -> Collator.getInstance(Locale.GERMAN).compare(
-        (asc ? item1 : item2).getProduct().getName().toLowerCase(),
-        (asc ? item2 : item1).getProduct().getName().toLowerCase()
-    ));
+    sortByText(
+        items,
+        Collator.getInstance(Locale.GERMAN),
+        item -> item.getProduct().getName().toLowerCase(),
+        asc
+    );
   }
 
   public static void sortStockItemsByName(List<StockItem> stockItems, boolean ascending) {
     if (stockItems == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(stockItems, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getProduct().getName().toLowerCase(),
-        (ascending ? item2 : item1).getProduct().getName().toLowerCase())
+    sortByText(
+        stockItems, getCollator(), item -> item.getProduct().getName().toLowerCase(), ascending
     );
   }
 
@@ -80,44 +175,14 @@ public class SortUtil {
     if (stockItems == null) {
       return;
     }
-    Collections.sort(
-        stockItems,
-        (item1, item2) -> {
-          String bbd1 = (ascending ? item1 : item2).getBestBeforeDate();
-          String bbd2 = (ascending ? item2 : item1).getBestBeforeDate();
-          if (bbd1 == null && bbd2 == null) {
-            return 0;
-          } else if (bbd1 == null) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (bbd2 == null) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          return DateUtil.getDate(bbd1).compareTo(DateUtil.getDate(bbd2));
-        }
-    );
+    sortByDate(stockItems, StockItem::getBestBeforeDate, ascending);
   }
 
   public static void sortStockItemsByCreatedTimestamp(List<StockItem> stockItems, boolean ascending) {
     if (stockItems == null) {
       return;
     }
-    Collections.sort(
-        stockItems,
-        (item1, item2) -> {
-          Product product1 = (ascending ? item1 : item2).getProduct();
-          Product product2 = (ascending ? item2 : item1).getProduct();
-          String ts1 = product1.getRowCreatedTimestamp();
-          String ts2 = product2.getRowCreatedTimestamp();
-          if (ts1 == null && ts2 == null) {
-            return 0;
-          } else if (ts1 == null) {
-            return -1;
-          } else if (ts2 == null) {
-            return 1;
-          }
-          return DateUtil.getDate(ts1).compareTo(DateUtil.getDate(ts2));
-        }
-    );
+    sortByDate(stockItems, item -> item.getProduct().getRowCreatedTimestamp(), ascending);
   }
 
   public static void sortStockItemsByUserfieldValue(
@@ -128,57 +193,29 @@ public class SortUtil {
     if (stockItems == null) {
       return;
     }
-    Collections.sort(
-        stockItems,
-        (item1, item2) -> {
-          Product product1 = (ascending ? item1 : item2).getProduct();
-          Product product2 = (ascending ? item2 : item1).getProduct();
-          Map<String, String> userfieldMap1 = product1.getUserfields();
-          Map<String, String> userfieldMap2 = product2.getUserfields();
-          String value1 = userfieldMap1 != null ? userfieldMap1.get(userfield.getName()) : null;
-          String value2 = userfieldMap2 != null ? userfieldMap2.get(userfield.getName()) : null;
-          return compareUserfieldValues(value1, value2, userfield.getType());
-        }
+    sortByUserfieldValue(
+        stockItems, item -> item.getProduct().getUserfields(), userfield, ascending
     );
   }
 
-  private static int compareUserfieldValues(String value1, String value2, String userfieldType) {
-    if (value1 == null && value2 == null) {
-      return 0;
-    } else if (value1 == null) {
-      return -1;
-    } else if (value2 == null) {
-      return 1;
-    }
-    /*if (userfieldType.equals(Userfield.TYPE_NUMBER)) {
-      return Double.compare(NumUtil.toDouble(value1), NumUtil.toDouble(value2));
-    } else if (userfieldType.equals(Userfield.TYPE_DATE)) {
-      return DateUtil.getDate(value1).compareTo(DateUtil.getDate(value2));
-    } else {
-      return Collator.getInstance(LocaleUtil.getLocale()).compare(value1, value2);
-    }*/
-    return Collator.getInstance(LocaleUtil.getLocale()).compare(value1, value2);
+  private static <T> void sortByUserfieldValue(
+      List<T> items,
+      UserfieldsProvider<T> provider,
+      Userfield userfield,
+      boolean ascending
+  ) {
+    String name = userfield.getName();
+    sortByText(items, getCollator(), item -> {
+      Map<String, String> userfields = provider.getUserfields(item);
+      return userfields != null ? userfields.get(name) : null;
+    }, ascending);
   }
 
   public static void sortStockEntriesByDueDate(List<StockEntry> stockEntries, boolean ascending) {
     if (stockEntries == null) {
       return;
     }
-    Collections.sort(
-        stockEntries,
-        (item1, item2) -> {
-          String bbd1 = (ascending ? item1 : item2).getBestBeforeDate();
-          String bbd2 = (ascending ? item2 : item1).getBestBeforeDate();
-          if (bbd1 == null && bbd2 == null) {
-            return 0;
-          } else if (bbd1 == null) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (bbd2 == null) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          return DateUtil.getDate(bbd1).compareTo(DateUtil.getDate(bbd2));
-        }
-    );
+    sortByDate(stockEntries, StockEntry::getBestBeforeDate, ascending);
   }
 
   public static void sortStockEntriesByName(
@@ -187,24 +224,10 @@ public class SortUtil {
     if (stockEntries == null || productHashMap == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(stockEntries, (entry1, entry2) -> {
-      int productId1 = (ascending ? entry1 : entry2).getProductId();
-      int productId2 = (ascending ? entry2 : entry1).getProductId();
-      Product product1 = productHashMap.get(productId1);
-      Product product2 = productHashMap.get(productId2);
-      if (product1 == null && product2 == null) {
-        return 0;
-      } else if (product1 == null) {
-        return -1;
-      } else if (product2 == null) {
-        return 1;
-      }
-      return Collator.getInstance(locale).compare(
-          product1.getName().toLowerCase(),
-          product2.getName().toLowerCase()
-      );
-    });
+    sortByText(stockEntries, getCollator(), entry -> {
+      Product product = productHashMap.get(entry.getProductId());
+      return product != null ? product.getName().toLowerCase() : null;
+    }, ascending);
   }
 
   public static void sortProductsByName(List<Product> products, boolean ascending) {
@@ -232,33 +255,14 @@ public class SortUtil {
     if (tasks == null || tasks.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(tasks, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByText(tasks, getCollator(), item -> item.getName().toLowerCase(), ascending);
   }
 
   public static void sortTasksByDueDate(List<Task> tasks, boolean ascending) {
     if (tasks == null || tasks.isEmpty()) {
       return;
     }
-    Collections.sort(
-        tasks,
-        (item1, item2) -> {
-          String bbd1 = (ascending ? item1 : item2).getDueDate();
-          String bbd2 = (ascending ? item2 : item1).getDueDate();
-          if (bbd1 == null && bbd2 == null
-              || bbd1 != null && bbd1.isEmpty() && bbd2 != null && bbd2.isEmpty()) {
-            return 0;
-          } else if (bbd1 == null || bbd1.isEmpty()) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (bbd2 == null || bbd2.isEmpty()) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          return DateUtil.getDate(bbd1).compareTo(DateUtil.getDate(bbd2));
-        }
-    );
+    sortByDate(tasks, Task::getDueDate, ascending);
   }
 
   public static void sortTaskCategoriesByName(
@@ -267,11 +271,7 @@ public class SortUtil {
     if (taskCategories == null || taskCategories.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(taskCategories, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByText(taskCategories, getCollator(), item -> item.getName().toLowerCase(), ascending);
   }
 
   public static void sortTasksByCategory(
@@ -282,26 +282,12 @@ public class SortUtil {
     if (tasks == null || tasks.isEmpty()) {
       return;
     }
-    Collections.sort(
-        tasks,
-        (item1, item2) -> {
-          String cId1 = (ascending ? item1 : item2).getCategoryId();
-          String cId2 = (ascending ? item2 : item1).getCategoryId();
-          TaskCategory c1 = NumUtil.isStringInt(cId1)
-              ? taskCategoryHashMap.get(Integer.parseInt(cId1)) : null;
-          TaskCategory c2 = NumUtil.isStringInt(cId2)
-              ? taskCategoryHashMap.get(Integer.parseInt(cId2)) : null;
-
-          if (c1 == null && c2 == null) {
-            return 0;
-          } else if (c1 == null) {
-            return -1;
-          } else if (c2 == null) {
-            return 1;
-          }
-          return c1.getName().compareTo(c2.getName());
-        }
-    );
+    sortByText(tasks, getCollator(), item -> {
+      String categoryId = item.getCategoryId();
+      TaskCategory category = NumUtil.isStringInt(categoryId)
+          ? taskCategoryHashMap.get(Integer.parseInt(categoryId)) : null;
+      return category != null ? category.getName() : null;
+    }, ascending);
   }
 
   public static void sortChoreEntriesByNextExecution(
@@ -310,60 +296,30 @@ public class SortUtil {
     if (choreEntries == null || choreEntries.isEmpty()) {
       return;
     }
-    Collections.sort(
-        choreEntries,
-        (item1, item2) -> {
-          String time1 = (ascending ? item1 : item2).getNextEstimatedExecutionTime();
-          String time2 = (ascending ? item2 : item1).getNextEstimatedExecutionTime();
-          if (time1 == null && time2 == null
-              || time1 != null && time1.isEmpty() && time2 != null && time2.isEmpty()) {
-            return 0;
-          } else if (time1 == null || time1.isEmpty()) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (time2 == null || time2.isEmpty()) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          Date date1 = DateUtil.getDate(time1);
-          Date date2 = DateUtil.getDate(time2);
-          if (date1 == null || date2 == null) {
-            return 0;
-          }
-          return DateUtil.getDate(time1).compareTo(DateUtil.getDate(time2));
-        }
-    );
+    sortByDate(choreEntries, ChoreEntry::getNextEstimatedExecutionTime, ascending);
   }
 
   public static void sortChoreEntriesByName(ArrayList<ChoreEntry> choreEntries, boolean ascending) {
     if (choreEntries == null || choreEntries.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(choreEntries, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getChoreName().toLowerCase(),
-        (ascending ? item2 : item1).getChoreName().toLowerCase()
-    ));
+    sortByText(
+        choreEntries, getCollator(), item -> item.getChoreName().toLowerCase(), ascending
+    );
   }
 
   public static void sortUsersByName(ArrayList<User> users, boolean ascending) {
     if (users == null || users.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(users, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getDisplayName().toLowerCase(),
-        (ascending ? item2 : item1).getDisplayName().toLowerCase()
-    ));
+    sortByText(users, getCollator(), item -> item.getDisplayName().toLowerCase(), ascending);
   }
 
   public static void sortStringsByName(List<String> strings, boolean ascending) {
     if (strings == null || strings.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(strings, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).toLowerCase(),
-        (ascending ? item2 : item1).toLowerCase()
-    ));
+    sortByText(strings, getCollator(), String::toLowerCase, ascending);
   }
 
   public static void sortStringsByValue(List<String> strings) {
@@ -389,32 +345,21 @@ public class SortUtil {
     if (locations == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(locations, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByText(locations, getCollator(), item -> item.getName().toLowerCase(), ascending);
   }
 
   public static void sortStoresByName(List<Store> stores, boolean ascending) {
     if (stores == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(stores, (item1, item2) -> Collator.getInstance(locale).compare(
-            (ascending ? item1 : item2).getName().toLowerCase(),
-            (ascending ? item2 : item1).getName().toLowerCase()));
+    sortByText(stores, getCollator(), item -> item.getName().toLowerCase(), ascending);
   }
 
   public static void sortProductGroupsByName(List<ProductGroup> productGroups, boolean ascending) {
     if (productGroups == null || productGroups.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(productGroups, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByText(productGroups, getCollator(), item -> item.getName().toLowerCase(), ascending);
   }
 
   public static void sortQuantityUnitsByName(
@@ -423,11 +368,7 @@ public class SortUtil {
     if (quantityUnits == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(quantityUnits, (item1, item2) -> Collator.getInstance(locale).compare(
-            (ascending ? item1 : item2).getName().toLowerCase(),
-            (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByText(quantityUnits, getCollator(), item -> item.getName().toLowerCase(), ascending);
   }
 
   public static void sortShoppingListItemsByName(
@@ -438,48 +379,25 @@ public class SortUtil {
     if (shoppingListItems == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
+    Collator collator = getCollator();
     ArrayList<ShoppingListItem> itemsWithoutProduct = new ArrayList<>();
+    ArrayList<ShoppingListItem> itemsWithProduct = new ArrayList<>();
     for (ShoppingListItem shoppingListItem : shoppingListItems) {
       if (!shoppingListItem.hasProduct()) {
         itemsWithoutProduct.add(shoppingListItem);
+      } else {
+        itemsWithProduct.add(shoppingListItem);
       }
     }
-    Collections.sort(
-        itemsWithoutProduct,
-        (item1, item2) -> {
-          String noteA = (ascending ? item1 : item2).getNote();
-          String noteB = (ascending ? item2 : item1).getNote();
-          if (noteA != null && noteB != null) {
-            return Collator.getInstance(locale).compare(noteA, noteB);
-          } else if (noteA == null && noteB != null) {
-            return -1;
-          } else if (noteA != null) {
-            return 1;
-          } else {
-            return 0;
-          }
-        }
-    );
-    shoppingListItems.removeAll(itemsWithoutProduct);
-    Collections.sort(
-        shoppingListItems,
-        (item1, item2) -> {
-          String nameA = productNamesHashMap.get((ascending ? item1 : item2)
-              .getProductIdInt());
-          String nameB = productNamesHashMap.get((ascending ? item2 : item1)
-              .getProductIdInt());
-          if (nameA != null && nameB != null) {
-            return Collator.getInstance(locale).compare(nameA, nameB);
-          } else if (nameA == null && nameB != null) {
-            return -1;
-          } else if (nameA != null) {
-            return 1;
-          } else {
-            return 0;
-          }
-        }
+    sortByText(itemsWithoutProduct, collator, ShoppingListItem::getNote, ascending);
+    sortByText(
+        itemsWithProduct,
+        collator,
+        item -> productNamesHashMap.get(item.getProductIdInt()),
+        ascending
     );
+    shoppingListItems.clear();
+    shoppingListItems.addAll(itemsWithProduct);
     shoppingListItems.addAll(itemsWithoutProduct);
   }
 
@@ -487,11 +405,7 @@ public class SortUtil {
     if (users == null || users.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(users, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getUserName().toLowerCase(),
-        (ascending ? item2 : item1).getUserName().toLowerCase()
-    ));
+    sortByText(users, getCollator(), item -> item.getUserName().toLowerCase(), ascending);
   }
 
   public static void sortMealPlanSections(List<MealPlanSection> mealPlanSections) {
@@ -534,40 +448,46 @@ public class SortUtil {
     if (recipes == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(recipes, (item1, item2) -> Collator.getInstance(locale).compare(
-            (ascending ? item1 : item2).getName().toLowerCase(),
-            (ascending ? item2 : item1).getName().toLowerCase()));
+    sortByText(recipes, getCollator(), item -> item.getName().toLowerCase(), ascending);
   }
 
   public static void sortRecipesByCalories(List<Recipe> recipes, List<RecipeFulfillment> recipeFulfillments, boolean ascending) {
     if (recipes == null || recipeFulfillments == null) {
       return;
     }
-    Collections.sort(recipes, (recipe1, recipe2) -> {
-      RecipeFulfillment recipeFulfillment1 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe1.getId());
-      RecipeFulfillment recipeFulfillment2 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe2.getId());
-
-      double recipe1Calories = recipeFulfillment1 != null ? recipeFulfillment1.getCalories() : 0;
-      double recipe2Calories = recipeFulfillment2 != null ? recipeFulfillment2.getCalories() : 0;
-
-      return (int)(ascending ? recipe1Calories : recipe2Calories) - (int)(ascending ? recipe2Calories : recipe1Calories);
-    });
+    HashMap<Integer, RecipeFulfillment> fulfillmentHashMap = getFulfillmentHashMap(
+        recipeFulfillments
+    );
+    sortByNumber(recipes, recipe -> {
+      RecipeFulfillment recipeFulfillment = fulfillmentHashMap.get(recipe.getId());
+      return recipeFulfillment != null ? (int) recipeFulfillment.getCalories() : 0;
+    }, ascending);
   }
 
   public static void sortRecipesByDueScore(List<Recipe> recipes, List<RecipeFulfillment> recipeFulfillments, boolean ascending) {
     if (recipes == null || recipeFulfillments == null) {
       return;
     }
-    Collections.sort(recipes, (recipe1, recipe2) -> {
-      RecipeFulfillment recipeFulfillment1 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe1.getId());
-      RecipeFulfillment recipeFulfillment2 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe2.getId());
-
-      int recipe1DueScore = recipeFulfillment1 != null ? recipeFulfillment1.getDueScore() : 0;
-      int recipe2DueScore = recipeFulfillment2 != null ? recipeFulfillment2.getDueScore() : 0;
+    HashMap<Integer, RecipeFulfillment> fulfillmentHashMap = getFulfillmentHashMap(
+        recipeFulfillments
+    );
+    sortByNumber(recipes, recipe -> {
+      RecipeFulfillment recipeFulfillment = fulfillmentHashMap.get(recipe.getId());
+      return recipeFulfillment != null ? recipeFulfillment.getDueScore() : 0;
+    }, ascending);
+  }
 
-      return (ascending ? recipe1DueScore : recipe2DueScore) - (ascending ? recipe2DueScore : recipe1DueScore);
-    });
+  private static HashMap<Integer, RecipeFulfillment> getFulfillmentHashMap(
+      List<RecipeFulfillment> recipeFulfillments
+  ) {
+    HashMap<Integer, RecipeFulfillment> fulfillmentHashMap = new HashMap<>();
+    for (RecipeFulfillment recipeFulfillment : recipeFulfillments) {
+      // keep the first fulfillment of a recipe like getRecipeFulfillmentFromRecipeId does
+      if (!fulfillmentHashMap.containsKey(recipeFulfillment.getRecipeId())) {
+        fulfillmentHashMap.put(recipeFulfillment.getRecipeId(), recipeFulfillment);
+      }
+    }
+    return fulfillmentHashMap;
   }
 
   public static void sortRecipesByUserfieldValue(
@@ -578,16 +498,7 @@ public class SortUtil {
     if (recipes == null) {
       return;
     }
-    Collections.sort(
-        recipes,
-        (item1, item2) -> {
-          Map<String, String> userfieldMap1 = (ascending ? item1 : item2).getUserfields();
-          Map<String, String> userfieldMap2 = (ascending ? item2 : item1).getUserfields();
-          String value1 = userfieldMap1 != null ? userfieldMap1.get(userfield.getName()) : null;
-          String value2 = userfieldMap2 != null ? userfieldMap2.get(userfield.getName()) : null;
-          return compareUserfieldValues(value1, value2, userfield.getType());
-        }
-    );
+    sortByUserfieldValue(recipes, Recipe::getUserfields, userfield, ascending);
   }
 
   public static void sortObjectsByName(ArrayList<Object> objects, String entity, boolean isAscending) {
@@ -595,17 +506,10 @@ public class SortUtil {
       return;
     }
     Locale locale = LocaleUtil.getLocale();
-    Collections.sort(objects, (item1, item2) -> {
-      String name1 = ObjectUtil.getObjectName(isAscending ? item1 : item2, entity);
-      String name2 = ObjectUtil.getObjectName(isAscending ? item2 : item1, entity);
-      if (name1 == null || name2 == null) {
-        return 0;
-      }
-      return Collator.getInstance(locale).compare(
-          name1.toLowerCase(locale),
-          name2.toLowerCase(locale)
-      );
-    });
+    sortByText(objects, Collator.getInstance(locale), item -> {
+      String name = ObjectUtil.getObjectName(item, entity);
+      return name != null ? name.toLowerCase(locale) : null;
+    }, isAscending);
   }
 
   public static void sortObjectsByCreatedTimestamp(
@@ -616,18 +520,9 @@ public class SortUtil {
     if (objects == null) {
       return;
     }
-    Collections.sort(objects, (item1, item2) -> {
-      String ts1 = ObjectUtil.getObjectCreatedTimestamp(isAscending ? item1 : item2, entity);
-      String ts2 = ObjectUtil.getObjectCreatedTimestamp(isAscending ? item2 : item1, entity);
-      if (ts1 == null && ts2 == null) {
-        return 0;
-      } else if (ts1 == null) {
-        return -1;
-      } else if (ts2 == null) {
-        return 1;
-      }
-      return DateUtil.getDate(ts1).compareTo(DateUtil.getDate(ts2));
-    });
+    sortByDate(
+        objects, item -> ObjectUtil.getObjectCreatedTimestamp(item, entity), isAscending
+    );
   }
 
   public static void sortObjectsByUserfieldValue(
@@ -639,12 +534,8 @@ public class SortUtil {
     if (objects == null || userfield == null) {
       return;
     }
-    Collections.sort(objects, (item1, item2) -> {
-      Map<String, String> uf1 = ObjectUtil.getObjectUserfields(isAscending ? item1 : item2, entity);
-      Map<String, String> uf2 = ObjectUtil.getObjectUserfields(isAscending ? item2 : item1, entity);
-      String value1 = uf1 != null ? uf1.get(userfield.getName()) : null;
-      String value2 = uf2 != null ? uf2.get(userfield.getName()) : null;
-      return compareUserfieldValues(value1, value2, userfield.getType());
-    });
+    sortByUserfieldValue(
+        objects, item -> ObjectUtil.getObjectUserfields(item, entity), userfield, isAscending
+    );
   }
 }
@@ -41,4 +41,21 @@ public class TextUtil {
       return null;
     }
   }
+
+  /**
+   * Pattern for an SQL LIKE which matches the text anywhere, use it with ESCAPE '\'.
+   */
+  public static String getSqlLikePattern(String text) {
+    return "%" + escapeSqlLike(text) + "%";
+  }
+
+  /**
+   * Escapes the wildcards of an SQL LIKE so the text only matches literally, use it with
+   * ESCAPE '\'.
+   */
+  public static String escapeSqlLike(String text) {
+    return text.replace("\\", "\\\\")
+        .replace("%", "\\%")
+        .replace("_", "\\_");
+  }
 }
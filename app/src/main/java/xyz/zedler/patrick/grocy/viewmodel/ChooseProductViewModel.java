@@ -29,8 +29,6 @@ import androidx.preference.PreferenceManager;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.BoundExtractedResult;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.model.Event;
@@ -38,17 +36,21 @@ import xyz.zedler.patrick.grocy.model.OpenBeautyFactsProduct;
 import xyz.zedler.patrick.grocy.model.OpenFoodFactsProduct;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductSearch;
 import xyz.zedler.patrick.grocy.repository.ChooseProductRepository;
+import xyz.zedler.patrick.grocy.repository.ProductSearchRepository;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
 
 public class ChooseProductViewModel extends BaseViewModel {
 
   private static final String TAG = ChooseProductViewModel.class.getSimpleName();
+  private static final int MAX_SUGGESTIONS = 20;
 
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
   private final ChooseProductRepository repository;
+  private final ProductSearchRepository productSearchRepository;
 
   private final MutableLiveData<Boolean> displayHelpLive;
   private final MutableLiveData<Boolean> isLoadingLive;
@@ -65,8 +67,10 @@ public class ChooseProductViewModel extends BaseViewModel {
   private final String barcode;
   private List<Product> products;
   private final HashMap<String, Product> productHashMap;
+  private final HashMap<Integer, Product> productIdHashMap;
   private List<PendingProduct> pendingProducts;
   private final HashMap<String, PendingProduct> pendingProductHashMap;
+  private final HashMap<Integer, PendingProduct> pendingProductIdHashMap;
   private final boolean forbidCreateProductInitial;
   private final boolean pendingProductsActive;
   private String nameFromOnlineSource;
@@ -87,6 +91,7 @@ public class ChooseProductViewModel extends BaseViewModel {
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, null);
     repository = new ChooseProductRepository(application);
+    productSearchRepository = new ProductSearchRepository(application);
 
     displayedItemsLive = new MutableLiveData<>();
     productNameLive = new MutableLiveData<>();
@@ -109,20 +114,26 @@ public class ChooseProductViewModel extends BaseViewModel {
     this.barcode = barcode;
     products = new ArrayList<>();
     productHashMap = new HashMap<>();
+    productIdHashMap = new HashMap<>();
     pendingProductHashMap = new HashMap<>();
+    pendingProductIdHashMap = new HashMap<>();
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
     repository.loadFromDatabase(data -> {
       this.products = data.getProducts();
       productHashMap.clear();
+      productIdHashMap.clear();
       for (Product product : products) {
         productHashMap.put(product.getName().toLowerCase(), product);
+        productIdHashMap.put(product.getId(), product);
       }
       this.pendingProducts = data.getPendingProducts();
       pendingProductHashMap.clear();
+      pendingProductIdHashMap.clear();
       for (PendingProduct pendingProduct : this.pendingProducts) {
         pendingProductHashMap.put(pendingProduct.getName().toLowerCase(), pendingProduct);
+        pendingProductIdHashMap.put(pendingProduct.getId(), pendingProduct);
       }
       displayItems();
       if (downloadAfterLoading) {
@@ -153,6 +164,7 @@ public class ChooseProductViewModel extends BaseViewModel {
     String productName = productNameLive.getValue();
 
     if (productName == null || productName.isEmpty()) {
+      productSearchRepository.cancelSearch();
       SortUtil.sortProductsByName(products, true);
       displayedItemsLive.setValue(products);
       createProductTextLive.setValue(getString(R.string.msg_create_new_product));
@@ -170,21 +182,16 @@ public class ChooseProductViewModel extends BaseViewModel {
       productNameErrorLive.setValue(null);
     }
 
-    ArrayList<Product> allProducts = new ArrayList<>();
-    allProducts.addAll(products);
-    allProducts.addAll(pendingProducts);
-    ArrayList<Product> suggestions = new ArrayList<>(allProducts.size());
-    List<BoundExtractedResult<Product>> results = FuzzySearch.extractSorted(
-            productName.toLowerCase(),
-            allProducts,
-            Product::getName,
-            20
-    );
-    for (BoundExtractedResult<Product> result : results) {
-      suggestions.add(result.getReferent());
-    }
-
-    displayedItemsLive.setValue(suggestions);
+    productSearchRepository.search(productName, MAX_SUGGESTIONS, (search, results) -> {
+      ArrayList<Product> suggestions = new ArrayList<>(results.size());
+      for (ProductSearch result : results) {
+        Product product = result.isPending()
+            ? pendingProductIdHashMap.get(result.getProductId())
+            : productIdHashMap.get(result.getProductId());
+        if (product != null) suggestions.add(product);
+      }
+      displayedItemsLive.setValue(suggestions);
+    });
     createProductTextLive.setValue(
         getApplication().getString(R.string.msg_create_new_product_filled, productName)
     );
@@ -319,6 +326,7 @@ public class ChooseProductViewModel extends BaseViewModel {
   @Override
   protected void onCleared() {
     dlHelper.destroy();
+    productSearchRepository.cancelSearch();
     super.onCleared();
   }
 
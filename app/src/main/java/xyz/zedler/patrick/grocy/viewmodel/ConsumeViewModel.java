@@ -51,8 +51,10 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuickModeConfirmBotto
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StockEntriesBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StockLocationsBottomSheet;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.MutationOutbox;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
+import xyz.zedler.patrick.grocy.model.PendingMutation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductDetails;
@@ -409,11 +411,15 @@ public class ConsumeViewModel extends BaseViewModel {
     assert formData.getProductDetailsLive().getValue() != null;
     Product product = formData.getProductDetailsLive().getValue().getProduct();
     JSONObject body = formData.getFilledJSONObject(isActionOpen);
-    dlHelper.postWithArray(
+    MutationOutbox.getInstance(getApplication()).postStockAction(
+        dlHelper,
+        isActionOpen ? PendingMutation.TYPE_OPEN : PendingMutation.TYPE_CONSUME,
         isActionOpen
             ? grocyApi.openProduct(product.getId())
             : grocyApi.consumeProduct(product.getId()),
         body,
+        product.getId(),
+        product.getName(),
         response -> {
           // UNDO OPTION
           String transactionId = null;
@@ -451,6 +457,10 @@ public class ConsumeViewModel extends BaseViewModel {
           showSnackbar(snackbarMessage);
           sendEvent(Event.CONSUME_SUCCESS);
         },
+        () -> {
+          showSnackbar(new SnackbarMessage(getString(R.string.msg_stored_offline)));
+          sendEvent(Event.CONSUME_SUCCESS);
+        },
         error -> {
           showNetworkErrorMessage(error);
           if (debug) {
@@ -51,9 +51,11 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuickModeConfirmBotto
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StoresBottomSheet;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectResponseListener;
+import xyz.zedler.patrick.grocy.helper.MutationOutbox;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Location;
+import xyz.zedler.patrick.grocy.model.PendingMutation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductDetails;
@@ -372,9 +374,13 @@ public class InventoryViewModel extends BaseViewModel {
 
     Product product = formData.getProductDetailsLive().getValue().getProduct();
     JSONObject body = formData.getFilledJSONObject();
-    dlHelper.postWithArray(
+    MutationOutbox.getInstance(getApplication()).postStockAction(
+        dlHelper,
+        PendingMutation.TYPE_INVENTORY,
         grocyApi.inventoryProduct(product.getId()),
         body,
+        product.getId(),
+        product.getName(),
         response -> {
           // UNDO OPTION
           String transactionId = null;
@@ -408,6 +414,10 @@ public class InventoryViewModel extends BaseViewModel {
           showSnackbar(snackbarMessage);
           sendEvent(Event.TRANSACTION_SUCCESS);
         },
+        () -> {
+          showSnackbar(new SnackbarMessage(getString(R.string.msg_stored_offline)));
+          sendEvent(Event.TRANSACTION_SUCCESS);
+        },
         error -> {
           showNetworkErrorMessage(error);
             if (debug) {
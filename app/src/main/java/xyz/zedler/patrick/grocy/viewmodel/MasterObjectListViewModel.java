@@ -24,15 +24,22 @@ import android.content.SharedPreferences;
 import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelKt;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import androidx.preference.PreferenceManager;
+import androidx.sqlite.db.SupportSQLiteQuery;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.BoundExtractedResult;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
@@ -49,12 +56,15 @@ import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
+import xyz.zedler.patrick.grocy.model.ProductSearch;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.repository.MasterObjectListRepository;
+import xyz.zedler.patrick.grocy.repository.ProductSearchRepository;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.FuzzyMatcher;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.ObjectUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
@@ -66,18 +76,25 @@ public class MasterObjectListViewModel extends BaseViewModel {
   public final static String SORT_NAME = "sort_name";
   public final static String SORT_CREATED_TIMESTAMP = "sort_created_timestamp";
 
+  private final static int PAGE_SIZE = 50;
+  private final static int MAX_FUZZY_RESULTS = 200;
+
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
   private final MasterObjectListRepository repository;
+  private final ProductSearchRepository productSearchRepository;
 
   private final MutableLiveData<Boolean> isLoadingLive;
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
-  private final MutableLiveData<ArrayList<Object>> displayedItemsLive;
+  private final MediatorLiveData<PagingData<Object>> displayedItemsLive;
+  private final MutableLiveData<Boolean> containsPicturesLive;
+  private LiveData<PagingData<Product>> productsPagedLive;
   private final FilterChipLiveDataProductGroup filterChipLiveDataProductGroup;
   private final FilterChipLiveDataSort filterChipLiveDataSort;
 
   private List<?> objects;
+  private boolean productsInMemory;
   private List<QuantityUnit> quantityUnits;
   private List<Location> locations;
   private HashMap<String, Userfield> userfieldHashMap = new HashMap<>();
@@ -95,9 +112,11 @@ public class MasterObjectListViewModel extends BaseViewModel {
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
     grocyApi = new GrocyApi(getApplication());
     repository = new MasterObjectListRepository(application);
+    productSearchRepository = new ProductSearchRepository(application);
 
     infoFullscreenLive = new MutableLiveData<>();
-    displayedItemsLive = new MutableLiveData<>();
+    displayedItemsLive = new MediatorLiveData<>();
+    containsPicturesLive = new MutableLiveData<>(false);
     filterChipLiveDataProductGroup = new FilterChipLiveDataProductGroup(
         getApplication(),
         this::updateItemsWithTopScroll
@@ -116,10 +135,12 @@ public class MasterObjectListViewModel extends BaseViewModel {
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
+    boolean includeProducts = entity.equals(ENTITY.PRODUCTS) && isUserfieldSort();
+    repository.loadFromDatabase(includeProducts, data -> {
       switch (entity) {
         case ENTITY.PRODUCTS:
           this.objects = data.getProducts();
+          productsInMemory = includeProducts;
           filterChipLiveDataProductGroup.setProductGroups(data.getProductGroups());
           this.quantityUnits = data.getQuantityUnits();
           this.locations = data.getLocations();
@@ -171,26 +192,26 @@ public class MasterObjectListViewModel extends BaseViewModel {
   }
 
   public void displayItems() {
+    if (entity.equals(ENTITY.PRODUCTS) && !isUserfieldSort()) {
+      displayProductsPaged();
+      return;
+    }
+    if (entity.equals(ENTITY.PRODUCTS) && !productsInMemory) {
+      // products are only held in memory for sorting by userfield values
+      loadFromDatabase(false);
+      return;
+    }
+
     // search items
     ArrayList<Object> searchedItems;
     if (search != null && !search.isEmpty()) {
 
-      ArrayList<Object> searchResultsFuzzy = new ArrayList<>(objects.size());
-      List results = FuzzySearch.extractSorted(
-          search,
-          objects,
-          item -> {
-            String name = ObjectUtil.getObjectName(item, entity);
-            return name != null ? name.toLowerCase() : "";
-          },
-          70
-      );
-      for (Object result : results) {
-        searchResultsFuzzy.add(((BoundExtractedResult<?>) result).getReferent());
-      }
+      List<?> searchResultsFuzzy = new FuzzyMatcher<>(
+          objects, item -> ObjectUtil.getObjectName(item, entity)
+      ).match(search, FuzzyMatcher.DEFAULT_MIN_SCORE, objects.size());
 
       searchedItems = new ArrayList<>();
-      ArrayList<Integer> objectIdsInList = new ArrayList<>();
+      HashSet<Integer> objectIdsInList = new HashSet<>();
       for (Object object : objects) {
         String name = ObjectUtil.getObjectName(object, entity);
         name = name != null ? name.toLowerCase() : "";
@@ -230,7 +251,74 @@ public class MasterObjectListViewModel extends BaseViewModel {
       filteredItems = searchedItems;
     }
 
-    displayedItemsLive.setValue(filteredItems);
+    boolean containsPictures = false;
+    for (Object object : filteredItems) {
+      if (!(object instanceof Product)) continue;
+      String pictureFileName = ((Product) object).getPictureFileName();
+      if (pictureFileName != null && !pictureFileName.isEmpty()) {
+        containsPictures = true;
+        break;
+      }
+    }
+    containsPicturesLive.setValue(containsPictures);
+    setDisplayedItemsSource(null);
+    displayedItemsLive.setValue(PagingData.from(filteredItems));
+  }
+
+  private void displayProductsPaged() {
+    if (search == null || search.isEmpty()) {
+      productSearchRepository.cancelSearch();
+      displayProductsPaged(new ArrayList<>());
+      return;
+    }
+    // products with typos are matched in the background, stale searches are cancelled
+    String search = this.search;
+    productSearchRepository.searchFuzzy(search, MAX_FUZZY_RESULTS, (input, results) -> {
+      if (!search.equals(this.search)) return;
+      List<Integer> fuzzyProductIds = new ArrayList<>();
+      for (ProductSearch result : results) {
+        if (!result.isPending()) fuzzyProductIds.add(result.getProductId());
+      }
+      displayProductsPaged(fuzzyProductIds);
+    });
+  }
+
+  private void displayProductsPaged(List<Integer> fuzzyProductIds) {
+    SupportSQLiteQuery query = MasterObjectListRepository.getProductsQuery(
+        filterChipLiveDataProductGroup.isActive()
+            ? filterChipLiveDataProductGroup.getSelectedId() : null,
+        search,
+        fuzzyProductIds,
+        filterChipLiveDataSort.getSortMode(),
+        filterChipLiveDataSort.isSortAscending()
+    );
+    Pager<Integer, Product> pager = new Pager<>(
+        new PagingConfig(PAGE_SIZE, PAGE_SIZE, false),
+        () -> repository.getProductsPagingSource(query)
+    );
+    repository.hasProductPictures(containsPicturesLive::setValue);
+    setDisplayedItemsSource(PagingLiveData.cachedIn(
+        PagingLiveData.getLiveData(pager),
+        ViewModelKt.getViewModelScope(this)
+    ));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void setDisplayedItemsSource(@Nullable LiveData<PagingData<Product>> source) {
+    if (productsPagedLive != null) {
+      displayedItemsLive.removeSource(productsPagedLive);
+    }
+    productsPagedLive = source;
+    if (source != null) {
+      displayedItemsLive.addSource(
+          source,
+          pagingData -> displayedItemsLive.setValue((PagingData<Object>) (PagingData<?>) pagingData)
+      );
+    }
+  }
+
+  private boolean isUserfieldSort() {
+    return filterChipLiveDataSort.getSortMode().startsWith(Userfield.NAME_PREFIX);
   }
 
   private void updateItemsWithTopScroll() {
@@ -283,6 +371,11 @@ public class MasterObjectListViewModel extends BaseViewModel {
     displayItems();
   }
 
+  @NonNull
+  public MutableLiveData<Boolean> getContainsPicturesLive() {
+    return containsPicturesLive;
+  }
+
   public void deleteSearch() {
     search = null;
   }
@@ -296,7 +389,7 @@ public class MasterObjectListViewModel extends BaseViewModel {
   }
 
   @NonNull
-  public MutableLiveData<ArrayList<Object>> getDisplayedItemsLive() {
+  public LiveData<PagingData<Object>> getDisplayedItemsLive() {
     return displayedItemsLive;
   }
 
@@ -320,6 +413,7 @@ public class MasterObjectListViewModel extends BaseViewModel {
   @Override
   protected void onCleared() {
     dlHelper.destroy();
+    productSearchRepository.cancelSearch();
     super.onCleared();
   }
 
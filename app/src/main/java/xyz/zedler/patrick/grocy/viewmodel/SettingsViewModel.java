@@ -45,6 +45,7 @@ import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
+import xyz.zedler.patrick.grocy.database.DatabaseProfiles;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.BarcodeFormatsBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.CompatibilityBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.InputBottomSheet;
@@ -60,7 +61,6 @@ import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
-import xyz.zedler.patrick.grocy.repository.MainRepository;
 import xyz.zedler.patrick.grocy.util.ConfigUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
@@ -75,12 +75,12 @@ public class SettingsViewModel extends BaseViewModel {
 
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
-  private final MainRepository repository;
   private final ReminderUtil reminderUtil;
 
   private MutableLiveData<Boolean> isLoadingLive;
   private final MutableLiveData<Boolean> getExternalScannerEnabledLive;
   private final MutableLiveData<Boolean> needsRestartLive;
+  private final MutableLiveData<Boolean> okHttpEnabledLive;
   private final MutableLiveData<Boolean> torEnabledLive;
   private final MutableLiveData<Boolean> proxyEnabledLive;
   private final MutableLiveData<String> shoppingModeUpdateIntervalTextLive;
@@ -111,11 +111,11 @@ public class SettingsViewModel extends BaseViewModel {
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
     grocyApi = new GrocyApi(getApplication());
-    repository = new MainRepository(getApplication());
     reminderUtil = new ReminderUtil(getApplication());
 
     getExternalScannerEnabledLive = new MutableLiveData<>(getExternalScannerEnabled());
     needsRestartLive = new MutableLiveData<>(false);
+    okHttpEnabledLive = new MutableLiveData<>(getOkHttpEnabled());
     torEnabledLive = new MutableLiveData<>(getTorEnabled());
     proxyEnabledLive = new MutableLiveData<>(getProxyEnabled());
     shoppingModeUpdateIntervalTextLive = new MutableLiveData<>(getShoppingModeUpdateIntervalText());
@@ -905,6 +905,19 @@ public class SettingsViewModel extends BaseViewModel {
     return needsRestartLive;
   }
 
+  public MutableLiveData<Boolean> getOkHttpEnabledLive() {
+    return okHttpEnabledLive;
+  }
+
+  public boolean getOkHttpEnabled() {
+    return sharedPrefs.getBoolean(NETWORK.OKHTTP, SETTINGS_DEFAULT.NETWORK.OKHTTP);
+  }
+
+  public void setOkHttpEnabled(boolean enabled) {
+    if (enabled != getOkHttpEnabled()) needsRestartLive.setValue(true);
+    sharedPrefs.edit().putBoolean(NETWORK.OKHTTP, enabled).apply();
+  }
+
   public MutableLiveData<Boolean> getTorEnabledLive() {
     return torEnabledLive;
   }
@@ -1085,8 +1098,9 @@ public class SettingsViewModel extends BaseViewModel {
     return sharedPrefs.getBoolean(pref, true);
   }
 
-  public void clearAllTables() {
-    repository.clearAllTables();
+  // deletes the database of this server and its sync state, must be followed by a restart
+  public void removeServerData() {
+    DatabaseProfiles.removeActiveDatabase(sharedPrefs);
   }
 
   public void clearServerRelatedSharedPreferences() {
@@ -20,18 +20,25 @@
 package xyz.zedler.patrick.grocy.viewmodel;
 
 import android.app.Application;
+import android.content.Context;
 import android.content.SharedPreferences;
 import android.text.Html;
 import android.text.Spanned;
+import android.text.SpannedString;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.MutableLiveData;
 import androidx.preference.PreferenceManager;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
+import io.reactivex.rxjava3.disposables.Disposable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
@@ -47,6 +54,8 @@ import xyz.zedler.patrick.grocy.model.FilterChipLiveDataFields;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataFields.Field;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingShoppingList;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStatusShoppingList;
+import xyz.zedler.patrick.grocy.model.GroupHeader;
+import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.MissingItem;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -55,14 +64,21 @@ import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
+import xyz.zedler.patrick.grocy.model.ShoppingListBottomNotes;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem.ShoppingListItemWithSync;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.repository.ShoppingListRepository;
+import xyz.zedler.patrick.grocy.repository.ShoppingListRepository.ShoppingListData;
 import xyz.zedler.patrick.grocy.util.AmountUtil;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.FacetIndex;
+import xyz.zedler.patrick.grocy.util.GroupingCache;
+import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.SortUtil;
+import xyz.zedler.patrick.grocy.util.TextUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue;
 
@@ -70,6 +86,8 @@ public class ShoppingListViewModel extends BaseViewModel {
 
   private static final String TAG = ShoppingListViewModel.class.getSimpleName();
   private static final int DEFAULT_SHOPPING_LIST_ID = 1;
+  private static final String FACET_SHOPPING_LIST = "shopping_list";
+  private static final String FACET_STATUS = "status";
 
   public final static String FIELD_AMOUNT = "field_amount";
   public final static String FIELD_PRICE_LAST_UNIT = "field_price_last_unit";
@@ -86,11 +104,13 @@ public class ShoppingListViewModel extends BaseViewModel {
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
   private final MutableLiveData<Integer> selectedShoppingListIdLive;
   private final MutableLiveData<ArrayList<ShoppingListItem>> filteredShoppingListItemsLive;
+  private final MutableLiveData<ArrayList<GroupedListItem>> groupedListItemsLive;
   private final FilterChipLiveDataStatusShoppingList filterChipLiveDataStatus;
   private final FilterChipLiveDataGroupingShoppingList filterChipLiveDataGrouping;
   private final FilterChipLiveDataFields filterChipLiveDataFields;
 
   private List<ShoppingListItem> shoppingListItems;
+  private FacetIndex<ShoppingListItem> shoppingListItemIndex;
   private List<ShoppingList> shoppingLists;
   private HashMap<Integer, ProductGroup> productGroupHashMap;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
@@ -101,10 +121,16 @@ public class ShoppingListViewModel extends BaseViewModel {
   private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
   private HashMap<Integer, Store> storeHashMap;
   private ArrayList<Integer> missingProductIds;
+  private final GroupingCache<ShoppingListItem> groupingCache;
+  private Disposable databaseObserver;
+  private ShoppingListData data;
+  private boolean downloadAfterFirstLoad;
+  private boolean isSyncing;
 
   private String searchInput;
   private final boolean debug;
   private final int maxDecimalPlacesAmount;
+  private final int decimalPlacesPriceDisplay;
 
 
   public ShoppingListViewModel(@NonNull Application application) {
@@ -116,6 +142,10 @@ public class ShoppingListViewModel extends BaseViewModel {
         STOCK.DECIMAL_PLACES_AMOUNT,
         SETTINGS_DEFAULT.STOCK.DECIMAL_PLACES_AMOUNT
     );
+    decimalPlacesPriceDisplay = sharedPrefs.getInt(
+        STOCK.DECIMAL_PLACES_PRICES_DISPLAY,
+        SETTINGS_DEFAULT.STOCK.DECIMAL_PLACES_PRICES_DISPLAY
+    );
 
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
@@ -125,6 +155,8 @@ public class ShoppingListViewModel extends BaseViewModel {
     infoFullscreenLive = new MutableLiveData<>();
     selectedShoppingListIdLive = new MutableLiveData<>(1);
     filteredShoppingListItemsLive = new MutableLiveData<>();
+    groupedListItemsLive = new MutableLiveData<>();
+    groupingCache = new GroupingCache<>();
     filterChipLiveDataStatus = new FilterChipLiveDataStatusShoppingList(
         getApplication(),
         this::updateFilteredShoppingListItemsWithTopScroll
@@ -159,26 +191,89 @@ public class ShoppingListViewModel extends BaseViewModel {
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
-      this.shoppingListItems = data.getShoppingListItems();
-      this.shoppingLists = data.getShoppingLists();
+    if (databaseObserver != null) {
+      if (downloadAfterLoading) {
+        downloadData(false, false);
+      }
+      return;
+    }
+    downloadAfterFirstLoad = downloadAfterLoading;
+    databaseObserver = repository.observeShoppingList(this::onDatabaseChanged, error -> {
+      databaseObserver = null;
+      onError(error, TAG);
+    });
+  }
+
+  // rebuilds only the maps which depend on a query result that changed
+  private void onDatabaseChanged(ShoppingListData data) {
+    ShoppingListData prev = this.data;
+    this.data = data;
+    boolean itemsChanged = prev == null
+        || data.getShoppingListItems() != prev.getShoppingListItems();
+    boolean productsChanged = prev == null || data.getProducts() != prev.getProducts();
+    boolean unitsChanged = prev == null || data.getQuantityUnits() != prev.getQuantityUnits();
+    boolean conversionsChanged = prev == null
+        || data.getUnitConversionsResolved() != prev.getUnitConversionsResolved();
+    boolean missingItemsChanged = prev == null
+        || data.getMissingItems() != prev.getMissingItems();
+
+    shoppingListItems = data.getShoppingListItems();
+    shoppingLists = data.getShoppingLists();
+    unitConversions = data.getUnitConversionsResolved();
+    if (prev == null || data.getProductGroups() != prev.getProductGroups()) {
       productGroupHashMap = ArrayUtil.getProductGroupsHashMap(data.getProductGroups());
+    }
+    if (unitsChanged) {
       quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
-      unitConversions = data.getUnitConversionsResolved();
+    }
+    if (prev == null || data.getStores() != prev.getStores()) {
       storeHashMap = ArrayUtil.getStoresHashMap(data.getStores());
+    }
+    if (missingItemsChanged) {
       missingProductIds = ArrayUtil.getMissingProductsIds(data.getMissingItems());
+    }
+    if (productsChanged) {
       productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
       productNamesHashMap = ArrayUtil.getProductNamesHashMap(data.getProducts());
+    }
+    if (prev == null || data.getProductsLastPurchased() != prev.getProductsLastPurchased()) {
       productLastPurchasedHashMap = ArrayUtil
           .getProductLastPurchasedHashMap(data.getProductsLastPurchased());
+    }
+    if (itemsChanged || productsChanged || unitsChanged || conversionsChanged) {
       fillShoppingListItemAmountsHashMap();
-      updateFilteredShoppingListItems();
-      if (downloadAfterLoading) {
-        downloadData(false, false);
-      } else {
-        syncShoppingListItems();
+    }
+    if (itemsChanged || missingItemsChanged) {
+      shoppingListItemIndex = getShoppingListItemIndex(shoppingListItems, missingProductIds);
+    }
+    updateFilteredShoppingListItems();
+
+    if (downloadAfterFirstLoad) {
+      downloadAfterFirstLoad = false;
+      downloadData(false, false);
+    } else if (itemsChanged) {
+      // done states which were toggled offline are sent when they are stored
+      syncShoppingListItems();
+    }
+  }
+
+  private static FacetIndex<ShoppingListItem> getShoppingListItemIndex(
+      List<ShoppingListItem> shoppingListItems,
+      List<Integer> missingProductIds
+  ) {
+    HashSet<Integer> missingProductIdsSet = new HashSet<>(missingProductIds);
+    FacetIndex<ShoppingListItem> index = new FacetIndex<>(shoppingListItems);
+    for (int i = 0; i < shoppingListItems.size(); i++) {
+      ShoppingListItem item = shoppingListItems.get(i);
+      index.add(FACET_SHOPPING_LIST, item.getShoppingListIdInt(), i);
+      if (item.hasProduct() && missingProductIdsSet.contains(item.getProductIdInt())) {
+        index.add(FACET_STATUS, FilterChipLiveDataStatusShoppingList.STATUS_BELOW_MIN, i);
       }
-    }, error -> onError(error, TAG));
+      index.add(FACET_STATUS, item.isUndone()
+          ? FilterChipLiveDataStatusShoppingList.STATUS_UNDONE
+          : FilterChipLiveDataStatusShoppingList.STATUS_DONE, i);
+    }
+    return index;
   }
 
   public void updateFilteredShoppingListItems() {
@@ -186,26 +281,25 @@ public class ShoppingListViewModel extends BaseViewModel {
       return;
     }
 
-    ArrayList<ShoppingListItem> filteredShoppingListItems = new ArrayList<>();
-    int itemsMissingCount = 0;
-    int itemsUndoneCount = 0;
-    int itemsDoneCount = 0;
-
-    for (ShoppingListItem item : this.shoppingListItems) {
-      if (item.getShoppingListIdInt() != getSelectedShoppingListId()) {
-        continue;
-      }
-      if (item.hasProduct() && missingProductIds.contains(item.getProductIdInt())) {
-        itemsMissingCount++;
-      }
-      if (item.isUndone()) {
-        itemsUndoneCount++;
-      } else {
-        itemsDoneCount++;
-      }
+    FacetIndex<ShoppingListItem> index = shoppingListItemIndex;
+    BitSet selection = index.select(FACET_SHOPPING_LIST, getSelectedShoppingListId());
+    int itemsMissingCount = index.count(
+        selection, FACET_STATUS, FilterChipLiveDataStatusShoppingList.STATUS_BELOW_MIN
+    );
+    int itemsUndoneCount = index.count(
+        selection, FACET_STATUS, FilterChipLiveDataStatusShoppingList.STATUS_UNDONE
+    );
+    int itemsDoneCount = index.count(
+        selection, FACET_STATUS, FilterChipLiveDataStatusShoppingList.STATUS_DONE
+    );
+    int status = filterChipLiveDataStatus.getStatus();
+    if (status != FilterChipLiveDataStatusShoppingList.STATUS_ALL) {
+      index.and(selection, FACET_STATUS, status);
+    }
 
-      boolean searchContainsItem = true;
-      if (searchInput != null && !searchInput.isEmpty()) {
+    if (searchInput != null && !searchInput.isEmpty()) {
+      for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+        ShoppingListItem item = shoppingListItems.get(i);
         String name;
         if (item.hasProduct()) {
           Product product = productHashMap.get(item.getProductIdInt());
@@ -214,24 +308,13 @@ public class ShoppingListViewModel extends BaseViewModel {
           name = item.getNote();
         }
         name = name != null ? name.toLowerCase() : "";
-        searchContainsItem = name.contains(searchInput);
-      }
-      if (!searchContainsItem) {
-        continue;
-      }
-
-      if (filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusShoppingList.STATUS_ALL
-          || filterChipLiveDataStatus.getStatus()
-          == FilterChipLiveDataStatusShoppingList.STATUS_BELOW_MIN
-          && item.hasProduct() && missingProductIds.contains(item.getProductIdInt())
-          || filterChipLiveDataStatus.getStatus()
-          == FilterChipLiveDataStatusShoppingList.STATUS_UNDONE && item.isUndone()
-          || filterChipLiveDataStatus.getStatus()
-          == FilterChipLiveDataStatusShoppingList.STATUS_DONE && !item.isUndone()
-      ) {
-        filteredShoppingListItems.add(item);
+        if (!name.contains(searchInput)) {
+          selection.clear(i);
+        }
       }
     }
+    ArrayList<ShoppingListItem> filteredShoppingListItems = index.getItems(selection);
+
     filterChipLiveDataStatus
         .setBelowStockCount(itemsMissingCount)
         .setUndoneCount(itemsUndoneCount)
@@ -239,6 +322,7 @@ public class ShoppingListViewModel extends BaseViewModel {
         .emitCounts();
 
     filteredShoppingListItemsLive.setValue(filteredShoppingListItems);
+    groupedListItemsLive.setValue(getGroupedListItems(filteredShoppingListItems));
     selectedShoppingListIdLive.setValue(selectedShoppingListIdLive.getValue());
 
     if (filteredShoppingListItems.isEmpty()) {
@@ -257,6 +341,164 @@ public class ShoppingListViewModel extends BaseViewModel {
     }
   }
 
+  private ArrayList<GroupedListItem> getGroupedListItems(
+      ArrayList<ShoppingListItem> shoppingListItems
+  ) {
+    String groupingMode = filterChipLiveDataGrouping.getGroupingMode();
+    boolean priceTrackingEnabled = isFeatureEnabled(PREF.FEATURE_STOCK_PRICE_TRACKING);
+    String currency = sharedPrefs.getString(PREF.CURRENCY, "");
+    GroupingCache.Groups<ShoppingListItem> groups = groupShoppingListItems(
+        groupingCache, shoppingListItems, productHashMap, productNamesHashMap,
+        productGroupHashMap, storeHashMap, groupingMode
+    );
+
+    ArrayList<GroupedListItem> groupedListItems = new ArrayList<>();
+    addGroupedItems(getApplication(), groups, groupedListItems, groupingMode);
+    addBottomNotes(
+        getApplication(),
+        getShoppingListNotes(),
+        groupedListItems,
+        !groups.isEmpty()
+    );
+    if (!groups.isEmpty() && priceTrackingEnabled) {
+      addTotalPrice(getApplication(), shoppingListItems, groupedListItems,
+          productLastPurchasedHashMap, decimalPlacesPriceDisplay, currency);
+    }
+    return groupedListItems;
+  }
+
+  public static GroupingCache.Groups<ShoppingListItem> groupShoppingListItems(
+      GroupingCache<ShoppingListItem> groupingCache,
+      List<ShoppingListItem> shoppingListItems,
+      HashMap<Integer, Product> productHashMap,
+      HashMap<Integer, String> productNamesHashMap,
+      HashMap<Integer, ProductGroup> productGroupHashMap,
+      HashMap<Integer, Store> storeHashMap,
+      String groupingMode
+  ) {
+    return groupingCache.group(
+        shoppingListItems,
+        groupingMode,
+        item -> getGroupName(item, productHashMap, productGroupHashMap, storeHashMap,
+            groupingMode),
+        groupNames -> SortUtil.sortStringsByName(groupNames, true),
+        items -> SortUtil.sortShoppingListItemsByName(items, productNamesHashMap, true),
+        item -> Arrays.asList(
+            item, item.hasProduct() ? productNamesHashMap.get(item.getProductIdInt()) : null
+        )
+    );
+  }
+
+  public static void addGroupedItems(
+      Context context,
+      GroupingCache.Groups<ShoppingListItem> groups,
+      ArrayList<GroupedListItem> groupedListItems,
+      String groupingMode
+  ) {
+    ArrayList<ShoppingListItem> ungroupedItems = groups.getUngroupedItems();
+    if (groupingMode.equals(FilterChipLiveDataGroupingShoppingList.GROUPING_NONE)) {
+      groupedListItems.addAll(ungroupedItems);
+      return;
+    }
+    if (!ungroupedItems.isEmpty()) {
+      groupedListItems.add(new GroupHeader(context.getString(R.string.property_ungrouped)));
+      groupedListItems.addAll(ungroupedItems);
+    }
+    boolean isFirstGroup = true;
+    for (Map.Entry<String, ArrayList<ShoppingListItem>> group : groups.getGroups().entrySet()) {
+      GroupHeader groupHeader = new GroupHeader(group.getKey());
+      groupHeader.setDisplayDivider(!ungroupedItems.isEmpty() || !isFirstGroup);
+      groupedListItems.add(groupHeader);
+      groupedListItems.addAll(group.getValue());
+      isFirstGroup = false;
+    }
+  }
+
+  @Nullable
+  public static String getGroupName(
+      ShoppingListItem shoppingListItem,
+      HashMap<Integer, Product> productHashMap,
+      HashMap<Integer, ProductGroup> productGroupHashMap,
+      HashMap<Integer, Store> storeHashMap,
+      String groupingMode
+  ) {
+    String groupName = null;
+    if (groupingMode.equals(FilterChipLiveDataGroupingShoppingList.GROUPING_PRODUCT_GROUP)
+        && shoppingListItem.hasProduct()) {
+      Product product = productHashMap.get(shoppingListItem.getProductIdInt());
+      Integer productGroupId = product != null && NumUtil.isStringInt(product.getProductGroupId())
+          ? Integer.parseInt(product.getProductGroupId())
+          : null;
+      ProductGroup productGroup = productGroupId != null
+          ? productGroupHashMap.get(productGroupId)
+          : null;
+      groupName = productGroup != null ? productGroup.getName() : null;
+    } else if (groupingMode.equals(FilterChipLiveDataGroupingShoppingList.GROUPING_STORE)
+        && shoppingListItem.hasProduct()) {
+      Product product = productHashMap.get(shoppingListItem.getProductIdInt());
+      Integer storeId = product != null && NumUtil.isStringInt(product.getStoreId())
+          ? Integer.parseInt(product.getStoreId())
+          : null;
+      Store store = storeId != null
+          ? storeHashMap.get(storeId)
+          : null;
+      groupName = store != null ? store.getName() : null;
+    }
+    return groupName;
+  }
+
+  public static void addBottomNotes(
+      Context context,
+      String shoppingListNotes,
+      ArrayList<GroupedListItem> groupedListItems,
+      boolean displayDivider
+  ) {
+    if (shoppingListNotes == null) {
+      return;
+    }
+    Spanned spanned = Html.fromHtml(shoppingListNotes.trim());
+    Spanned notes = (Spanned) TextUtil.trimCharSequence(spanned);
+    if (notes != null && !notes.toString().trim().isEmpty()) {
+      GroupHeader h = new GroupHeader(context.getString(R.string.property_notes));
+      h.setDisplayDivider(displayDivider);
+      groupedListItems.add(h);
+      groupedListItems.add(new ShoppingListBottomNotes(notes));
+    }
+  }
+
+  public static void addTotalPrice(
+      Context context,
+      List<ShoppingListItem> shoppingListItems,
+      ArrayList<GroupedListItem> groupedListItems,
+      HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
+      int decimalPlacesPriceDisplay,
+      String currency
+  ) {
+    double priceTotal = 0;
+    for (ShoppingListItem shoppingListItem : shoppingListItems) {
+      ProductLastPurchased p = shoppingListItem.hasProduct()
+          ? productLastPurchasedHashMap.get(shoppingListItem.getProductIdInt()) : null;
+      if (p == null || p.getPrice() == null || p.getPrice().isEmpty()) continue;
+      double amount = shoppingListItem.getAmountDouble();
+      if (NumUtil.isStringDouble(p.getPrice())) {
+        priceTotal += NumUtil.toDouble(p.getPrice()) * amount;
+      }
+    }
+
+    GroupHeader h = new GroupHeader();
+    h.setDisplayDivider(true);
+    groupedListItems.add(h);
+    ShoppingListBottomNotes priceText = new ShoppingListBottomNotes(
+        new SpannedString(context.getString(
+            R.string.subtitle_total_price,
+            NumUtil.trimPrice(priceTotal, decimalPlacesPriceDisplay),
+            currency
+        ))
+    );
+    priceText.setClickable(false);
+    groupedListItems.add(priceText);
+  }
+
   public void updateFilteredShoppingListItemsWithTopScroll() {
     updateFilteredShoppingListItems();
     sendEvent(Event.SCROLL_UP);
@@ -276,19 +518,17 @@ public class ShoppingListViewModel extends BaseViewModel {
     updateFilteredShoppingListItems();
   }
 
+  public MutableLiveData<ArrayList<GroupedListItem>> getGroupedListItemsLive() {
+    return groupedListItemsLive;
+  }
+
   public MutableLiveData<Integer> getSelectedShoppingListIdLive() {
     return selectedShoppingListIdLive;
   }
 
   public void downloadData(boolean forceUpdate, boolean noSync) {
     dlHelper.updateData(
-        updated -> {
-          if (updated) {
-            loadFromDatabase(false);
-          } else {
-            syncShoppingListItems();
-          }
-        },
+        updated -> syncShoppingListItems(), // changed tables are emitted by the observer
         error -> onError(error, TAG),
         forceUpdate,
         true,
@@ -305,7 +545,7 @@ public class ShoppingListViewModel extends BaseViewModel {
   }
 
   private void syncShoppingListItems() {
-    if (isOffline()) return;
+    if (isOffline() || isSyncing || shoppingListItems == null) return;
     ArrayList<ShoppingListItem> itemsToSync = new ArrayList<>();
     for (ShoppingListItem item : shoppingListItems) {
       if (item.getDoneSynced() != -1) {
@@ -314,20 +554,19 @@ public class ShoppingListViewModel extends BaseViewModel {
     }
     if (itemsToSync.isEmpty()) return;
     Runnable emptyListener = () -> {
+      isSyncing = false;
       ArrayList<ShoppingListItem> itemsToUpdate = new ArrayList<>();
       for (ShoppingListItem itemToSync : itemsToSync) {
         itemToSync.setDoneSynced(-1);
         itemsToUpdate.add(itemToSync);
       }
       repository.insertShoppingListItems(
-          () -> {
-            showMessage(getString(R.string.msg_synced));
-            loadFromDatabase(false);
-          },
+          () -> showMessage(getString(R.string.msg_synced)),
           itemsToUpdate.toArray(new ShoppingListItem[0])
       );
     };
     DownloadHelper.OnMultiTypeErrorListener errorListener = error -> {
+      isSyncing = false;
       SnackbarMessage snackbarMessage = new SnackbarMessage(getString(R.string.msg_failed_to_sync));
       snackbarMessage.setAction(
           getString(R.string.action_details),
@@ -349,6 +588,7 @@ public class ShoppingListViewModel extends BaseViewModel {
       }
       queue.append(ShoppingListItem.editShoppingListItem(dlHelper, itemToSync.getId(), body));
     }
+    isSyncing = true;
     queue.start();
   }
 
@@ -425,7 +665,7 @@ public class ShoppingListViewModel extends BaseViewModel {
 
   private void updateDoneStatus(ShoppingListItem shoppingListItem) {
     repository.insertShoppingListItems(
-        () -> loadFromDatabase(false),
+        () -> {}, // the observer emits the stored item
         shoppingListItem
     );
   }
@@ -502,10 +742,10 @@ public class ShoppingListViewModel extends BaseViewModel {
   public void deleteItem(@NonNull ShoppingListItem shoppingListItem) {
     dlHelper.delete(
         grocyApi.getObject(GrocyApi.ENTITY.SHOPPING_LIST, shoppingListItem.getId()),
-        response -> loadFromDatabase(true),
+        response -> downloadData(false, false),
         error -> {
           showMessage(getString(R.string.error_undefined));
-          loadFromDatabase(true);
+          downloadData(false, false);
           if (debug) {
             Log.e(TAG, "deleteItem: " + error);
           }
@@ -745,6 +985,9 @@ public class ShoppingListViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    if (databaseObserver != null) {
+      databaseObserver.dispose();
+    }
     dlHelper.destroy();
     super.onCleared();
   }
@@ -36,6 +36,9 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
+import xyz.zedler.patrick.grocy.Constants.SETTINGS.SHOPPING_MODE;
+import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
+import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
@@ -44,6 +47,8 @@ import xyz.zedler.patrick.grocy.model.FilterChipLiveData;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataFields;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataFields.Field;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingShoppingMode;
+import xyz.zedler.patrick.grocy.model.GroupHeader;
+import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.MissingItem;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -59,7 +64,9 @@ import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.repository.ShoppingListRepository;
 import xyz.zedler.patrick.grocy.util.AmountUtil;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.GroupingCache;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.SortUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue;
 
@@ -85,6 +92,7 @@ public class ShoppingModeViewModel extends BaseViewModel {
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
   private final MutableLiveData<Integer> selectedShoppingListIdLive;
   private final MutableLiveData<ArrayList<ShoppingListItem>> filteredShoppingListItemsLive;
+  private final MutableLiveData<ArrayList<GroupedListItem>> groupedListItemsLive;
   private final FilterChipLiveDataGroupingShoppingMode filterChipLiveDataGrouping;
   private final FilterChipLiveDataFields filterChipLiveDataFields;
 
@@ -99,13 +107,19 @@ public class ShoppingModeViewModel extends BaseViewModel {
   private HashMap<Integer, String> productNamesHashMap;
   private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
   private ArrayList<Integer> missingProductIds;
+  private final GroupingCache<ShoppingListItem> groupingCache;
   private final boolean debug;
+  private final int decimalPlacesPriceDisplay;
 
   public ShoppingModeViewModel(@NonNull Application application) {
     super(application);
 
     sharedPrefs = PreferenceManager.getDefaultSharedPreferences(getApplication());
     debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
+    decimalPlacesPriceDisplay = sharedPrefs.getInt(
+        STOCK.DECIMAL_PLACES_PRICES_DISPLAY,
+        SETTINGS_DEFAULT.STOCK.DECIMAL_PLACES_PRICES_DISPLAY
+    );
 
     isLoadingLive = new MutableLiveData<>(false);
     autoSyncDisabledLive = new MutableLiveData<>(!getAutoSyncEnabled());
@@ -116,6 +130,8 @@ public class ShoppingModeViewModel extends BaseViewModel {
     infoFullscreenLive = new MutableLiveData<>();
     selectedShoppingListIdLive = new MutableLiveData<>(1);
     filteredShoppingListItemsLive = new MutableLiveData<>();
+    groupedListItemsLive = new MutableLiveData<>();
+    groupingCache = new GroupingCache<>();
     filterChipLiveDataGrouping = new FilterChipLiveDataGroupingShoppingMode(
         getApplication(),
         this::updateFilteredShoppingListItemsWithTopScroll
@@ -181,6 +197,7 @@ public class ShoppingModeViewModel extends BaseViewModel {
       filteredShoppingListItems.add(item);
     }
     filteredShoppingListItemsLive.setValue(filteredShoppingListItems);
+    groupedListItemsLive.setValue(getGroupedListItems(filteredShoppingListItems));
     selectedShoppingListIdLive.setValue(selectedShoppingListIdLive.getValue());
 
     if (filteredShoppingListItems.isEmpty()) {
@@ -190,6 +207,64 @@ public class ShoppingModeViewModel extends BaseViewModel {
     }
   }
 
+  private ArrayList<GroupedListItem> getGroupedListItems(
+      ArrayList<ShoppingListItem> shoppingListItems
+  ) {
+    String groupingMode = filterChipLiveDataGrouping.getGroupingMode();
+    boolean showDoneItems = sharedPrefs.getBoolean(
+        SHOPPING_MODE.SHOW_DONE_ITEMS,
+        SETTINGS_DEFAULT.SHOPPING_MODE.SHOW_DONE_ITEMS
+    );
+    ArrayList<ShoppingListItem> undoneItems = new ArrayList<>();
+    ArrayList<ShoppingListItem> doneItems = new ArrayList<>();
+    for (ShoppingListItem shoppingListItem : shoppingListItems) {
+      if (shoppingListItem.getDoneInt() != 1) {
+        undoneItems.add(shoppingListItem);
+      } else if (showDoneItems) {
+        doneItems.add(shoppingListItem);
+      }
+    }
+    GroupingCache.Groups<ShoppingListItem> groups = ShoppingListViewModel.groupShoppingListItems(
+        groupingCache, undoneItems, productHashMap, productNamesHashMap,
+        productGroupHashMap, storeHashMap, groupingMode
+    );
+
+    ArrayList<GroupedListItem> groupedListItems = new ArrayList<>();
+    ShoppingListViewModel.addGroupedItems(
+        getApplication(), groups, groupedListItems, groupingMode
+    );
+    if (groupingMode.equals(FilterChipLiveDataGroupingShoppingMode.GROUPING_NONE)) {
+      if (!doneItems.isEmpty()) {
+        SortUtil.sortShoppingListItemsByName(doneItems, productNamesHashMap, true);
+        groupedListItems.add(new GroupHeader(getString(R.string.subtitle_done)));
+        groupedListItems.addAll(doneItems);
+      }
+      ShoppingListViewModel.addBottomNotes(
+          getApplication(),
+          getShoppingListNotes(),
+          groupedListItems,
+          !shoppingListItems.isEmpty()
+      );
+      return groupedListItems;
+    }
+    ShoppingListViewModel.addBottomNotes(
+        getApplication(),
+        getShoppingListNotes(),
+        groupedListItems,
+        !groups.isEmpty()
+    );
+    if (!doneItems.isEmpty()) {
+      groupedListItems.add(new GroupHeader(getString(R.string.subtitle_done)));
+      groupedListItems.addAll(doneItems);
+    }
+    if (!groups.isEmpty() && isFeatureEnabled(PREF.FEATURE_STOCK_PRICE_TRACKING)) {
+      ShoppingListViewModel.addTotalPrice(getApplication(), shoppingListItems, groupedListItems,
+          productLastPurchasedHashMap, decimalPlacesPriceDisplay,
+          sharedPrefs.getString(PREF.CURRENCY, ""));
+    }
+    return groupedListItems;
+  }
+
   public void updateFilteredShoppingListItemsWithTopScroll() {
     updateFilteredShoppingListItems();
     sendEvent(Event.SCROLL_UP);
@@ -199,6 +274,10 @@ public class ShoppingModeViewModel extends BaseViewModel {
     return filteredShoppingListItemsLive;
   }
 
+  public MutableLiveData<ArrayList<GroupedListItem>> getGroupedListItemsLive() {
+    return groupedListItemsLive;
+  }
+
   public MutableLiveData<Integer> getSelectedShoppingListIdLive() {
     return selectedShoppingListIdLive;
   }
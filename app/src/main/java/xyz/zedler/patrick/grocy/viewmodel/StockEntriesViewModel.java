@@ -25,14 +25,25 @@ import android.os.Bundle;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelKt;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+import androidx.paging.PagingLiveData;
 import androidx.preference.PreferenceManager;
+import androidx.sqlite.db.SupportSQLiteQuery;
 import com.google.android.material.snackbar.Snackbar;
-import java.util.ArrayList;
+import io.reactivex.rxjava3.disposables.Disposable;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
@@ -52,6 +63,8 @@ import xyz.zedler.patrick.grocy.model.FilterChipLiveDataProductGroup;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataSort;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataSort.SortOption;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingStockEntries;
+import xyz.zedler.patrick.grocy.model.GroupHeader;
+import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -59,9 +72,12 @@ import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
 import xyz.zedler.patrick.grocy.model.StockEntry;
+import xyz.zedler.patrick.grocy.model.StockEntryItem;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.repository.StockEntriesRepository;
+import xyz.zedler.patrick.grocy.repository.StockEntriesRepository.StockOverviewData;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
@@ -73,26 +89,31 @@ public class StockEntriesViewModel extends BaseViewModel {
   public final static String SORT_NAME = "sort_name";
   public final static String SORT_DUE_DATE = "sort_due_date";
 
+  private final static int PAGE_SIZE = 50;
+
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
   private final StockEntriesRepository repository;
   private final PluralUtil pluralUtil;
+  private final DateUtil dateUtil;
+  private final ExecutorService pagingExecutor;
 
   private final MutableLiveData<Boolean> isLoadingLive;
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
-  private final MutableLiveData<ArrayList<StockEntry>> filteredStockEntriesLive;
+  private final MutableLiveData<SupportSQLiteQuery> stockEntriesQueryLive;
+  private final LiveData<PagingData<GroupedListItem>> stockEntriesPagedLive;
   private final MutableLiveData<Boolean> scannerVisibilityLive;
   private final FilterChipLiveDataLocation filterChipLiveDataLocation;
   private final FilterChipLiveDataSort filterChipLiveDataSort;
   private final FilterChipLiveDataGroupingStockEntries filterChipLiveDataGrouping;
 
-  private List<StockEntry> stockEntries;
-  private HashMap<String, ProductBarcode> productBarcodeHashMap;
-  private HashMap<Integer, Product> productHashMap;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
   private HashMap<Integer, Location> locationHashMap;
   private HashMap<Integer, Store> storeHashMap;
+  private Disposable databaseObserver;
+  private StockOverviewData data;
+  private boolean downloadAfterFirstLoad;
 
   private String searchInput;
   @Nullable private final Integer productId;
@@ -116,9 +137,25 @@ public class StockEntriesViewModel extends BaseViewModel {
     grocyApi = new GrocyApi(getApplication());
     repository = new StockEntriesRepository(application);
     pluralUtil = new PluralUtil(application);
+    dateUtil = new DateUtil(application);
+    pagingExecutor = Executors.newSingleThreadExecutor();
 
     infoFullscreenLive = new MutableLiveData<>();
-    filteredStockEntriesLive = new MutableLiveData<>();
+    stockEntriesQueryLive = new MutableLiveData<>();
+    stockEntriesPagedLive = Transformations.switchMap(stockEntriesQueryLive, query -> {
+      String groupingMode = getGroupingMode();
+      Pager<Integer, StockEntryItem> pager = new Pager<>(
+          new PagingConfig(PAGE_SIZE, PAGE_SIZE, false),
+          () -> repository.getStockEntriesPagingSource(query)
+      );
+      return PagingLiveData.cachedIn(
+          Transformations.map(
+              PagingLiveData.getLiveData(pager),
+              pagingData -> getGroupedListItems(pagingData, groupingMode)
+          ),
+          ViewModelKt.getViewModelScope(this)
+      );
+    });
     scannerVisibilityLive = new MutableLiveData<>(false);
 
     filterChipLiveDataLocation = new FilterChipLiveDataLocation(
@@ -142,28 +179,54 @@ public class StockEntriesViewModel extends BaseViewModel {
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
-      quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
-      productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
-      productBarcodeHashMap = ArrayUtil.getProductBarcodesHashMap(data.getProductBarcodes());
-      this.stockEntries = data.getStockEntries();
+    if (databaseObserver != null) {
+      if (downloadAfterLoading) {
+        downloadData(false);
+      }
+      return;
+    }
+    downloadAfterFirstLoad = downloadAfterLoading;
+    databaseObserver = repository.observeStockEntriesData(this::onDatabaseChanged, error -> {
+      databaseObserver = null;
+      onError(error, TAG);
+    });
+  }
+
+  private void onDatabaseChanged(StockOverviewData data) {
+    StockOverviewData prev = this.data;
+    this.data = data;
+    boolean locationsChanged = prev == null || data.getLocations() != prev.getLocations();
+    boolean storesChanged = prev == null || data.getStores() != prev.getStores();
 
+    if (prev == null || data.getQuantityUnits() != prev.getQuantityUnits()) {
+      quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
+    }
+    if (locationsChanged) {
       filterChipLiveDataLocation.setLocations(data.getLocations());
       locationHashMap = ArrayUtil.getLocationsHashMap(data.getLocations());
+    }
+    if (storesChanged) {
       storeHashMap = ArrayUtil.getStoresHashMap(data.getStores());
+    }
 
+    // the paged entries reload by themselves, only headers with changed names need a new pager
+    String groupingMode = getGroupingMode();
+    if (prev == null
+        || locationsChanged
+        && groupingMode.equals(FilterChipLiveDataGroupingStockEntries.GROUPING_LOCATION)
+        || storesChanged
+        && groupingMode.equals(FilterChipLiveDataGroupingStockEntries.GROUPING_STORE)) {
       updateFilteredStockEntries();
-      if (downloadAfterLoading) {
-        downloadData(false);
-      }
-    }, error -> onError(error, TAG));
+    }
+    if (downloadAfterFirstLoad) {
+      downloadAfterFirstLoad = false;
+      downloadData(false);
+    }
   }
 
   public void downloadData(boolean forceUpdate) {
     dlHelper.updateData(
-        updated -> {
-          if (updated) loadFromDatabase(false);
-        },
+        updated -> {}, // observed queries and the paging source reload changed tables
         error -> onError(error, TAG),
         forceUpdate,
         true,
@@ -177,60 +240,91 @@ public class StockEntriesViewModel extends BaseViewModel {
   }
 
   public void updateFilteredStockEntries() {
-    ArrayList<StockEntry> filteredStockEntries = new ArrayList<>();
-
-    ProductBarcode productBarcodeSearch = null;
-    if (searchInput != null && !searchInput.isEmpty()) {
-      productBarcodeSearch = productBarcodeHashMap.get(searchInput);
+    int locationFilterId = filterChipLiveDataLocation.getSelectedId();
+    stockEntriesQueryLive.setValue(StockEntriesRepository.getStockEntriesQuery(
+        productId,
+        locationFilterId != FilterChipLiveDataLocation.NO_FILTER ? locationFilterId : null,
+        searchInput,
+        getSortMode(),
+        isSortAscending(),
+        getGroupingMode()
+    ));
+  }
+
+  private PagingData<GroupedListItem> getGroupedListItems(
+      PagingData<StockEntryItem> pagingData,
+      String groupingMode
+  ) {
+    PagingData<GroupedListItem> items = PagingDataTransforms.map(
+        pagingData, pagingExecutor, StockEntryItem::getStockEntryWithProduct
+    );
+    if (groupingMode.equals(FilterChipLiveDataGroupingStockEntries.GROUPING_NONE)) {
+      return items;
     }
-
-    for (StockEntry entry : this.stockEntries) {
-
-      if (productId != null && entry.getProductId() != productId) {
-        continue;
+    // entries arrive ordered by group, so a header is due wherever the group changes
+    return PagingDataTransforms.insertSeparators(items, pagingExecutor, (before, after) -> {
+      if (after == null) return null;
+      String groupName = getGroupName((StockEntry) after, groupingMode);
+      if (before != null
+          && Objects.equals(getGroupName((StockEntry) before, groupingMode), groupName)) {
+        return null;
       }
-
-      boolean searchContainsItem = true;
-      if (searchInput != null && !searchInput.isEmpty()) {
-        Product product = productHashMap.get(entry.getProductId());
-        String productName = product != null ? product.getName().toLowerCase() : null;
-        searchContainsItem = productName != null && productName.contains(searchInput);
-        if (!searchContainsItem) {
-          searchContainsItem = entry.getNote() != null && !entry.getNote().isEmpty()
-              && entry.getNote().toLowerCase().contains(searchInput);
+      GroupHeader groupHeader = new GroupHeader(
+          groupName != null ? groupName : getString(R.string.property_ungrouped)
+      );
+      groupHeader.setDisplayDivider(before != null);
+      return groupHeader;
+    });
+  }
+
+  @Nullable
+  private String getGroupName(StockEntry stockEntry, String groupingMode) {
+    String groupName = null;
+    switch (groupingMode) {
+      case FilterChipLiveDataGroupingStockEntries.GROUPING_PRODUCT:
+        Product product = stockEntry.getProduct();
+        groupName = product != null ? product.getName() : null;
+        break;
+      case FilterChipLiveDataGroupingStockEntries.GROUPING_DUE_DATE:
+        groupName = stockEntry.getBestBeforeDate();
+        if (groupName != null && !groupName.isEmpty()) {
+          groupName += "  " + dateUtil.getHumanForDaysFromNow(groupName);
         }
-      }
-      if (!searchContainsItem && productBarcodeSearch == null
-          || !searchContainsItem && productBarcodeSearch.getProductIdInt() != entry.getProductId()) {
-        continue;
-      }
-
-      int locationFilterId = filterChipLiveDataLocation.getSelectedId();
-      if (locationFilterId != FilterChipLiveDataLocation.NO_FILTER
-          && entry.getLocationIdInt() != locationFilterId) {
-        continue;
-      }
-
-      filteredStockEntries.add(entry);
+        break;
+      case FilterChipLiveDataGroupingStockEntries.GROUPING_PURCHASED_DATE:
+        groupName = stockEntry.getPurchasedDate();
+        if (groupName != null && !groupName.isEmpty()) {
+          groupName += "  " + dateUtil.getHumanForDaysFromNow(groupName);
+        }
+        break;
+      case FilterChipLiveDataGroupingStockEntries.GROUPING_LOCATION:
+        Location location = locationHashMap.get(stockEntry.getLocationIdInt());
+        groupName = location != null ? location.getName() : null;
+        break;
+      case FilterChipLiveDataGroupingStockEntries.GROUPING_STORE:
+        Store store = storeHashMap.get(stockEntry.getShoppingLocationIdInt());
+        groupName = store != null ? store.getName() : null;
+        break;
     }
+    return groupName != null && !groupName.isEmpty() ? groupName : null;
+  }
 
-    if (filteredStockEntries.isEmpty()) {
-      InfoFullscreen info;
-      if (searchInput != null && !searchInput.isEmpty()) {
-        info = new InfoFullscreen(InfoFullscreen.INFO_NO_SEARCH_RESULTS);
-      } else if (filterChipLiveDataLocation.getSelectedId()
-          != FilterChipLiveDataProductGroup.NO_FILTER
-      ) {
-        info = new InfoFullscreen(InfoFullscreen.INFO_NO_FILTER_RESULTS);
-      } else {
-        info = new InfoFullscreen(InfoFullscreen.INFO_EMPTY_STOCK);
-      }
-      infoFullscreenLive.setValue(info);
-    } else {
+  public void updateInfoFullscreen(boolean isEmpty) {
+    if (!isEmpty) {
       infoFullscreenLive.setValue(null);
+      return;
     }
-
-    filteredStockEntriesLive.setValue(filteredStockEntries);
+    InfoFullscreen info;
+    if (searchInput != null && !searchInput.isEmpty()) {
+      info = new InfoFullscreen(InfoFullscreen.INFO_NO_SEARCH_RESULTS);
+    } else if (filterChipLiveDataLocation.getSelectedId()
+        != FilterChipLiveDataProductGroup.NO_FILTER
+    ) {
+      info = new InfoFullscreen(InfoFullscreen.INFO_NO_FILTER_RESULTS);
+    } else {
+      info = new InfoFullscreen(InfoFullscreen.INFO_EMPTY_STOCK);
+    }
+    infoFullscreenLive.setValue(info);
   }
 
   public void updateFilteredStockEntriesWithTopScroll() {
@@ -239,7 +333,7 @@ public class StockEntriesViewModel extends BaseViewModel {
   }
 
   public void showStockEntryBottomSheet(StockEntry stockEntry) {
-    Product product = productHashMap.get(stockEntry.getProductId());
+    Product product = stockEntry.getProduct();
     QuantityUnit quantityUnitStock = product != null
         ? quantityUnitHashMap.get(product.getQuIdStockInt()) : null;
     QuantityUnit quantityUnitPurchase = product != null
@@ -257,7 +351,7 @@ public class StockEntriesViewModel extends BaseViewModel {
   }
 
   public void performAction(String action, StockEntry stockEntry) {
-    Product product = productHashMap.get(stockEntry.getProductId());
+    Product product = stockEntry.getProduct();
     if (product == null) {
       showErrorMessage();
       return;
@@ -433,8 +527,8 @@ public class StockEntriesViewModel extends BaseViewModel {
     setIsSearchVisible(false);
   }
 
-  public MutableLiveData<ArrayList<StockEntry>> getFilteredStockEntriesLive() {
-    return filteredStockEntriesLive;
+  public LiveData<PagingData<GroupedListItem>> getStockEntriesPagedLive() {
+    return stockEntriesPagedLive;
   }
 
   public void updateSearchInput(String input) {
@@ -443,10 +537,6 @@ public class StockEntriesViewModel extends BaseViewModel {
     updateFilteredStockEntries();
   }
 
-  public HashMap<Integer, Product> getProductHashMap() {
-    return productHashMap;
-  }
-
   public HashMap<Integer, Location> getLocationHashMap() {
     return locationHashMap;
   }
@@ -523,7 +613,11 @@ public class StockEntriesViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    if (databaseObserver != null) {
+      databaseObserver.dispose();
+    }
     dlHelper.destroy();
+    pagingExecutor.shutdown();
     super.onCleared();
   }
 
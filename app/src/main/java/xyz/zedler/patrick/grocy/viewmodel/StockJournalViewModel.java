@@ -23,15 +23,20 @@ import android.app.Application;
 import android.content.SharedPreferences;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.MutableLiveData;
 import androidx.preference.PreferenceManager;
 import com.google.android.material.snackbar.Snackbar;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
@@ -49,9 +54,15 @@ import xyz.zedler.patrick.grocy.web.NetworkQueue;
 public class StockJournalViewModel extends BaseViewModel {
 
   private final static String TAG = ShoppingListViewModel.class.getSimpleName();
+  private final static int PAGE_SIZE = 20;
+  private final static int FETCH_SIZE = 100;
+  // cached pages below the loaded ones, fewer trigger a download of older entries
+  private final static int PREFETCH_PAGES = 3;
 
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
+  private final DownloadHelper prefetchDlHelper;
+  private final AppDatabase appDatabase;
   private final GrocyApi grocyApi;
   private final StockEntriesRepository repository;
 
@@ -70,6 +81,10 @@ public class StockJournalViewModel extends BaseViewModel {
 
   private int currentPage = 0;
   private boolean isLastPage = false;
+  private boolean isLoadingNextPage = false;
+  private boolean isHistoryComplete = false;
+  private boolean isFetchingOlderEntries = false;
+  private final ArrayList<Runnable> olderEntriesListeners = new ArrayList<>();
 
   public StockJournalViewModel(@NonNull Application application) {
     super(application);
@@ -79,6 +94,8 @@ public class StockJournalViewModel extends BaseViewModel {
 
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
+    prefetchDlHelper = new DownloadHelper(getApplication(), TAG, null, null);
+    appDatabase = AppDatabase.getAppDatabase(getApplication());
     grocyApi = new GrocyApi(getApplication());
     repository = new StockEntriesRepository(application);
 
@@ -94,33 +111,34 @@ public class StockJournalViewModel extends BaseViewModel {
       locationHashMap = ArrayUtil.getLocationsHashMap(data.getLocations());
       userHashMap = ArrayUtil.getUsersHashMap(data.getUsers());
 
-      if (downloadAfterLoading) {
-        downloadData(false);
-      } else {
-        NetworkQueue queue = dlHelper.newQueue(
-            updated -> updateFilteredStockLogEntries(),
-            error -> onError(error, TAG)
-        );
-        queue.append(StockLogEntry.getStockLogEntries(
-            dlHelper,
-            20,
-            0,
-            entries -> this.stockLogEntries = entries
-        ));
-        queue.start();
-      }
+      loadPage(0, entries -> {
+        this.stockLogEntries = entries;
+        updateFilteredStockLogEntries();
+        if (downloadAfterLoading) {
+          downloadData(false);
+        }
+      });
     }, error -> onError(error, TAG));
   }
 
   public void downloadData(boolean forceUpdate) {
+    if (forceUpdate) {
+      // the cache is replaced, so older entries have to be downloaded again
+      isHistoryComplete = false;
+    }
     dlHelper.updateData(
         updated -> {
           if (isOffline()) setOfflineLive(false);
           loadFromDatabase(false);
         },
         error -> onError(error, TAG),
+        null,
         forceUpdate,
         false,
+        // only entries newer than the cached ones, force update replaces the cache
+        StockLogEntry.updateNewStockLogEntries(
+            dlHelper, FETCH_SIZE, forceUpdate, () -> isHistoryComplete = false
+        ),
         QuantityUnit.class,
         Product.class,
         Location.class,
@@ -129,18 +147,87 @@ public class StockJournalViewModel extends BaseViewModel {
   }
 
   public void loadNextPage(OnObjectsResponseListener<StockLogEntry> responseListener) {
-    NetworkQueue queue = dlHelper.newQueue(updated -> {
-      if (isOffline()) setOfflineLive(false);
-    }, error -> onError(error, TAG));
-    queue.append(StockLogEntry.getStockLogEntries(
-        dlHelper,
-        20,
-        currentPage*20,
-        responseListener
-    ));
+    isLoadingNextPage = true;
+    loadPage(currentPage, entries -> {
+      if (entries.size() < PAGE_SIZE && !isSearchActive() && !isHistoryComplete) {
+        // end of cache reached, continue after older entries were downloaded
+        fetchOlderEntries(() -> loadPage(currentPage, olderEntries -> {
+          isLoadingNextPage = false;
+          responseListener.onResponse(olderEntries);
+        }));
+        return;
+      }
+      isLoadingNextPage = false;
+      responseListener.onResponse(entries);
+      prefetchOlderEntries();
+    });
+  }
+
+  private void loadPage(int page, OnObjectsResponseListener<StockLogEntry> listener) {
+    Single<List<StockLogEntry>> query = isSearchActive()
+        ? appDatabase.stockLogEntryDao().searchStockLogEntries(
+            searchInput, PAGE_SIZE, page * PAGE_SIZE
+        ) : appDatabase.stockLogEntryDao().getStockLogEntries(PAGE_SIZE, page * PAGE_SIZE);
+    query.subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .doOnSuccess(listener::onResponse)
+        .doOnError(error -> {
+          isLoadingNextPage = false;
+          onError(error, TAG);
+        })
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  // Downloads older entries before the user scrolls to the end of the cache
+  private void prefetchOlderEntries() {
+    if (isSearchActive() || isHistoryComplete || isFetchingOlderEntries) return;
+    appDatabase.stockLogEntryDao().count()
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .doOnSuccess(count -> {
+          if (count < (currentPage + 1 + PREFETCH_PAGES) * PAGE_SIZE) {
+            fetchOlderEntries(null);
+          }
+        })
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  private void fetchOlderEntries(@Nullable Runnable onFinished) {
+    if (onFinished != null) {
+      olderEntriesListeners.add(onFinished);
+    }
+    if (isFetchingOlderEntries) return;
+    isFetchingOlderEntries = true;
+    NetworkQueue queue = prefetchDlHelper.newQueue(
+        updated -> onOlderEntriesFetched(),
+        error -> {
+          onOlderEntriesFetched();
+          onError(error, TAG);
+        }
+    );
+    queue.append(StockLogEntry.updateOlderStockLogEntries(prefetchDlHelper, FETCH_SIZE, entries -> {
+      if (entries.size() < FETCH_SIZE) {
+        isHistoryComplete = true;
+      }
+    }));
     queue.start();
   }
 
+  private void onOlderEntriesFetched() {
+    isFetchingOlderEntries = false;
+    ArrayList<Runnable> listeners = new ArrayList<>(olderEntriesListeners);
+    olderEntriesListeners.clear();
+    for (Runnable listener : listeners) {
+      listener.run();
+    }
+  }
+
+  private boolean isSearchActive() {
+    return searchInput != null && !searchInput.isEmpty();
+  }
+
   public void updateFilteredStockLogEntries() {
     if (this.stockLogEntries == null) return;
     ArrayList<StockLogEntry> filteredStockLogEntries = new ArrayList<>(this.stockLogEntries);
@@ -164,7 +251,14 @@ public class StockJournalViewModel extends BaseViewModel {
     dlHelper.post(
         grocyApi.undoStockTransaction(entry.getTransactionId()),
         response -> {
-          downloadData(false);
+          NetworkQueue queue = dlHelper.newQueue(
+              updated -> downloadData(false),
+              error -> downloadData(false)
+          );
+          queue.append(StockLogEntry.updateStockLogEntriesOfTransaction(
+              dlHelper, entry.getTransactionId()
+          ));
+          queue.start();
           showSnackbar(new SnackbarMessage(
               getString(R.string.msg_undone_transaction),
               Snackbar.LENGTH_SHORT
@@ -189,7 +283,11 @@ public class StockJournalViewModel extends BaseViewModel {
   public void updateSearchInput(String input) {
     this.searchInput = input.toLowerCase();
 
-    updateFilteredStockLogEntries();
+    // search runs over all cached entries, not only over the loaded pages
+    loadPage(0, entries -> {
+      this.stockLogEntries = entries;
+      updateFilteredStockLogEntries();
+    });
   }
 
   public HashMap<Integer, Product> getProductHashMap() {
@@ -208,6 +306,10 @@ public class StockJournalViewModel extends BaseViewModel {
     return userHashMap;
   }
 
+  public boolean isLoadingNextPage() {
+    return isLoadingNextPage;
+  }
+
   public boolean isLastPage() {
     return isLastPage;
   }
@@ -248,6 +350,7 @@ public class StockJournalViewModel extends BaseViewModel {
   @Override
   protected void onCleared() {
     dlHelper.destroy();
+    prefetchDlHelper.destroy();
     super.onCleared();
   }
 }
@@ -28,11 +28,16 @@ import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
 import com.google.android.material.snackbar.Snackbar;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.BoundExtractedResult;
+import java.util.Map;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
@@ -44,6 +49,7 @@ import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.fragment.StockOverviewFragmentArgs;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.MutationOutbox;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveData;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataFields;
@@ -54,34 +60,45 @@ import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingStock;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataSort;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataSort.SortOption;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStatusStock;
+import xyz.zedler.patrick.grocy.model.GroupHeader;
+import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Location;
-import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.PendingMutation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductAveragePrice;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
+import xyz.zedler.patrick.grocy.model.ProductSearch;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
 import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StockStatusCounts;
 import xyz.zedler.patrick.grocy.model.StockLocation;
+import xyz.zedler.patrick.grocy.model.StockSnapshot;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.repository.ProductSearchRepository;
 import xyz.zedler.patrick.grocy.repository.StockOverviewRepository;
-import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.repository.StockOverviewRepository.StockOverviewData;
+import xyz.zedler.patrick.grocy.util.DateUtil;
+import xyz.zedler.patrick.grocy.util.FacetIndex;
 import xyz.zedler.patrick.grocy.util.GrocycodeUtil;
 import xyz.zedler.patrick.grocy.util.GrocycodeUtil.Grocycode;
+import xyz.zedler.patrick.grocy.util.GroupingCache;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
+import xyz.zedler.patrick.grocy.util.SortUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 
 public class StockOverviewViewModel extends BaseViewModel {
 
   private final static String TAG = ShoppingListViewModel.class.getSimpleName();
+  private final static int SEARCH_RESULTS_LIMIT = 1000;
   public final static String[] DISPLAYED_USERFIELD_ENTITIES = { ENTITY.PRODUCTS };
 
   public final static String SORT_NAME = "sort_name";
@@ -101,11 +118,12 @@ public class StockOverviewViewModel extends BaseViewModel {
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
   private final StockOverviewRepository repository;
+  private final ProductSearchRepository productSearchRepository;
   private final PluralUtil pluralUtil;
 
   private final MutableLiveData<Boolean> isLoadingLive;
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
-  private final MutableLiveData<ArrayList<StockItem>> filteredStockItemsLive;
+  private final MutableLiveData<ArrayList<GroupedListItem>> groupedListItemsLive;
   private final MutableLiveData<Boolean> scannerVisibilityLive;
   private final FilterChipLiveDataStatusStock filterChipLiveDataStatus;
   private final FilterChipLiveDataProductGroup filterChipLiveDataProductGroup;
@@ -114,27 +132,25 @@ public class StockOverviewViewModel extends BaseViewModel {
   private final FilterChipLiveDataGroupingStock filterChipLiveDataGrouping;
   private final FilterChipLiveDataFields filterChipLiveDataFields;
 
-  private List<StockItem> stockItems;
-  private List<Product> products;
-  private HashMap<Integer, ProductGroup> productGroupHashMap;
-  private HashMap<String, ProductBarcode> productBarcodeHashMap;
-  private HashMap<Integer, Product> productHashMap;
-  private HashMap<Integer, String> productAveragePriceHashMap;
-  private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
-  private List<ShoppingListItem> shoppingListItems;
-  private ArrayList<String> shoppingListItemsProductIds;
-  private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private List<QuantityUnitConversionResolved> quantityUnitConversions;
-  private HashMap<Integer, MissingItem> productIdsMissingItems;
-  private HashMap<Integer, Location> locationHashMap;
-  private HashMap<Integer, HashMap<Integer, StockLocation>> stockLocationsHashMap;
-  private HashMap<String, Userfield> userfieldHashMap;
+  private final DateUtil dateUtil;
+
+  // latest snapshot, only swapped on the main thread
+  private StockSnapshot snapshot;
+  // snapshot from which the displayed list was built
+  private StockSnapshot displayedSnapshot;
 
   private String searchInput;
-  private ArrayList<String> searchResultsFuzzy;
+  private HashSet<Integer> searchResultProductIds;
   private final boolean debug;
   private final int maxDecimalPlacesAmount;
+  private final int decimalPlacesPriceDisplay;
   private boolean alreadyLoadedFromDatabase;
+  private Disposable databaseObserver;
+  private Disposable countsObserver;
+  private Disposable snapshotBuilder;
+  private Disposable listBuilder;
+  private final GroupingCache<StockItem> groupingCache;
+  private boolean downloadAfterFirstLoad;
 
   public StockOverviewViewModel(@NonNull Application application, StockOverviewFragmentArgs args) {
     super(application);
@@ -145,16 +161,23 @@ public class StockOverviewViewModel extends BaseViewModel {
         STOCK.DECIMAL_PLACES_AMOUNT,
         SETTINGS_DEFAULT.STOCK.DECIMAL_PLACES_AMOUNT
     );
+    decimalPlacesPriceDisplay = sharedPrefs.getInt(
+        STOCK.DECIMAL_PLACES_PRICES_DISPLAY,
+        SETTINGS_DEFAULT.STOCK.DECIMAL_PLACES_PRICES_DISPLAY
+    );
     alreadyLoadedFromDatabase = false;
 
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
     grocyApi = new GrocyApi(getApplication());
     repository = new StockOverviewRepository(application);
+    productSearchRepository = new ProductSearchRepository(application);
     pluralUtil = new PluralUtil(application);
+    dateUtil = new DateUtil(application);
 
     infoFullscreenLive = new MutableLiveData<>();
-    filteredStockItemsLive = new MutableLiveData<>();
+    groupedListItemsLive = new MutableLiveData<>();
+    groupingCache = new GroupingCache<>();
     scannerVisibilityLive = new MutableLiveData<>(false);
 
     filterChipLiveDataStatus = new FilterChipLiveDataStatusStock(
@@ -207,248 +230,327 @@ public class StockOverviewViewModel extends BaseViewModel {
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
-      quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
-      quantityUnitConversions = data.getQuantityUnitConversions();
-      productGroupHashMap = ArrayUtil.getProductGroupsHashMap(data.getProductGroups());
-      filterChipLiveDataProductGroup.setProductGroups(data.getProductGroups());
-      this.products = data.getProducts();
-      productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
-      productAveragePriceHashMap = ArrayUtil
-          .getProductAveragePriceHashMap(data.getProductsAveragePrice());
-      productLastPurchasedHashMap = ArrayUtil
-          .getProductLastPurchasedHashMap(data.getProductsLastPurchased());
-      productBarcodeHashMap = ArrayUtil.getProductBarcodesHashMap(data.getProductBarcodes());
-      this.stockItems = data.getStockItems();
-
-      int itemsDueCount = 0;
-      int itemsOverdueCount = 0;
-      int itemsExpiredCount = 0;
-      HashMap<Integer, StockItem> stockItemHashMap = ArrayUtil.getStockItemHashMap(stockItems);
-      for (VolatileItem volatileItem : data.getVolatileItems()) {
-        StockItem stockItem = stockItemHashMap.get(volatileItem.getProductId());
-        if (stockItem == null) continue;
-        Product product = productHashMap.get(stockItem.getProductId());
-        if (product != null && product.getNoOwnStockBoolean()) continue;
-        if (volatileItem.getVolatileType() == VolatileItem.TYPE_DUE) {
-          stockItem.setItemDue(true);
-          itemsDueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_OVERDUE) {
-          stockItem.setItemOverdue(true);
-          itemsOverdueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_EXPIRED) {
-          stockItem.setItemExpired(true);
-          itemsExpiredCount++;
-        }
-      }
-      int itemsMissingCount = 0;
-      productIdsMissingItems = new HashMap<>();
-      for (MissingItem missingItem : data.getMissingItems()) {
-        itemsMissingCount++;
-        productIdsMissingItems.put(missingItem.getId(), missingItem);
-        StockItem stockItem = stockItemHashMap.get(missingItem.getId());
-        if (stockItem == null && !missingItem.getIsPartlyInStockBoolean()) {
-          StockItem stockItemMissing = new StockItem(missingItem);
-          stockItems.add(stockItemMissing);
-        } else if (stockItem != null) {
-          stockItem.setItemMissing(true);
-          stockItem.setItemMissingAndPartlyInStock(missingItem.getIsPartlyInStockBoolean());
-        }
-      }
-      int itemsInStockCount = 0;
-      int itemsOpenedCount = 0;
-      for (StockItem stockItem : stockItems) {
-        stockItem.setProduct(productHashMap.get(stockItem.getProductId()));
-        if (!stockItem.isItemMissing() || stockItem.isItemMissingAndPartlyInStock()) {
-          itemsInStockCount++;
-        }
-        if (stockItem.getAmountOpenedDouble() > 0) {
-          itemsOpenedCount++;
-        }
+    if (databaseObserver != null) {
+      if (downloadAfterLoading) {
+        downloadData(false);
       }
+      return;
+    }
+    downloadAfterFirstLoad = downloadAfterLoading;
+    databaseObserver = repository.observeStockOverview(this::onDatabaseChanged, error -> {
+      databaseObserver = null;
+      onError(error, TAG);
+    });
+    if (countsObserver == null) {
+      countsObserver = repository.observeStockStatusCounts(this::onCountsChanged, error -> {
+        countsObserver = null;
+        onError(error, TAG);
+      });
+    }
+  }
 
-      this.shoppingListItems = data.getShoppingListItems();
-      shoppingListItemsProductIds = new ArrayList<>();
-      for (ShoppingListItem item : shoppingListItems) {
-        if (item.getProductId() != null && !item.getProductId().isEmpty()) {
-          shoppingListItemsProductIds.add(item.getProductId());
-        }
-      }
-      filterChipLiveDataLocation.setLocations(data.getLocations());
-      locationHashMap = ArrayUtil.getLocationsHashMap(data.getLocations());
-
-      stockLocationsHashMap = new HashMap<>();
-      for (StockLocation stockLocation : data.getStockCurrentLocations()) {
-        HashMap<Integer, StockLocation> locationsForProductId = stockLocationsHashMap
-            .get(stockLocation.getProductId());
-        if (locationsForProductId == null) {
-          locationsForProductId = new HashMap<>();
-          stockLocationsHashMap.put(stockLocation.getProductId(), locationsForProductId);
-        }
-        locationsForProductId.put(stockLocation.getLocationId(), stockLocation);
-      }
+  private void onCountsChanged(StockStatusCounts counts) {
+    filterChipLiveDataStatus
+        .setNotFreshCount(counts.getNotFreshCount())
+        .setDueSoonCount(counts.dueSoonCount)
+        .setOverdueCount(counts.overdueCount)
+        .setExpiredCount(counts.expiredCount)
+        .setBelowStockCount(counts.missingCount)
+        .setInStockCount(counts.inStockCount)
+        .setOpenedCount(counts.openedCount)
+        .emitCounts();
+  }
 
+  private void onDatabaseChanged(StockOverviewData data) {
+    // a newer result replaces the one whose snapshot is still being built
+    if (snapshotBuilder != null) {
+      snapshotBuilder.dispose();
+    }
+    StockSnapshot previous = snapshot;
+    snapshotBuilder = Single.fromCallable(() -> new StockSnapshot(data, previous))
+        .subscribeOn(Schedulers.computation())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(this::onSnapshotBuilt, error -> onError(error, TAG));
+  }
+
+  private void onSnapshotBuilt(StockSnapshot newSnapshot) {
+    StockSnapshot previous = snapshot;
+    snapshot = newSnapshot;
+    snapshotBuilder = null;
+
+    StockOverviewData data = newSnapshot.getData();
+    StockOverviewData prev = previous != null ? previous.getData() : null;
+    if (prev == null || data.getProductGroups() != prev.getProductGroups()) {
+      filterChipLiveDataProductGroup.setProductGroups(data.getProductGroups());
+    }
+    if (prev == null || data.getLocations() != prev.getLocations()) {
+      filterChipLiveDataLocation.setLocations(data.getLocations());
+    }
+    if (prev == null || data.getUserfields() != prev.getUserfields()) {
       filterChipLiveDataSort.setUserfields(data.getUserfields(), DISPLAYED_USERFIELD_ENTITIES);
       filterChipLiveDataGrouping.setUserfields(data.getUserfields(), DISPLAYED_USERFIELD_ENTITIES);
       filterChipLiveDataFields.setUserfields(data.getUserfields(), DISPLAYED_USERFIELD_ENTITIES);
-      userfieldHashMap = ArrayUtil.getUserfieldHashMap(data.getUserfields());
-
-      filterChipLiveDataStatus
-          .setNotFreshCount(itemsDueCount+itemsOverdueCount+itemsExpiredCount)
-          .setDueSoonCount(itemsDueCount)
-          .setOverdueCount(itemsOverdueCount)
-          .setExpiredCount(itemsExpiredCount)
-          .setBelowStockCount(itemsMissingCount)
-          .setInStockCount(itemsInStockCount)
-          .setOpenedCount(itemsOpenedCount)
-          .emitCounts();
-      updateFilteredStockItems();
-      alreadyLoadedFromDatabase = true;
-      if (downloadAfterLoading) {
-        downloadData(false);
-      }
-    }, error -> onError(error, TAG));
+    }
+    if (newSnapshot.containsItemsWithoutProduct()) {
+      // invalidate products and stock items offline cache because products may have changed
+      SharedPreferences.Editor editPrefs = sharedPrefs.edit();
+      editPrefs.putString(PREF.DB_LAST_TIME_PRODUCTS, null);
+      editPrefs.putString(PREF.DB_LAST_TIME_STOCK_ITEMS, null);
+      editPrefs.apply();
+    }
+
+    updateFilteredStockItems();
+    alreadyLoadedFromDatabase = true;
+    if (downloadAfterFirstLoad) {
+      downloadAfterFirstLoad = false;
+      downloadData(false);
+    }
   }
 
   public void downloadData(boolean forceUpdate) {
     dlHelper.updateData(
-        updated -> {
-          if (updated) loadFromDatabase(false);
-        },
+        updated -> {}, // observed queries emit again for all changed tables
         error -> onError(error, TAG),
         forceUpdate,
         true,
-        QuantityUnit.class,
-        ProductGroup.class,
         StockItem.class,
         Product.class,
-        ProductBarcode.class,
+        QuantityUnit.class,
         VolatileItem.class,
-        ShoppingListItem.class,
         Location.class,
+        StockLocation.class,
+        ProductGroup.class,
+        ProductBarcode.class,
+        ShoppingListItem.class,
         ProductAveragePrice.class,
         ProductLastPurchased.class,
-        StockLocation.class,
         Userfield.class
     );
   }
 
   public void updateFilteredStockItems() {
-    ArrayList<StockItem> filteredStockItems = new ArrayList<>();
-
-    Product productSearch = null;
-    ProductBarcode productBarcodeSearch = null;
-    if (searchInput != null && !searchInput.isEmpty()) {
-      Grocycode grocycode = GrocycodeUtil.getGrocycode(searchInput);
-      if (grocycode != null && grocycode.isProduct()) {
-        productSearch = productHashMap.get(grocycode.getObjectId());
-      }
-      if (productSearch == null) {
-        productBarcodeSearch = productBarcodeHashMap.get(searchInput);
-      }
-    }
+    updateFilteredStockItems(false);
+  }
 
-    for (StockItem item : this.stockItems) {
-      if (item.getProduct() == null) {
-        // invalidate products and stock items offline cache because products may have changed
-        SharedPreferences.Editor editPrefs = sharedPrefs.edit();
-        editPrefs.putString(PREF.DB_LAST_TIME_PRODUCTS, null);
-        editPrefs.putString(PREF.DB_LAST_TIME_STOCK_ITEMS, null);
-        editPrefs.apply();
-        continue;
-      }
+  public void updateFilteredStockItemsWithTopScroll() {
+    updateFilteredStockItems(true);
+  }
 
-      if (item.getProduct().getHideOnStockOverviewBoolean()) {
-        continue;
-      }
+  private void updateFilteredStockItems(boolean scrollUp) {
+    if (snapshot == null) {
+      return;
+    }
+    // everything the worker needs is read here, the snapshot itself is never modified
+    StockSnapshot snapshot = this.snapshot;
+    String searchInput = this.searchInput;
+    HashSet<Integer> searchResultProductIds = this.searchResultProductIds;
+    int status = filterChipLiveDataStatus.getStatus();
+    int productGroupFilterId = filterChipLiveDataProductGroup.getSelectedId();
+    int locationFilterId = filterChipLiveDataLocation.getSelectedId();
+    String sortMode = filterChipLiveDataSort.getSortMode();
+    boolean sortAscending = filterChipLiveDataSort.isSortAscending();
+    String groupingMode = filterChipLiveDataGrouping.getGroupingMode();
+    String currency = getCurrency();
+
+    if (listBuilder != null) {
+      listBuilder.dispose();
+    }
+    listBuilder = Single.fromCallable(() -> {
+      ArrayList<StockItem> filteredStockItems = filterStockItems(
+          snapshot, searchInput, searchResultProductIds,
+          status, productGroupFilterId, locationFilterId
+      );
+      return getGroupedListItems(
+          snapshot, filteredStockItems, currency, sortMode, sortAscending, groupingMode
+      );
+    })
+        .subscribeOn(Schedulers.computation())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(groupedListItems -> {
+          listBuilder = null;
+          if (groupedListItems.isEmpty()) {
+            InfoFullscreen info;
+            if (searchInput != null && !searchInput.isEmpty()) {
+              info = new InfoFullscreen(InfoFullscreen.INFO_NO_SEARCH_RESULTS);
+            } else if (status != FilterChipLiveDataStatusStock.STATUS_ALL
+                || productGroupFilterId != FilterChipLiveDataProductGroup.NO_FILTER
+                || locationFilterId != FilterChipLiveDataProductGroup.NO_FILTER
+            ) {
+              info = new InfoFullscreen(InfoFullscreen.INFO_NO_FILTER_RESULTS);
+            } else {
+              info = new InfoFullscreen(InfoFullscreen.INFO_EMPTY_STOCK);
+            }
+            infoFullscreenLive.setValue(info);
+          } else {
+            infoFullscreenLive.setValue(null);
+          }
+          displayedSnapshot = snapshot;
+          groupedListItemsLive.setValue(groupedListItems);
+          if (scrollUp) {
+            sendEvent(Event.SCROLL_UP);
+          }
+        }, error -> onError(error, TAG));
+  }
+
+  private ArrayList<GroupedListItem> getGroupedListItems(
+      StockSnapshot snapshot,
+      ArrayList<StockItem> stockItems,
+      String currency,
+      String sortMode,
+      boolean sortAscending,
+      String groupingMode
+  ) {
+    HashMap<String, Userfield> userfieldHashMap = snapshot.getUserfieldHashMap();
+    Userfield sortUserfield = sortMode.startsWith(Userfield.NAME_PREFIX)
+        ? userfieldHashMap.get(sortMode.substring(Userfield.NAME_PREFIX.length())) : null;
+    boolean sortGroupsByValue = groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_VALUE)
+        || groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_CALORIES)
+        || groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_MIN_STOCK_AMOUNT);
+    GroupingCache.Groups<StockItem> groups = groupingCache.group(
+        stockItems,
+        groupingMode + "|" + sortMode + "|" + sortAscending + "|" + (sortUserfield != null),
+        item -> getGroupName(snapshot, item, groupingMode),
+        groupNames -> {
+          if (sortGroupsByValue) {
+            SortUtil.sortStringsByValue(groupNames);
+          } else {
+            SortUtil.sortStringsByName(groupNames, true);
+          }
+        },
+        items -> sortStockItems(items, sortUserfield, sortMode, sortAscending),
+        null
+    );
 
-      boolean searchContainsItem = true;
-      if (searchInput != null && !searchInput.isEmpty()) {
-        String productName = item.getProduct().getName().toLowerCase();
-        searchContainsItem = productName.contains(searchInput);
-        if (!searchContainsItem) {
-          searchContainsItem = searchResultsFuzzy.contains(productName);
-        }
-      }
-      if (!searchContainsItem && productSearch == null && productBarcodeSearch == null) {
-        continue;
-      }
-      if (!searchContainsItem && productSearch == null
-          && productBarcodeSearch.getProductIdInt() != item.getProductId()) {
-        continue;
-      }
-      if (productSearch != null && productSearch.getId() != item.getProductId()) {
-        continue;
+    if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_NONE)) {
+      return new ArrayList<>(groups.getUngroupedItems());
+    }
+    ArrayList<GroupedListItem> groupedListItems = new ArrayList<>();
+    ArrayList<StockItem> ungroupedItems = groups.getUngroupedItems();
+    if (!ungroupedItems.isEmpty()) {
+      groupedListItems.add(new GroupHeader(getString(R.string.property_ungrouped)));
+      groupedListItems.addAll(ungroupedItems);
+    }
+    boolean isFirstGroup = true;
+    for (Map.Entry<String, ArrayList<StockItem>> group : groups.getGroups().entrySet()) {
+      String groupString;
+      if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_VALUE)) {
+        groupString = group.getKey() + " " + currency;
+      } else {
+        groupString = group.getKey();
       }
+      GroupHeader groupHeader = new GroupHeader(groupString);
+      groupHeader.setDisplayDivider(!ungroupedItems.isEmpty() || !isFirstGroup);
+      groupedListItems.add(groupHeader);
+      groupedListItems.addAll(group.getValue());
+      isFirstGroup = false;
+    }
+    return groupedListItems;
+  }
 
-      int productGroupFilterId = filterChipLiveDataProductGroup.getSelectedId();
-      if (productGroupFilterId != FilterChipLiveDataProductGroup.NO_FILTER
-          && NumUtil.isStringInt(item.getProduct().getProductGroupId())
-          && productGroupFilterId != Integer.parseInt(item.getProduct().getProductGroupId())
-          || productGroupFilterId != FilterChipLiveDataProductGroup.NO_FILTER
-          && !NumUtil.isStringInt(item.getProduct().getProductGroupId())
-      ) {
-        continue;
+  private String getGroupName(StockSnapshot snapshot, StockItem stockItem, String groupingMode) {
+    Product product = stockItem.getProduct();
+    String groupName = null;
+    if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_PRODUCT_GROUP)
+        && NumUtil.isStringInt(product.getProductGroupId())
+    ) {
+      int productGroupId = Integer.parseInt(product.getProductGroupId());
+      ProductGroup productGroup = snapshot.getProductGroupHashMap().get(productGroupId);
+      groupName = productGroup != null ? productGroup.getName() : null;
+    } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_VALUE)) {
+      groupName = NumUtil.trimPrice(stockItem.getValueDouble(), decimalPlacesPriceDisplay);
+    } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_CALORIES_PER_STOCK)) {
+      groupName = NumUtil.isStringDouble(product.getCalories()) ? product.getCalories() : null;
+    } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_CALORIES)) {
+      groupName = NumUtil.isStringDouble(product.getCalories())
+          ? NumUtil.trimAmount(NumUtil.toDouble(product.getCalories())
+          * stockItem.getAmountDouble(), maxDecimalPlacesAmount) : null;
+    } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_DUE_DATE)) {
+      groupName = stockItem.getBestBeforeDate();
+      if (groupName != null && !groupName.isEmpty()) {
+        groupName += "  " + dateUtil.getHumanForDaysFromNow(groupName);
       }
-      int locationFilterId = filterChipLiveDataLocation.getSelectedId();
-      if (locationFilterId != FilterChipLiveDataLocation.NO_FILTER) {
-        HashMap<Integer, StockLocation> stockLocationsForProductId
-            = stockLocationsHashMap.get(item.getProductId());
-        if (stockLocationsForProductId == null
-            || !stockLocationsForProductId.containsKey(locationFilterId)
-        ) {
-          continue;
-        }
+    } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_MIN_STOCK_AMOUNT)) {
+      groupName = product.getMinStockAmount();
+    } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_PARENT_PRODUCT)
+        && NumUtil.isStringInt(product.getParentProductId())) {
+      int productId = Integer.parseInt(product.getParentProductId());
+      Product parentProduct = snapshot.getProductHashMap().get(productId);
+      groupName = parentProduct != null ? parentProduct.getName() : null;
+    } else if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_DEFAULT_LOCATION)
+        && NumUtil.isStringInt(product.getLocationId())) {
+      int locationId = Integer.parseInt(product.getLocationId());
+      Location location = snapshot.getLocationHashMap().get(locationId);
+      groupName = location != null ? location.getName() : null;
+    } else if (groupingMode.startsWith(Userfield.NAME_PREFIX)) {
+      String userfieldName = groupingMode.substring(Userfield.NAME_PREFIX.length());
+      if (snapshot.getUserfieldHashMap().get(userfieldName) != null) {
+        groupName = product.getUserfields().get(userfieldName);
       }
+    }
+    return groupName;
+  }
+
+  private static void sortStockItems(
+      ArrayList<StockItem> stockItems,
+      Userfield sortUserfield,
+      String sortMode,
+      boolean sortAscending
+  ) {
+    if (sortMode.equals(SORT_DUE_DATE)) {
+      SortUtil.sortStockItemsByBBD(stockItems, sortAscending);
+    } else if (sortMode.equals(SORT_CREATED_TIMESTAMP)) {
+      SortUtil.sortStockItemsByCreatedTimestamp(stockItems, sortAscending);
+    } else if (sortUserfield != null) {
+      SortUtil.sortStockItemsByUserfieldValue(stockItems, sortUserfield, sortAscending);
+    } else {
+      SortUtil.sortStockItemsByName(stockItems, sortAscending);
+    }
+  }
 
-      MissingItem missingItem = productIdsMissingItems.get(item.getProductId());
-      boolean hasOwnStock = !item.getProduct().getNoOwnStockBoolean();
-      if (filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_ALL
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_NOT_FRESH
-          && (item.isItemDue() || item.isItemOverdue() || item.isItemExpired()) && hasOwnStock
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_DUE_SOON
-          && item.isItemDue() && hasOwnStock
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_OVERDUE
-          && item.isItemOverdue() && hasOwnStock
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_EXPIRED
-          && item.isItemExpired() && hasOwnStock
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_BELOW_MIN
-          && missingItem != null
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_IN_STOCK
-          && (missingItem == null || missingItem.getIsPartlyInStockBoolean())
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_OPENED
-          && item.getAmountOpenedDouble() > 0
-      ) {
-        filteredStockItems.add(item);
-      }
+  private static ArrayList<StockItem> filterStockItems(
+      StockSnapshot snapshot,
+      String searchInput,
+      HashSet<Integer> searchResultProductIds,
+      int status,
+      int productGroupFilterId,
+      int locationFilterId
+  ) {
+    // the chips are answered by the index, only the search is checked per item
+    FacetIndex<StockItem> index = snapshot.getStockIndex();
+    BitSet selection = index.select(StockSnapshot.FACET_HIDDEN, false);
+    if (status != FilterChipLiveDataStatusStock.STATUS_ALL) {
+      index.and(selection, StockSnapshot.FACET_STATUS, status);
+    }
+    if (productGroupFilterId != FilterChipLiveDataProductGroup.NO_FILTER) {
+      index.and(selection, StockSnapshot.FACET_PRODUCT_GROUP, productGroupFilterId);
+    }
+    if (locationFilterId != FilterChipLiveDataLocation.NO_FILTER) {
+      index.and(selection, StockSnapshot.FACET_LOCATION, locationFilterId);
+    }
+    if (searchInput == null || searchInput.isEmpty()) {
+      return index.getItems(selection);
     }
 
-    if (filteredStockItems.isEmpty()) {
-      InfoFullscreen info;
-      if (searchInput != null && !searchInput.isEmpty()) {
-        info = new InfoFullscreen(InfoFullscreen.INFO_NO_SEARCH_RESULTS);
-      } else if (filterChipLiveDataStatus.getStatus()
-          != FilterChipLiveDataStatusStock.STATUS_ALL
-          || filterChipLiveDataProductGroup.getSelectedId()
-          != FilterChipLiveDataProductGroup.NO_FILTER
-          || filterChipLiveDataLocation.getSelectedId()
-          != FilterChipLiveDataProductGroup.NO_FILTER
-      ) {
-        info = new InfoFullscreen(InfoFullscreen.INFO_NO_FILTER_RESULTS);
+    Product productSearch = null;
+    Grocycode grocycode = GrocycodeUtil.getGrocycode(searchInput);
+    if (grocycode != null && grocycode.isProduct()) {
+      productSearch = snapshot.getProductHashMap().get(grocycode.getObjectId());
+    }
+    List<StockItem> stockItems = index.getItems();
+    for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+      StockItem item = stockItems.get(i);
+      boolean matches;
+      if (productSearch != null) {
+        matches = productSearch.getId() == item.getProductId();
       } else {
-        info = new InfoFullscreen(InfoFullscreen.INFO_EMPTY_STOCK);
+        matches = snapshot.getProductNameLowerCase(i).contains(searchInput)
+            || searchResultProductIds.contains(item.getProductId());
+      }
+      if (!matches) {
+        selection.clear(i);
       }
-      infoFullscreenLive.setValue(info);
-    } else {
-      infoFullscreenLive.setValue(null);
     }
-
-    filteredStockItemsLive.setValue(filteredStockItems);
-  }
-
-  public void updateFilteredStockItemsWithTopScroll() {
-    updateFilteredStockItems();
-    sendEvent(Event.SCROLL_UP);
+    return index.getItems(selection);
   }
 
   public void performAction(String action, StockItem stockItem) {
@@ -489,9 +591,13 @@ public class StockOverviewViewModel extends BaseViewModel {
         Log.e(TAG, "consumeProduct: " + e);
       }
     }
-    dlHelper.postWithArray(
+    MutationOutbox.getInstance(getApplication()).postStockAction(
+        dlHelper,
+        PendingMutation.TYPE_CONSUME,
         grocyApi.consumeProduct(stockItem.getProductId()),
         body,
+        stockItem.getProductId(),
+        stockItem.getProduct().getName(),
         response -> {
           String transactionId = null;
           double amountConsumed = 0;
@@ -511,7 +617,7 @@ public class StockOverviewViewModel extends BaseViewModel {
               spoiled ? R.string.msg_consumed_spoiled : R.string.msg_consumed,
               NumUtil.trimAmount(amountConsumed, maxDecimalPlacesAmount),
               pluralUtil.getQuantityUnitPlural(
-                  quantityUnitHashMap,
+                  getQuantityUnitHashMap(),
                   stockItem.getProduct().getQuIdStockInt(),
                   amountConsumed
               ), stockItem.getProduct().getName()
@@ -544,6 +650,7 @@ public class StockOverviewViewModel extends BaseViewModel {
             );
           }
         },
+        () -> showSnackbar(new SnackbarMessage(getString(R.string.msg_stored_offline))),
         error -> {
           showNetworkErrorMessage(error);
           if (debug) {
@@ -563,9 +670,13 @@ public class StockOverviewViewModel extends BaseViewModel {
         Log.e(TAG, "openProduct: " + e);
       }
     }
-    dlHelper.postWithArray(
+    MutationOutbox.getInstance(getApplication()).postStockAction(
+        dlHelper,
+        PendingMutation.TYPE_OPEN,
         grocyApi.openProduct(stockItem.getProductId()),
         body,
+        stockItem.getProductId(),
+        stockItem.getProduct().getName(),
         response -> {
           String transactionId = null;
           double amountOpened = 0;
@@ -585,7 +696,7 @@ public class StockOverviewViewModel extends BaseViewModel {
               R.string.msg_opened,
               NumUtil.trimAmount(amountOpened, maxDecimalPlacesAmount),
               pluralUtil.getQuantityUnitPlural(
-                  quantityUnitHashMap,
+                  getQuantityUnitHashMap(),
                   stockItem.getProduct().getQuIdStockInt(),
                   amountOpened
               ), stockItem.getProduct().getName()
@@ -618,6 +729,7 @@ public class StockOverviewViewModel extends BaseViewModel {
             );
           }
         },
+        () -> showSnackbar(new SnackbarMessage(getString(R.string.msg_stored_offline))),
         error -> {
           showNetworkErrorMessage(error);
           if (debug) {
@@ -632,74 +744,69 @@ public class StockOverviewViewModel extends BaseViewModel {
     setIsSearchVisible(false);
   }
 
-  public MutableLiveData<ArrayList<StockItem>> getFilteredStockItemsLive() {
-    return filteredStockItemsLive;
+  public MutableLiveData<ArrayList<GroupedListItem>> getGroupedListItemsLive() {
+    return groupedListItemsLive;
   }
 
   public void updateSearchInput(String input) {
     this.searchInput = input.toLowerCase();
 
-    // Initialize suggestion list with max. capacity; growing is expensive.
-    searchResultsFuzzy = new ArrayList<>(products.size());
-    List<BoundExtractedResult<Product>> results = FuzzySearch.extractSorted(
-        this.searchInput,
-        products,
-        item -> item.getName().toLowerCase(),
-        70
-    );
-    for (BoundExtractedResult<Product> result : results) {
-      searchResultsFuzzy.add(result.getString());
-    }
-
+    // names, barcodes and descriptions are matched by the search index in the background
+    searchResultProductIds = new HashSet<>();
+    if (snapshot == null) return;
     updateFilteredStockItems();
+    if (this.searchInput.isEmpty()) {
+      productSearchRepository.cancelSearch();
+      return;
+    }
+    productSearchRepository.search(this.searchInput, SEARCH_RESULTS_LIMIT, (search, results) -> {
+      HashSet<Integer> productIds = new HashSet<>();
+      for (ProductSearch result : results) {
+        if (!result.isPending()) productIds.add(result.getProductId());
+      }
+      searchResultProductIds = productIds;
+      updateFilteredStockItems();
+    });
   }
 
   public ArrayList<Integer> getProductIdsMissingItems() {
-    return new ArrayList<>(productIdsMissingItems.keySet());
-  }
-
-  public HashMap<Integer, ProductGroup> getProductGroupHashMap() {
-    return productGroupHashMap;
+    return displayedSnapshot.getMissingItemsProductIds();
   }
 
   public HashMap<Integer, Product> getProductHashMap() {
-    return productHashMap;
+    return displayedSnapshot.getProductHashMap();
   }
 
   public HashMap<Integer, String> getProductAveragePriceHashMap() {
-    return productAveragePriceHashMap;
+    return displayedSnapshot.getProductAveragePriceHashMap();
   }
 
   public HashMap<Integer, ProductLastPurchased> getProductLastPurchasedHashMap() {
-    return productLastPurchasedHashMap;
+    return displayedSnapshot.getProductLastPurchasedHashMap();
   }
 
   public ArrayList<String> getShoppingListItemsProductIds() {
-    return shoppingListItemsProductIds;
-  }
-
-  public HashMap<Integer, Location> getLocationHashMap() {
-    return locationHashMap;
+    return displayedSnapshot.getShoppingListItemsProductIds();
   }
 
   public Location getLocationFromId(int id) {
-    return locationHashMap.get(id);
+    return displayedSnapshot.getLocationHashMap().get(id);
   }
 
   public HashMap<Integer, QuantityUnit> getQuantityUnitHashMap() {
-    return quantityUnitHashMap;
+    return displayedSnapshot.getQuantityUnitHashMap();
   }
 
   public List<QuantityUnitConversionResolved> getQuantityUnitConversions() {
-    return quantityUnitConversions;
+    return displayedSnapshot.getQuantityUnitConversions();
   }
 
   public QuantityUnit getQuantityUnitFromId(int id) {
-    return quantityUnitHashMap.get(id);
+    return displayedSnapshot.getQuantityUnitHashMap().get(id);
   }
 
   public HashMap<String, Userfield> getUserfieldHashMap() {
-    return userfieldHashMap;
+    return displayedSnapshot.getUserfieldHashMap();
   }
 
   public FilterChipLiveData.Listener getFilterChipLiveDataStatus() {
@@ -794,6 +901,19 @@ public class StockOverviewViewModel extends BaseViewModel {
   @Override
   protected void onCleared() {
     dlHelper.destroy();
+    productSearchRepository.cancelSearch();
+    if (databaseObserver != null) {
+      databaseObserver.dispose();
+    }
+    if (countsObserver != null) {
+      countsObserver.dispose();
+    }
+    if (snapshotBuilder != null) {
+      snapshotBuilder.dispose();
+    }
+    if (listBuilder != null) {
+      listBuilder.dispose();
+    }
     super.onCleared();
   }
 
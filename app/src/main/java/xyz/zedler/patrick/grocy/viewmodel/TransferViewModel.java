@@ -50,9 +50,11 @@ import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.QuickModeConfirmBotto
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StockEntriesBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.StockLocationsBottomSheet;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.MutationOutbox;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Location;
+import xyz.zedler.patrick.grocy.model.PendingMutation;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductDetails;
@@ -398,8 +400,13 @@ public class TransferViewModel extends BaseViewModel {
       return;
     }
 
-    dlHelper.postWithArray(grocyApi.transferProduct(product.getId()),
+    MutationOutbox.getInstance(getApplication()).postStockAction(
+        dlHelper,
+        PendingMutation.TYPE_TRANSFER,
+        grocyApi.transferProduct(product.getId()),
         body,
+        product.getId(),
+        product.getName(),
         response -> {
           // UNDO OPTION
           String transactionId = null;
@@ -439,6 +446,10 @@ public class TransferViewModel extends BaseViewModel {
           showSnackbar(snackbarMessage);
           sendEvent(Event.CONSUME_SUCCESS);
         },
+        () -> {
+          showSnackbar(new SnackbarMessage(getString(R.string.msg_stored_offline)));
+          sendEvent(Event.CONSUME_SUCCESS);
+        },
         error -> {
           showNetworkErrorMessage(error);
           if (debug) {
@@ -43,6 +43,7 @@ public class CustomJsonArrayRequest extends JsonRequest<JSONArray> {
   private final String url;
   private final String apiKey;
   private final String homeAssistantIngressSessionKey;
+  private String idempotencyKey;
 
   public CustomJsonArrayRequest(
       int method,
@@ -75,6 +76,17 @@ public class CustomJsonArrayRequest extends JsonRequest<JSONArray> {
     setRetryPolicy(policy);
   }
 
+  // Sent with every attempt of the same mutation, so a server or proxy can drop duplicates
+  public void setIdempotencyKey(@Nullable String idempotencyKey) {
+    this.idempotencyKey = idempotencyKey;
+    if (idempotencyKey != null) {
+      // grocy ignores the key, a retry after a timeout could apply the mutation twice
+      setRetryPolicy(new DefaultRetryPolicy(
+          getTimeoutMs(), 0, DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
+      ));
+    }
+  }
+
   @Override
   protected Response<JSONArray> parseNetworkResponse(NetworkResponse response) {
     try {
@@ -109,6 +121,9 @@ public class CustomJsonArrayRequest extends JsonRequest<JSONArray> {
     if (homeAssistantIngressSessionKey != null) {
       params.put("Cookie", "ingress_session=" + homeAssistantIngressSessionKey);
     }
+    if (idempotencyKey != null) {
+      params.put("Idempotency-Key", idempotencyKey);
+    }
     params.put("Content-Type", "application/json");
     return params.isEmpty() ? Collections.emptyMap() : params;
   }
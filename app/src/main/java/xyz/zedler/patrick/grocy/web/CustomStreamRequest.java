@@ -0,0 +1,191 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.web;
+
+import android.util.Base64;
+import androidx.annotation.Nullable;
+import com.android.volley.AuthFailureError;
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Header;
+import com.android.volley.NetworkResponse;
+import com.android.volley.NoConnectionError;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.RetryPolicy;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GET request whose response body is handed to a parser as a stream. It is not added to the
+ * request queue, because Volley reads every body into a byte array first. Instead it is
+ * executed with the HTTP stack of the queue on the calling thread, so the parser can read the
+ * body with a JsonReader and write the rows to the database while they arrive.
+ */
+public class CustomStreamRequest<T> extends Request<T> implements WireBytes.Counted {
+
+  private final String url;
+  private final String apiKey;
+  private final String homeAssistantIngressSessionKey;
+  private final ResponseParser<T> parser;
+  @Nullable
+  private WireBytes wireBytes;
+
+  public CustomStreamRequest(
+      String url,
+      String apiKey,
+      String homeAssistantIngressSessionKey,
+      ResponseParser<T> parser,
+      int timeoutSeconds,
+      String tag
+  ) {
+    super(Method.GET, url, null);
+    this.url = url;
+    this.apiKey = apiKey;
+    this.homeAssistantIngressSessionKey = homeAssistantIngressSessionKey;
+    this.parser = parser;
+    if (tag != null) {
+      setTag(tag);
+    }
+    setShouldCache(false);
+    RetryPolicy policy = new DefaultRetryPolicy(
+        timeoutSeconds * 1000,
+        DefaultRetryPolicy.DEFAULT_MAX_RETRIES,
+        DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
+    );
+    setRetryPolicy(policy);
+  }
+
+  /**
+   * Blocking, must be called from a background thread. Errors are thrown as the same
+   * VolleyError types a queued request would deliver.
+   */
+  public T execute(BaseHttpStack stack) throws VolleyError {
+    HttpResponse response;
+    try {
+      response = stack.executeRequest(this, Collections.emptyMap());
+    } catch (SocketTimeoutException e) {
+      throw new TimeoutError();
+    } catch (IOException e) {
+      throw new NoConnectionError(e);
+    }
+    Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (Header header : response.getHeaders()) {
+      headers.put(header.getName(), header.getValue());
+    }
+    if (wireBytes != null) {
+      wireBytes.setFromHeadersIfUnknown(headers);
+    }
+    int statusCode = response.getStatusCode();
+    try (InputStream content = response.getContent()) {
+      if (statusCode < 200 || statusCode > 299) {
+        NetworkResponse errorResponse = new NetworkResponse(
+            statusCode, readFully(content), false, 0, response.getHeaders()
+        );
+        if (statusCode == 401 || statusCode == 403) {
+          throw new AuthFailureError(errorResponse);
+        }
+        throw new ServerError(errorResponse);
+      }
+      return parser.parse(content, headers);
+    } catch (VolleyError e) {
+      throw e;
+    } catch (SocketTimeoutException e) {
+      throw new TimeoutError();
+    } catch (IOException e) {
+      throw new NoConnectionError(e);
+    } catch (Exception e) {
+      throw new ParseError(e);
+    }
+  }
+
+  public void setWireBytes(@Nullable WireBytes wireBytes) {
+    this.wireBytes = wireBytes;
+  }
+
+  @Nullable
+  @Override
+  public WireBytes getWireBytes() {
+    return wireBytes;
+  }
+
+  private static byte[] readFully(@Nullable InputStream content) throws IOException {
+    if (content == null) {
+      return new byte[0];
+    }
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int read;
+    while ((read = content.read(buffer)) != -1) {
+      outputStream.write(buffer, 0, read);
+    }
+    return outputStream.toByteArray();
+  }
+
+  @Override
+  protected Response<T> parseNetworkResponse(NetworkResponse response) {
+    // never added to the request queue
+    return Response.error(new ParseError(new UnsupportedOperationException()));
+  }
+
+  @Override
+  protected void deliverResponse(T response) {
+  }
+
+  @Override
+  public Map<String, String> getHeaders() {
+    Map<String, String> params = new HashMap<>();
+
+    Matcher matcher = Pattern.compile("(http|https)://(\\S+):(\\S+)@(\\S+)").matcher(url);
+    if (matcher.matches()) {
+      String user = matcher.group(2);
+      String password = matcher.group(3);
+      byte[] combination = (user + ":" + password).getBytes();
+      String encoded = Base64.encodeToString(combination, Base64.DEFAULT);
+      params.put("Authorization", "Basic " + encoded);
+    }
+    if (apiKey != null && !apiKey.isEmpty()) {
+      params.put("GROCY-API-KEY", apiKey);
+    }
+    if (homeAssistantIngressSessionKey != null) {
+      params.put("Cookie", "ingress_session=" + homeAssistantIngressSessionKey);
+    }
+    return params.isEmpty() ? Collections.emptyMap() : params;
+  }
+
+  public interface ResponseParser<T> {
+
+    // called on the thread which executes the request, content is null for empty bodies
+    T parse(@Nullable InputStream content, Map<String, String> headers) throws Exception;
+  }
+}
@@ -22,6 +22,7 @@ package xyz.zedler.patrick.grocy.web;
 import android.util.Base64;
 import androidx.annotation.Nullable;
 import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NetworkResponse;
 import com.android.volley.Response;
 import com.android.volley.RetryPolicy;
 import com.android.volley.toolbox.StringRequest;
@@ -32,12 +33,14 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 
-public class CustomStringRequest extends StringRequest {
+public class CustomStringRequest extends StringRequest implements WireBytes.Counted {
 
   private final String url;
   private final String apiKey;
   private final String homeAssistantIngressSessionKey;
   private final String userAgent;
+  @Nullable
+  private WireBytes wireBytes;
 
   public CustomStringRequest(
       int method,
@@ -168,6 +171,24 @@ public class CustomStringRequest extends StringRequest {
     );
   }
 
+  public void setWireBytes(@Nullable WireBytes wireBytes) {
+    this.wireBytes = wireBytes;
+  }
+
+  @Nullable
+  @Override
+  public WireBytes getWireBytes() {
+    return wireBytes;
+  }
+
+  @Override
+  protected Response<String> parseNetworkResponse(NetworkResponse response) {
+    if (wireBytes != null) {
+      wireBytes.setFromHeadersIfUnknown(response.headers);
+    }
+    return super.parseNetworkResponse(response);
+  }
+
   @Override
   public Map<String, String> getHeaders() {
     Map<String, String> params = new HashMap<>();
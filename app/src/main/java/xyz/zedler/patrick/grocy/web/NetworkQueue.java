@@ -16,25 +16,45 @@
  *
  * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
  */
-
 package xyz.zedler.patrick.grocy.web;
 
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import com.android.volley.RequestQueue;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnLoadingListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
 
+/**
+ * Runs QueueItems as a dependency graph. An item is started when all stages it depends on
+ * have finished (or are not part of this queue) and not more than maxParallelRequests items
+ * are running. Ready items with higher priority are started first.
+ */
 public class NetworkQueue {
 
-  private final ArrayList<QueueItem> queueItems;
+  public static final int DEFAULT_MAX_PARALLEL_REQUESTS = 4;
+
+  private final ArrayList<QueueItem> queueItems; // items not started yet
   private final OnQueueEmptyListener onQueueEmptyListener;
   private final OnMultiTypeErrorListener onErrorListener;
   private final OnLoadingListener onLoadingListener;
   private final RequestQueue requestQueue;
   private final String uuidQueue;
+  private final Set<Object> scheduledStageKeys;
+  private final Set<Object> finishedStageKeys;
+  private final ArrayList<StageTiming> stageTimings;
+  private OnStageFinishedListener onStageFinishedListener;
+  private int maxParallelRequests;
   private int requestsNotFinishedCount;
+  private int requestsRunningCount;
+  private int generation; // incremented on reset, callbacks of older generations are ignored
   private boolean isRunning; // state of queue
   private boolean isLoading; // state of "loading" circle
   private boolean realRequestsMade; // true if any real requests were made (not only QueueItemWithoutLoading in queue)
@@ -51,7 +71,13 @@ public class NetworkQueue {
     this.requestQueue = requestQueue;
     queueItems = new ArrayList<>();
     uuidQueue = UUID.randomUUID().toString();
+    scheduledStageKeys = new HashSet<>();
+    finishedStageKeys = new HashSet<>();
+    stageTimings = new ArrayList<>();
+    maxParallelRequests = DEFAULT_MAX_PARALLEL_REQUESTS;
     requestsNotFinishedCount = 0;
+    requestsRunningCount = 0;
+    generation = 0;
     isRunning = false;
     isLoading = false;
     realRequestsMade = false;
@@ -60,23 +86,37 @@ public class NetworkQueue {
   public NetworkQueue append(QueueItem... queueItems) {
     for (QueueItem queueItem : queueItems) {
       if (queueItem == null) continue;
-      this.queueItems.add(queueItem);
-      requestsNotFinishedCount++;
-      if (!(queueItem instanceof QueueItemWithoutLoading) && !realRequestsMade) {
-        realRequestsMade = true;
-      }
+      addQueueItem(queueItem);
     }
     return this;
   }
 
   public void appendWhileRunning(QueueItem queueItem) {
     if (queueItem == null) return;
-    this.queueItems.add(queueItem);
+    addQueueItem(queueItem);
+    executeQueueItems();
+  }
+
+  private void addQueueItem(@NonNull QueueItem queueItem) {
+    queueItem.appendedAt = SystemClock.elapsedRealtime();
+    queueItems.add(queueItem);
+    if (queueItem.stageKey != null) {
+      scheduledStageKeys.add(queueItem.stageKey);
+    }
     requestsNotFinishedCount++;
     if (!(queueItem instanceof QueueItemWithoutLoading) && !realRequestsMade) {
       realRequestsMade = true;
     }
-    executeQueueItems();
+  }
+
+  public NetworkQueue setMaxParallelRequests(int maxParallelRequests) {
+    this.maxParallelRequests = Math.max(1, maxParallelRequests);
+    return this;
+  }
+
+  public NetworkQueue setOnStageFinishedListener(@Nullable OnStageFinishedListener listener) {
+    this.onStageFinishedListener = listener;
+    return this;
   }
 
   public void start() {
@@ -85,6 +125,7 @@ public class NetworkQueue {
     } else {
       isRunning = true;
       isLoading = false;
+      stageTimings.clear();
     }
     if (queueItems.isEmpty()) {
       if (onLoadingListener != null) {
@@ -99,48 +140,104 @@ public class NetworkQueue {
   }
 
   private void executeQueueItems() {
-    if (queueItems.isEmpty() || requestsNotFinishedCount == 0) {
-      return;
+    while (!queueItems.isEmpty() && requestsRunningCount < maxParallelRequests) {
+      QueueItem queueItem = getNextReadyItem();
+      if (queueItem == null) {
+        if (requestsRunningCount > 0) {
+          return; // wait for dependencies to finish
+        }
+        // dependency cycle, start the remaining items anyway instead of waiting forever
+        queueItem = queueItems.get(0);
+      }
+      queueItems.remove(queueItem);
+      performQueueItem(queueItem);
     }
+  }
 
+  @Nullable
+  private QueueItem getNextReadyItem() {
+    QueueItem nextItem = null;
     for (QueueItem queueItem : queueItems) {
-      if (!(queueItem instanceof QueueItemWithoutLoading) && !isLoading
-          && onLoadingListener != null) {
-        // this prevents loading circle to appear when shopping mode updates data but nothing has
-        // changed on server. In this case, all QueueItems are null except for products because
-        // QuantityUnitConversions rely on it and are updated after products. So loading circle
-        // only appears if QueueItem is not QueueItemWithoutLoading, which is always the case
-        // except in the condition explained.
-        onLoadingListener.onLoadingChanged(true);
-        isLoading = true;
+      if (!isReady(queueItem)) continue;
+      if (nextItem == null || queueItem.priority > nextItem.priority) {
+        nextItem = queueItem;
       }
-      queueItem.perform(response -> {
-        requestsNotFinishedCount--;
-        if (requestsNotFinishedCount > 0) {
-          return;
-        }
-        isRunning = false;
-        isLoading = false;
-        if (onLoadingListener != null) {
-          onLoadingListener.onLoadingChanged(false);
-        }
-        if (onQueueEmptyListener != null) {
-          onQueueEmptyListener.onQueueEmpty(realRequestsMade); // TODO: Test it
-        }
-        reset(false);
-      }, error -> {
-        isRunning = false;
-        isLoading = false;
-        if (onLoadingListener != null) {
-          onLoadingListener.onLoadingChanged(false);
-        }
-        if (onErrorListener != null) {
-          onErrorListener.onError(error);
-        }
-        reset(true);
-      }, uuidQueue);
     }
-    queueItems.clear();
+    return nextItem;
+  }
+
+  private boolean isReady(QueueItem queueItem) {
+    for (Object dependency : queueItem.dependencies) {
+      if (dependency.equals(queueItem.stageKey)) continue;
+      if (scheduledStageKeys.contains(dependency) && !finishedStageKeys.contains(dependency)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void performQueueItem(QueueItem queueItem) {
+    if (!(queueItem instanceof QueueItemWithoutLoading) && !isLoading
+        && onLoadingListener != null) {
+      // this prevents loading circle to appear when shopping mode updates data but nothing has
+      // changed on server. In this case, all QueueItems are null except for products because
+      // QuantityUnitConversions rely on it and are updated after products. So loading circle
+      // only appears if QueueItem is not QueueItemWithoutLoading, which is always the case
+      // except in the condition explained.
+      onLoadingListener.onLoadingChanged(true);
+      isLoading = true;
+    }
+    int itemGeneration = generation;
+    long startedAt = SystemClock.elapsedRealtime();
+    requestsRunningCount++;
+    queueItem.perform(response -> {
+      if (itemGeneration != generation) return;
+      requestsRunningCount--;
+      requestsNotFinishedCount--;
+      onStageFinished(queueItem, startedAt, true);
+      if (requestsNotFinishedCount > 0) {
+        executeQueueItems();
+        return;
+      }
+      isRunning = false;
+      isLoading = false;
+      if (onLoadingListener != null) {
+        onLoadingListener.onLoadingChanged(false);
+      }
+      if (onQueueEmptyListener != null) {
+        onQueueEmptyListener.onQueueEmpty(realRequestsMade); // TODO: Test it
+      }
+      reset(false);
+    }, error -> {
+      if (itemGeneration != generation) return;
+      onStageFinished(queueItem, startedAt, false);
+      isRunning = false;
+      isLoading = false;
+      if (onLoadingListener != null) {
+        onLoadingListener.onLoadingChanged(false);
+      }
+      if (onErrorListener != null) {
+        onErrorListener.onError(error);
+      }
+      reset(true);
+    }, uuidQueue);
+  }
+
+  private void onStageFinished(QueueItem queueItem, long startedAt, boolean success) {
+    if (queueItem.stageKey != null) {
+      finishedStageKeys.add(queueItem.stageKey);
+    }
+    long finishedAt = SystemClock.elapsedRealtime();
+    StageTiming timing = new StageTiming(
+        queueItem.getStageName(),
+        startedAt - queueItem.appendedAt,
+        finishedAt - startedAt,
+        success
+    );
+    stageTimings.add(timing);
+    if (onStageFinishedListener != null) {
+      onStageFinishedListener.onStageFinished(timing);
+    }
   }
 
   public int getSize() {
@@ -151,16 +248,31 @@ public class NetworkQueue {
     return requestsNotFinishedCount == 0;
   }
 
+  // Timings of all stages finished since the last start
+  public List<StageTiming> getStageTimings() {
+    return Collections.unmodifiableList(new ArrayList<>(stageTimings));
+  }
+
   public void reset(boolean cancelAll) {
     if (cancelAll) {
       requestQueue.cancelAll(uuidQueue);
     }
+    generation++;
     queueItems.clear();
+    scheduledStageKeys.clear();
+    finishedStageKeys.clear();
     requestsNotFinishedCount = 0;
+    requestsRunningCount = 0;
     realRequestsMade = false;
   }
 
   public abstract static class QueueItem {
+
+    private Object stageKey;
+    private int priority;
+    private final Set<Object> dependencies = new HashSet<>();
+    private long appendedAt;
+
     public abstract void perform(
         OnStringResponseListener responseListener,
         OnMultiTypeErrorListener errorListener,
@@ -171,13 +283,88 @@ public class NetworkQueue {
       // UUID is for cancelling the requests; should be uuidHelper from above
       perform(null, null, uuid);
     }
+
+    // Key other items can depend on, e.g. the entity class which is downloaded
+    public QueueItem setStageKey(@Nullable Object stageKey) {
+      this.stageKey = stageKey;
+      return this;
+    }
+
+    @Nullable
+    public Object getStageKey() {
+      return stageKey;
+    }
+
+    // Ready items with higher priority are started first
+    public QueueItem setPriority(int priority) {
+      this.priority = priority;
+      return this;
+    }
+
+    // Item is started after the items with these stage keys have finished
+    public QueueItem dependsOn(Object... stageKeys) {
+      Collections.addAll(dependencies, stageKeys);
+      return this;
+    }
+
+    String getStageName() {
+      if (stageKey instanceof Class) {
+        return ((Class<?>) stageKey).getSimpleName();
+      } else if (stageKey != null) {
+        return stageKey.toString();
+      }
+      return getClass().getName();
+    }
   }
 
   public abstract static class QueueItemWithoutLoading extends QueueItem {
 
   }
 
+  public static class StageTiming {
+
+    private final String name;
+    private final long waitMillis;
+    private final long durationMillis;
+    private final boolean success;
+
+    public StageTiming(String name, long waitMillis, long durationMillis, boolean success) {
+      this.name = name;
+      this.waitMillis = waitMillis;
+      this.durationMillis = durationMillis;
+      this.success = success;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    // time between appending the item and starting it
+    public long getWaitMillis() {
+      return waitMillis;
+    }
+
+    public long getDurationMillis() {
+      return durationMillis;
+    }
+
+    public boolean isSuccess() {
+      return success;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+      return name + " (wait " + waitMillis + " ms, run " + durationMillis + " ms"
+          + (success ? "" : ", failed") + ")";
+    }
+  }
+
   public interface OnQueueEmptyListener {
     void onQueueEmpty(boolean updated);
   }
+
+  public interface OnStageFinishedListener {
+    void onStageFinished(StageTiming timing);
+  }
 }
@@ -0,0 +1,154 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.web;
+
+import androidx.annotation.NonNull;
+import com.android.volley.AuthFailureError;
+import com.android.volley.Header;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Volley transport based on OkHttp. All requests share the connection pool of the client,
+ * connections to the server are reused and multiplexed with HTTP/2 if the server supports it.
+ * Responses are requested with gzip and decompressed transparently.
+ */
+public class OkHttpStack extends BaseHttpStack {
+
+  private final OkHttpClient client;
+
+  public OkHttpStack(OkHttpClient client) {
+    this.client = client;
+  }
+
+  @Override
+  public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+      throws IOException, AuthFailureError {
+    int timeoutMs = request.getTimeoutMs();
+    // newBuilder shares connection pool and dispatcher with the base client
+    OkHttpClient.Builder clientBuilder = client.newBuilder()
+        .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+        .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+        .writeTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    WireBytes wireBytes = request instanceof WireBytes.Counted
+        ? ((WireBytes.Counted) request).getWireBytes() : null;
+    if (wireBytes != null) {
+      clientBuilder.eventListener(new EventListener() {
+        @Override
+        public void responseBodyEnd(@NonNull Call call, long byteCount) {
+          // counted before the gzip decompression
+          wireBytes.set(byteCount);
+        }
+      });
+    }
+    OkHttpClient requestClient = clientBuilder.build();
+
+    okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(request.getUrl());
+    for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+      builder.header(header.getKey(), header.getValue());
+    }
+    for (Map.Entry<String, String> header : additionalHeaders.entrySet()) {
+      builder.header(header.getKey(), header.getValue());
+    }
+    setMethodAndBody(builder, request);
+
+    Response response = requestClient.newCall(builder.build()).execute();
+    List<Header> headers = new ArrayList<>();
+    Headers responseHeaders = response.headers();
+    for (int i = 0; i < responseHeaders.size(); i++) {
+      headers.add(new Header(responseHeaders.name(i), responseHeaders.value(i)));
+    }
+    ResponseBody body = response.body();
+    if (body == null) {
+      response.close();
+      return new HttpResponse(response.code(), headers);
+    }
+    // content length is -1 if unknown, e.g. for decompressed responses
+    return new HttpResponse(
+        response.code(), headers, (int) body.contentLength(), body.byteStream()
+    );
+  }
+
+  private static void setMethodAndBody(okhttp3.Request.Builder builder, Request<?> request)
+      throws AuthFailureError {
+    switch (request.getMethod()) {
+      case Request.Method.DEPRECATED_GET_OR_POST:
+        byte[] postBody = request.getBody();
+        if (postBody != null) {
+          builder.post(createRequestBody(request, postBody));
+        } else {
+          builder.get();
+        }
+        break;
+      case Request.Method.GET:
+        builder.get();
+        break;
+      case Request.Method.DELETE:
+        byte[] deleteBody = request.getBody();
+        if (deleteBody != null) {
+          builder.delete(createRequestBody(request, deleteBody));
+        } else {
+          builder.delete();
+        }
+        break;
+      case Request.Method.POST:
+        builder.post(createRequestBody(request, request.getBody()));
+        break;
+      case Request.Method.PUT:
+        builder.put(createRequestBody(request, request.getBody()));
+        break;
+      case Request.Method.HEAD:
+        builder.head();
+        break;
+      case Request.Method.OPTIONS:
+        builder.method("OPTIONS", null);
+        break;
+      case Request.Method.TRACE:
+        builder.method("TRACE", null);
+        break;
+      case Request.Method.PATCH:
+        builder.patch(createRequestBody(request, request.getBody()));
+        break;
+      default:
+        throw new IllegalStateException("Unknown method type.");
+    }
+  }
+
+  private static RequestBody createRequestBody(Request<?> request, byte[] body) {
+    // POST, PUT and PATCH always need a body in OkHttp, even if it is empty
+    return RequestBody.create(
+        body != null ? body : new byte[0],
+        MediaType.parse(request.getBodyContentType())
+    );
+  }
+}
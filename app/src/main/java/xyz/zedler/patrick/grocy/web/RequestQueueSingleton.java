@@ -25,6 +25,7 @@ import androidx.preference.PreferenceManager;
 import com.android.volley.Cache;
 import com.android.volley.Network;
 import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.BaseHttpStack;
 import com.android.volley.toolbox.BasicNetwork;
 import com.android.volley.toolbox.DiskBasedCache;
 import com.android.volley.toolbox.HurlStack;
@@ -33,16 +34,23 @@ import java.net.InetAddress;
 import java.net.Socket;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.NETWORK;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 
 public class RequestQueueSingleton {
 
   private static RequestQueueSingleton instance;
+  private static OkHttpClient okHttpClient;
   private RequestQueue requestQueue;
+  private BaseHttpStack httpStack;
   private static Context ctx;
 
   private RequestQueueSingleton(Context context) {
@@ -72,10 +80,13 @@ public class RequestQueueSingleton {
     SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(ctx);
     boolean useTor = sharedPrefs.getBoolean(NETWORK.TOR, SETTINGS_DEFAULT.NETWORK.TOR);
     boolean useProxy = sharedPrefs.getBoolean(NETWORK.PROXY, SETTINGS_DEFAULT.NETWORK.PROXY);
+    boolean useOkHttp = sharedPrefs.getBoolean(NETWORK.OKHTTP, SETTINGS_DEFAULT.NETWORK.OKHTTP);
 
-    HurlStack stack;
+    BaseHttpStack stack;
     if (useTor || useProxy) {
       stack = new ProxyHurlStack(sharedPrefs, useTor);
+    } else if (useOkHttp) {
+      stack = new OkHttpStack(getOkHttpClient());
     } else {
       try {
         stack = new HurlStack(null, new TLSSocketFactory());
@@ -83,11 +94,29 @@ public class RequestQueueSingleton {
         stack = new HurlStack();
       }
     }
+    httpStack = stack;
     Network network = new BasicNetwork(stack);
     requestQueue = new RequestQueue(cache, network, 6);
     requestQueue.start();
   }
 
+  // stack of the current request queue, for requests which read the response as a stream
+  public BaseHttpStack getHttpStack() {
+    getRequestQueue();
+    return httpStack;
+  }
+
+  // one client for the whole app, so new request queues keep the pooled connections
+  static synchronized OkHttpClient getOkHttpClient() {
+    if (okHttpClient == null) {
+      okHttpClient = new OkHttpClient.Builder()
+          .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+          .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+          .build();
+    }
+    return okHttpClient;
+  }
+
   private static class TLSSocketFactory extends SSLSocketFactory {
 
     private final SSLSocketFactory internalSSLSocketFactory;
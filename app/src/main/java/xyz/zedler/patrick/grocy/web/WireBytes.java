@@ -0,0 +1,62 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.web;
+
+import androidx.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * Size of a response body as it was transferred, before it was decompressed. OkHttpStack
+ * counts it for every request which carries one. The HttpURLConnection stacks decompress
+ * transparently and remove the Content-Length header in that case, so for them it is only
+ * known for uncompressed responses and is -1 otherwise.
+ */
+public class WireBytes {
+
+  private volatile long bytes = -1;
+
+  public long get() {
+    return bytes;
+  }
+
+  void set(long bytes) {
+    this.bytes = bytes;
+  }
+
+  // fallback for stacks which don't count the body
+  void setFromHeadersIfUnknown(@Nullable Map<String, String> headers) {
+    if (bytes != -1 || headers == null) {
+      return;
+    }
+    String contentLength = headers.get("Content-Length");
+    if (contentLength == null) {
+      return;
+    }
+    try {
+      bytes = Long.parseLong(contentLength.trim());
+    } catch (NumberFormatException ignored) {
+    }
+  }
+
+  public interface Counted {
+
+    @Nullable
+    WireBytes getWireBytes();
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.worker;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.preference.PreferenceManager;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import xyz.zedler.patrick.grocy.Constants.PREF;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.model.Location;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductAveragePrice;
+import xyz.zedler.patrick.grocy.model.ProductBarcode;
+import xyz.zedler.patrick.grocy.model.ProductGroup;
+import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
+import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
+import xyz.zedler.patrick.grocy.model.ShoppingList;
+import xyz.zedler.patrick.grocy.model.ShoppingListItem.ShoppingListItemWithSync;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StockLocation;
+import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.model.Userfield;
+import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
+
+/**
+ * Keeps the database warm in the background, so stock overview and shopping mode can show
+ * fresh data without waiting for the network. Uses the same pipeline as the screens
+ * (DownloadHelper.updateData), so unchanged tables are skipped there as well.
+ */
+public class SyncWorker extends Worker {
+
+  private static final String TAG = SyncWorker.class.getSimpleName();
+
+  private static final String WORK_PERIODIC = "sync_periodic";
+  private static final String WORK_ON_CONNECTIVITY = "sync_on_connectivity";
+  private static final long SYNC_INTERVAL_MINUTES = 30;
+  private static final long SYNC_TIMEOUT_MINUTES = 5;
+
+  // minutes after which the data of a type is stale and refreshed by the next run
+  private static final Map<Class<?>, Long> MAX_AGE_MINUTES = new LinkedHashMap<>();
+
+  static {
+    MAX_AGE_MINUTES.put(StockItem.class, SYNC_INTERVAL_MINUTES);
+    MAX_AGE_MINUTES.put(VolatileItem.class, SYNC_INTERVAL_MINUTES);
+    MAX_AGE_MINUTES.put(StockLocation.class, SYNC_INTERVAL_MINUTES);
+    MAX_AGE_MINUTES.put(ShoppingListItemWithSync.class, SYNC_INTERVAL_MINUTES);
+    MAX_AGE_MINUTES.put(ShoppingList.class, SYNC_INTERVAL_MINUTES);
+    MAX_AGE_MINUTES.put(Product.class, 120L);
+    MAX_AGE_MINUTES.put(ProductBarcode.class, 120L);
+    MAX_AGE_MINUTES.put(ProductLastPurchased.class, 120L);
+    MAX_AGE_MINUTES.put(ProductAveragePrice.class, 120L);
+    MAX_AGE_MINUTES.put(QuantityUnit.class, 360L);
+    MAX_AGE_MINUTES.put(QuantityUnitConversionResolved.class, 360L);
+    MAX_AGE_MINUTES.put(Location.class, 360L);
+    MAX_AGE_MINUTES.put(ProductGroup.class, 360L);
+    MAX_AGE_MINUTES.put(Store.class, 360L);
+    MAX_AGE_MINUTES.put(Userfield.class, 360L);
+  }
+
+  public SyncWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+    super(context, workerParams);
+  }
+
+  @NonNull
+  @Override
+  public Result doWork() {
+    SharedPreferences sharedPrefs = PreferenceManager
+        .getDefaultSharedPreferences(getApplicationContext());
+    if (PrefsUtil.isServerUrlEmpty(sharedPrefs)) {
+      return Result.success();
+    }
+    boolean debug = PrefsUtil.isDebuggingEnabled(sharedPrefs);
+
+    long now = System.currentTimeMillis();
+    List<Class<?>> staleTypes = new ArrayList<>();
+    for (Map.Entry<Class<?>, Long> entry : MAX_AGE_MINUTES.entrySet()) {
+      long lastSync = sharedPrefs.getLong(getTimePrefKey(entry.getKey()), 0);
+      if (now - lastSync >= TimeUnit.MINUTES.toMillis(entry.getValue())) {
+        staleTypes.add(entry.getKey());
+      }
+    }
+    int pendingMutations = AppDatabase.getAppDatabase(getApplicationContext())
+        .pendingMutationDao().countPendingMutations().blockingGet();
+    if (pendingMutations > 0) {
+      // offline changes are replayed by updateData, afterwards the stock has to be refreshed
+      for (Class<?> type : new Class<?>[]{StockItem.class, VolatileItem.class,
+          StockLocation.class}) {
+        if (!staleTypes.contains(type)) {
+          staleTypes.add(type);
+        }
+      }
+    }
+    if (staleTypes.isEmpty()) {
+      return Result.success();
+    }
+
+    // DownloadHelper and its queues are main thread only
+    Handler handler = new Handler(Looper.getMainLooper());
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicBoolean success = new AtomicBoolean(false);
+    AtomicReference<DownloadHelper> dlHelper = new AtomicReference<>();
+    handler.post(() -> {
+      dlHelper.set(new DownloadHelper(getApplicationContext(), TAG));
+      dlHelper.get().updateData(
+          updated -> {
+            success.set(true);
+            latch.countDown();
+          },
+          error -> {
+            if (debug) {
+              Log.e(TAG, "doWork: " + error);
+            }
+            latch.countDown();
+          },
+          false,
+          false,
+          staleTypes.toArray(new Class<?>[0])
+      );
+    });
+
+    try {
+      if (!latch.await(SYNC_TIMEOUT_MINUTES, TimeUnit.MINUTES) && debug) {
+        Log.e(TAG, "doWork: timeout");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      handler.post(() -> {
+        if (dlHelper.get() != null) {
+          dlHelper.get().destroy();
+        }
+      });
+    }
+
+    if (!success.get()) {
+      return Result.retry();
+    }
+    SharedPreferences.Editor editPrefs = sharedPrefs.edit();
+    for (Class<?> type : staleTypes) {
+      editPrefs.putLong(getTimePrefKey(type), now);
+    }
+    editPrefs.apply();
+    if (debug) {
+      Log.i(TAG, "doWork: synced " + staleTypes.size() + " types");
+    }
+    return Result.success();
+  }
+
+  private static String getTimePrefKey(Class<?> type) {
+    return PREF.BACKGROUND_SYNC_TIME_PREFIX + type.getSimpleName();
+  }
+
+  private static Constraints getConstraints() {
+    return new Constraints.Builder()
+        .setRequiredNetworkType(NetworkType.CONNECTED)
+        .setRequiresBatteryNotLow(true)
+        .build();
+  }
+
+  // Periodic sync, keeps an already scheduled one
+  public static void schedulePeriodicSync(Context context) {
+    PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+        SyncWorker.class, SYNC_INTERVAL_MINUTES, TimeUnit.MINUTES
+    ).setConstraints(getConstraints()).build();
+    WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+        WORK_PERIODIC, ExistingPeriodicWorkPolicy.KEEP, request
+    );
+  }
+
+  // One-time sync which runs as soon as a network connection is available
+  public static void scheduleSyncOnConnectivity(Context context) {
+    OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(SyncWorker.class)
+        .setConstraints(getConstraints())
+        .build();
+    WorkManager.getInstance(context).enqueueUniqueWork(
+        WORK_ON_CONNECTIVITY, ExistingWorkPolicy.KEEP, request
+    );
+  }
+
+  public static void cancelSync(Context context) {
+    WorkManager.getInstance(context).cancelUniqueWork(WORK_PERIODIC);
+    WorkManager.getInstance(context).cancelUniqueWork(WORK_ON_CONNECTIVITY);
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.StockEntry;
+
+/**
+ * Compares the key based sorts of SortUtil with the comparators they replaced, which created a
+ * collator or parsed both dates on every comparison. Both have to produce the same order, the
+ * timings are printed for 10k stock entries.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SortUtilBenchmarkTest {
+
+  private final static int ITEM_COUNT = 10_000;
+  private final static int WARMUP_RUNS = 5;
+  private final static int MEASURED_RUNS = 10;
+
+  private final HashMap<Integer, Product> productHashMap = new HashMap<>();
+  private final ArrayList<StockEntry> stockEntries = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    Random random = new Random(42);
+    String[] words = {"Äpfel", "apples", "Milch", "milk", "Brot", "bread", "Öl", "oil",
+        "Zucker", "sugar", "Éclair", "eggs", "Joghurt", "yogurt", "Käse", "cheese"};
+    for (int i = 0; i < ITEM_COUNT; i++) {
+      Product product = new Product();
+      product.setName(words[random.nextInt(words.length)] + " "
+          + words[random.nextInt(words.length)] + " " + random.nextInt(1000));
+      productHashMap.put(i, product);
+
+      StockEntry stockEntry = new StockEntry();
+      // some entries point to unknown products or have no date, those sort first
+      stockEntry.setProductId(random.nextInt(20) == 0 ? -1 : i);
+      stockEntry.setBestBeforeDate(random.nextInt(20) == 0 ? null : String.format(
+          Locale.ENGLISH, "20%02d-%02d-%02d",
+          20 + random.nextInt(10), 1 + random.nextInt(12), 1 + random.nextInt(28)
+      ));
+      stockEntries.add(stockEntry);
+    }
+  }
+
+  @Test
+  public void sortByName() {
+    for (boolean ascending : new boolean[]{true, false}) {
+      List<StockEntry> expected = new ArrayList<>(stockEntries);
+      sortByNameWithComparator(expected, ascending);
+      List<StockEntry> actual = new ArrayList<>(stockEntries);
+      SortUtil.sortStockEntriesByName(actual, productHashMap, ascending);
+      assertSameOrder(expected, actual);
+    }
+
+    long comparatorNanos = measure(items -> sortByNameWithComparator(items, true));
+    long keyNanos = measure(
+        items -> SortUtil.sortStockEntriesByName(items, productHashMap, true)
+    );
+    report("sortStockEntriesByName", comparatorNanos, keyNanos);
+  }
+
+  @Test
+  public void sortByDueDate() {
+    for (boolean ascending : new boolean[]{true, false}) {
+      List<StockEntry> expected = new ArrayList<>(stockEntries);
+      sortByDueDateWithComparator(expected, ascending);
+      List<StockEntry> actual = new ArrayList<>(stockEntries);
+      SortUtil.sortStockEntriesByDueDate(actual, ascending);
+      assertSameOrder(expected, actual);
+    }
+
+    long comparatorNanos = measure(items -> sortByDueDateWithComparator(items, true));
+    long keyNanos = measure(items -> SortUtil.sortStockEntriesByDueDate(items, true));
+    report("sortStockEntriesByDueDate", comparatorNanos, keyNanos);
+  }
+
+  private interface Sort {
+
+    void sort(List<StockEntry> items);
+  }
+
+  // median of the measured runs, every run sorts a fresh copy of the unsorted entries
+  private long measure(Sort sort) {
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      sort.sort(new ArrayList<>(stockEntries));
+    }
+    long[] nanos = new long[MEASURED_RUNS];
+    for (int i = 0; i < MEASURED_RUNS; i++) {
+      List<StockEntry> items = new ArrayList<>(stockEntries);
+      long startedAt = System.nanoTime();
+      sort.sort(items);
+      nanos[i] = System.nanoTime() - startedAt;
+    }
+    Arrays.sort(nanos);
+    return nanos[MEASURED_RUNS / 2];
+  }
+
+  // StockEntry.equals compares values, the sorted entries have to be the same objects
+  private static void assertSameOrder(List<StockEntry> expected, List<StockEntry> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertSame(expected.get(i), actual.get(i));
+    }
+  }
+
+  private static void report(String name, long comparatorNanos, long keyNanos) {
+    System.out.printf(
+        Locale.ENGLISH, "%s, %d items: comparator %.1f ms, keys %.1f ms, %.1fx%n",
+        name, ITEM_COUNT, comparatorNanos / 1e6, keyNanos / 1e6,
+        (double) comparatorNanos / keyNanos
+    );
+  }
+
+  private void sortByNameWithComparator(List<StockEntry> items, boolean ascending) {
+    Locale locale = LocaleUtil.getLocale();
+    Collections.sort(items, (entry1, entry2) -> {
+      Product product1 = productHashMap.get((ascending ? entry1 : entry2).getProductId());
+      Product product2 = productHashMap.get((ascending ? entry2 : entry1).getProductId());
+      if (product1 == null && product2 == null) {
+        return 0;
+      } else if (product1 == null) {
+        return -1;
+      } else if (product2 == null) {
+        return 1;
+      }
+      return Collator.getInstance(locale).compare(
+          product1.getName().toLowerCase(),
+          product2.getName().toLowerCase()
+      );
+    });
+  }
+
+  private static void sortByDueDateWithComparator(List<StockEntry> items, boolean ascending) {
+    Collections.sort(items, (item1, item2) -> {
+      String bbd1 = (ascending ? item1 : item2).getBestBeforeDate();
+      String bbd2 = (ascending ? item2 : item1).getBestBeforeDate();
+      if (bbd1 == null && bbd2 == null) {
+        return 0;
+      } else if (bbd1 == null) {
+        return -1;
+      } else if (bbd2 == null) {
+        return 1;
+      }
+      return DateUtil.getDate(bbd1).compareTo(DateUtil.getDate(bbd2));
+    });
+  }
+}